@@ -0,0 +1,182 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package automata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import acceptance.AcceptanceOmega;
+import prism.PrismNotSupportedException;
+
+/**
+ * Transition function of a deterministic automaton with BitSet edge labels,
+ * compiled for fast lookup.
+ * <br>
+ * Letters (sets of APs) are encoded as integers: bit k is set iff
+ * the k-th AP in the AP list of the DA holds. If there are few enough APs,
+ * the transition function is stored as a dense table indexed by DA state and letter;
+ * otherwise, a hash map from letters to successors is used for each DA state.
+ */
+public class DATransitionTable
+{
+	/** Maximum number of APs supported (so that letters fit into an int) */
+	public static final int MAX_APS = 30;
+	/** Maximum number of entries for which a dense table is used */
+	private static final long MAX_DENSE_ENTRIES = 1L << 24;
+
+	/** Number of DA states */
+	private int daSize;
+	/** Number of APs */
+	private int numAPs;
+	/** Dense table: successor for each DA state and letter (-1 if none); or null */
+	private int[][] table;
+	/** Sparse table: successor for each letter, for each DA state (used if table is null) */
+	private List<Map<Integer, Integer>> sparse;
+
+	/**
+	 * Compile the transition function of a DA.
+	 * @param da The DA (edge labels are BitSets over AP indices)
+	 */
+	public DATransitionTable(DA<BitSet, ? extends AcceptanceOmega> da) throws PrismNotSupportedException
+	{
+		daSize = da.size();
+		numAPs = da.getAPList().size();
+		if (numAPs > MAX_APS) {
+			throw new PrismNotSupportedException("Deterministic automaton has too many atomic propositions (" + numAPs + ", maximum is " + MAX_APS + ")");
+		}
+		int numLetters = 1 << numAPs;
+		if ((long) daSize * numLetters <= MAX_DENSE_ENTRIES) {
+			table = new int[daSize][numLetters];
+			for (int q = 0; q < daSize; q++) {
+				Arrays.fill(table[q], -1);
+				for (int j = 0, n = da.getNumEdges(q); j < n; j++) {
+					table[q][letterOf(da.getEdgeLabel(q, j))] = da.getEdgeDest(q, j);
+				}
+			}
+		} else {
+			sparse = new ArrayList<Map<Integer, Integer>>(daSize);
+			for (int q = 0; q < daSize; q++) {
+				Map<Integer, Integer> edges = new HashMap<Integer, Integer>();
+				for (int j = 0, n = da.getNumEdges(q); j < n; j++) {
+					edges.put(letterOf(da.getEdgeLabel(q, j)), da.getEdgeDest(q, j));
+				}
+				sparse.add(edges);
+			}
+		}
+	}
+
+	/**
+	 * Check whether the transition function of a DA can be compiled,
+	 * i.e., whether it has at most {@link #MAX_APS} APs.
+	 * If not, edges can be looked up by label instead,
+	 * see {@link #getEdgeDestByLabel(DA, List, int, int, BitSet)}.
+	 */
+	public static boolean isSupported(DA<BitSet, ? extends AcceptanceOmega> da)
+	{
+		return da.getAPList().size() <= MAX_APS;
+	}
+
+	/**
+	 * Get the number of APs of the DA.
+	 */
+	public int getNumAPs()
+	{
+		return numAPs;
+	}
+
+	/**
+	 * Get the destination of the edge from DA state q with the given letter.
+	 * Returns -1 if no such edge exists.
+	 */
+	public int getEdgeDest(int q, int letter)
+	{
+		if (table != null) {
+			return table[q][letter];
+		}
+		Integer dest = sparse.get(q).get(letter);
+		return dest == null ? -1 : dest;
+	}
+
+	/**
+	 * Encode a letter, given as a BitSet over AP indices, as an integer.
+	 */
+	public static int letterOf(BitSet label)
+	{
+		int letter = 0;
+		for (int k = label.nextSetBit(0); k >= 0; k = label.nextSetBit(k + 1)) {
+			letter |= 1 << k;
+		}
+		return letter;
+	}
+
+	/**
+	 * Compute, for each state of a model, the letter of the DA it is labelled with.
+	 * The APs of the DA are expected to be of the form L0, L1, ..., where Li
+	 * refers to the set of model states {@code labelBS.get(i)}.
+	 * @param apList The AP list of the DA
+	 * @param labelBS BitSets giving the set of model states for each AP Li
+	 * @param numStates The number of model states
+	 * @return array of letters, indexed by model state
+	 */
+	public static int[] computeLetters(List<String> apList, List<BitSet> labelBS, int numStates)
+	{
+		int[] letters = new int[numStates];
+		for (int k = 0; k < apList.size(); k++) {
+			BitSet states = labelBS.get(Integer.parseInt(apList.get(k).substring(1)));
+			int bit = 1 << k;
+			for (int s = states.nextSetBit(0); s >= 0 && s < numStates; s = states.nextSetBit(s + 1)) {
+				letters[s] |= bit;
+			}
+		}
+		return letters;
+	}
+
+	/**
+	 * Get the destination of the edge from DA state q with the label of model state s,
+	 * without a compiled transition function (e.g. because the DA has too many APs).
+	 * The APs of the DA are expected to be of the form L0, L1, ..., where Li
+	 * refers to the set of model states {@code labelBS.get(i)}.
+	 * Returns -1 if no such edge exists.
+	 * @param da The DA
+	 * @param labelBS BitSets giving the set of model states for each AP Li
+	 * @param q The DA state
+	 * @param s The model state
+	 * @param label BitSet used to store the label of s
+	 */
+	public static int getEdgeDestByLabel(DA<BitSet, ? extends AcceptanceOmega> da, List<BitSet> labelBS, int q, int s, BitSet label)
+	{
+		List<String> apList = da.getAPList();
+		for (int k = 0; k < apList.size(); k++) {
+			label.set(k, labelBS.get(Integer.parseInt(apList.get(k).substring(1))).get(s));
+		}
+		return da.getEdgeDestByLabel(q, label);
+	}
+}
@@ -83,12 +83,55 @@ public class LTL2DA extends PrismComponent
 	 * Convert an LTL formula into a deterministic automaton.
 	 * The LTL formula is represented as a PRISM Expression,
 	 * in which atomic propositions are represented by ExpressionLabel objects.
+	 * <br>
+	 * Automata for formulas without time bounds are cached (see {@link LTL2DACache}),
+	 * so formulas that are identical up to renaming of the labels are only translated once
+	 * (unless both the in-memory cache and the cache directory are disabled).
 	 * @param ltl the formula
 	 * @param constants the values of constants, may be {@code null}
 	 * @param allowedAcceptance the AcceptanceTypes that are allowed to be returned
 	 */
 	public DA<BitSet, ? extends AcceptanceOmega> convertLTLFormulaToDA(Expression ltl, Values constants, AcceptanceType... allowedAcceptance)
 			throws PrismException
+	{
+		String cacheDirName = getSettings().getString(PrismSettings.PRISM_LTL2DA_CACHE_DIR);
+		File cacheDir = (cacheDirName == null || cacheDirName.isEmpty()) ? null : new File(cacheDirName);
+		boolean useMemoryCache = getSettings().getBoolean(PrismSettings.PRISM_LTL2DA_CACHE);
+
+		// Translations of formulas with time bounds depend on the values of constants, so are not cached
+		LTL2DACache.CanonicalFormula canonical = null;
+		if ((useMemoryCache || cacheDir != null) && !Expression.containsTemporalTimeBounds(ltl)) {
+			canonical = LTL2DACache.CanonicalFormula.create(ltl);
+		}
+		if (canonical == null) {
+			return translateLTLFormulaToDA(ltl, constants, allowedAcceptance);
+		}
+
+		// The translation also depends on the settings for external tools and simplification
+		String options = getSettings().getString(PrismSettings.PRISM_LTL2DA_TOOL) + " " + getSettings().getString(PrismSettings.PRISM_LTL2DA_SYNTAX) + " "
+				+ getSettings().getBoolean(PrismSettings.PRISM_NO_DA_SIMPLIFY);
+		String key = LTL2DACache.getKey(canonical, options, allowedAcceptance);
+		// If the in-memory cache is disabled, use a fresh (empty) one, i.e., only the cache directory
+		LTL2DACache cache = useMemoryCache ? getSettings().getLTL2DACache() : new LTL2DACache();
+
+		DA<BitSet, ? extends AcceptanceOmega> result = cache.get(key, cacheDir, allowedAcceptance);
+		if (result != null) {
+			getLog().println("Taking " + result.getAutomataType() + " from cache...");
+		} else {
+			result = translateLTLFormulaToDA(canonical.getFormula(), constants, allowedAcceptance);
+			cache.put(key, result, cacheDir);
+		}
+		return canonical.restoreAPs(result);
+	}
+
+	/**
+	 * Convert an LTL formula into a deterministic automaton (without using the cache).
+	 * @param ltl the formula
+	 * @param constants the values of constants, may be {@code null}
+	 * @param allowedAcceptance the AcceptanceTypes that are allowed to be returned
+	 */
+	private DA<BitSet, ? extends AcceptanceOmega> translateLTLFormulaToDA(Expression ltl, Values constants, AcceptanceType... allowedAcceptance)
+			throws PrismException
 	{
 		DA<BitSet, ? extends AcceptanceOmega> result = null;
 
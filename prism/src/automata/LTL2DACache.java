@@ -0,0 +1,284 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package automata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import acceptance.AcceptanceOmega;
+import acceptance.AcceptanceType;
+import jhoafparser.parser.HOAFParser;
+import jhoafparser.parser.generated.ParseException;
+import parser.ast.Expression;
+import parser.visitor.ReplaceLabels;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Cache for deterministic automata translated from LTL formulas.
+ * <br>
+ * Formulas are canonicalised by renaming their atomic propositions (labels L0, L1, ...)
+ * in order of first occurrence, so that formulas that are identical up to label
+ * renaming share a single cache entry. Entries are kept in memory (up to a maximum
+ * number of entries) and, if a cache directory is given, also on disk, in HOA format.
+ * <br>
+ * Each PRISM instance has its own cache (see {@link prism.PrismSettings#getLTL2DACache()}),
+ * so automata in memory do not outlive it.
+ */
+public class LTL2DACache
+{
+	/** Maximum number of automata kept in memory */
+	private static final int MAX_ENTRIES = 64;
+
+	/** Automata in memory, indexed by key, in least-recently-used order */
+	private final Map<String, DA<BitSet, ? extends AcceptanceOmega>> cache = new LinkedHashMap<String, DA<BitSet, ? extends AcceptanceOmega>>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, DA<BitSet, ? extends AcceptanceOmega>> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * An LTL formula with its labels renamed to L0, L1, ... in order of first occurrence.
+	 */
+	public static class CanonicalFormula
+	{
+		/** The renamed formula */
+		private Expression formula;
+		/** The renamed formula, in (unambiguous, prefix) LBT syntax */
+		private String formulaLBT;
+		/** Original label for each renamed label Lk */
+		private List<String> originalLabels;
+
+		/**
+		 * Canonicalise an LTL formula, whose atomic propositions are labels L0, L1, ...
+		 * Returns null if the formula contains other labels or cannot be converted to LBT syntax.
+		 */
+		public static CanonicalFormula create(Expression ltl) throws PrismLangException
+		{
+			Vector<String> labels = ltl.getAllLabels();
+			Map<String, String> renaming = new HashMap<String, String>();
+			for (int k = 0; k < labels.size(); k++) {
+				if (!labels.get(k).matches("L[0-9]+")) {
+					return null;
+				}
+				renaming.put(labels.get(k), "L" + k);
+			}
+			CanonicalFormula canonical = new CanonicalFormula();
+			canonical.formula = (Expression) ltl.deepCopy().accept(new ReplaceLabels(renaming));
+			try {
+				canonical.formulaLBT = canonical.formula.convertForJltl2ba().toStringLBT();
+			} catch (PrismLangException e) {
+				return null;
+			}
+			canonical.originalLabels = new ArrayList<String>(labels);
+			return canonical;
+		}
+
+		/**
+		 * Get the renamed formula.
+		 */
+		public Expression getFormula()
+		{
+			return formula;
+		}
+
+		/**
+		 * Get a copy of a DA for the renamed formula, with its APs renamed back to the original labels.
+		 */
+		public DA<BitSet, ? extends AcceptanceOmega> restoreAPs(DA<BitSet, ? extends AcceptanceOmega> da)
+		{
+			List<String> apList = new ArrayList<String>(da.getAPList().size());
+			for (String ap : da.getAPList()) {
+				int k = ap.matches("L[0-9]+") ? Integer.parseInt(ap.substring(1)) : -1;
+				apList.add(k >= 0 && k < originalLabels.size() ? originalLabels.get(k) : ap);
+			}
+			return copy(da, apList);
+		}
+	}
+
+	/**
+	 * Build the cache key for a canonical formula.
+	 * @param canonical the canonical formula
+	 * @param options any further options that the translation depends on
+	 * @param allowedAcceptance the AcceptanceTypes that are allowed to be returned
+	 */
+	public static String getKey(CanonicalFormula canonical, String options, AcceptanceType... allowedAcceptance)
+	{
+		StringBuilder key = new StringBuilder();
+		key.append(canonical.formulaLBT);
+		key.append(" |");
+		for (AcceptanceType type : allowedAcceptance) {
+			key.append(" ").append(type);
+		}
+		key.append(" | ").append(options);
+		return key.toString();
+	}
+
+	/**
+	 * Look up the DA for a key, first in memory, then (if {@code cacheDir} is non-null) on disk.
+	 * Automata found on disk are only used if their acceptance type is one of those allowed.
+	 * Returns null if there is no (usable) entry.
+	 */
+	public DA<BitSet, ? extends AcceptanceOmega> get(String key, File cacheDir, AcceptanceType... allowedAcceptance)
+	{
+		synchronized (cache) {
+			DA<BitSet, ? extends AcceptanceOmega> da = cache.get(key);
+			if (da != null) {
+				return da;
+			}
+		}
+		if (cacheDir == null) {
+			return null;
+		}
+		File file = getFile(key, cacheDir);
+		if (!file.isFile()) {
+			return null;
+		}
+		DA<BitSet, ? extends AcceptanceOmega> da;
+		try (InputStream input = new FileInputStream(file)) {
+			HOAF2DA consumerDA = new HOAF2DA();
+			HOAFParser.parseHOA(input, consumerDA);
+			da = consumerDA.getDA();
+		} catch (IOException | ParseException e) {
+			// treat unreadable entries as missing
+			return null;
+		}
+		if (da == null || !AcceptanceType.contains(allowedAcceptance, da.getAcceptance().getType())) {
+			return null;
+		}
+		synchronized (cache) {
+			cache.put(key, da);
+		}
+		return da;
+	}
+
+	/**
+	 * Store the DA for a key in memory and (if {@code cacheDir} is non-null) on disk.
+	 * Automata are only stored on disk if their acceptance condition can be
+	 * represented in HOA format without changing its type.
+	 * The DA must not be modified afterwards.
+	 */
+	public void put(String key, DA<BitSet, ? extends AcceptanceOmega> da, File cacheDir) throws PrismException
+	{
+		synchronized (cache) {
+			cache.put(key, da);
+		}
+		if (cacheDir == null) {
+			return;
+		}
+		switch (da.getAcceptance().getType()) {
+		case RABIN:
+		case STREETT:
+		case GENERALIZED_RABIN:
+		case BUCHI:
+		case GENERIC:
+			break;
+		default:
+			return;
+		}
+		if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+			throw new PrismException("Could not create LTL->DA cache directory \"" + cacheDir + "\"");
+		}
+		File file = getFile(key, cacheDir);
+		try {
+			// write to a temporary file first, so that readers never see incomplete entries
+			File tmpFile = File.createTempFile("prism-ltl2da-", ".tmp", cacheDir);
+			try (PrintStream out = new PrintStream(tmpFile, "UTF-8")) {
+				da.printHOA(out);
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new PrismException("Could not write to LTL->DA cache directory \"" + cacheDir + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Remove all automata from the in-memory cache.
+	 */
+	public void clear()
+	{
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Get the file for a key in the cache directory (named after a hash of the key).
+	 */
+	private static File getFile(String key, File cacheDir)
+	{
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder name = new StringBuilder();
+			for (byte b : hash) {
+				name.append(String.format("%02x", b));
+			}
+			return new File(cacheDir, name + ".hoa");
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is always available
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Copy a DA (so that callers cannot modify cached automata), using the given AP list.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <A extends AcceptanceOmega> DA<BitSet, A> copy(DA<BitSet, A> da, List<String> apList)
+	{
+		DA<BitSet, A> result = new DA<BitSet, A>(da.size());
+		result.setAPList(apList);
+		result.setStartState(da.getStartState());
+		result.setAcceptance((A) da.getAcceptance().clone());
+		for (int q = 0; q < da.size(); q++) {
+			for (int j = 0, n = da.getNumEdges(q); j < n; j++) {
+				result.addEdge(q, (BitSet) da.getEdgeLabel(q, j).clone(), da.getEdgeDest(q, j));
+			}
+		}
+		return result;
+	}
+}
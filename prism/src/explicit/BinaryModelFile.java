@@ -0,0 +1,849 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Vector;
+
+import parser.State;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.ModelInfo;
+import prism.ModelType;
+import prism.PlayerInfoOwner;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Import/export of explicit-state models in a (versioned) binary file format.
+ * <br><br>
+ * The file consists of a header (model type, sizes, and the names of variables,
+ * labels, players and actions), followed by the arrays of the model's sparse matrix
+ * storage (as used by {@link DTMCSparse} and {@link MDPSparse}), any game-specific
+ * information (state owners, CSG action indices), the initial/deadlock states and labels
+ * (as BitSet words) and the state values (as a numStates x numVars matrix).
+ * All data is little-endian and arrays are aligned to 8 bytes, so that they can
+ * be bulk-copied from a memory-mapped file on import.
+ * <br><br>
+ * Supported model types are DTMCs, CTMCs, MDPs, STPGs, SMGs and CSGs.
+ * Variables must be of type int or bool. Rewards are not stored.
+ */
+public class BinaryModelFile
+{
+	/** Magic bytes at the start of the file */
+	private static final byte[] MAGIC = "PRISMBIN".getBytes(StandardCharsets.US_ASCII);
+
+	/** Version of the file format */
+	public static final int VERSION = 1;
+
+	/** Codes for variable types */
+	private static final int TYPE_INT = 0;
+	private static final int TYPE_BOOL = 1;
+
+	/** Maximum size of each memory-mapped region when reading */
+	private static final int MAP_SIZE = 1 << 28;
+
+	/** Size of the write buffer */
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	/**
+	 * Info from the header of a binary model file.
+	 */
+	private static class Header
+	{
+		ModelType modelType;
+		int numStates;
+		int numChoices;
+		int numTransitions;
+		List<String> varNames = new ArrayList<>();
+		int varTypes[];
+		int varMins[];
+		int varMaxs[];
+		List<String> labelNames = new ArrayList<>();
+		List<String> playerNames = new ArrayList<>();
+		List<String> actionNames = new ArrayList<>();
+		boolean hasStates;
+	}
+
+	// Export
+
+	/**
+	 * Export a model to a binary file.
+	 * Variable names/types are taken from {@code modelInfo} (which may be null if there is none);
+	 * the states satisfying each label are passed in as {@code labels}.
+	 * @param model The model
+	 * @param modelInfo Info about the model (variables, players), optional
+	 * @param labelNames The names of the labels to export
+	 * @param labels The states satisfying each label
+	 * @param file The file to export to
+	 */
+	public static void exportModel(Model model, ModelInfo modelInfo, List<String> labelNames, List<BitSet> labels, File file) throws PrismException
+	{
+		ModelType modelType = model.getModelType();
+		switch (modelType) {
+		case DTMC:
+		case CTMC:
+		case MDP:
+		case STPG:
+		case SMG:
+		case CSG:
+			break;
+		default:
+			throw new PrismNotSupportedException("Binary export of " + modelType + "s is not supported");
+		}
+		boolean nondet = modelType.nondeterministic();
+		int numStates = model.getNumStates();
+
+		// Compute the row/choice offsets of the sparse matrix
+		int rowStarts[] = new int[numStates + 1];
+		int choiceStarts[] = null;
+		long count = 0;
+		if (nondet) {
+			MDP mdp = (MDP) model;
+			for (int s = 0; s < numStates; s++) {
+				rowStarts[s + 1] = rowStarts[s] + mdp.getNumChoices(s);
+			}
+			choiceStarts = new int[rowStarts[numStates] + 1];
+			for (int s = 0, c = 0; s < numStates; s++) {
+				for (int i = 0, n = mdp.getNumChoices(s); i < n; i++, c++) {
+					count += mdp.getNumTransitions(s, i);
+					if (count > Integer.MAX_VALUE) {
+						throw new PrismNotSupportedException("Binary export of models with more than " + Integer.MAX_VALUE + " transitions is not supported");
+					}
+					choiceStarts[c + 1] = (int) count;
+				}
+			}
+		} else {
+			for (int s = 0; s < numStates; s++) {
+				count += model.getNumTransitions(s);
+				if (count > Integer.MAX_VALUE) {
+					throw new PrismNotSupportedException("Binary export of models with more than " + Integer.MAX_VALUE + " transitions is not supported");
+				}
+				rowStarts[s + 1] = (int) count;
+			}
+		}
+
+		// Collect header info
+		Header header = new Header();
+		header.modelType = modelType;
+		header.numStates = numStates;
+		header.numChoices = nondet ? rowStarts[numStates] : numStates;
+		header.numTransitions = (int) count;
+		header.labelNames = labelNames;
+		if (model instanceof PlayerInfoOwner) {
+			header.playerNames = ((PlayerInfoOwner) model).getPlayerNames();
+		} else if (modelType.multiplePlayers()) {
+			header.playerNames = modelInfo != null && modelInfo.getNumPlayers() > 0 ? modelInfo.getPlayerNames() : Arrays.asList("", "");
+		}
+		// Action names: for CSGs, the list of all actions; otherwise, the distinct choice actions
+		int choiceActions[] = null;
+		if (modelType == ModelType.CSG) {
+			header.actionNames = ((CSG) model).getActions();
+		} else if (nondet) {
+			MDP mdp = (MDP) model;
+			Map<String, Integer> actionIndices = new HashMap<>();
+			choiceActions = new int[header.numChoices];
+			for (int s = 0, c = 0; s < numStates; s++) {
+				for (int i = 0, n = mdp.getNumChoices(s); i < n; i++, c++) {
+					Object action = mdp.getAction(s, i);
+					if (action == null) {
+						choiceActions[c] = -1;
+					} else {
+						String name = action.toString();
+						Integer index = actionIndices.get(name);
+						if (index == null) {
+							index = header.actionNames.size();
+							actionIndices.put(name, index);
+							header.actionNames.add(name);
+						}
+						choiceActions[c] = index;
+					}
+				}
+			}
+		}
+		// Variables (only stored if the model has a states list)
+		List<State> statesList = model.getStatesList();
+		int numVars = modelInfo == null || statesList == null ? 0 : modelInfo.getNumVars();
+		header.hasStates = numVars > 0;
+		header.varTypes = new int[numVars];
+		header.varMins = new int[numVars];
+		header.varMaxs = new int[numVars];
+		for (int v = 0; v < numVars; v++) {
+			header.varNames.add(modelInfo.getVarName(v));
+			Type type = modelInfo.getVarType(v);
+			if (type instanceof TypeInt) {
+				header.varTypes[v] = TYPE_INT;
+			} else if (type instanceof TypeBool) {
+				header.varTypes[v] = TYPE_BOOL;
+			} else {
+				throw new PrismNotSupportedException("Binary export of variables of type " + type + " is not supported");
+			}
+			header.varMins[v] = Integer.MAX_VALUE;
+			header.varMaxs[v] = Integer.MIN_VALUE;
+		}
+		int stateValues[] = null;
+		if (header.hasStates) {
+			stateValues = new int[numStates * numVars];
+			for (int s = 0; s < numStates; s++) {
+				Object varValues[] = statesList.get(s).varValues;
+				for (int v = 0; v < numVars; v++) {
+					int val = header.varTypes[v] == TYPE_BOOL ? (((Boolean) varValues[v]) ? 1 : 0) : (Integer) varValues[v];
+					stateValues[s * numVars + v] = val;
+					header.varMins[v] = Math.min(header.varMins[v], val);
+					header.varMaxs[v] = Math.max(header.varMaxs[v], val);
+				}
+			}
+		}
+
+		try (Writer out = new Writer(file)) {
+			writeHeader(out, header);
+			// Sparse matrix
+			out.writeInts(rowStarts);
+			if (nondet) {
+				out.writeInts(choiceStarts);
+				MDP mdp = (MDP) model;
+				for (int s = 0; s < numStates; s++) {
+					for (int i = 0, n = mdp.getNumChoices(s); i < n; i++) {
+						for (Iterator<Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, i); iter.hasNext();) {
+							out.writeInt(iter.next().getKey());
+						}
+					}
+				}
+				out.align();
+				for (int s = 0; s < numStates; s++) {
+					for (int i = 0, n = mdp.getNumChoices(s); i < n; i++) {
+						for (Iterator<Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, i); iter.hasNext();) {
+							out.writeDouble(iter.next().getValue());
+						}
+					}
+				}
+			} else {
+				DTMC dtmc = (DTMC) model;
+				for (int s = 0; s < numStates; s++) {
+					for (Iterator<Entry<Integer, Double>> iter = dtmc.getTransitionsIterator(s); iter.hasNext();) {
+						out.writeInt(iter.next().getKey());
+					}
+				}
+				out.align();
+				for (int s = 0; s < numStates; s++) {
+					for (Iterator<Entry<Integer, Double>> iter = dtmc.getTransitionsIterator(s); iter.hasNext();) {
+						out.writeDouble(iter.next().getValue());
+					}
+				}
+			}
+			// Actions: for CSGs, the action indices of each player in each choice
+			if (modelType == ModelType.CSG) {
+				CSG csg = (CSG) model;
+				for (int s = 0; s < numStates; s++) {
+					for (int i = 0, n = csg.getNumChoices(s); i < n; i++) {
+						out.writeInts(csg.getIndexes(s, i), false);
+					}
+				}
+				out.align();
+				out.writeInts(csg.getIdles());
+				for (BitSet indexes : csg.getIndexes()) {
+					out.writeBitSet(indexes);
+				}
+			} else if (nondet) {
+				out.writeInts(choiceActions);
+			}
+			// State owners (for turn-based games)
+			if (modelType == ModelType.STPG || modelType == ModelType.SMG) {
+				STPG stpg = (STPG) model;
+				for (int s = 0; s < numStates; s++) {
+					out.writeInt(getStateOwner(stpg, s));
+				}
+				out.align();
+			}
+			// Initial/deadlock states, labels
+			BitSet initial = new BitSet();
+			for (int s : model.getInitialStates()) {
+				initial.set(s);
+			}
+			out.writeBitSet(initial);
+			BitSet deadlocks = new BitSet();
+			for (int s : model.getDeadlockStates()) {
+				deadlocks.set(s);
+			}
+			out.writeBitSet(deadlocks);
+			for (BitSet label : labels) {
+				out.writeBitSet(label);
+			}
+			// State values
+			if (header.hasStates) {
+				out.writeInts(stateValues);
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not export model to file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the (original, i.e., not coalition-mapped) owner of state {@code s} of an STPG.
+	 */
+	private static int getStateOwner(STPG stpg, int s)
+	{
+		if (stpg instanceof SMGSparse) {
+			return ((SMGSparse) stpg).stateOwners[s];
+		} else if (stpg instanceof SMGSimple) {
+			return ((SMGSimple) stpg).stateOwners.getPlayer(s);
+		} else {
+			return stpg.getPlayer(s);
+		}
+	}
+
+	private static void writeHeader(Writer out, Header header) throws IOException
+	{
+		out.writeBytes(MAGIC);
+		out.writeInt(VERSION);
+		out.writeString(header.modelType.name());
+		out.writeInt(header.numStates);
+		out.writeInt(header.numChoices);
+		out.writeInt(header.numTransitions);
+		out.writeInt(header.varNames.size());
+		for (int v = 0; v < header.varNames.size(); v++) {
+			out.writeString(header.varNames.get(v));
+			out.writeInt(header.varTypes[v]);
+			out.writeInt(header.varMins[v]);
+			out.writeInt(header.varMaxs[v]);
+		}
+		out.writeStrings(header.labelNames);
+		out.writeStrings(header.playerNames);
+		out.writeStrings(header.actionNames);
+		out.writeInt(header.hasStates ? 1 : 0);
+		out.align();
+	}
+
+	// Import
+
+	/**
+	 * Build a ModelInfo object (model type, variables, labels, players)
+	 * for the model stored in a binary file.
+	 * @param file The file to read from
+	 */
+	public static ModelInfo buildModelInfo(File file) throws PrismException
+	{
+		Header header;
+		try (Reader in = new Reader(file)) {
+			header = readHeader(in);
+		} catch (IOException e) {
+			throw new PrismException("Could not read model from file \"" + file + "\": " + e.getMessage());
+		}
+		return new ModelInfo()
+		{
+			@Override
+			public ModelType getModelType()
+			{
+				return header.modelType;
+			}
+
+			@Override
+			public List<String> getVarNames()
+			{
+				return header.varNames;
+			}
+
+			@Override
+			public List<Type> getVarTypes()
+			{
+				List<Type> varTypes = new ArrayList<>();
+				for (int type : header.varTypes) {
+					varTypes.add(type == TYPE_BOOL ? TypeBool.getInstance() : TypeInt.getInstance());
+				}
+				return varTypes;
+			}
+
+			@Override
+			public DeclarationType getVarDeclarationType(int i) throws PrismException
+			{
+				if (header.varTypes[i] == TYPE_BOOL) {
+					return new DeclarationBool();
+				}
+				// Ensure a non-empty range, as for models imported from text files
+				int max = header.varMaxs[i] > header.varMins[i] ? header.varMaxs[i] : header.varMins[i] + 1;
+				return new DeclarationInt(Expression.Int(header.varMins[i]), Expression.Int(max));
+			}
+
+			@Override
+			public List<String> getLabelNames()
+			{
+				return header.labelNames;
+			}
+
+			@Override
+			public List<String> getPlayerNames()
+			{
+				return header.playerNames;
+			}
+		};
+	}
+
+	/**
+	 * Build the model stored in a binary file.
+	 * @param file The file to read from
+	 */
+	public static Model buildModel(File file) throws PrismException
+	{
+		try (Reader in = new Reader(file)) {
+			Header header = readHeader(in);
+			int numStates = header.numStates;
+			int numChoices = header.numChoices;
+			int numTransitions = header.numTransitions;
+			int numPlayers = header.playerNames.size();
+			ModelExplicit model;
+			switch (header.modelType) {
+			case DTMC:
+			case CTMC: {
+				int rows[] = in.readInts(numStates + 1);
+				int cols[] = in.readInts(numTransitions);
+				double probs[] = in.readDoubles(numTransitions);
+				if (header.modelType == ModelType.DTMC) {
+					model = new DTMCSparse(numStates, rows, cols, probs);
+				} else {
+					CTMCSimple ctmc = new CTMCSimple(numStates);
+					for (int s = 0; s < numStates; s++) {
+						for (int j = rows[s]; j < rows[s + 1]; j++) {
+							ctmc.setProbability(s, cols[j], probs[j]);
+						}
+					}
+					model = ctmc;
+				}
+				break;
+			}
+			case MDP:
+			case STPG:
+			case SMG: {
+				int rowStarts[] = in.readInts(numStates + 1);
+				int choiceStarts[] = in.readInts(numChoices + 1);
+				int cols[] = in.readInts(numTransitions);
+				double nonZeros[] = in.readDoubles(numTransitions);
+				int choiceActions[] = in.readInts(numChoices);
+				Object actions[] = null;
+				for (int c = 0; c < numChoices; c++) {
+					if (choiceActions[c] >= 0) {
+						if (actions == null) {
+							actions = new Object[numChoices];
+						}
+						actions[c] = header.actionNames.get(choiceActions[c]);
+					}
+				}
+				if (header.modelType == ModelType.MDP) {
+					model = new MDPSparse(numStates, rowStarts, choiceStarts, cols, nonZeros, actions);
+				} else {
+					int stateOwners[] = in.readInts(numStates);
+					if (header.modelType == ModelType.STPG) {
+						model = new STPGSparse(numStates, rowStarts, choiceStarts, cols, nonZeros, actions, stateOwners, header.playerNames);
+					} else {
+						model = new SMGSparse(numStates, rowStarts, choiceStarts, cols, nonZeros, actions, stateOwners, header.playerNames);
+					}
+				}
+				break;
+			}
+			case CSG: {
+				int rowStarts[] = in.readInts(numStates + 1);
+				int choiceStarts[] = in.readInts(numChoices + 1);
+				int cols[] = in.readInts(numTransitions);
+				double nonZeros[] = in.readDoubles(numTransitions);
+				int choiceIndexes[] = in.readInts(numChoices * numPlayers);
+				int idles[] = in.readInts(numPlayers);
+				BitSet indexes[] = new BitSet[numPlayers];
+				for (int p = 0; p < numPlayers; p++) {
+					indexes[p] = in.readBitSet();
+				}
+				CSGSimple csg = new CSGSimple();
+				csg.setPlayerNames(header.playerNames);
+				csg.setActions(new Vector<String>(header.actionNames));
+				csg.addStates(numStates);
+				for (int s = 0; s < numStates; s++) {
+					for (int c = rowStarts[s]; c < rowStarts[s + 1]; c++) {
+						Distribution distr = new Distribution();
+						for (int j = choiceStarts[c]; j < choiceStarts[c + 1]; j++) {
+							distr.add(cols[j], nonZeros[j]);
+						}
+						csg.addActionLabelledChoice(s, distr, Arrays.copyOfRange(choiceIndexes, c * numPlayers, (c + 1) * numPlayers));
+					}
+				}
+				csg.setIdles(idles);
+				csg.setIndexes(indexes);
+				model = new CSGSparse(csg);
+				break;
+			}
+			default:
+				throw new PrismNotSupportedException("Binary import of " + header.modelType + "s is not supported");
+			}
+			// Initial/deadlock states, labels
+			BitSet initial = in.readBitSet();
+			for (int s = initial.nextSetBit(0); s >= 0; s = initial.nextSetBit(s + 1)) {
+				model.addInitialState(s);
+			}
+			BitSet deadlocks = in.readBitSet();
+			for (int s = deadlocks.nextSetBit(0); s >= 0; s = deadlocks.nextSetBit(s + 1)) {
+				model.addDeadlockState(s);
+			}
+			for (String labelName : header.labelNames) {
+				model.addLabel(labelName, in.readBitSet());
+			}
+			// State values
+			if (header.hasStates) {
+				int numVars = header.varNames.size();
+				int stateValues[] = in.readInts(numStates * numVars);
+				List<State> statesList = new ArrayList<>(numStates);
+				for (int s = 0; s < numStates; s++) {
+					State state = new State(numVars);
+					for (int v = 0; v < numVars; v++) {
+						int val = stateValues[s * numVars + v];
+						state.varValues[v] = header.varTypes[v] == TYPE_BOOL ? (Object) (val != 0) : (Object) val;
+					}
+					statesList.add(state);
+				}
+				model.setStatesList(statesList);
+			}
+			if (!model.getInitialStates().iterator().hasNext()) {
+				throw new PrismException("Imported model has no initial states");
+			}
+			return model;
+		} catch (IOException e) {
+			throw new PrismException("Could not read model from file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	private static Header readHeader(Reader in) throws IOException, PrismException
+	{
+		byte magic[] = in.readBytes(MAGIC.length);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new PrismException("File is not a binary PRISM model");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new PrismException("Unsupported binary model file version " + version + " (expected " + VERSION + ")");
+		}
+		Header header = new Header();
+		try {
+			header.modelType = ModelType.valueOf(in.readString());
+		} catch (IllegalArgumentException e) {
+			throw new PrismException("Unknown model type in binary model file");
+		}
+		header.numStates = in.readInt();
+		header.numChoices = in.readInt();
+		header.numTransitions = in.readInt();
+		int numVars = in.readInt();
+		header.varTypes = new int[numVars];
+		header.varMins = new int[numVars];
+		header.varMaxs = new int[numVars];
+		for (int v = 0; v < numVars; v++) {
+			header.varNames.add(in.readString());
+			header.varTypes[v] = in.readInt();
+			header.varMins[v] = in.readInt();
+			header.varMaxs[v] = in.readInt();
+		}
+		header.labelNames = in.readStrings();
+		header.playerNames = in.readStrings();
+		header.actionNames = in.readStrings();
+		header.hasStates = in.readInt() != 0;
+		in.align();
+		return header;
+	}
+
+	// Low-level I/O
+
+	/**
+	 * Sequential writer of little-endian data, via a buffer, to a file channel.
+	 */
+	private static class Writer implements Closeable
+	{
+		private FileChannel channel;
+		private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private long position = 0;
+
+		Writer(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		private void ensureSpace(int n) throws IOException
+		{
+			if (buffer.remaining() < n) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException
+		{
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		void writeInt(int i) throws IOException
+		{
+			ensureSpace(4);
+			buffer.putInt(i);
+			position += 4;
+		}
+
+		void writeDouble(double d) throws IOException
+		{
+			ensureSpace(8);
+			buffer.putDouble(d);
+			position += 8;
+		}
+
+		void writeBytes(byte bytes[]) throws IOException
+		{
+			for (int off = 0; off < bytes.length;) {
+				ensureSpace(1);
+				int n = Math.min(buffer.remaining(), bytes.length - off);
+				buffer.put(bytes, off, n);
+				off += n;
+			}
+			position += bytes.length;
+		}
+
+		void writeString(String s) throws IOException
+		{
+			byte bytes[] = s.getBytes(StandardCharsets.UTF_8);
+			writeInt(bytes.length);
+			writeBytes(bytes);
+		}
+
+		void writeStrings(List<String> list) throws IOException
+		{
+			writeInt(list.size());
+			for (String s : list) {
+				writeString(s == null ? "" : s);
+			}
+		}
+
+		/** Write an int array (then align) */
+		void writeInts(int ints[]) throws IOException
+		{
+			writeInts(ints, true);
+		}
+
+		/** Write an int array, optionally aligning afterwards */
+		void writeInts(int ints[], boolean align) throws IOException
+		{
+			for (int off = 0; off < ints.length;) {
+				ensureSpace(4);
+				int n = Math.min(buffer.remaining() / 4, ints.length - off);
+				buffer.asIntBuffer().put(ints, off, n);
+				buffer.position(buffer.position() + 4 * n);
+				off += n;
+			}
+			position += 4L * ints.length;
+			if (align) {
+				align();
+			}
+		}
+
+		/** Write a BitSet, as its number of words and then the words */
+		void writeBitSet(BitSet bitSet) throws IOException
+		{
+			long words[] = bitSet.toLongArray();
+			writeInt(words.length);
+			align();
+			for (long word : words) {
+				ensureSpace(8);
+				buffer.putLong(word);
+			}
+			position += 8L * words.length;
+		}
+
+		/** Pad with zeros to a multiple of 8 bytes */
+		void align() throws IOException
+		{
+			while (position % 8 != 0) {
+				ensureSpace(1);
+				buffer.put((byte) 0);
+				position++;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Sequential reader of little-endian data from a file,
+	 * via (a window of) the file memory-mapped into a buffer.
+	 */
+	private static class Reader implements Closeable
+	{
+		private FileChannel channel;
+		private long size;
+		private MappedByteBuffer window;
+		private long windowStart = 0;
+		private long position = 0;
+
+		Reader(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			size = channel.size();
+		}
+
+		/** Make sure the next {@code n} bytes are in the current window, and position it */
+		private ByteBuffer window(int n) throws IOException
+		{
+			if (position + n > size) {
+				throw new IOException("Unexpected end of file");
+			}
+			if (window == null || position < windowStart || position + n > windowStart + window.capacity()) {
+				windowStart = position;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(Math.max(MAP_SIZE, n), size - windowStart));
+				window.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			window.position((int) (position - windowStart));
+			return window;
+		}
+
+		int readInt() throws IOException
+		{
+			int i = window(4).getInt();
+			position += 4;
+			return i;
+		}
+
+		byte[] readBytes(int n) throws IOException
+		{
+			byte bytes[] = new byte[n];
+			window(n).get(bytes);
+			position += n;
+			return bytes;
+		}
+
+		String readString() throws IOException
+		{
+			return new String(readBytes(readInt()), StandardCharsets.UTF_8);
+		}
+
+		List<String> readStrings() throws IOException
+		{
+			int n = readInt();
+			List<String> list = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				list.add(readString());
+			}
+			return list;
+		}
+
+		/** Read an int array (then align) */
+		int[] readInts(int n) throws IOException
+		{
+			int ints[] = new int[n];
+			for (int off = 0; off < n;) {
+				int len = (int) Math.min(n - off, (windowStart + (window == null ? 0 : window.capacity()) - position) / 4);
+				if (len <= 0) {
+					window(4);
+					continue;
+				}
+				window(4 * len).asIntBuffer().get(ints, off, len);
+				position += 4L * len;
+				off += len;
+			}
+			align();
+			return ints;
+		}
+
+		/** Read a double array (then align) */
+		double[] readDoubles(int n) throws IOException
+		{
+			double doubles[] = new double[n];
+			for (int off = 0; off < n;) {
+				int len = (int) Math.min(n - off, (windowStart + (window == null ? 0 : window.capacity()) - position) / 8);
+				if (len <= 0) {
+					window(8);
+					continue;
+				}
+				window(8 * len).asDoubleBuffer().get(doubles, off, len);
+				position += 8L * len;
+				off += len;
+			}
+			return doubles;
+		}
+
+		/** Read a BitSet, stored as its number of words and then the words */
+		BitSet readBitSet() throws IOException
+		{
+			int n = readInt();
+			align();
+			long words[] = new long[n];
+			for (int off = 0; off < n;) {
+				int len = (int) Math.min(n - off, (windowStart + (window == null ? 0 : window.capacity()) - position) / 8);
+				if (len <= 0) {
+					window(8);
+					continue;
+				}
+				window(8 * len).asLongBuffer().get(words, off, len);
+				position += 8L * len;
+				off += len;
+			}
+			return BitSet.valueOf(words);
+		}
+
+		/** Skip to a multiple of 8 bytes */
+		void align()
+		{
+			position = (position + 7) & ~7L;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+	}
+}
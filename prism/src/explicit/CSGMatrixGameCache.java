@@ -0,0 +1,235 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import lpsolve.LpSolve;
+
+/**
+ * Per-state cache of matrix games and their linear programs, used to avoid
+ * rebuilding and re-solving them from scratch on every iteration of
+ * value iteration for zero-sum CSGs (see {@link CSGModelChecker}).
+ * <br><br>
+ * For each state, this stores:
+ * <ul>
+ * <li> the values of its successor states when its matrix game was last solved,
+ *      and the resulting value, so that solving can be skipped if these have not
+ *      changed (by more than {@code epsilon});
+ * <li> the linear program last used to solve its matrix game (if one was needed),
+ *      together with the matrix it was built from and its final basis,
+ *      so that it can be updated in place and warm-started next time.
+ * </ul>
+ * Different states can be accessed concurrently from separate threads.
+ */
+public class CSGMatrixGameCache
+{
+	/** Successor values can change by at most this much for a cached value to be reused */
+	protected double epsilon;
+
+	/** For each state, its (distinct) successor states (null if not yet computed) */
+	protected int[][] succs;
+	/** For each state, the values of its successors when it was last solved (null if never solved) */
+	protected double[][] succVals;
+	/** For each state, the value computed when it was last solved */
+	protected double[] values;
+
+	/** For each state, the linear program last used to solve its matrix game (or null) */
+	protected LpSolve[] lps;
+	/** For each state, the matrix game from which its linear program was built (or null) */
+	protected double[][][] matrices;
+	/** For each state, the final basis of the last solve of its linear program (or null) */
+	protected int[][] bases;
+
+	/** Number of values that were reused from the cache, rather than recomputed */
+	protected LongAdder numReused = new LongAdder();
+	/** Number of linear programs that were updated in place, rather than rebuilt */
+	protected LongAdder numUpdated = new LongAdder();
+
+	/**
+	 * Create an empty cache for a CSG with {@code numStates} states.
+	 * @param numStates Number of states
+	 * @param epsilon Maximum change in successor values for which solving a state can be skipped
+	 */
+	public CSGMatrixGameCache(int numStates, double epsilon)
+	{
+		this.epsilon = epsilon;
+		succs = new int[numStates][];
+		succVals = new double[numStates][];
+		values = new double[numStates];
+		lps = new LpSolve[numStates];
+		matrices = new double[numStates][][];
+		bases = new int[numStates][];
+	}
+
+	// Cached values
+
+	/**
+	 * Can the value last computed for state {@code s} be reused,
+	 * i.e. have the values of its successors in {@code vals} changed
+	 * by at most {@code epsilon} since it was last solved?
+	 */
+	public boolean canReuse(int s, double[] vals)
+	{
+		if (succVals[s] == null) {
+			return false;
+		}
+		int[] ts = succs[s];
+		double[] old = succVals[s];
+		for (int i = 0; i < ts.length; i++) {
+			double v = vals[ts[i]];
+			// (explicit equality check needed for infinite values)
+			if (v != old[i] && !(Math.abs(v - old[i]) <= epsilon)) {
+				return false;
+			}
+		}
+		numReused.increment();
+		return true;
+	}
+
+	/**
+	 * Get the value last computed for state {@code s}.
+	 */
+	public double getValue(int s)
+	{
+		return values[s];
+	}
+
+	/**
+	 * Store the value {@code value} just computed for state {@code s},
+	 * along with the successor values {@code vals} that it was computed from.
+	 */
+	public void storeValue(CSG csg, int s, double[] vals, double value)
+	{
+		if (succs[s] == null) {
+			succs[s] = csg.getSuccessors(s).stream().distinct().toArray();
+			succVals[s] = new double[succs[s].length];
+		}
+		int[] ts = succs[s];
+		double[] old = succVals[s];
+		for (int i = 0; i < ts.length; i++) {
+			old[i] = vals[ts[i]];
+		}
+		values[s] = value;
+	}
+
+	// Cached linear programs
+
+	/**
+	 * Get the linear program last used for state {@code s} (null if none).
+	 */
+	public LpSolve getLp(int s)
+	{
+		return lps[s];
+	}
+
+	/**
+	 * Get the matrix game from which the linear program for state {@code s} was built (null if none).
+	 * This can be modified, to keep it in sync with the linear program if the latter is updated in place.
+	 */
+	public double[][] getMatrix(int s)
+	{
+		return matrices[s];
+	}
+
+	/**
+	 * Store the linear program {@code lp} for state {@code s}, built from matrix game {@code matrix},
+	 * discarding any previous one.
+	 */
+	public void setLp(int s, LpSolve lp, double[][] matrix)
+	{
+		removeLp(s);
+		lps[s] = lp;
+		matrices[s] = matrix;
+	}
+
+	/**
+	 * Record that the linear program for state {@code s} has been updated in place.
+	 */
+	public void lpUpdated(int s)
+	{
+		numUpdated.increment();
+	}
+
+	/**
+	 * Discard (and free) the linear program for state {@code s}, if any.
+	 */
+	public void removeLp(int s)
+	{
+		if (lps[s] != null) {
+			lps[s].deleteLp();
+		}
+		lps[s] = null;
+		matrices[s] = null;
+		bases[s] = null;
+	}
+
+	/**
+	 * Get the final basis of the last solve of the linear program for state {@code s} (null if none).
+	 */
+	public int[] getBasis(int s)
+	{
+		return bases[s];
+	}
+
+	/**
+	 * Store the final basis of the last solve of the linear program for state {@code s}.
+	 */
+	public void setBasis(int s, int[] basis)
+	{
+		bases[s] = basis;
+	}
+
+	/**
+	 * Get the number of values that were reused from the cache, rather than recomputed.
+	 */
+	public long getNumReused()
+	{
+		return numReused.sum();
+	}
+
+	/**
+	 * Get the number of linear programs that were updated in place, rather than rebuilt.
+	 */
+	public long getNumUpdated()
+	{
+		return numUpdated.sum();
+	}
+
+	/**
+	 * Discard (and free) all stored linear programs, and all cached values.
+	 */
+	public void clear()
+	{
+		for (int s = 0; s < lps.length; s++) {
+			removeLp(s);
+		}
+		Arrays.fill(succs, null);
+		Arrays.fill(succVals, null);
+	}
+}
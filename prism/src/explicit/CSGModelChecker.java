@@ -36,6 +36,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.util.Precision;
@@ -77,6 +83,29 @@ public class CSGModelChecker extends ProbModelChecker
 
 	protected double scaleFactor = getSettings().getDouble(PrismSettings.PRISM_ZS_LP_SCALE_FACTOR);
 
+	/** Cache matrix games/LPs for each state between iterations of value iteration? */
+	protected boolean useLpCache = getSettings().getBoolean(PrismSettings.PRISM_ZS_LP_CACHE);
+	/** Max change in successor values for which a cached state value is reused */
+	protected double lpCacheEpsilon = getSettings().getDouble(PrismSettings.PRISM_ZS_LP_CACHE_EPSILON);
+	/** Matrix game/LP cache for the value iteration currently in progress (null if none) */
+	protected CSGMatrixGameCache lpCache;
+
+	/** Number of threads to use for value iteration (states are solved in parallel if > 1) */
+	protected int numThreads = getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS);
+	/** Thread pool for the parallel value iteration currently in progress (null if none) */
+	protected ExecutorService valIterExecutor;
+
+	/**
+	 * A worker for parallel value iteration: a copy of the model checker,
+	 * with its own storage for building matrix games, and its own LpSolve instance.
+	 */
+	protected static class ValIterWorker
+	{
+		CSGModelChecker mc;
+		LpSolve lp;
+		Map<Integer, BitSet> mmap;
+	}
+
 	// Info about the current coalitions for model checking
 	// (here, there are two, and the first always maximises)
 	
@@ -117,6 +146,16 @@ public class CSGModelChecker extends ProbModelChecker
 	/** True if all matrix values are equal */
 	protected boolean allEqual;
 
+	// Buffers reused when building matrix games for a CSGSparse (see buildMatrixGameSparse)
+
+	private double[][] sparseGame = new double[0][];
+	private BitSet sparseGameSet = new BitSet();
+	private int[] sparseStrides = new int[0];
+	private int[] sparseNumActions = new int[2];
+	private int[][] sparseIndexes = new int[][] { new int[0], new int[0] };
+	private int[][] sparseOffsets = new int[][] { new int[0], new int[0] };
+	private int[][] sparseChoiceActions = new int[][] { new int[0], new int[0] };
+
 
 	protected long timerVal;
 
@@ -393,11 +432,12 @@ public class CSGModelChecker extends ProbModelChecker
 		}
 		ModelCheckerResult res = new ModelCheckerResult();
 		LpSolve lp;
-		ArrayList<ArrayList<Double>> mgame = new ArrayList<ArrayList<Double>>();
+		ValIterWorker[] workers;
 		List<List<List<Map<BitSet, Double>>>> lstrat = null;
 		List<Map<BitSet, Double>> kstrat = null;
 		Map<Integer, BitSet> mmap = null;
 		BitSet known = new BitSet();
+		BitSet unknown = new BitSet();
 		double[] nsol = new double[csg.getNumStates()];
 		double[] ntmp = new double[csg.getNumStates()];
 		long timer;
@@ -434,53 +474,57 @@ public class CSGModelChecker extends ProbModelChecker
 		}
 		known.or(no);
 		known.or(yes);
+		unknown.set(0, csg.getNumStates());
+		unknown.andNot(known);
 		for (s = 0; s < csg.getNumStates(); s++) {
 			nsol[s] = ntmp[s] = no.get(s) ? 0.0 : yes.get(s) ? 1.0 : 0.0;
 		}
-		k = 0;
-		while (!done) {
-			for (s = 0; s < csg.getNumStates(); s++) {
-				if (!known.get(s)) {
-					mgame = buildMatrixGame(csg, null, mmap, ntmp, s, min);
-					try {
-						if (min)
-							lp.resizeLp(0, maxCols + 1);
-						else
-							lp.resizeLp(0, maxRows + 1);
-
-					} catch (LpSolveException e) {
-						throw new PrismException("Exception raised by lpSolve when resizing linear program for state " + s + " at iteration " + k);
-					}
-					nsol[s] = val(lp, mgame, kstrat, mmap, s, false, min);
-					// player -> iteration -> state -> indexes -> value
-					if (bounded && (genStrat || exportAdv)) {
-						if (lstrat.get(0).get(k).get(s) == null || !lstrat.get(0).get(k - 1).get(s).equals(kstrat.get(s))) {
-							lstrat.get(0).get(k).set(s, kstrat.get(s));
-						} else {
-							lstrat.get(0).get(k).set(s, lstrat.get(0).get(k - 1).get(s));
+		lpCache = useLpCache ? new CSGMatrixGameCache(csg.getNumStates(), lpCacheEpsilon) : null;
+		workers = null;
+		try {
+			workers = createValIterWorkers();
+			k = 0;
+			while (!done) {
+				// If running in parallel, compute new values for all states first
+				if (workers != null)
+					valIterStepParallel(workers, csg, null, kstrat, unknown, ntmp, nsol, k, min);
+				for (s = 0; s < csg.getNumStates(); s++) {
+					if (!known.get(s)) {
+						if (workers == null)
+							nsol[s] = valIterStep(csg, null, lp, kstrat, mmap, ntmp, s, k, min);
+						// player -> iteration -> state -> indexes -> value
+						if (bounded && (genStrat || exportAdv)) {
+							if (lstrat.get(0).get(k).get(s) == null || !lstrat.get(0).get(k - 1).get(s).equals(kstrat.get(s))) {
+								lstrat.get(0).get(k).set(s, kstrat.get(s));
+							} else {
+								lstrat.get(0).get(k).set(s, lstrat.get(0).get(k - 1).get(s));
+							}
+						} else if (genStrat || exportAdv) {
+							if (lstrat.get(0).get(0).get(s) == null) {
+								lstrat.get(0).get(0).set(s, kstrat.get(s));
+							} else if (!lstrat.get(0).get(0).get(s).equals(kstrat.get(s))) {
+								lstrat.get(0).get(0).set(s, kstrat.get(s));
+							}
 						}
 					} else if (genStrat || exportAdv) {
-						if (lstrat.get(0).get(0).get(s) == null) {
-							lstrat.get(0).get(0).set(s, kstrat.get(s));
-						} else if (!lstrat.get(0).get(0).get(s).equals(kstrat.get(s))) {
-							lstrat.get(0).get(0).set(s, kstrat.get(s));
-						}
+						lstrat.get(0).get(0).add(s, null);
 					}
-				} else if (genStrat || exportAdv) {
-					lstrat.get(0).get(0).add(s, null);
+				}
+				k++;
+				done = PrismUtils.doublesAreClose(nsol, ntmp, termCritParam, termCrit == TermCrit.RELATIVE);
+				if (!done && k == maxIters) {
+					throw new PrismException("Could not converge after " + maxIters + " iterations");
+				} else if (k == limit) {
+					done = true;
+				} else {
+					ntmp = Arrays.copyOf(nsol, nsol.length);
 				}
 			}
-			k++;
-			done = PrismUtils.doublesAreClose(nsol, ntmp, termCritParam, termCrit == TermCrit.RELATIVE);
-			if (!done && k == maxIters) {
-				throw new PrismException("Could not converge after " + maxIters + " iterations");
-			} else if (k == limit) {
-				done = true;
-			} else {
-				ntmp = Arrays.copyOf(nsol, nsol.length);
-			}
+			mainLog.println("\nValue iteration converged after " + k + " iterations.");
+		} finally {
+			// (also free the linear programs and threads if value iteration fails)
+			finishValIter(lp, workers);
 		}
-		mainLog.println("\nValue iteration converged after " + k + " iterations.");
 		timer = System.currentTimeMillis() - timer;
 		res.soln = nsol;
 		res.numIters = k;
@@ -506,7 +550,7 @@ public class CSGModelChecker extends ProbModelChecker
 		// TODO: confirm that the case min1==min2 is not handled  
 		LpSolve lp;
 		ModelCheckerResult res = new ModelCheckerResult();
-		ArrayList<ArrayList<Double>> mgame = new ArrayList<ArrayList<Double>>();
+		double[][] mgame;
 		List<Map<BitSet, Double>> kstrat = (genStrat || exportAdv) ? new ArrayList<Map<BitSet, Double>>() : null;
 		double nsol[], nsoln2[], ntmp[];
 		long timer;
@@ -529,14 +573,13 @@ public class CSGModelChecker extends ProbModelChecker
 		}
 		for (i = 0; i < k; i++) {
 			for (int s = 0; s < csg.getNumStates(); s++) {
-				mgame.clear();
-				mgame = buildMatrixGame(csg, null, null, nsol, s, min1);
+				mgame = buildMatrixGameShared(csg, null, null, nsol, s, min1);
 				try {
 					if (min1)
 						lp.resizeLp(0, maxCols + 1);
 					else
 						lp.resizeLp(0, maxRows + 1);
-					nsoln2[s] = val(lp, mgame, kstrat, null, s, true, min1);
+					nsoln2[s] = val(lp, mgame, sparseNumActions[0], sparseNumActions[1], kstrat, null, s, true, min1);
 				} catch (Exception e) {
 					e.printStackTrace();
 					throw new PrismException(e.toString());
@@ -979,7 +1022,7 @@ public class CSGModelChecker extends ProbModelChecker
 		}
 		ModelCheckerResult res = new ModelCheckerResult();
 		LpSolve lp;
-		ArrayList<ArrayList<Double>> mgame = new ArrayList<ArrayList<Double>>();
+		ValIterWorker[] workers;
 		List<List<List<Map<BitSet, Double>>>> lstrat = null;
 		List<Map<BitSet, Double>> kstrat = null;
 		Map<Integer, BitSet> mmap = null;
@@ -1033,48 +1076,50 @@ public class CSGModelChecker extends ProbModelChecker
 		unknown.set(0, csg.getNumStates());
 		unknown.andNot(target);
 		unknown.andNot(inf);
-		k = 0;
-		while (!done) {
-			for (s = 0; s < csg.getNumStates(); s++) {
-				if (unknown.get(s)) {
-					mgame = buildMatrixGame(csg, rewards, mmap, ntmp, s, min);
-					try {
-						if (min)
-							lp.resizeLp(0, maxCols + 1);
-						else
-							lp.resizeLp(0, maxRows + 1);
-					} catch (LpSolveException e) {
-						throw new PrismException("Exception raised by lpSolve when resizing linear program for state " + s + " at iteration " + k);
-					}
-					nsol[s] = val(lp, mgame, kstrat, mmap, s, true, min);
-					nsol[s] += rewards.getStateReward(s);
-					if (bounded && (genStrat || exportAdv)) {
-						// player -> iteration -> state -> indexes -> value
-						if (lstrat.get(0).get(k).get(s) == null || !lstrat.get(0).get(k - 1).get(s).equals(kstrat.get(s))) {
-							lstrat.get(0).get(k).set(s, kstrat.get(s));
-						} else {
-							lstrat.get(0).get(k).set(s, lstrat.get(0).get(k - 1).get(s));
-						}
-					} else if (genStrat || exportAdv) {
-						if (lstrat.get(0).get(0).get(s) == null) {
-							lstrat.get(0).get(0).set(s, kstrat.get(s));
-						} else if (!lstrat.get(0).get(0).get(s).equals(kstrat.get(s))) {
-							lstrat.get(0).get(0).set(s, kstrat.get(s));
+		lpCache = useLpCache ? new CSGMatrixGameCache(csg.getNumStates(), lpCacheEpsilon) : null;
+		workers = null;
+		try {
+			workers = createValIterWorkers();
+			k = 0;
+			while (!done) {
+				// If running in parallel, compute new values for all states first
+				if (workers != null)
+					valIterStepParallel(workers, csg, rewards, kstrat, unknown, ntmp, nsol, k, min);
+				for (s = 0; s < csg.getNumStates(); s++) {
+					if (unknown.get(s)) {
+						if (workers == null)
+							nsol[s] = valIterStep(csg, rewards, lp, kstrat, mmap, ntmp, s, k, min);
+						if (bounded && (genStrat || exportAdv)) {
+							// player -> iteration -> state -> indexes -> value
+							if (lstrat.get(0).get(k).get(s) == null || !lstrat.get(0).get(k - 1).get(s).equals(kstrat.get(s))) {
+								lstrat.get(0).get(k).set(s, kstrat.get(s));
+							} else {
+								lstrat.get(0).get(k).set(s, lstrat.get(0).get(k - 1).get(s));
+							}
+						} else if (genStrat || exportAdv) {
+							if (lstrat.get(0).get(0).get(s) == null) {
+								lstrat.get(0).get(0).set(s, kstrat.get(s));
+							} else if (!lstrat.get(0).get(0).get(s).equals(kstrat.get(s))) {
+								lstrat.get(0).get(0).set(s, kstrat.get(s));
+							}
 						}
 					}
 				}
+				k++;
+				done = PrismUtils.doublesAreClose(nsol, ntmp, termCritParam, termCrit == TermCrit.RELATIVE);
+				if (!done && k == maxIters) {
+					throw new PrismException("Could not converge after " + maxIters + " iterations");
+				} else if (k == limit) {
+					done = true;
+				} else {
+					ntmp = Arrays.copyOf(nsol, nsol.length);
+				}
 			}
-			k++;
-			done = PrismUtils.doublesAreClose(nsol, ntmp, termCritParam, termCrit == TermCrit.RELATIVE);
-			if (!done && k == maxIters) {
-				throw new PrismException("Could not converge after " + maxIters + " iterations");
-			} else if (k == limit) {
-				done = true;
-			} else {
-				ntmp = Arrays.copyOf(nsol, nsol.length);
-			}
+			mainLog.println("\nValue iteration converged after " + k + " iterations.");
+		} finally {
+			// (also free the linear programs and threads if value iteration fails)
+			finishValIter(lp, workers);
 		}
-		mainLog.println("\nValue iteration converged after " + k + " iterations.");
 		timer = System.currentTimeMillis() - timer;
 		res.soln = nsol;
 		res.numIters = k;
@@ -1651,7 +1696,7 @@ public class CSGModelChecker extends ProbModelChecker
 
 	/**
 	 * Build the matrix game to solve a CSG state s.
-	 * This is returned as a list of rows, where each row is a list of values.
+	 * This is returned as an array of rows, where each row is an array of values.
 	 * Rows correspond to the maximising coalition, columns to the minimising one. 
 	 * <br><br>
 	 * If argument {@code mmap} is non-null, it is filled with a list of coalition actions
@@ -1666,10 +1711,18 @@ public class CSGModelChecker extends ProbModelChecker
 	 * @param s Index of state to build matrix game for 
 	 * @param min Min or max values for the coalition (true=min, false=max)
 	 */
-	public ArrayList<ArrayList<Double>> buildMatrixGame(CSG csg, CSGRewards r, Map<Integer, BitSet> mmap, double[] val, int s, boolean min)
+	public double[][] buildMatrixGame(CSG csg, CSGRewards r, Map<Integer, BitSet> mmap, double[] val, int s, boolean min)
 			throws PrismException
 	{
-		ArrayList<ArrayList<Double>> mgame = new ArrayList<ArrayList<Double>>();
+		// For sparse CSGs, read the matrix straight from the transitions (and copy it out of the buffer)
+		if (csg instanceof CSGSparse) {
+			double[][] buffer = buildMatrixGameSparse((CSGSparse) csg, r, mmap, val, s, min);
+			double[][] mgame = new double[sparseNumActions[0]][];
+			for (int row = 0; row < mgame.length; row++)
+				mgame[row] = Arrays.copyOf(buffer[row], sparseNumActions[1]);
+			return mgame;
+		}
+		double[][] mgame;
 		ArrayList<CSGRewards> rewards = null;
 		Map<BitSet, Integer> imap = new HashMap<BitSet, Integer>();
 		Map<Integer, BitSet> rmap;
@@ -1697,8 +1750,8 @@ public class CSGModelChecker extends ProbModelChecker
 			}
 		}
 		// For each coalition action of the maximising coalition
+		mgame = new double[strategies.get(0).size()][strategies.get(1).size()];
 		for (row = 0; row < strategies.get(0).size(); row++) {
-			mgame.add(row, new ArrayList<Double>());
 			action.clear();
 			action.set(strategies.get(0).get(row));
 			// For each coalition action of the minimising coalition
@@ -1706,7 +1759,7 @@ public class CSGModelChecker extends ProbModelChecker
 				action.set(strategies.get(1).get(col));
 				// Find corresponding matrix value, store 
 				if (utilities.containsKey(action)) {
-					mgame.get(row).add(col, utilities.get(action).get(0));
+					mgame[row][col] = utilities.get(action).get(0);
 				} else
 					throw new PrismException("Error in building matrix game");
 				action.clear(strategies.get(1).get(col));
@@ -1715,6 +1768,146 @@ public class CSGModelChecker extends ProbModelChecker
 		return mgame;
 	}
 
+	/**
+	 * Build the matrix game to solve a CSG state s, as for {@link #buildMatrixGame},
+	 * but for a {@link CSGSparse}, into a buffer that is reused by the next call.
+	 * Either way, the size of the matrix game is stored in {@code sparseNumActions};
+	 * the returned array may be larger than this.
+	 */
+	private double[][] buildMatrixGameShared(CSG csg, CSGRewards r, Map<Integer, BitSet> mmap, double[] val, int s, boolean min)
+			throws PrismException
+	{
+		if (csg instanceof CSGSparse) {
+			return buildMatrixGameSparse((CSGSparse) csg, r, mmap, val, s, min);
+		}
+		double[][] mgame = buildMatrixGame(csg, r, mmap, val, s, min);
+		sparseNumActions[0] = mgame.length;
+		sparseNumActions[1] = mgame[0].length;
+		return mgame;
+	}
+
+	/**
+	 * Build the matrix game to solve a state s of a {@link CSGSparse},
+	 * reading its entries directly from the joint action table and transitions of s,
+	 * rather than via {@link #buildStepGame}. Arguments and result are as for {@link #buildMatrixGame};
+	 * coalition actions are ordered as in {@link #buildStepGame}, i.e. by first appearance in the choices of s.
+	 * Of the matrix game info fields, only minEntry, allEqual and (for non-trivial games,
+	 * where a linear program is needed) actions are set.
+	 * The returned matrix is a buffer that is reused by the next call; its size
+	 * (which may be smaller than that of the buffer) is stored in {@code sparseNumActions}.
+	 */
+	private double[][] buildMatrixGameSparse(CSGSparse csg, CSGRewards r, Map<Integer, BitSet> mmap, double[] val, int s, boolean min)
+			throws PrismException
+	{
+		int numChoices = csg.getNumChoices(s);
+		// Offsets into the joint action table of s for each step in the action list of each player
+		if (sparseStrides.length < numPlayers)
+			sparseStrides = new int[numPlayers];
+		int[] strides = sparseStrides;
+		int size = 1;
+		for (int p = numPlayers - 1; p >= 0; p--) {
+			strides[p] = size;
+			size *= csg.getNumPlayerActions(s, p);
+		}
+		// For each coalition, index its coalition actions (identified by their offsets)
+		// in order of first appearance, and store the coalition action of each choice
+		for (int c = 0; c < 2; c++) {
+			if (sparseIndexes[c].length < size)
+				sparseIndexes[c] = new int[size];
+			if (sparseOffsets[c].length < numChoices)
+				sparseOffsets[c] = new int[numChoices];
+			if (sparseChoiceActions[c].length < numChoices)
+				sparseChoiceActions[c] = new int[numChoices];
+			Arrays.fill(sparseIndexes[c], 0, size, -1);
+			int num = 0;
+			for (int t = 0; t < numChoices; t++) {
+				int offset = 0;
+				for (int p = coalitionIndexes[c].nextSetBit(0); p >= 0; p = coalitionIndexes[c].nextSetBit(p + 1)) {
+					offset += csg.getPlayerActionPosition(s, t, p) * strides[p];
+				}
+				if (sparseIndexes[c][offset] == -1) {
+					sparseIndexes[c][offset] = num;
+					sparseOffsets[c][num++] = offset;
+				}
+				sparseChoiceActions[c][t] = sparseIndexes[c][offset];
+			}
+			sparseNumActions[c] = num;
+		}
+		int nrows = sparseNumActions[0];
+		int ncols = sparseNumActions[1];
+		// Coalition action descriptions (only needed for linear programs) and indices (for strategies)
+		for (int c = 0; c < numCoalitions; c++) {
+			if (c < actions.size())
+				actions.get(c).clear();
+			else
+				actions.add(c, new ArrayList<String>());
+		}
+		if (nrows > 1 && ncols > 1) {
+			for (int row = 0; row < nrows; row++)
+				actions.get(0).add(getCoalitionActionString(csg, getCoalitionAction(csg, s, 0, strides, sparseOffsets[0][row])));
+			for (int col = 0; col < ncols; col++)
+				actions.get(1).add(getCoalitionActionString(csg, getCoalitionAction(csg, s, 1, strides, sparseOffsets[1][col])));
+		}
+		if (mmap != null) {
+			int c = min ? 1 : 0;
+			mmap.clear();
+			for (int i = 0; i < sparseNumActions[c]; i++)
+				mmap.put(i, getCoalitionAction(csg, s, c, strides, sparseOffsets[c][i]));
+		}
+		// Reset the matrix, growing the buffer if needed
+		if (sparseGame.length < nrows)
+			sparseGame = Arrays.copyOf(sparseGame, nrows);
+		double[][] mgame = sparseGame;
+		for (int row = 0; row < nrows; row++) {
+			if (mgame[row] == null || mgame[row].length < ncols)
+				mgame[row] = new double[Math.max(ncols, maxCols)];
+		}
+		sparseGameSet.clear();
+		// Compute matrix values (and update allEqual/minEntry)
+		// (allEqual is computed exactly as in buildStepGame, so that the same strategies are generated)
+		minEntry = Double.POSITIVE_INFINITY;
+		allEqual = true;
+		double u = Double.NaN;
+		for (int t = 0; t < numChoices; t++) {
+			double v = (val != null) ? csg.mvMultSingle(s, t, val) : 0.0;
+			if (r != null)
+				v += r.getTransitionReward(s, t);
+			allEqual = allEqual && Double.compare(u, v) == 0;
+			mgame[sparseChoiceActions[0][t]][sparseChoiceActions[1][t]] = v;
+			sparseGameSet.set(sparseChoiceActions[0][t] * ncols + sparseChoiceActions[1][t]);
+			minEntry = (minEntry > v) ? v : minEntry;
+			u = v;
+		}
+		if (sparseGameSet.cardinality() < nrows * ncols)
+			throw new PrismException("Error in building matrix game");
+		return mgame;
+	}
+
+	/**
+	 * Get the indices of the actions (incl. "idle") comprising the coalition action of coalition {@code c}
+	 * at offset {@code offset} into the joint action table of state {@code s} of a {@link CSGSparse}.
+	 */
+	private BitSet getCoalitionAction(CSGSparse csg, int s, int c, int[] strides, int offset)
+	{
+		BitSet result = new BitSet();
+		for (int p = coalitionIndexes[c].nextSetBit(0); p >= 0; p = coalitionIndexes[c].nextSetBit(p + 1)) {
+			result.set(csg.getPlayerAction(s, p, (offset / strides[p]) % csg.getNumPlayerActions(s, p)));
+		}
+		return result;
+	}
+
+	/**
+	 * Get a description of a coalition action, given as the indices of its actions (as in {@link #buildStepGame}).
+	 */
+	private String getCoalitionActionString(CSG csg, BitSet coalitionAction)
+	{
+		String act = "";
+		for (int i = coalitionAction.nextSetBit(0); i >= 0; i = coalitionAction.nextSetBit(i + 1)) {
+			act += "[" + csg.getActions().get(i - 1) + "]";
+		}
+		return act;
+	}
+
 	/**
 	 * Build info needed for the matrix game to solve a CSG state s.
 	 * A list of all coalition actions (comprising one action, incl. "idle",
@@ -1834,7 +2027,9 @@ public class CSGModelChecker extends ProbModelChecker
 	 * If requested, store an optimal strategy for the coalition being solved for.   
 	 * 
 	 * @param lp LpSolve instance to use for solving
-	 * @param mgame The matrix
+	 * @param mgame The matrix (which may be modified)
+	 * @param nrows Number of rows of the matrix
+	 * @param ncols Number of columns of the matrix
 	 * @param strat Storage for strategy (as map from coalition actions to probability of selection)
 	 * @param rmap List of coalition actions for the coalition to solve for
 	 *             (stored as a map from (ascending integer) indices to
@@ -1843,12 +2038,10 @@ public class CSGModelChecker extends ProbModelChecker
 	 * @param rew Are we solving a reward (true) or probability (false) problem?
 	 * @param min Are we minimising or maximising? (dictates which coalition to solve for) 
 	 */
-	public double val(LpSolve lp, ArrayList<ArrayList<Double>> mgame, List<Map<BitSet, Double>> strat, Map<Integer, BitSet> rmap, int s, boolean rew,
-			boolean min) throws PrismException
+	public double val(LpSolve lp, double[][] mgame, int nrows, int ncols, List<Map<BitSet, Double>> strat, Map<Integer, BitSet> rmap, int s,
+			boolean rew, boolean min) throws PrismException
 	{
 		long timer = System.currentTimeMillis();
-		int nrows = mgame.size(); // Number of rows
-		int ncols = mgame.get(0).size(); // Number of columns
 		double res = Double.NaN;
 		Map<BitSet, Double> d = new HashMap<BitSet, Double>();
 		// Special cases
@@ -1862,8 +2055,8 @@ public class CSGModelChecker extends ProbModelChecker
 			int srow = 0;
 			res = Double.POSITIVE_INFINITY;
 			for (int col = 0; col < ncols; col++) {
-				if (res > mgame.get(0).get(col)) {
-					res = mgame.get(0).get(col);
+				if (res > mgame[0][col]) {
+					res = mgame[0][col];
 					srow = (min) ? col : 0;
 				}
 			}
@@ -1876,8 +2069,8 @@ public class CSGModelChecker extends ProbModelChecker
 			int scol = 0;
 			res = Double.NEGATIVE_INFINITY;
 			for (int row = 0; row < nrows; row++) {
-				if (res < mgame.get(row).get(0)) {
-					res = mgame.get(row).get(0);
+				if (res < mgame[row][0]) {
+					res = mgame[row][0];
 					scol = (min) ? 0 : row;
 				}
 			}
@@ -1890,7 +2083,7 @@ public class CSGModelChecker extends ProbModelChecker
 			// System.out.println("$$ state " + s + " is concurrent");
 			// Should add check for trivial games
 			int infty;
-			infty = valInfinity(mgame);
+			infty = valInfinity(mgame, nrows, ncols);
 			if (infty != -1) {
 				res = Double.POSITIVE_INFINITY;
 				if (genStrat || exportAdv) {
@@ -1898,8 +2091,14 @@ public class CSGModelChecker extends ProbModelChecker
 				}
 				return res;
 			} else {
+				ncols = removeInfinityColumns(mgame, nrows, ncols);
+				// Use the cached linear program for this state, if caching
+				LpSolve lpShared = lp;
 				try {
-					buildLPLpsolve(lp, mgame, rew, min);
+					if (lpCache != null)
+						lp = buildLPLpsolveCached(mgame, nrows, ncols, s, rew, min);
+					else
+						buildLPLpsolve(lp, mgame, nrows, ncols, rew, min);
 				} catch (LpSolveException e1) {
 					throw new PrismException("Exception raised by lpSolve when building linear program for state  " + s);
 				}
@@ -1914,6 +2113,8 @@ public class CSGModelChecker extends ProbModelChecker
 				//lp.setScaling(LpSolve.SCALE_POWER2);
 				//lp.setScaling(LpSolve.SCALE_EQUILIBRATE);
 				try {
+					if (lpCache != null && lpCache.getBasis(s) != null)
+						lp.setBasis(lpCache.getBasis(s), true);
 					int status = lp.solve();
 					if (status == LpSolve.OPTIMAL) {
 						res = lp.getObjective();
@@ -1926,6 +2127,12 @@ public class CSGModelChecker extends ProbModelChecker
 							}
 							strat.set(s, d);
 						}
+						// Store final basis, to warm-start the next solve
+						if (lpCache != null) {
+							int[] basis = new int[1 + lp.getNrows() + lp.getNcolumns()];
+							lp.getBasis(basis, true);
+							lpCache.setBasis(s, basis);
+						}
 					} else {
 						throw new PrismException("lpSolve could not find an optimal solution for state " + s);
 					}
@@ -1935,21 +2142,21 @@ public class CSGModelChecker extends ProbModelChecker
 					mainLog.println(
 							"Exception raised by lpSolve when computing value for state " + s + ". lpSolve status: " + lp.getStatustext(lp.getStatus()));
 					mainLog.println("Rounding up entries...");
-					ArrayList<ArrayList<Double>> mcopy = new ArrayList<ArrayList<Double>>(mgame);
-					mgame.clear();
+					// Discard any cached linear program and fall back on the shared one
+					if (lpCache != null)
+						lpCache.removeLp(s);
+					lp = lpShared;
 					for (int row = 0; row < nrows; row++) {
-						mgame.add(row, new ArrayList<Double>());
 						for (int col = 0; col < ncols; col++) {
-							mgame.get(row).add(col, Precision.round(mcopy.get(row).get(col), 9, BigDecimal.ROUND_FLOOR));
+							mgame[row][col] = Precision.round(mgame[row][col], 9, BigDecimal.ROUND_FLOOR);
 						}
 					}
-					mcopy.clear();
 					try {
 						if (min)
 							lp.resizeLp(0, maxCols + 1);
 						else
 							lp.resizeLp(0, maxRows + 1);
-						buildLPLpsolve(lp, mgame, rew, min);
+						buildLPLpsolve(lp, mgame, nrows, ncols, rew, min);
 						int status = lp.solve();
 						if (status == LpSolve.OPTIMAL) {
 							res = lp.getObjective();
@@ -1980,46 +2187,56 @@ public class CSGModelChecker extends ProbModelChecker
 	/**
 	 * Deal with infinite cases in solving a matrix game.
 	 * If all values in some row are +inf, return the index of that row (it's optimal).
-	 * Then remove any column containing a +inf and return -1. 
+	 * Otherwise, return -1 (see also {@link #removeInfinityColumns}).
+	 * 
+	 * @param mgame The matrix
+	 * @param nrows Number of rows of the matrix
+	 * @param ncols Number of columns of the matrix
 	 */
-	public int valInfinity(ArrayList<ArrayList<Double>> mgame)
+	public int valInfinity(double[][] mgame, int nrows, int ncols)
 	{
-		BitSet hasInf = new BitSet();
 		int row, col;
 		boolean infRow;
-		// Check which columns have a +inf value,
-		// and whether any row has all values equal to +inf
-		for (row = 0; row < mgame.size(); row++) {
+		for (row = 0; row < nrows; row++) {
 			infRow = true;
-			for (col = 0; col < mgame.get(0).size(); col++) {
-				if (mgame.get(row).get(col) == Double.POSITIVE_INFINITY) {
-					hasInf.set(col);
-				} else {
+			for (col = 0; col < ncols && infRow; col++) {
+				if (mgame[row][col] != Double.POSITIVE_INFINITY) {
 					infRow = false;
 				}
 			}
 			if (infRow)
 				return row;
 		}
-		// If any column contains +inf remove it
-		if (!hasInf.isEmpty()) {
-			ArrayList<ArrayList<Double>> mcopy = new ArrayList<ArrayList<Double>>(mgame);
-			int ncol, nrow;
-			nrow = 0;
-			mgame.clear();
-			for (row = 0; row < mcopy.size(); row++) {
-				mgame.add(nrow, new ArrayList<Double>());
-				ncol = 0;
-				for (col = 0; col < mcopy.get(0).size(); col++) {
-					if (!hasInf.get(col)) {
-						mgame.get(nrow).add(ncol, mcopy.get(row).get(col));
-						ncol++;
+		return -1;
+	}
+
+	/**
+	 * Remove (in place) any column of a matrix game containing a +inf value,
+	 * and return the resulting number of columns.
+	 * 
+	 * @param mgame The matrix
+	 * @param nrows Number of rows of the matrix
+	 * @param ncols Number of columns of the matrix
+	 */
+	public int removeInfinityColumns(double[][] mgame, int nrows, int ncols)
+	{
+		int row, col, ncol;
+		ncol = 0;
+		for (col = 0; col < ncols; col++) {
+			boolean hasInf = false;
+			for (row = 0; row < nrows && !hasInf; row++) {
+				hasInf = mgame[row][col] == Double.POSITIVE_INFINITY;
+			}
+			if (!hasInf) {
+				if (ncol != col) {
+					for (row = 0; row < nrows; row++) {
+						mgame[row][ncol] = mgame[row][col];
 					}
 				}
-				nrow++;
+				ncol++;
 			}
 		}
-		return -1;
+		return ncol;
 	}
 
 	/**
@@ -2027,13 +2244,15 @@ public class CSGModelChecker extends ProbModelChecker
 	 * 
 	 * @param lp LpSolve instance to use for constructing the LP
 	 * @param mgame The matrix
+	 * @param mrows Number of rows of the matrix
+	 * @param mcols Number of columns of the matrix
 	 * @param rew Are we solving a reward (true) or probability (false) problem?
 	 * @param min Are we minimising or maximising? (dictates which coalition to solve for) 
 	 */
-	public void buildLPLpsolve(LpSolve lp, ArrayList<ArrayList<Double>> mgame, boolean rew, boolean min) throws LpSolveException
+	public void buildLPLpsolve(LpSolve lp, double[][] mgame, int mrows, int mcols, boolean rew, boolean min) throws LpSolveException
 	{
-		int nrows = (min) ? mgame.get(0).size() : mgame.size(); // Number of rows
-		int ncols = (min) ? mgame.size() : mgame.get(0).size(); // Number of columns
+		int nrows = (min) ? mcols : mrows; // Number of rows
+		int ncols = (min) ? mrows : mcols; // Number of columns
 		int[] vari = new int[nrows + 1]; // Indexes of variables, should be m + 1 for an m x n matrix
 		double[] row = new double[nrows + 1];
 		lp.setColName(1, "v");
@@ -2061,9 +2280,9 @@ public class CSGModelChecker extends ProbModelChecker
 				k++;
 				vari[k] = k + 1;
 				if (min)
-					row[k] = -1.0 * scaleFactor * mgame.get(j).get(i);
+					row[k] = -1.0 * scaleFactor * mgame[j][i];
 				else
-					row[k] = -1.0 * scaleFactor * mgame.get(i).get(j);
+					row[k] = -1.0 * scaleFactor * mgame[i][j];
 			}
 			if (min)
 				lp.addConstraintex(nrows + 1, row, vari, LpSolve.GE, 0.0);
@@ -2097,6 +2316,214 @@ public class CSGModelChecker extends ProbModelChecker
 		//lp.printLp();
 	}
 
+	/**
+	 * Get a linear program to solve the matrix game for state {@code s}, using {@link #lpCache}.
+	 * If the linear program used for {@code s} last time has the same shape,
+	 * only the coefficients that changed are updated (which also retains its basis);
+	 * otherwise, a new one is built with {@link #buildLPLpsolve} and cached.
+	 * 
+	 * @param mgame The matrix
+	 * @param nrows Number of rows of the matrix
+	 * @param ncols Number of columns of the matrix
+	 * @param s Index of state matrix game is for
+	 * @param rew Are we solving a reward (true) or probability (false) problem?
+	 * @param min Are we minimising or maximising? (dictates which coalition to solve for)
+	 */
+	public LpSolve buildLPLpsolveCached(double[][] mgame, int nrows, int ncols, int s, boolean rew, boolean min) throws LpSolveException
+	{
+		int row, col;
+		LpSolve lp = lpCache.getLp(s);
+		double[][] matrix = lpCache.getMatrix(s);
+		// Same shape as last time: just update changed coefficients
+		// (constraints correspond to the columns/rows of the matrix for max/min, see buildLPLpsolve)
+		if (lp != null && matrix.length == nrows && matrix[0].length == ncols) {
+			for (row = 0; row < nrows; row++) {
+				for (col = 0; col < ncols; col++) {
+					double v = mgame[row][col];
+					if (v != matrix[row][col]) {
+						if (min)
+							lp.setMat(row + 1, col + 2, -1.0 * scaleFactor * v);
+						else
+							lp.setMat(col + 1, row + 2, -1.0 * scaleFactor * v);
+						matrix[row][col] = v;
+					}
+				}
+			}
+			lpCache.lpUpdated(s);
+			return lp;
+		}
+		// Otherwise build from scratch
+		lp = LpSolve.makeLp(0, (min ? ncols : nrows) + 1);
+		lp.setVerbose(LpSolve.CRITICAL);
+		buildLPLpsolve(lp, mgame, nrows, ncols, rew, min);
+		matrix = new double[nrows][];
+		for (row = 0; row < nrows; row++) {
+			matrix[row] = Arrays.copyOf(mgame[row], ncols);
+		}
+		lpCache.setLp(s, lp, matrix);
+		return lp;
+	}
+
+	/**
+	 * Compute the new value for state {@code s} in iteration {@code k} of value iteration,
+	 * by solving its matrix game for the values {@code ntmp} from the previous iteration
+	 * (or reusing the previous value, if {@link #lpCache} allows).
+	 * @param csg The CSG
+	 * @param rewards The rewards (null for probabilities)
+	 * @param lp LpSolve instance to use for solving, if not cached
+	 * @param kstrat Storage for strategy (optional)
+	 * @param mmap Storage for coalition action indices (optional)
+	 * @param ntmp Values from the previous iteration
+	 * @param s Index of state
+	 * @param k Iteration
+	 * @param min Min or max values for the coalition (true=min, false=max)
+	 */
+	protected double valIterStep(CSG csg, CSGRewards rewards, LpSolve lp, List<Map<BitSet, Double>> kstrat, Map<Integer, BitSet> mmap, double[] ntmp,
+			int s, int k, boolean min) throws PrismException
+	{
+		// Reuse the previous value if none of the successors have changed
+		if (lpCache != null && lpCache.canReuse(s, ntmp)) {
+			return lpCache.getValue(s);
+		}
+		double[][] mgame = buildMatrixGameShared(csg, rewards, mmap, ntmp, s, min);
+		if (lpCache == null) {
+			try {
+				if (min)
+					lp.resizeLp(0, maxCols + 1);
+				else
+					lp.resizeLp(0, maxRows + 1);
+			} catch (LpSolveException e) {
+				throw new PrismException("Exception raised by lpSolve when resizing linear program for state " + s + " at iteration " + k);
+			}
+		}
+		double res = val(lp, mgame, sparseNumActions[0], sparseNumActions[1], kstrat, mmap, s, rewards != null, min);
+		if (rewards != null)
+			res += rewards.getStateReward(s);
+		if (lpCache != null)
+			lpCache.storeValue(csg, s, ntmp, res);
+		return res;
+	}
+
+	/**
+	 * Compute the new values for all states in {@code unknown} in iteration {@code k}
+	 * of value iteration, in parallel, storing them in {@code nsol}.
+	 * Blocks of states are handed out to workers until none remain, and this method
+	 * returns once all have been solved. Since each new value depends only on
+	 * the previous values {@code ntmp}, the results are the same as for
+	 * (and independent of the order used by) sequential computation.
+	 * Arguments are as for {@link #valIterStep}.
+	 */
+	protected void valIterStepParallel(ValIterWorker[] workers, CSG csg, CSGRewards rewards, List<Map<BitSet, Double>> kstrat, BitSet unknown,
+			double[] ntmp, double[] nsol, int k, boolean min) throws PrismException
+	{
+		int n = csg.getNumStates();
+		// Use several blocks per worker, to balance load
+		int blockSize = Math.max(1, n / (workers.length * 16));
+		AtomicInteger nextBlock = new AtomicInteger(0);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(workers.length);
+		for (ValIterWorker worker : workers) {
+			tasks.add(() -> {
+				int lo;
+				while ((lo = nextBlock.getAndAdd(blockSize)) < n) {
+					int hi = Math.min(lo + blockSize, n);
+					for (int s = unknown.nextSetBit(lo); s >= 0 && s < hi; s = unknown.nextSetBit(s + 1)) {
+						nsol[s] = worker.mc.valIterStep(csg, rewards, worker.lp, kstrat, worker.mmap, ntmp, s, k, min);
+					}
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> f : valIterExecutor.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			throw new PrismException("Parallel value iteration was interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof PrismException)
+				throw (PrismException) e.getCause();
+			throw new PrismException("Error during parallel value iteration: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Set up the workers (and thread pool) for parallel value iteration,
+	 * or return null if only one thread is to be used.
+	 * This should be called after the coalitions (and {@link #lpCache}) have been set up.
+	 */
+	protected ValIterWorker[] createValIterWorkers() throws PrismException
+	{
+		if (numThreads <= 1) {
+			return null;
+		}
+		ValIterWorker[] workers = new ValIterWorker[numThreads];
+		for (int w = 0; w < numThreads; w++) {
+			workers[w] = new ValIterWorker();
+			workers[w].mc = new CSGModelChecker(this);
+			workers[w].mc.inheritSettings(this);
+			workers[w].mc.setExportAdv(exportAdv);
+			workers[w].mc.copyCoalitionInfo(this);
+			workers[w].mc.lpCache = lpCache;
+			workers[w].mmap = (genStrat || exportAdv) ? new HashMap<Integer, BitSet>() : null;
+			try {
+				workers[w].lp = LpSolve.makeLp(maxCols + 1, maxRows + 1);
+				workers[w].lp.setVerbose(LpSolve.CRITICAL);
+			} catch (LpSolveException e) {
+				// free the linear programs of the workers created so far
+				for (int w2 = 0; w2 <= w; w2++) {
+					if (workers[w2].lp != null)
+						workers[w2].lp.deleteLp();
+				}
+				throw new PrismException(e.toString());
+			}
+		}
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		valIterExecutor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		if (verbosity >= 1)
+			mainLog.println("Using " + numThreads + " threads for value iteration");
+		return workers;
+	}
+
+	/**
+	 * Copy the info about the current coalitions (see {@link #buildCoalitions}) from another model checker.
+	 */
+	protected void copyCoalitionInfo(CSGModelChecker other)
+	{
+		numPlayers = other.numPlayers;
+		numCoalitions = other.numCoalitions;
+		coalitionIndexes = other.coalitionIndexes;
+		actionIndexes = other.actionIndexes;
+		maxRows = other.maxRows;
+		maxCols = other.maxCols;
+		avgNumActions = other.avgNumActions;
+	}
+
+	/**
+	 * Tidy up at the end of value iteration: report on and free the contents of {@link #lpCache}
+	 * (if it was used), the shared linear program {@code lp}, and any parallel workers.
+	 */
+	protected void finishValIter(LpSolve lp, ValIterWorker[] workers)
+	{
+		if (lpCache != null) {
+			if (verbosity >= 1)
+				mainLog.println("Matrix game cache: " + lpCache.getNumReused() + " values reused, " + lpCache.getNumUpdated() + " linear programs updated");
+			lpCache.clear();
+			lpCache = null;
+		}
+		lp.deleteLp();
+		if (workers != null) {
+			for (ValIterWorker worker : workers) {
+				worker.lp.deleteLp();
+			}
+			valIterExecutor.shutdown();
+			valIterExecutor = null;
+		}
+	}
+
 	public static DA<BitSet, AcceptanceRabin> constructDRAForInstant(String labelA, boolean negateA, IntegerBound bounds)
 	{
 		DA<BitSet, AcceptanceRabin> dra;
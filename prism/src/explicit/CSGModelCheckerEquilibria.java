@@ -40,6 +40,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.util.Precision;
@@ -95,6 +101,10 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 	protected CSGLabeledPolytopes eqslps;
 	//smt solver for support enumeration
 	protected CSGSupportEnumeration eqssmt;
+	//smt solvers for support enumeration, one per thread (the first is eqssmt)
+	protected CSGSupportEnumeration[] eqssmts;
+	//thread pool for parallel support enumeration (null if only one thread)
+	protected ExecutorService supportExecutor;
 	
 	protected String smtSolver;
 		
@@ -102,6 +112,15 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 		SAT, UNKNOWN, UNSAT;
 	}
 	
+	/**
+	 * Result of checking a single support with support enumeration:
+	 * status, payoffs and (if an equilibrium was found) strategy.
+	 */
+	protected static class SupportResult {
+		Pair<CSGResultStatus, ArrayList<Double>> eqsresult;
+		ArrayList<Distribution> strat;
+	}
+	
 	public CSGModelCheckerEquilibria(PrismComponent parent) throws PrismException {
 		super(parent);
 		players = new BitSet();
@@ -139,6 +158,45 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 		}
 	}
 
+	/**
+	 * Create the SMT solvers used for support enumeration (one per thread,
+	 * each with its own context) and, if more than one thread is used, a thread pool.
+	 * Support enumeration is currently only implemented using Z3.
+	 */
+	public void setSupportEnumerationSolvers() throws PrismException {
+		eqssmts = new CSGSupportEnumeration[numThreads];
+		for (int w = 0; w < numThreads; w++) {
+			eqssmts[w] = new CSGSupportEnumerationZ3();
+		}
+		eqssmt = eqssmts[0];
+		if (numThreads > 1) {
+			// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+			supportExecutor = Executors.newFixedThreadPool(numThreads, r -> {
+				Thread t = new Thread(r);
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+	
+	/**
+	 * Free the SMT solvers and the thread pool (if any) created by {@link #setSupportEnumerationSolvers()}.
+	 */
+	public void finishSupportEnumerationSolvers() {
+		if (supportExecutor != null) {
+			supportExecutor.shutdown();
+			supportExecutor = null;
+		}
+		if (eqssmts != null) {
+			for (CSGSupportEnumeration smt : eqssmts) {
+				if (smt != null)
+					smt.close();
+			}
+			eqssmts = null;
+			eqssmt = null;
+		}
+	}
+	
 	public void buildCoalitions(CSG csg, List<Coalition> coalitions) throws PrismException {
 		if (coalitions == null || coalitions.isEmpty())
 			throw new PrismException("Coalitions must not be empty");
@@ -861,273 +919,279 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 		buildCoalitions(csg, coalitions);
 		dominated = new BitSet[numCoalitions];
 		dominating = new BitSet[numCoalitions];
+		try {
+			setSupportEnumerationSolvers();
 		
-		VarList newvarlist = (VarList) csg.getVarList().clone();
+			VarList newvarlist = (VarList) csg.getVarList().clone();
 		
-		for (p = 0; p < coalitions.size(); p++) {
-			ps = (BitSet) players.clone();
-			ps.clear(p);
-			goals[p] = new Declaration("_" + p, new DeclarationBool());
-			buildSubGames(games, ps, p);
-			newvarlist.addVar(goals[p].getName(), goals[p].getDeclType(), 0, csg.getConstantValues());
-		}
-		games.add((BitSet) players.clone());
-		unsat.set(0, csg.getNumStates());		
-		for (BitSet subgame : games) {
-			//BitSet intersec = new BitSet();
-			//intersec.set(0, csg.getNumStates()); // intersec only seems to be used to define common, which later does not seem to be used
 			for (p = 0; p < coalitions.size(); p++) {
-				unsat.andNot(targets[p]);
-			//	if (subgame.get(p))
-			//		intersec.and(targets[p]); 
-			//	else
-			//		intersec.andNot(targets[p]);
-			}
-			//common.put(subgame, intersec); // common does not seem to be used afterwards
-		} 
+				ps = (BitSet) players.clone();
+				ps.clear(p);
+				goals[p] = new Declaration("_" + p, new DeclarationBool());
+				buildSubGames(games, ps, p);
+				newvarlist.addVar(goals[p].getName(), goals[p].getDeclType(), 0, csg.getConstantValues());
+			}
+			games.add((BitSet) players.clone());
+			unsat.set(0, csg.getNumStates());		
+			for (BitSet subgame : games) {
+				//BitSet intersec = new BitSet();
+				//intersec.set(0, csg.getNumStates()); // intersec only seems to be used to define common, which later does not seem to be used
+				for (p = 0; p < coalitions.size(); p++) {
+					unsat.andNot(targets[p]);
+				//	if (subgame.get(p))
+				//		intersec.and(targets[p]); 
+				//	else
+				//		intersec.andNot(targets[p]);
+				}
+				//common.put(subgame, intersec); // common does not seem to be used afterwards
+			} 
 		
-		//System.out.println("-- common " + common);
+			//System.out.println("-- common " + common);
 		
-		CSGSimple newmodel = new CSGSimple();
-		newmodel.copyPlayerInfo(csg);
-		newmodel.setActions(csg.getActions());
-		newmodel.setIndexes(csg.getIndexes());
-		newmodel.setIdles(csg.getIdles());
+			CSGSimple newmodel = new CSGSimple();
+			newmodel.copyPlayerInfo(csg);
+			newmodel.setActions(csg.getActions());
+			newmodel.setIndexes(csg.getIndexes());
+			newmodel.setIdles(csg.getIdles());
 		
-		List<State> newstatelist = new ArrayList<State>();
-		BitSet explored = new BitSet();
-		BitSet isubgame = new BitSet();
+			List<State> newstatelist = new ArrayList<State>();
+			BitSet explored = new BitSet();
+			BitSet isubgame = new BitSet();
 		
-		s = csg.getFirstInitialState();
+			s = csg.getFirstInitialState();
 		
-		State initial = new State(csg.getVarList().getNumVars() + numCoalitions);
-		for (v = 0; v < csg.getVarList().getNumVars(); v++) {
-			initial.setValue(v, csg.getStatesList().get(s).varValues[v]);
-		}
+			State initial = new State(csg.getVarList().getNumVars() + numCoalitions);
+			for (v = 0; v < csg.getVarList().getNumVars(); v++) {
+				initial.setValue(v, csg.getStatesList().get(s).varValues[v]);
+			}
 		
-		Map<Integer, Integer> extmap = new HashMap<Integer, Integer>();
+			Map<Integer, Integer> extmap = new HashMap<Integer, Integer>();
 				
-		if (unsat.get(s)) {
-			for (p = 0; p < numCoalitions; p++) {
-				initial.setValue(newvarlist.getIndex(goals[p].getName()), false);
-			}	
-		}
-		else {	
-			for (p = 0; p < numCoalitions; p++) {
-				if (targets[p].get(s)) {
-					initial.setValue(newvarlist.getIndex(goals[p].getName()), true);
-					isubgame.set(p);
-				}
-				else {
+			if (unsat.get(s)) {
+				for (p = 0; p < numCoalitions; p++) {
 					initial.setValue(newvarlist.getIndex(goals[p].getName()), false);
+				}	
+			}
+			else {	
+				for (p = 0; p < numCoalitions; p++) {
+					if (targets[p].get(s)) {
+						initial.setValue(newvarlist.getIndex(goals[p].getName()), true);
+						isubgame.set(p);
+					}
+					else {
+						initial.setValue(newvarlist.getIndex(goals[p].getName()), false);
+					}
 				}
 			}
-		}
 		
-		//System.out.println("-- isubgame " + isubgame);
+			//System.out.println("-- isubgame " + isubgame);
 		
-		mainLog.println("\nBuilding extended model...");
+			mainLog.println("\nBuilding extended model...");
 
-		Map<Integer, Integer> nomap = new HashMap<Integer, Integer>();	
-		Map<BitSet, BitSet> subgames = new HashMap<BitSet, BitSet>();
+			Map<Integer, Integer> nomap = new HashMap<Integer, Integer>();	
+			Map<BitSet, BitSet> subgames = new HashMap<BitSet, BitSet>();
 		
-		n = newmodel.addState();
-		newstatelist.add(n , initial);
-		newmodel.addInitialState(n);
+			n = newmodel.addState();
+			newstatelist.add(n , initial);
+			newmodel.addInitialState(n);
 		
-		newmodel.setVarList(newvarlist);
-		newmodel.setStatesList(newstatelist);
+			newmodel.setVarList(newvarlist);
+			newmodel.setStatesList(newstatelist);
 
-		nomap.put(n, s);
-		extmap.put(initial.hashCode(), n);
-		explored.set(n);
-		exploreSat(csg, newmodel, nomap, extmap, subgames, newstatelist, newvarlist, goals, targets, explored, isubgame, n);
+			nomap.put(n, s);
+			extmap.put(initial.hashCode(), n);
+			explored.set(n);
+			exploreSat(csg, newmodel, nomap, extmap, subgames, newstatelist, newvarlist, goals, targets, explored, isubgame, n);
 		
-		//System.out.println("-- nomap " + nomap);
+			//System.out.println("-- nomap " + nomap);
 		
-		/*
-		for (BitSet subset : common.keySet()) {
-			for (s = common.get(subset).nextSetBit(0); s >= 0; s = common.get(subset).nextSetBit(s + 1)) {
-				subgames.put(subset, new BitSet());
-				subgames.get(subset).set(onmap.get(s));
-				exploreSat(csg, newmodel, subgames, onmap, newstatelist, newvarlist, goals, targets, subset, explored, onmap.get(s));
+			/*
+			for (BitSet subset : common.keySet()) {
+				for (s = common.get(subset).nextSetBit(0); s >= 0; s = common.get(subset).nextSetBit(s + 1)) {
+					subgames.put(subset, new BitSet());
+					subgames.get(subset).set(onmap.get(s));
+					exploreSat(csg, newmodel, subgames, onmap, newstatelist, newvarlist, goals, targets, subset, explored, onmap.get(s));
+				}
 			}
-		}
-		*/
+			*/
 		
-		System.out.println("-- subgames " + subgames);
+			System.out.println("-- subgames " + subgames);
 
-		Path currentRelativePath = Paths.get("");
-		String path = currentRelativePath.toAbsolutePath().toString();		
-		PrismFileLog pflog = new PrismFileLog(path + "/newmodel.dot");
-		newmodel.exportToDotFile(pflog, null, true);
+			Path currentRelativePath = Paths.get("");
+			String path = currentRelativePath.toAbsolutePath().toString();		
+			PrismFileLog pflog = new PrismFileLog(path + "/newmodel.dot");
+			newmodel.exportToDotFile(pflog, null, true);
 	
-		pflog = new PrismFileLog(path + "/model.dot");
-		csg.exportToDotFile(pflog, null, true);
+			pflog = new PrismFileLog(path + "/model.dot");
+			csg.exportToDotFile(pflog, null, true);
 		
-		mainLog.print("\n" + newmodel.infoStringTable() + "\n");
+			mainLog.print("\n" + newmodel.infoStringTable() + "\n");
 				
-		sol = new double[coalitions.size()][newmodel.getNumStates()];
-		val = new double[coalitions.size()][newmodel.getNumStates()];
-		tmp = new double[coalitions.size()][newmodel.getNumStates()];
-		r = new double[newmodel.getNumStates()];
+			sol = new double[coalitions.size()][newmodel.getNumStates()];
+			val = new double[coalitions.size()][newmodel.getNumStates()];
+			tmp = new double[coalitions.size()][newmodel.getNumStates()];
+			r = new double[newmodel.getNumStates()];
 				
-		List<CSGRewards> newrewards = null;
-		if (rew) {
-			newrewards = new ArrayList<CSGRewards>();
-			for (p = 0; p < numCoalitions; p++) {
-				newrewards.add(p, new CSGRewardsSimple(newmodel.getNumStates()));
-			}
-			for (s = 0;  s < newmodel.getNumStates(); s++) {
+			List<CSGRewards> newrewards = null;
+			if (rew) {
+				newrewards = new ArrayList<CSGRewards>();
 				for (p = 0; p < numCoalitions; p++) {
-					((CSGRewardsSimple) newrewards.get(p)).setStateReward(s, rewards.get(p).getStateReward(nomap.get(s)));
-					for (t = 0; t < newmodel.getNumChoices(s); t++) {
-						((CSGRewardsSimple) newrewards.get(p)).setTransitionReward(s, t, rewards.get(p).getTransitionReward(nomap.get(s), t));
+					newrewards.add(p, new CSGRewardsSimple(newmodel.getNumStates()));
+				}
+				for (s = 0;  s < newmodel.getNumStates(); s++) {
+					for (p = 0; p < numCoalitions; p++) {
+						((CSGRewardsSimple) newrewards.get(p)).setStateReward(s, rewards.get(p).getStateReward(nomap.get(s)));
+						for (t = 0; t < newmodel.getNumChoices(s); t++) {
+							((CSGRewardsSimple) newrewards.get(p)).setTransitionReward(s, t, rewards.get(p).getTransitionReward(nomap.get(s), t));
+						}
 					}
 				}
-			}
-			for (BitSet subgame : subgames.keySet()) {
-				for (p = 0; p < numCoalitions; p++) {
-					if (subgame.get(p)) {
-						for (s = subgames.get(subgame).nextSetBit(0); s >= 0; s = subgames.get(subgame).nextSetBit(s + 1)) {
-							((CSGRewardsSimple) newrewards.get(p)).setStateReward(s, 0.0);
-							for (t = 0; t < newmodel.getNumChoices(s); t++) {
-								((CSGRewardsSimple) newrewards.get(p)).setTransitionReward(s, t, 0.0);
-							}						
+				for (BitSet subgame : subgames.keySet()) {
+					for (p = 0; p < numCoalitions; p++) {
+						if (subgame.get(p)) {
+							for (s = subgames.get(subgame).nextSetBit(0); s >= 0; s = subgames.get(subgame).nextSetBit(s + 1)) {
+								((CSGRewardsSimple) newrewards.get(p)).setStateReward(s, 0.0);
+								for (t = 0; t < newmodel.getNumChoices(s); t++) {
+									((CSGRewardsSimple) newrewards.get(p)).setTransitionReward(s, t, 0.0);
+								}						
+							}
 						}
 					}
 				}
 			}
-		}
-		else {
-			for (BitSet subgame : subgames.keySet()) {
-				for (p = 0; p < numCoalitions; p++) {
-					if (subgame.get(p)) {
-						for (s = subgames.get(subgame).nextSetBit(0); s >= 0; s = subgames.get(subgame).nextSetBit(s + 1)) {
-							sol[p][s] = 1.0;
+			else {
+				for (BitSet subgame : subgames.keySet()) {
+					for (p = 0; p < numCoalitions; p++) {
+						if (subgame.get(p)) {
+							for (s = subgames.get(subgame).nextSetBit(0); s >= 0; s = subgames.get(subgame).nextSetBit(s + 1)) {
+								sol[p][s] = 1.0;
+							}
 						}
 					}
 				}
 			}
-		}
-		/*
-		for (s = 0; s < newmodel.getNumStates(); s++) {
-			System.out.println("## old " + nomap.get(s) + " " + csg.getStatesList().get(nomap.get(s)));
-			System.out.println("## new " + s + " " + newmodel.getStatesList().get(s));
-			for (p = 0; p < numCoalitions; p++) {
-				System.out.println("-- player " + p);
-				System.out.println("-- state rewards old " + rewards.get(p).getStateReward(nomap.get(s)));
-				System.out.println("-- state rewards new " + newrewards.get(p).getStateReward(s));
-				for (t = 0; t < newmodel.getNumChoices(s); t++) {
-					System.out.println("-- trans rewards old " + csg.getAction(nomap.get(s), t) + " " + rewards.get(p).getTransitionReward(nomap.get(s), t));
-					System.out.println("-- trans rewards new " + newmodel.getAction(s, t) + " " + newrewards.get(p).getTransitionReward(s, t));
+			/*
+			for (s = 0; s < newmodel.getNumStates(); s++) {
+				System.out.println("## old " + nomap.get(s) + " " + csg.getStatesList().get(nomap.get(s)));
+				System.out.println("## new " + s + " " + newmodel.getStatesList().get(s));
+				for (p = 0; p < numCoalitions; p++) {
+					System.out.println("-- player " + p);
+					System.out.println("-- state rewards old " + rewards.get(p).getStateReward(nomap.get(s)));
+					System.out.println("-- state rewards new " + newrewards.get(p).getStateReward(s));
+					for (t = 0; t < newmodel.getNumChoices(s); t++) {
+						System.out.println("-- trans rewards old " + csg.getAction(nomap.get(s), t) + " " + rewards.get(p).getTransitionReward(nomap.get(s), t));
+						System.out.println("-- trans rewards new " + newmodel.getAction(s, t) + " " + newrewards.get(p).getTransitionReward(s, t));
+					}
 				}
 			}
-		}
 		
-		System.exit(1);
-		*/
-		if (genStrat || exportAdv) {
-			mmap = new ArrayList<Map<Integer, BitSet>>();
-			sstrat = new ArrayList<List<Map<BitSet, Double>>>();
-			lstrat = new ArrayList<List<List<Map<BitSet, Double>>>>();
-			for (i = 0; i < coalitions.size(); i++) {
-        		mmap.add(i, new HashMap<Integer, BitSet>());
-				lstrat.add(i, new ArrayList<List<Map<BitSet, Double>>>());
-				lstrat.get(i).add(0, new ArrayList<Map<BitSet, Double>>());
-				for (j = 0; j < newmodel.getNumStates(); j++) {	
-					lstrat.get(i).get(0).add(j, null);
-				}
-			} 
-		}
+			System.exit(1);
+			*/
+			if (genStrat || exportAdv) {
+				mmap = new ArrayList<Map<Integer, BitSet>>();
+				sstrat = new ArrayList<List<Map<BitSet, Double>>>();
+				lstrat = new ArrayList<List<List<Map<BitSet, Double>>>>();
+				for (i = 0; i < coalitions.size(); i++) {
+	        		mmap.add(i, new HashMap<Integer, BitSet>());
+					lstrat.add(i, new ArrayList<List<Map<BitSet, Double>>>());
+					lstrat.get(i).add(0, new ArrayList<Map<BitSet, Double>>());
+					for (j = 0; j < newmodel.getNumStates(); j++) {	
+						lstrat.get(i).get(0).add(j, null);
+					}
+				} 
+			}
 				
-		for (p = 0; p < numCoalitions; p++) {
-			Arrays.fill(tmp[p], 0.0);
-			Arrays.fill(val[p], 0.0);
-		}
-		String sols;
-		done = true;
-		k = 0;
-		while (true) {
-			//System.out.print(k + ": ");
-			for (s = 0; s < newmodel.getNumStates(); s++) {
-				//System.out.println("\n## s " + s + " " + newmodel.getStatesList().get(s));		
-				if (genStrat || exportAdv) {
-					sstrat = new ArrayList<List<Map<BitSet, Double>>>();
-					for (i = 0; i < coalitions.size(); i++) {
-		        		mmap.get(i).clear();
-		        	}
-				}
-				if (rew) {
-					eq = stepEquilibria(newmodel, newrewards, mmap, sstrat, sol, s, min);
-					addStateRewards(eq, newrewards, s, min);
+			for (p = 0; p < numCoalitions; p++) {
+				Arrays.fill(tmp[p], 0.0);
+				Arrays.fill(val[p], 0.0);
+			}
+			String sols;
+			done = true;
+			k = 0;
+			while (true) {
+				//System.out.print(k + ": ");
+				for (s = 0; s < newmodel.getNumStates(); s++) {
+					//System.out.println("\n## s " + s + " " + newmodel.getStatesList().get(s));		
+					if (genStrat || exportAdv) {
+						sstrat = new ArrayList<List<Map<BitSet, Double>>>();
+						for (i = 0; i < coalitions.size(); i++) {
+			        		mmap.get(i).clear();
+			        	}
+					}
+					if (rew) {
+						eq = stepEquilibria(newmodel, newrewards, mmap, sstrat, sol, s, min);
+						addStateRewards(eq, newrewards, s, min);
+					}
+					else {
+						eq = stepEquilibria(newmodel, null, mmap, sstrat, sol, s, min);
+					}
+					sw = swne(eq, sstrat, min);
+					for (p = 0; p < numCoalitions; p++) {
+						val[p][s] = sw[p + 1];
+					}
+					if (genStrat || exportAdv) {			
+						for (p = 0; p < coalitions.size(); p++) {
+							if (lstrat.get(p).get(0).get(s) == null) {
+								lstrat.get(p).get(0).set(s, sstrat.get(0).get(p));
+							}
+							else if (!lstrat.get(0).get(0).get(s).equals(sstrat.get(0).get(p)) && checkEquilibriumChange(sol, sw, s)) { // will have to change for min
+								lstrat.get(p).get(0).set(s, sstrat.get(0).get(p));
+							}
+						}		
+					}
 				}
-				else {
-					eq = stepEquilibria(newmodel, null, mmap, sstrat, sol, s, min);
+				for (s = 0; s < newmodel.getNumStates(); s++) {
+					for (p = 0; p < numCoalitions; p++) {
+						sol[p][s] = val[p][s];
+					}
+					r[s] = 0.0;
+					for (p = 0; p < numCoalitions; p++) {
+						r[s] += sol[p][s];
+					}
 				}
-				sw = swne(eq, sstrat, min);
+				//System.out.println();
+				sols = "(";
 				for (p = 0; p < numCoalitions; p++) {
-					val[p][s] = sw[p + 1];
+					if (p < numCoalitions - 1)
+						sols += sol[p][newmodel.getFirstInitialState()] + ",";
+					else
+						sols += sol[p][newmodel.getFirstInitialState()] + ")";
+					//System.out.println(p + " " + sol[p][newmodel.getFirstInitialState()]);
+					done = done & PrismUtils.doublesAreClose(sol[p], tmp[p], 1e-6, true);
 				}
-				if (genStrat || exportAdv) {			
-					for (p = 0; p < coalitions.size(); p++) {
-						if (lstrat.get(p).get(0).get(s) == null) {
-							lstrat.get(p).get(0).set(s, sstrat.get(0).get(p));
-						}
-						else if (!lstrat.get(0).get(0).get(s).equals(sstrat.get(0).get(p)) && checkEquilibriumChange(sol, sw, s)) { // will have to change for min
-							lstrat.get(p).get(0).set(s, sstrat.get(0).get(p));
-						}
-					}		
+				System.out.println(k + ": " + sols);
+				k++;
+				if (done) {
+					break;
 				}
-			}
-			for (s = 0; s < newmodel.getNumStates(); s++) {
-				for (p = 0; p < numCoalitions; p++) {
-					sol[p][s] = val[p][s];
+				else if (!done && k == maxIters) {
+					throw new PrismException("Could not converge after " + k + " iterations");
 				}
-				r[s] = 0.0;
-				for (p = 0; p < numCoalitions; p++) {
-					r[s] += sol[p][s];
+				else {
+					done = true;
+					for (p = 0; p < numCoalitions; p++) {
+						//System.out.println(Arrays.toString(sol[p]));
+						tmp[p] = Arrays.copyOf(sol[p], sol[p].length);
+					}
 				}
 			}
-			//System.out.println();
-			sols = "(";
+			mainLog.println();
 			for (p = 0; p < numCoalitions; p++) {
-				if (p < numCoalitions - 1)
-					sols += sol[p][newmodel.getFirstInitialState()] + ",";
-				else
-					sols += sol[p][newmodel.getFirstInitialState()] + ")";
-				//System.out.println(p + " " + sol[p][newmodel.getFirstInitialState()]);
-				done = done & PrismUtils.doublesAreClose(sol[p], tmp[p], 1e-6, true);
-			}
-			System.out.println(k + ": " + sols);
-			k++;
-			if (done) {
-				break;
-			}
-			else if (!done && k == maxIters) {
-				throw new PrismException("Could not converge after " + k + " iterations");
+				mainLog.println("Result for coalition " + coalitions.get(p) + ": " + sol[p][newmodel.getFirstInitialState()] + " (value in the intial state).");
 			}
-			else {
-				done = true;
+			r = new double[csg.getNumStates()];
+			for (s = 0; s < newmodel.getNumStates(); s++) {
+				r[nomap.get(s)] = 0.0;
 				for (p = 0; p < numCoalitions; p++) {
-					//System.out.println(Arrays.toString(sol[p]));
-					tmp[p] = Arrays.copyOf(sol[p], sol[p].length);
+					r[nomap.get(s)] += sol[p][s];
 				}
 			}
+			if (genStrat || exportAdv)
+				res.strat = new CSGStrategy(newmodel, lstrat, subgames, numCoalitions, CSGStrategyType.EQUILIBRIA_M);
+		} finally {
+			// (also free the solvers if the computation fails)
+			finishSupportEnumerationSolvers();
 		}
-		mainLog.println();
-		for (p = 0; p < numCoalitions; p++) {
-			mainLog.println("Result for coalition " + coalitions.get(p) + ": " + sol[p][newmodel.getFirstInitialState()] + " (value in the intial state).");
-		}
-		r = new double[csg.getNumStates()];
-		for (s = 0; s < newmodel.getNumStates(); s++) {
-			r[nomap.get(s)] = 0.0;
-			for (p = 0; p < numCoalitions; p++) {
-				r[nomap.get(s)] += sol[p][s];
-			}
-		}
-		if (genStrat || exportAdv)
-			res.strat = new CSGStrategy(newmodel, lstrat, subgames, numCoalitions, CSGStrategyType.EQUILIBRIA_M);
 		res.soln = r;
 		res.numIters = k;
 		return res;
@@ -1657,11 +1721,6 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 			//System.out.println("## " + s);
 			buildAllSupports();
 			
-			eqssmt.setIndexes(strategies);
-			eqssmt.setNumPlayers(numCoalitions);
-			eqssmt.init();
-			eqssmt.translateAssertions(assertions, mapActionIndex);
-			
 			/*
 			eqss.setNumPlayers(numCoalitions);
 			eqss.setIndexes(strategies);
@@ -1720,11 +1779,12 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 			else {
 				//System.out.println("Solver call");
 				//System.out.println(utilities);
+				SupportResult[] suppResults = enumerateSupports(s);
 				for (int supp = 0; supp < allSupports.size(); supp++) {
 					//if (allSupports.get(supp).cardinality() == 25)
 					//System.out.println("\n ## Support " + allSupports.get(supp));
 					//System.out.println("## Support " + allSupports.get(supp));
-					eqsresult = eqssmt.computeEquilibria(allSupports.get(supp), mapActionIndex, s);
+					eqsresult = suppResults[supp].eqsresult;
 					//eqsresult = new Pair<CSGResultStatus, ArrayList<Double>>(CSGResultStatus.UNKNOWN, new ArrayList<Double>());
 					if (eqsresult.first == CSGResultStatus.SAT) {
 						/*
@@ -1745,8 +1805,8 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 							eqstrat = new ArrayList<Map<BitSet, Double>>();
 							for (p = 0; p < numCoalitions; p++) {
 								eqstrat.add(p, new HashMap<BitSet, Double>());
-								for (int t : eqssmt.getStrat().get(p).getSupport()) {
-									eqstrat.get(p).put(mmap.get(p).get(t), eqssmt.getStrat().get(p).get(t));
+								for (int t : suppResults[supp].strat.get(p).getSupport()) {
+									eqstrat.get(p).put(mmap.get(p).get(t), suppResults[supp].strat.get(p).get(t));
 								}
 								//System.out.println("-- strat " + p + " " + eqstrat.get(p));
 							}
@@ -1798,6 +1858,58 @@ public class CSGModelCheckerEquilibria extends CSGModelChecker {
 		return result;
 	}
 	
+	/**
+	 * Check each of the supports in {@code allSupports} for an equilibrium, for the game
+	 * (assertions) currently built for state {@code s}, using the SMT solvers in {@code eqssmts}.
+	 * If more than one thread is used, workers take supports from a shared queue (in order).
+	 * All supports are always checked (since the equilibrium selected may depend on any of them),
+	 * and results are stored by support index, so the result does not depend on the number of threads.
+	 */
+	public SupportResult[] enumerateSupports(int s) throws PrismException {
+		int nSupports = allSupports.size();
+		SupportResult[] results = new SupportResult[nSupports];
+		AtomicInteger next = new AtomicInteger(0);
+		int nWorkers = supportExecutor == null ? 1 : Math.min(eqssmts.length, nSupports);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nWorkers);
+		for (int w = 0; w < nWorkers; w++) {
+			CSGSupportEnumeration smt = eqssmts[w];
+			tasks.add(() -> {
+				smt.setIndexes(strategies);
+				smt.setNumPlayers(numCoalitions);
+				smt.init();
+				smt.translateAssertions(assertions, mapActionIndex);
+				int supp;
+				while ((supp = next.getAndIncrement()) < nSupports) {
+					SupportResult res = new SupportResult();
+					res.eqsresult = smt.computeEquilibria(allSupports.get(supp), mapActionIndex, s);
+					if (res.eqsresult.first == CSGResultStatus.SAT) {
+						res.strat = smt.getStrat();
+					}
+					results[supp] = res;
+				}
+				return null;
+			});
+		}
+		if (nWorkers == 1) {
+			try {
+				tasks.get(0).call();
+			} catch (Exception e) {
+				throw new PrismException("Error during support enumeration for state " + s + ": " + e);
+			}
+		} else {
+			try {
+				for (Future<Void> f : supportExecutor.invokeAll(tasks)) {
+					f.get();
+				}
+			} catch (InterruptedException e) {
+				throw new PrismException("Support enumeration was interrupted");
+			} catch (ExecutionException e) {
+				throw new PrismException("Error during support enumeration for state " + s + ": " + e.getCause());
+			}
+		}
+		return results;
+	}
+	
 	public double[][] stepEquilibria(CSG csg, CSGRewards csgRewards1, CSGRewards csgRewards2, List<Map<Integer, BitSet>> mmap, CSGLabeledPolytopes nash,
 			List<List<Map<BitSet, Double>>> strats, double[][] val, int s, boolean min) throws PrismException {
 		Map<BitSet, Double> d1 = null;
@@ -0,0 +1,311 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Vector;
+
+import prism.PlayerInfo;
+import prism.PlayerInfoOwner;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a (multi-player) concurrent stochastic game (CSG).
+ * Transitions are stored exactly as for {@link MDPSparse}. In addition, for each state, the actions
+ * (incl. "idle") of each player are stored, along with the position of each player's action
+ * in each choice, so that matrix games can be read straight from the transition arrays.
+ * This is faster to access than CSGSimple and should also be much more compact.
+ * The catch is that you have to create the model all in one go and then can't modify it
+ * (other than its player info).
+ */
+public class CSGSparse extends MDPSparse implements CSG
+{
+	/** List of all action labels */
+	protected Vector<String> actionList;
+
+	/** Number of players */
+	protected int numPlayers;
+
+	/** Player action indices for each choice, stored as a flat array of size numDistrs*numPlayers,
+	 * giving the (1-indexed) index for the action performed by each player, and -1 if the player idles. */
+	protected int choiceIndexes[];
+
+	/** Indices into playerActions giving the start of the actions for each state/player pair
+	 * (s*numPlayers+p); array is of size numStates*numPlayers+1 */
+	protected int playerActionStarts[];
+	/** For each state/player, the (1-indexed, ascending) indices of the actions taken by the player
+	 * in some choice of the state, where an idling player takes its "idle" action */
+	protected int playerActions[];
+
+	/** Indices of actions owned by each player,
+	 * i.e., a BitSet of (1-indexed) action indices for each player. */
+	protected BitSet[] indexes;
+
+	/** Indices of the actions representing "idle" for each player. */
+	protected int[] idles;
+
+	/**
+	 * Player information
+	 */
+	protected PlayerInfo playerInfo;
+
+	// Constructors
+
+	/**
+	 * Copy constructor (from CSGSimple).
+	 */
+	public CSGSparse(CSGSimple csg)
+	{
+		this(csg, false);
+	}
+
+	/**
+	 * Copy constructor (from CSGSimple). Optionally, transitions within choices
+	 * are sorted (by ascending order of column index).
+	 * Player info is also copied across.
+	 * @param csg The CSG to copy
+	 * @param sort Whether or not to sort column indices
+	 */
+	public CSGSparse(CSGSimple csg, boolean sort)
+	{
+		super(csg, sort);
+		int permut[] = new int[numStates];
+		for (int s = 0; s < numStates; s++) {
+			permut[s] = s;
+		}
+		copyCSGInfo(csg, permut);
+	}
+
+	/**
+	 * Copy constructor (from CSGSimple). Optionally, transitions within choices
+	 * are sorted (by ascending order of column index). Also, optionally, a state
+	 * index permutation can be provided, i.e. old state index i becomes index permut[i].
+	 * Player info is also copied across.
+	 * Note: a states list, if present, will not be permuted and should be set
+	 * separately afterwards if required.
+	 * @param csg The CSG to copy
+	 * @param sort Whether or not to sort column indices
+	 * @param permut State space permutation
+	 */
+	public CSGSparse(CSGSimple csg, boolean sort, int permut[])
+	{
+		super(csg, sort, permut);
+		copyCSGInfo(csg, permut);
+	}
+
+	/**
+	 * Copy the CSG-specific info (actions, players, joint action indices) from {@code csg},
+	 * applying state index permutation {@code permut}, and build the joint action tables.
+	 */
+	private void copyCSGInfo(CSGSimple csg, int permut[])
+	{
+		actionList = csg.getActions();
+		indexes = csg.getIndexes();
+		idles = csg.getIdles();
+		playerInfo = new PlayerInfo(csg.playerInfo);
+		numPlayers = csg.getNumPlayers();
+		int permutInv[] = new int[numStates];
+		for (int s = 0; s < numStates; s++) {
+			permutInv[permut[s]] = s;
+		}
+		// Copy joint action indices
+		choiceIndexes = new int[numDistrs * numPlayers];
+		for (int s = 0; s < numStates; s++) {
+			List<int[]> transIndexes = csg.getTransIndexes(permutInv[s]);
+			for (int i = 0, numChoices = getNumChoices(s); i < numChoices; i++) {
+				System.arraycopy(transIndexes.get(i), 0, choiceIndexes, (rowStarts[s] + i) * numPlayers, numPlayers);
+			}
+		}
+		// Store the actions of each player in each state
+		playerActionStarts = new int[numStates * numPlayers + 1];
+		int numPlayerActions = 0;
+		BitSet acts = new BitSet();
+		for (int s = 0; s < numStates; s++) {
+			for (int p = 0; p < numPlayers; p++) {
+				playerActionStarts[s * numPlayers + p] = numPlayerActions;
+				numPlayerActions += getIndexesForPlayer(s, p, acts).cardinality();
+			}
+		}
+		playerActionStarts[numStates * numPlayers] = numPlayerActions;
+		playerActions = new int[numPlayerActions];
+		for (int s = 0; s < numStates; s++) {
+			for (int p = 0; p < numPlayers; p++) {
+				int j = playerActionStarts[s * numPlayers + p];
+				getIndexesForPlayer(s, p, acts);
+				for (int a = acts.nextSetBit(0); a >= 0; a = acts.nextSetBit(a + 1)) {
+					playerActions[j++] = a;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Helper: compute the indices of actions taken by player {@code p} in state {@code s}
+	 * (as for {@link #getIndexesForPlayer(int, int)}) from the joint action indices, storing them in {@code result}.
+	 */
+	private BitSet getIndexesForPlayer(int s, int p, BitSet result)
+	{
+		result.clear();
+		for (int i = rowStarts[s] * numPlayers + p, end = rowStarts[s + 1] * numPlayers; i < end; i += numPlayers) {
+			result.set(choiceIndexes[i] > 0 ? choiceIndexes[i] : idles[p]);
+		}
+		return result;
+	}
+
+	// Mutators
+
+	/**
+	 * Copy the player info from another model
+	 */
+	public void copyPlayerInfo(PlayerInfoOwner model)
+	{
+		playerInfo = new PlayerInfo(model.getPlayerInfo());
+	}
+
+	// Accessors (for PlayerInfoOwner)
+
+	@Override
+	public PlayerInfo getPlayerInfo()
+	{
+		return playerInfo;
+	}
+
+	// Accessors (for CSG)
+
+	@Override
+	public Vector<String> getActions()
+	{
+		return actionList;
+	}
+
+	@Override
+	public int[] getIndexes(int s, int i)
+	{
+		int start = (rowStarts[s] + i) * numPlayers;
+		return Arrays.copyOfRange(choiceIndexes, start, start + numPlayers);
+	}
+
+	@Override
+	public BitSet getIndexesForPlayer(int s, int p)
+	{
+		BitSet result = new BitSet();
+		for (int j = playerActionStarts[s * numPlayers + p]; j < playerActionStarts[s * numPlayers + p + 1]; j++) {
+			result.set(playerActions[j]);
+		}
+		return result;
+	}
+
+	@Override
+	public String[] getActions(int s, int i)
+	{
+		String[] result = new String[numPlayers];
+		for (int p = 0; p < numPlayers; p++) {
+			int a = choiceIndexes[(rowStarts[s] + i) * numPlayers + p];
+			result[p] = (a > 0) ? actionList.get(a - 1) : "<" + p + ">";
+		}
+		return result;
+	}
+
+	@Override
+	public BitSet[] getIndexes()
+	{
+		return indexes;
+	}
+
+	@Override
+	public int[] getIdles()
+	{
+		return idles;
+	}
+
+	@Override
+	public int getIdleForPlayer(int p)
+	{
+		return idles[p];
+	}
+
+	@Override
+	public BitSet getConcurrentPlayers(int s)
+	{
+		BitSet result = new BitSet();
+		for (int p = 0; p < numPlayers; p++) {
+			int numActions = 0;
+			for (int j = playerActionStarts[s * numPlayers + p]; j < playerActionStarts[s * numPlayers + p + 1]; j++) {
+				if (playerActions[j] != idles[p])
+					numActions++;
+			}
+			if (numActions >= 2)
+				result.set(p);
+		}
+		return result;
+	}
+
+	@Override
+	public Distribution getChoice(int s, int i)
+	{
+		Distribution distr = new Distribution();
+		for (int j = choiceStarts[rowStarts[s] + i], end = choiceStarts[rowStarts[s] + i + 1]; j < end; j++) {
+			distr.add(cols[j], nonZeros[j]);
+		}
+		return distr;
+	}
+
+	// Accessors (for joint action tables)
+
+	/**
+	 * Get the number of actions (incl. "idle") taken by player {@code p} in some choice of state {@code s}.
+	 */
+	public int getNumPlayerActions(int s, int p)
+	{
+		return playerActionStarts[s * numPlayers + p + 1] - playerActionStarts[s * numPlayers + p];
+	}
+
+	/**
+	 * Get the (1-indexed) index of the {@code j}th action (incl. "idle") taken by player {@code p}
+	 * in state {@code s}, where actions are in ascending order of index.
+	 */
+	public int getPlayerAction(int s, int p, int j)
+	{
+		return playerActions[playerActionStarts[s * numPlayers + p] + j];
+	}
+
+	/**
+	 * Get the position of the action (incl. "idle") taken by player {@code p} in choice {@code i} of state {@code s}
+	 * in the list of p's actions in s (see {@link #getPlayerAction(int, int, int)}).
+	 */
+	public int getPlayerActionPosition(int s, int i, int p)
+	{
+		int a = choiceIndexes[(rowStarts[s] + i) * numPlayers + p];
+		if (a <= 0) {
+			a = idles[p];
+		}
+		int lo = playerActionStarts[s * numPlayers + p];
+		return Arrays.binarySearch(playerActions, lo, playerActionStarts[s * numPlayers + p + 1], a) - lo;
+	}
+
+}
@@ -30,4 +30,9 @@ public interface CSGSupportEnumeration {
 	
 	public ArrayList<Distribution> getStrat();
 
+	/**
+	 * Free the resources (e.g. solver context) used by this object.
+	 */
+	public void close();
+
 }
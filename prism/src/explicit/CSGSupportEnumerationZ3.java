@@ -19,6 +19,7 @@ import com.microsoft.z3.Status;
 
 import explicit.CSGModelCheckerEquilibria.CSGResultStatus;
 import prism.Pair;
+import prism.PrismException;
 
 public class CSGSupportEnumerationZ3 implements CSGSupportEnumeration {
 
@@ -44,10 +45,14 @@ public class CSGSupportEnumerationZ3 implements CSGSupportEnumeration {
     
     private int ndigits = 9;
 	
-	public CSGSupportEnumerationZ3() {
+	public CSGSupportEnumerationZ3() throws PrismException {
     	cfg = new HashMap<String, String>();
         cfg.put("model", "true");
-        ctx = new Context(cfg);
+        try {
+        	ctx = new Context(cfg);
+        } catch (UnsatisfiedLinkError e) {
+        	throw new PrismException("Could not initialise Z3: " + e.getMessage());
+        }
         s = ctx.mkSolver();        
         
         params = ctx.mkParams();
@@ -207,6 +212,11 @@ public class CSGSupportEnumerationZ3 implements CSGSupportEnumeration {
 	public ArrayList<Distribution> getStrat() {
 		return new ArrayList<Distribution>(this.strat);
 	}
+
+	@Override
+	public void close() {
+		ctx.close();
+	}
 	
 	@Override
 	public void setGradient(HashMap<Integer, HashMap<Integer, ArrayList<Pair<BitSet, Double>>>> gradient) {
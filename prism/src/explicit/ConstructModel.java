@@ -33,6 +33,12 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import parser.State;
 import parser.Values;
@@ -46,6 +52,7 @@ import prism.PrismException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
 import prism.ProgressDisplay;
 import prism.UndefinedConstants;
 
@@ -65,12 +72,16 @@ public class ConstructModel extends PrismComponent
 	/** Sort the reachable states before constructing the model? */
 	protected boolean sortStates = true;
 	/** Build a sparse representation, if possible?
-	 *  (e.g. MDPSparse rather than MDPSimple data structure) */
+	 *  (e.g. MDPSparse/SMGSparse rather than MDPSimple/SMGSimple data structure) */
 	protected boolean buildSparse = true;
 	/** Should actions be attached to distributions (and used to distinguish them)? */
 	protected boolean distinguishActions = true;
 	/** Should labels be processed and attached to the model? */
 	protected boolean attachLabels = true;
+	/** Store reachable states in bit-packed form during construction, if possible? */
+	protected boolean packStates = true;
+	/** Number of threads to use for exploring states (only for PRISM models, i.e. {@link simulator.ModulesFileModelGenerator}) */
+	protected int numThreads = 1;
 
 	// Details of built model:
 
@@ -80,6 +91,9 @@ public class ConstructModel extends PrismComponent
 	public ConstructModel(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+		}
 	}
 
 	/**
@@ -116,6 +130,26 @@ public class ConstructModel extends PrismComponent
 		this.buildSparse = buildSparse;
 	}
 
+	/**
+	 * Store reachable states in bit-packed form during construction, if possible?
+	 * (i.e. use a {@link PackedIndexedSet} rather than an {@link IndexedSet}, which needs
+	 * much less memory, but requires all variables to be bounded integers or Booleans)
+	 */
+	public void setPackStates(boolean packStates)
+	{
+		this.packStates = packStates;
+	}
+
+	/**
+	 * Set the number of threads to use for exploring states.
+	 * This is only done in parallel for PRISM models, i.e. {@link simulator.ModulesFileModelGenerator}.
+	 * The model built is the same, regardless of the number of threads.
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
 	/**
 	 * Should actions be attached to distributions (and used to distinguish them)?
 	 */
@@ -267,7 +301,11 @@ public class ConstructModel extends PrismComponent
 		}
 
 		// Initialise states storage
-		states = new IndexedSet<State>(true);
+		if (packStates && PackedIndexedSet.canPack(varList)) {
+			states = new PackedIndexedSet(varList);
+		} else {
+			states = new IndexedSet<State>(true);
+		}
 		explore = new LinkedList<State>();
 		// Add initial state(s) to 'explore', 'states' and to the model
 		for (State initState : modelGen.getInitialStates()) {
@@ -279,130 +317,269 @@ public class ConstructModel extends PrismComponent
 			}
 		}
 
+		// If using multiple threads, states are explored in parallel (see below)
+		StateExplorer explorer = createStateExplorer(modelGen, modelType, justReach);
+
 		// Explore...
 		src = -1;
-		while (!explore.isEmpty()) {
-			// Pick next state to explore
-			// (they are stored in order found so know index is src+1)
-			state = explore.removeFirst();
-			src++;
-			// Explore all choices/transitions from this state
-			modelGen.exploreState(state);
-			nc = modelGen.getNumChoices();
-			// For turn-based games, first determine which player owns the state
-			if (modelType.multiplePlayers() && !modelType.concurrent()) {
-				player = modelGen.getPlayerOwningState();
-				if (modelType == ModelType.STPG) {
-					stpg.setPlayer(src, player);
-				} else if (modelType == ModelType.SMG) {
-					smg.setPlayer(src, player);
-				}
-			}
-			// Look at each outgoing choice in turn
-			for (i = 0; i < nc; i++) {
-				// If required, check for duplicate actions here
-				if (modelType.partiallyObservable()) {
-					if (((NondetModel) modelSimple).getChoiceByAction(src, modelGen.getChoiceAction(i)) != -1) {
-						String act = modelGen.getChoiceAction(i) == null ? "" : modelGen.getChoiceAction(i).toString();
-						String err = modelType + " is not allowed duplicate action";
-						err += " (\"" + act + "\") in state " + state.toString(modelGen);
-						throw new PrismException(err);
+		if (explorer == null) {
+			while (!explore.isEmpty()) {
+				// Pick next state to explore
+				// (they are stored in order found so know index is src+1)
+				state = explore.removeFirst();
+				src++;
+				// Explore all choices/transitions from this state
+				modelGen.exploreState(state);
+				nc = modelGen.getNumChoices();
+				// For turn-based games, first determine which player owns the state
+				if (modelType.multiplePlayers() && !modelType.concurrent()) {
+					player = modelGen.getPlayerOwningState();
+					if (modelType == ModelType.STPG) {
+						stpg.setPlayer(src, player);
+					} else if (modelType == ModelType.SMG) {
+						smg.setPlayer(src, player);
 					}
 				}
-				// For nondet models, collect transitions in a Distribution
-				if (!justReach && modelType.nondeterministic()) {
-					distr = new Distribution();
-				}
-				// Look at each transition in the choice
-				nt = modelGen.getNumTransitions(i);
-				for (j = 0; j < nt; j++) {
-					stateNew = modelGen.computeTransitionTarget(i, j);
-					// Is this a new state?
-					if (states.add(stateNew)) {
-						// If so, add to the explore list
-						explore.add(stateNew);
-						// And to model
+				// Look at each outgoing choice in turn
+				for (i = 0; i < nc; i++) {
+					// If required, check for duplicate actions here
+					if (modelType.partiallyObservable()) {
+						if (((NondetModel) modelSimple).getChoiceByAction(src, modelGen.getChoiceAction(i)) != -1) {
+							String act = modelGen.getChoiceAction(i) == null ? "" : modelGen.getChoiceAction(i).toString();
+							String err = modelType + " is not allowed duplicate action";
+							err += " (\"" + act + "\") in state " + state.toString(modelGen);
+							throw new PrismException(err);
+						}
+					}
+					// For nondet models, collect transitions in a Distribution
+					if (!justReach && modelType.nondeterministic()) {
+						distr = new Distribution();
+					}
+					// Look at each transition in the choice
+					nt = modelGen.getNumTransitions(i);
+					for (j = 0; j < nt; j++) {
+						stateNew = modelGen.computeTransitionTarget(i, j);
+						// Is this a new state?
+						if (states.add(stateNew)) {
+							// If so, add to the explore list
+							explore.add(stateNew);
+							// And to model
+							if (!justReach) {
+								modelSimple.addState();
+							}
+						}
+						// Get index of state in state set
+						dest = states.getIndexOfLastAdd();
+						// Add transitions to model
 						if (!justReach) {
-							modelSimple.addState();
+							switch (modelType) {
+							case DTMC:
+								dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
+								break;
+							case CTMC:
+								ctmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
+								break;
+							case MDP:
+							case POMDP:
+							case CTMDP:
+							case STPG:
+							case SMG:
+							case CSG:
+								distr.add(dest, modelGen.getTransitionProbability(i, j));
+								break;
+							case LTS:
+								if (distinguishActions) {
+									lts.addActionLabelledTransition(src, dest, modelGen.getChoiceAction(i));
+								} else {
+									lts.addTransition(src, dest);
+								}
+								break;
+							case PTA:
+								throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
+							}
 						}
 					}
-					// Get index of state in state set
-					dest = states.getIndexOfLastAdd();
-					// Add transitions to model
+					// For nondet models, add collated transition to model 
 					if (!justReach) {
-						switch (modelType) {
-						case DTMC:
-							dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case CTMC:
-							ctmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case MDP:
-						case POMDP:
-						case CTMDP:
-						case STPG:
-						case SMG:
-						case CSG:
-							distr.add(dest, modelGen.getTransitionProbability(i, j));
-							break;
-						case LTS:
+						if (modelType == ModelType.MDP) {
+							if (distinguishActions) {
+								mdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							} else {
+								mdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.POMDP) {
+							if (distinguishActions) {
+								pomdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							} else {
+								pomdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.CTMDP) {
+							if (distinguishActions) {
+								ctmdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							} else {
+								ctmdp.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.STPG) {
+							if (distinguishActions) {
+								stpg.addActionLabelledChoice(src, distr, modelGen.getTransitionAction(i, 0));
+							} else {
+								stpg.addChoice(src, distr);
+							}
+						} else if (modelType == ModelType.CSG) {
+							// Action labels required for CSGs
+							csg.addActionLabelledChoice(src, distr, modelGen.getTransitionIndexes(i));
+						}
+						else if (modelType == ModelType.SMG) {
 							if (distinguishActions) {
-								lts.addActionLabelledTransition(src, dest, modelGen.getChoiceAction(i));
+								smg.addActionLabelledChoice(src, distr, modelGen.getTransitionAction(i, 0));
 							} else {
-								lts.addTransition(src, dest);
+								smg.addChoice(src, distr);
 							}
-							break;
-						case PTA:
-							throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
 						}
 					}
 				}
-				// For nondet models, add collated transition to model 
-				if (!justReach) {
-					if (modelType == ModelType.MDP) {
-						if (distinguishActions) {
-							mdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							mdp.addChoice(src, distr);
+				// For partially observable models, add observation info to state
+				// (do it after transitions are added, since observation actions are checked)
+				if (!justReach && modelType == ModelType.POMDP) {
+					setStateObservation(modelGen, (POMDPSimple) modelSimple, src, state);
+				}
+				// Print some progress info occasionally
+				progress.updateIfReady(src + 1);
+			}
+		} else {
+			// States are explored in parallel, by workers with their own copy of the model generator,
+			// but results are still processed here, in the same order as for sequential exploration
+			// (so the model is identical)
+			LinkedList<Future<ExploredState>> pending = new LinkedList<>();
+			try {
+				while (!explore.isEmpty() || !pending.isEmpty()) {
+					// Pick next state to explore
+					// (they are stored in order found so know index is src+1)
+					while (pending.size() < explorer.maxPending && !explore.isEmpty()) {
+						pending.add(explorer.submit(explore.removeFirst()));
+					}
+					ExploredState expl = explorer.get(pending.removeFirst());
+					state = expl.state;
+					src++;
+					nc = expl.numChoices;
+					// For turn-based games, first determine which player owns the state
+					if (modelType.multiplePlayers() && !modelType.concurrent()) {
+						player = expl.player;
+						if (modelType == ModelType.STPG) {
+							stpg.setPlayer(src, player);
+						} else if (modelType == ModelType.SMG) {
+							smg.setPlayer(src, player);
 						}
-					} else if (modelType == ModelType.POMDP) {
-						if (distinguishActions) {
-							pomdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							pomdp.addChoice(src, distr);
+					}
+					// Look at each outgoing choice in turn
+					for (i = 0; i < nc; i++) {
+						// If required, check for duplicate actions here
+						if (modelType.partiallyObservable()) {
+							if (((NondetModel) modelSimple).getChoiceByAction(src, expl.choiceActions[i]) != -1) {
+								String act = expl.choiceActions[i] == null ? "" : expl.choiceActions[i].toString();
+								String err = modelType + " is not allowed duplicate action";
+								err += " (\"" + act + "\") in state " + state.toString(modelGen);
+								throw new PrismException(err);
+							}
 						}
-					} else if (modelType == ModelType.CTMDP) {
-						if (distinguishActions) {
-							ctmdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
-						} else {
-							ctmdp.addChoice(src, distr);
+						// For nondet models, collect transitions in a Distribution
+						if (!justReach && modelType.nondeterministic()) {
+							distr = new Distribution();
 						}
-					} else if (modelType == ModelType.STPG) {
-						if (distinguishActions) {
-							stpg.addActionLabelledChoice(src, distr, modelGen.getTransitionAction(i, 0));
-						} else {
-							stpg.addChoice(src, distr);
+						// Look at each transition in the choice
+						nt = expl.targets[i].length;
+						for (j = 0; j < nt; j++) {
+							stateNew = expl.targets[i][j];
+							// Is this a new state?
+							if (states.add(stateNew)) {
+								// If so, add to the explore list
+								explore.add(stateNew);
+								// And to model
+								if (!justReach) {
+									modelSimple.addState();
+								}
+							}
+							// Get index of state in state set
+							dest = states.getIndexOfLastAdd();
+							// Add transitions to model
+							if (!justReach) {
+								switch (modelType) {
+								case DTMC:
+									dtmc.addToProbability(src, dest, expl.probs[i][j]);
+									break;
+								case CTMC:
+									ctmc.addToProbability(src, dest, expl.probs[i][j]);
+									break;
+								case MDP:
+								case POMDP:
+								case CTMDP:
+								case STPG:
+								case SMG:
+								case CSG:
+									distr.add(dest, expl.probs[i][j]);
+									break;
+								case LTS:
+									if (distinguishActions) {
+										lts.addActionLabelledTransition(src, dest, expl.choiceActions[i]);
+									} else {
+										lts.addTransition(src, dest);
+									}
+									break;
+								case PTA:
+									throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
+								}
+							}
 						}
-					} else if (modelType == ModelType.CSG) {
-						// Action labels required for CSGs
-						csg.addActionLabelledChoice(src, distr, modelGen.getTransitionIndexes(i));
-					}
-					else if (modelType == ModelType.SMG) {
-						if (distinguishActions) {
-							smg.addActionLabelledChoice(src, distr, modelGen.getTransitionAction(i, 0));
-						} else {
-							smg.addChoice(src, distr);
+						// For nondet models, add collated transition to model 
+						if (!justReach) {
+							if (modelType == ModelType.MDP) {
+								if (distinguishActions) {
+									mdp.addActionLabelledChoice(src, distr, expl.choiceActions[i]);
+								} else {
+									mdp.addChoice(src, distr);
+								}
+							} else if (modelType == ModelType.POMDP) {
+								if (distinguishActions) {
+									pomdp.addActionLabelledChoice(src, distr, expl.choiceActions[i]);
+								} else {
+									pomdp.addChoice(src, distr);
+								}
+							} else if (modelType == ModelType.CTMDP) {
+								if (distinguishActions) {
+									ctmdp.addActionLabelledChoice(src, distr, expl.choiceActions[i]);
+								} else {
+									ctmdp.addChoice(src, distr);
+								}
+							} else if (modelType == ModelType.STPG) {
+								if (distinguishActions) {
+									stpg.addActionLabelledChoice(src, distr, expl.transitionActions[i]);
+								} else {
+									stpg.addChoice(src, distr);
+								}
+							} else if (modelType == ModelType.CSG) {
+								// Action labels required for CSGs
+								csg.addActionLabelledChoice(src, distr, expl.transitionIndexes[i]);
+							}
+							else if (modelType == ModelType.SMG) {
+								if (distinguishActions) {
+									smg.addActionLabelledChoice(src, distr, expl.transitionActions[i]);
+								} else {
+									smg.addChoice(src, distr);
+								}
+							}
 						}
 					}
+					// For partially observable models, add observation info to state
+					// (do it after transitions are added, since observation actions are checked)
+					if (!justReach && modelType == ModelType.POMDP) {
+						setStateObservation(modelGen, (POMDPSimple) modelSimple, src, state, expl.observation);
+					}
+					// Print some progress info occasionally
+					progress.updateIfReady(src + 1);
 				}
+			} finally {
+				explorer.shutdown();
 			}
-			// For partially observable models, add observation info to state
-			// (do it after transitions are added, since observation actions are checked)
-			if (!justReach && modelType == ModelType.POMDP) {
-				setStateObservation(modelGen, (POMDPSimple) modelSimple, src, state);
-			}
-			// Print some progress info occasionally
-			progress.updateIfReady(src + 1);
 		}
 
 		// Finish progress display
@@ -411,6 +588,9 @@ public class ConstructModel extends PrismComponent
 
 		// Reachability complete
 		mainLog.print("Reachable states exploration" + (justReach ? "" : " and model construction"));
+		if (explorer != null) {
+			mainLog.print(" (" + numThreads + " threads)");
+		}
 		mainLog.println(" done in " + ((System.currentTimeMillis() - timer) / 1000.0) + " secs.");
 		//mainLog.println(states);
 		
@@ -430,6 +610,11 @@ public class ConstructModel extends PrismComponent
 			}
 		}
 				
+		// Add idle actions
+		// (before any copy of the model is made, since CSGSparse indexes them)
+		if (modelType == ModelType.CSG) 
+			csg.addIdleIndexes();
+		
 		int permut[] = null;
 
 		if (sortStates) {
@@ -473,13 +658,26 @@ public class ConstructModel extends PrismComponent
 				model = sortStates ? new CTMDPSimple(ctmdp, permut) : ctmdp;
 				break;
 			case CSG:
-				model = sortStates ? new CSGSimple(csg, permut) : csg;
+				if (buildSparse) {
+					// (permute via CSGSimple, so that transitions, and hence strategy exports, are ordered as for CSGSimple)
+					model = sortStates ? new CSGSparse(new CSGSimple(csg, permut)) : new CSGSparse(csg);
+				} else {
+					model = sortStates ? new CSGSimple(csg, permut) : csg;
+				}
 				break;
 			case STPG:
-				model = sortStates ? new STPGSimple(stpg, permut) : stpg;
+				if (buildSparse) {
+					model = sortStates ? new STPGSparse(stpg, true, permut) : new STPGSparse(stpg);
+				} else {
+					model = sortStates ? new STPGSimple(stpg, permut) : stpg;
+				}
 				break;
 			case SMG:
-				model = sortStates ? new SMGSimple(smg, permut) : smg;
+				if (buildSparse) {
+					model = sortStates ? new SMGSparse(smg, true, permut) : new SMGSparse(smg);
+				} else {
+					model = sortStates ? new SMGSimple(smg, permut) : smg;
+				}
 				break;
 			case LTS:
 				model = sortStates ? new LTSSimple(lts, permut) : lts;
@@ -491,10 +689,6 @@ public class ConstructModel extends PrismComponent
 			model.setConstantValues(new Values(modelGen.getConstantValues()));
 		}
 
-		// Add idle actions
-		if (modelType == ModelType.CSG) 
-			csg.addIdleIndexes();
-		
 		// Discard permutation
 		permut = null;
 
@@ -504,11 +698,171 @@ public class ConstructModel extends PrismComponent
 		return model;
 	}
 
+	/**
+	 * Info about a state and its outgoing choices/transitions, as found by a model generator,
+	 * i.e., everything needed to add it to the model being constructed
+	 * (only used when exploring in parallel; otherwise, the model generator is queried directly).
+	 */
+	protected static class ExploredState
+	{
+		/** The state */
+		State state;
+		/** Number of choices */
+		int numChoices;
+		/** Player owning the state (turn-based games only) */
+		int player;
+		/** Action of each choice (if needed) */
+		Object[] choiceActions;
+		/** Action of the first transition of each choice (STPGs/SMGs only) */
+		Object[] transitionActions;
+		/** Action indices of each choice (CSGs only) */
+		int[][] transitionIndexes;
+		/** Target state of each transition of each choice */
+		State[][] targets;
+		/** Probability/rate of each transition of each choice (null if just doing reachability) */
+		double[][] probs;
+		/** Observation for the state (POMDPs only) */
+		State observation;
+	}
+
+	/**
+	 * Explore state {@code state} using model generator {@code modelGen}
+	 * and return the info needed to add it to the model.
+	 */
+	protected ExploredState exploreState(ModelGenerator modelGen, ModelType modelType, boolean justReach, State state) throws PrismException
+	{
+		ExploredState expl = new ExploredState();
+		expl.state = state;
+		modelGen.exploreState(state);
+		int nc = modelGen.getNumChoices();
+		expl.numChoices = nc;
+		if (modelType.multiplePlayers() && !modelType.concurrent()) {
+			expl.player = modelGen.getPlayerOwningState();
+		}
+		boolean needChoiceActions = modelType.partiallyObservable() || (!justReach && distinguishActions
+				&& (modelType == ModelType.MDP || modelType == ModelType.POMDP || modelType == ModelType.CTMDP || modelType == ModelType.LTS));
+		boolean needTransitionActions = !justReach && distinguishActions && (modelType == ModelType.STPG || modelType == ModelType.SMG);
+		boolean needTransitionIndexes = !justReach && modelType == ModelType.CSG;
+		expl.choiceActions = needChoiceActions ? new Object[nc] : null;
+		expl.transitionActions = needTransitionActions ? new Object[nc] : null;
+		expl.transitionIndexes = needTransitionIndexes ? new int[nc][] : null;
+		expl.targets = new State[nc][];
+		expl.probs = justReach ? null : new double[nc][];
+		for (int i = 0; i < nc; i++) {
+			if (needChoiceActions) {
+				expl.choiceActions[i] = modelGen.getChoiceAction(i);
+			}
+			int nt = modelGen.getNumTransitions(i);
+			expl.targets[i] = new State[nt];
+			if (!justReach) {
+				expl.probs[i] = new double[nt];
+			}
+			for (int j = 0; j < nt; j++) {
+				expl.targets[i][j] = modelGen.computeTransitionTarget(i, j);
+				if (!justReach) {
+					expl.probs[i][j] = modelGen.getTransitionProbability(i, j);
+				}
+			}
+			if (needTransitionActions) {
+				expl.transitionActions[i] = modelGen.getTransitionAction(i, 0);
+			}
+			if (needTransitionIndexes) {
+				expl.transitionIndexes[i] = modelGen.getTransitionIndexes(i).clone();
+			}
+		}
+		if (!justReach && modelType == ModelType.POMDP) {
+			expl.observation = modelGen.getObservation(state);
+		}
+		return expl;
+	}
+
+	/**
+	 * Explores states in parallel, using a pool of threads,
+	 * each with its own copy of the model generator.
+	 */
+	protected class StateExplorer
+	{
+		/** Max number of states to have submitted but not yet processed */
+		int maxPending;
+		ModelType modelType;
+		boolean justReach;
+		ExecutorService executor;
+		/** Model generators not currently in use */
+		BlockingQueue<ModelGenerator> modelGens;
+
+		/**
+		 * Submit a state for exploration.
+		 */
+		Future<ExploredState> submit(State state)
+		{
+			return executor.submit(() -> {
+				ModelGenerator modelGen = modelGens.take();
+				try {
+					return exploreState(modelGen, modelType, justReach, state);
+				} finally {
+					modelGens.put(modelGen);
+				}
+			});
+		}
+
+		/**
+		 * Wait for the exploration of a state to finish and get the result.
+		 */
+		ExploredState get(Future<ExploredState> future) throws PrismException
+		{
+			try {
+				return future.get();
+			} catch (InterruptedException e) {
+				throw new PrismException("Model construction was interrupted");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof PrismException)
+					throw (PrismException) e.getCause();
+				throw new PrismException("Error during model construction: " + e.getCause());
+			}
+		}
+
+		void shutdown()
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Create a {@link StateExplorer} to explore states in parallel, if more than one thread
+	 * is to be used and the model generator supports it; otherwise return null.
+	 */
+	protected StateExplorer createStateExplorer(ModelGenerator modelGen, ModelType modelType, boolean justReach) throws PrismException
+	{
+		if (numThreads <= 1 || !(modelGen instanceof simulator.ModulesFileModelGenerator)) {
+			return null;
+		}
+		StateExplorer explorer = new StateExplorer();
+		explorer.maxPending = numThreads * 1024;
+		explorer.modelType = modelType;
+		explorer.justReach = justReach;
+		explorer.modelGens = new ArrayBlockingQueue<>(numThreads);
+		for (int i = 0; i < numThreads; i++) {
+			explorer.modelGens.add(((simulator.ModulesFileModelGenerator) modelGen).createCopy());
+		}
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		explorer.executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		return explorer;
+	}
+
 	private void setStateObservation(ModelGenerator modelGen, POMDPSimple pomdp, int s, State state) throws PrismException
 	{
 		// Get observation for the current state
+		setStateObservation(modelGen, pomdp, s, state, modelGen.getObservation(state));
+	}
+
+	private void setStateObservation(ModelGenerator modelGen, POMDPSimple pomdp, int s, State state, State sObs) throws PrismException
+	{
+		// Observation for the current state (sObs) has already been computed
 		// An observation is a State containing the value for each observable
-		State sObs = modelGen.getObservation(state);
 		// Build unobservation for the current state
 		// An unobservation is a State containing the value for
 		// all variables that are not observable
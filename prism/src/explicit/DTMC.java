@@ -58,9 +58,9 @@ public interface DTMC extends Model
 		// Output transitions to .tra file
 		int numStates = getNumStates();
 		out.print(numStates + " " + getNumTransitions() + "\n");
-		TreeMap<Integer, Pair<Double, Object>> sorted = new TreeMap<Integer, Pair<Double, Object>>();
-		for (int i = 0; i < numStates; i++) {
+		ParallelExporter.export(out, numStates, supportsConcurrentReads(), (i, log) -> {
 			// Extract transitions and sort by destination state index (to match PRISM-exported files)
+			TreeMap<Integer, Pair<Double, Object>> sorted = new TreeMap<Integer, Pair<Double, Object>>();
 			Iterator<Map.Entry<Integer,Pair<Double, Object>>> iter = getTransitionsAndActionsIterator(i);
 			while (iter.hasNext()) {
 				Map.Entry<Integer, Pair<Double, Object>> e = iter.next();
@@ -69,15 +69,14 @@ public interface DTMC extends Model
 			// Print out (sorted) transitions
 			for (Map.Entry<Integer, Pair<Double, Object>> e : sorted.entrySet()) {
 				// Note use of PrismUtils.formatDouble to match PRISM-exported files
-				out.print(i + " " + e.getKey() + " " + PrismUtils.formatDouble(precision, e.getValue().first));
+				log.print(i + " " + e.getKey() + " " + PrismUtils.formatDouble(precision, e.getValue().first));
 				Object action = e.getValue().second; 
 				if (action != null && !"".equals(action)) {
-					out.print(" " + action);
+					log.print(" " + action);
 				}
-				out.print("\n");
+				log.print("\n");
 			}
-			sorted.clear();
-		}
+		});
 	}
 
 	@Override
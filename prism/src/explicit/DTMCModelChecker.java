@@ -542,7 +542,6 @@ public class DTMCModelChecker extends ProbModelChecker
 		BitSet no, yes;
 		int n, numYes, numNo;
 		long timer, timerProb0, timerProb1;
-		PredecessorRelation pre = null;
 		// Local copy of setting
 		LinEqMethod linEqMethod = this.linEqMethod;
 
@@ -598,34 +597,33 @@ public class DTMCModelChecker extends ProbModelChecker
 			out.close();
 		}
 
-		if (precomp && (prob0 || prob1) && preRel) {
-			pre = dtmc.getPredecessorRelation(this, true);
-		}
+		PredecessorRelation pre = (precomp && (prob0 || prob1) && preRel) ? dtmc.getPredecessorRelation(this, true) : null;
 
-		// Precomputation
+		// Precomputation (results are cached, where possible)
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			if (preRel) {
-				no = prob0(dtmc, remain, target, pre);
-			} else {
-				no = prob0(dtmc, remain, target);
-			}
+			no = precomputeCached("Prob0", dtmc, remain, target, false, (r, t) -> preRel ? prob0(dtmc, r, t, pre) : prob0(dtmc, r, t));
 		} else {
 			no = new BitSet();
 		}
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			if (preRel) {
-				yes = prob1(dtmc, remain, target, pre);
-			} else {
-				yes = prob1(dtmc, remain, target);
-			}
+			yes = precomputeCached("Prob1", dtmc, remain, target, false, (r, t) -> preRel ? prob1(dtmc, r, t, pre) : prob1(dtmc, r, t));
 		} else {
 			yes = (BitSet) target.clone();
 		}
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 
+		// Warm-start the iterative method with a previous solution from the cache, if possible
+		boolean cacheSoln = canCacheReachProbs(dtmc, init);
+		if (cacheSoln) {
+			init = modelCheckerCache.getReachProbsInit("ReachProbs", remain, target, false);
+			if (init != null) {
+				mainLog.println("Using cached solution as initial vector for iterative method");
+			}
+		}
+
 		// Print results of precomputation
 		numYes = yes.cardinality();
 		numNo = no.cardinality();
@@ -656,6 +654,9 @@ public class DTMCModelChecker extends ProbModelChecker
 			} else {
 				res = doValueIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, getDoTopologicalValueIteration());
 			}
+			if (cacheSoln) {
+				modelCheckerCache.storeReachProbs("ReachProbs", remain, target, false, res.soln);
+			}
 		} else {
 			res = new ModelCheckerResult();
 			res.soln = Utils.bitsetToDoubleArray(yes, n);
@@ -1727,16 +1728,18 @@ public class DTMCModelChecker extends ProbModelChecker
 			target = targetNew;
 		}
 
-		// Precomputation (not optional)
+		// Precomputation (not optional; result cached, where possible)
 		timerProb1 = System.currentTimeMillis();
-		if (preRel) {
-			// prob1 via predecessor relation
-			PredecessorRelation pre = dtmc.getPredecessorRelation(this, true);
-			inf = prob1(dtmc, null, target, pre);
-		} else {
-			// prob1 via fixed-point algorithm
-			inf = prob1(dtmc, null, target);
-		}
+		inf = precomputeCached("Prob1", dtmc, null, target, false, (r, t) -> {
+			if (preRel) {
+				// prob1 via predecessor relation
+				PredecessorRelation pre = dtmc.getPredecessorRelation(this, true);
+				return prob1(dtmc, r, t, pre);
+			} else {
+				// prob1 via fixed-point algorithm
+				return prob1(dtmc, r, t);
+			}
+		});
 		inf.flip(0, n);
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 
@@ -95,6 +95,28 @@ public class DTMCSparse extends DTMCExplicit
 		predecessorRelation = dtmc.hasStoredPredecessorRelation() ? dtmc.getPredecessorRelation(null, false) : null;
 	}
 
+	/**
+	 * Constructor: Build new DTMCSparse directly from its sparse matrix storage.
+	 * The arrays are stored, not copied. States without any transitions are marked as deadlocks
+	 * (but not fixed); initial states, labels etc. need to be added separately.
+	 *
+	 * @param numStates Number of states
+	 * @param rows Indices into columns/probabilities for each state (array of size numStates+1)
+	 * @param columns Column (destination) indices for each transition
+	 * @param probabilities Probabilities for each transition
+	 */
+	public DTMCSparse(int numStates, int rows[], int columns[], double probabilities[]) {
+		initialise(numStates);
+		this.rows = rows;
+		this.columns = columns;
+		this.probabilities = probabilities;
+		for (int state = 0; state < numStates; state++) {
+			if (rows[state] == rows[state + 1]) {
+				deadlocks.add(state);
+			}
+		}
+	}
+
 	public DTMCSparse(final DTMC dtmc, int[] permut) {
 		initialise(dtmc.getNumStates());
 		for (Integer state : dtmc.getDeadlockStates()) {
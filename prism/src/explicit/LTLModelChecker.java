@@ -28,13 +28,11 @@
 
 package explicit;
 
-import java.awt.Point;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -48,10 +46,12 @@ import acceptance.AcceptanceReach;
 import acceptance.AcceptanceStreett;
 import acceptance.AcceptanceType;
 import automata.DA;
+import automata.DATransitionTable;
 import automata.LTL2DA;
 import automata.LTL2WDBA;
 import common.IterableStateSet;
 import common.StopWatch;
+import explicit.modelviews.STPGProductView;
 import jltl2ba.SimpleLTL;
 import parser.State;
 import parser.VarList;
@@ -491,10 +491,18 @@ public class LTLModelChecker extends PrismComponent
 		DA<BitSet, AcceptanceReach> da = constructDFAForCosafetyProbLTL(mc, model, expr, labelBS);
 
 		// Build product of model and automaton
+		// (for games, the product is explored on-the-fly rather than built)
 		mainLog.println("Constructing " + model.getModelType() + "-" + da.getAutomataType() + " product...");
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("product construction");
-		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest);
+		LTLProduct<M> product;
+		if (model instanceof STPG) {
+			@SuppressWarnings("unchecked")
+			LTLProduct<M> productView = (LTLProduct<M>) constructProductView(da, (STPG) model, labelBS, statesOfInterest);
+			product = productView;
+		} else {
+			product = constructProductModel(da, model, labelBS, statesOfInterest);
+		}
 		timer.stop("product has " + product.getProductModel().infoString());
 
 		return product;
@@ -542,11 +550,9 @@ public class LTLModelChecker extends PrismComponent
 	{
 		ModelType modelType = model.getModelType();
 		int daSize = da.size();
-		int numAPs = da.getAPList().size();
 		int modelNumStates = model.getNumStates();
 		int prodNumStates;
 		int s_1, s_2, q_1, q_2, t_2;
-		BitSet s_labels = new BitSet(numAPs);
 		List<State> prodStatesList = null, daStatesList = null;
 
 		try {
@@ -555,23 +561,24 @@ public class LTLModelChecker extends PrismComponent
 			throw new PrismException("Size of product state space of model and automaton is too large for explicit engine");
 		}
 
-		VarList newVarList = null;
-
-		if (model.getVarList() != null) {
-			VarList varList = model.getVarList();
-			// Create a (new, unique) name for the variable that will represent DA states
-			String daVar = "_da";
-			while (varList.getIndex(daVar) != -1) {
-				daVar = "_" + daVar;
-			}
-
-			newVarList = (VarList) varList.clone();
-			// NB: if DA only has one state, we add an extra dummy state
-			Declaration decl = new Declaration(daVar, new DeclarationInt(Expression.Int(0), Expression.Int(Math.max(da.size() - 1, 1))));
-			newVarList.addVar(0, decl, 1, model.getConstantValues());
+		// Compile the DA transition function into a table indexed by letters,
+		// and compute the letter (set of APs satisfied) for each model state once
+		// (if the DA has too many APs for this, look up edges by label instead)
+		DATransitionTable daTable = null;
+		int letters[] = null;
+		BitSet s_labels = null;
+		if (DATransitionTable.isSupported(da)) {
+			daTable = new DATransitionTable(da);
+			letters = DATransitionTable.computeLetters(da.getAPList(), labelBS, modelNumStates);
+		} else {
+			s_labels = new BitSet(da.getAPList().size());
 		}
 
-		// Create a (simple, mutable) model of the appropriate type
+		VarList newVarList = createProductVarList(da, model);
+
+		// DTMCs and MDPs are built directly in sparse form (see below);
+		// for games, create a (simple, mutable) model of the appropriate type
+		boolean buildSparse = modelType == ModelType.DTMC || modelType == ModelType.MDP;
 		ModelSimple prodModel = null;
 		switch (modelType) {
 		case CSG:
@@ -579,18 +586,9 @@ public class LTLModelChecker extends PrismComponent
 			csgProd.setVarList(newVarList);
 			prodModel = csgProd;
 			break;
-		case DTMC: {
-			DTMCSimple dtmcProd = new DTMCSimple();
-			dtmcProd.setVarList(newVarList);
-			prodModel = dtmcProd;
-			break;
-		}
-		case MDP: {
-			MDPSimple mdpProd = new MDPSimple();
-			mdpProd.setVarList(newVarList);
-			prodModel = mdpProd;
+		case DTMC:
+		case MDP:
 			break;
-		}
 		case STPG: {
 			STPGSimple stpgProd = new STPGSimple();
 			stpgProd.setVarList(newVarList);
@@ -632,9 +630,30 @@ public class LTLModelChecker extends PrismComponent
 		// s(s') = s' / daSize
 		// q(s') = s' % daSize
 
-		LinkedList<Point> queue = new LinkedList<Point>();
 		int map[] = new int[prodNumStates];
 		Arrays.fill(map, -1);
+		// Encoded product states, in order of creation; states are also explored
+		// in this order, i.e., this serves as the (breadth-first) exploration queue
+		int prodStates[] = new int[Math.max(modelNumStates, 16)];
+		int numProdStates = 0;
+		int numInitialStates = 0;
+
+		// Sparse storage of the product (DTMCs/MDPs only):
+		// for DTMCs, rowStarts indexes cols/nonZeros directly; for MDPs, it indexes choiceStarts
+		int rowStarts[] = null, choiceStarts[] = null, cols[] = null;
+		double nonZeros[] = null;
+		Object actions[] = null;
+		boolean hasActions = false;
+		int numDistrs = 0, numTransitions = 0;
+		if (buildSparse) {
+			rowStarts = new int[prodStates.length + 1];
+			cols = new int[Math.max(model.getNumTransitions(), 16)];
+			nonZeros = new double[cols.length];
+			if (modelType == ModelType.MDP) {
+				choiceStarts = new int[Math.max(((MDP) model).getNumChoices(), 16) + 1];
+				actions = new Object[choiceStarts.length];
+			}
+		}
 
 		if (model.getStatesList() != null) {
 			prodStatesList = new ArrayList<State>();
@@ -651,17 +670,20 @@ public class LTLModelChecker extends PrismComponent
 		// (b) to later identify the corresponding product state for the original states
 		//     of interest
 		for (int s_0 : new IterableStateSet(statesOfInterest, model.getNumStates())) {
-			// Get BitSet representing APs (labels) satisfied by state s_0
-			for (int k = 0; k < numAPs; k++) {
-				s_labels.set(k, labelBS.get(Integer.parseInt(da.getAPList().get(k).substring(1))).get(s_0));
-			}
 			// Find corresponding initial state in DA
-			int q_0 = da.getEdgeDestByLabel(da.getStartState(), s_labels);
+			int q_0 = daTable != null ? daTable.getEdgeDest(da.getStartState(), letters[s_0])
+					: DATransitionTable.getEdgeDestByLabel(da, labelBS, da.getStartState(), s_0, s_labels);
 			if (q_0 < 0) {
 				throw new PrismException("The deterministic automaton is not complete (state " + da.getStartState() + ")");
 			}
 			// Add (initial) state to product
-			queue.add(new Point(s_0, q_0));
+			if (numProdStates == prodStates.length) {
+				prodStates = Arrays.copyOf(prodStates, 2 * prodStates.length);
+			}
+			prodStates[numProdStates] = s_0 * daSize + q_0;
+			map[s_0 * daSize + q_0] = numProdStates;
+			numProdStates++;
+			numInitialStates++;
 			switch (modelType) {
 			case STPG:
 				((STPGSimple) prodModel).addState(((STPG) model).getPlayer(s_0));
@@ -669,12 +691,15 @@ public class LTLModelChecker extends PrismComponent
 			case SMG:
 				((SMGSimple) prodModel).addState(((SMG) model).getPlayer(s_0));
 				break;
-			default:
+			case CSG:
 				prodModel.addState();
-			break;
+				break;
+			default:
+				break;
+			}
+			if (prodModel != null) {
+				prodModel.addInitialState(prodModel.getNumStates() - 1);
 			}
-			prodModel.addInitialState(prodModel.getNumStates() - 1);
-			map[s_0 * daSize + q_0] = prodModel.getNumStates() - 1;
 			if (prodStatesList != null) {
 				// Store state information for the product
 				prodStatesList.add(new State(daStatesList.get(q_0), model.getStatesList().get(s_0)));
@@ -682,12 +707,15 @@ public class LTLModelChecker extends PrismComponent
 		}
 
 		// Product states
-		BitSet visited = new BitSet(prodNumStates);
-		while (!queue.isEmpty()) {
-			Point p = queue.pop();
-			s_1 = p.x;
-			q_1 = p.y;
-			visited.set(s_1 * daSize + q_1);
+		for (int i = 0; i < numProdStates; i++) {
+			s_1 = prodStates[i] / daSize;
+			q_1 = prodStates[i] % daSize;
+			if (buildSparse) {
+				if (i + 1 >= rowStarts.length) {
+					rowStarts = Arrays.copyOf(rowStarts, 2 * rowStarts.length);
+				}
+				rowStarts[i] = modelType == ModelType.MDP ? numDistrs : numTransitions;
+			}
 
 			// Go through transitions from state s_1 in original model
 			int numChoices = (model instanceof NondetModel) ? ((NondetModel) model).getNumChoices(s_1) : 1;
@@ -713,25 +741,36 @@ public class LTLModelChecker extends PrismComponent
 					throw new PrismNotSupportedException("Product construction not implemented for " + modelType + "s");
 				}
 				Distribution prodDistr = null;
-				if (modelType.nondeterministic()) {
+				if (!buildSparse) {
 					prodDistr = new Distribution();
+				} else if (modelType == ModelType.MDP) {
+					if (numDistrs + 1 >= choiceStarts.length) {
+						choiceStarts = Arrays.copyOf(choiceStarts, 2 * choiceStarts.length);
+						actions = Arrays.copyOf(actions, choiceStarts.length);
+					}
+					choiceStarts[numDistrs] = numTransitions;
+					actions[numDistrs] = ((MDP) model).getAction(s_1, j);
+					hasActions |= actions[numDistrs] != null;
+					numDistrs++;
 				}
 				while (iter.hasNext()) {
 					Map.Entry<Integer, Double> e = iter.next();
 					s_2 = e.getKey();
 					double prob = e.getValue();
-					// Get BitSet representing APs (labels) satisfied by successor state s_2
-					for (int k = 0; k < numAPs; k++) {
-						s_labels.set(k, labelBS.get(Integer.parseInt(da.getAPList().get(k).substring(1))).get(s_2));
-					}
 					// Find corresponding successor in DA
-					q_2 = da.getEdgeDestByLabel(q_1, s_labels);
+					q_2 = daTable != null ? daTable.getEdgeDest(q_1, letters[s_2])
+							: DATransitionTable.getEdgeDestByLabel(da, labelBS, q_1, s_2, s_labels);
 					if (q_2 < 0) {
 						throw new PrismException("The deterministic automaton is not complete (state " + q_1 + ")");
 					}
 					// Add state/transition to model
-					if (!visited.get(s_2 * daSize + q_2) && map[s_2 * daSize + q_2] == -1) {
-						queue.add(new Point(s_2, q_2));
+					if (map[s_2 * daSize + q_2] == -1) {
+						if (numProdStates == prodStates.length) {
+							prodStates = Arrays.copyOf(prodStates, 2 * prodStates.length);
+						}
+						prodStates[numProdStates] = s_2 * daSize + q_2;
+						map[s_2 * daSize + q_2] = numProdStates;
+						numProdStates++;
 						switch (modelType) {
 						case STPG:
 							((STPGSimple) prodModel).addState(((STPG) model).getPlayer(s_2));
@@ -739,43 +778,41 @@ public class LTLModelChecker extends PrismComponent
 						case SMG:
 							((SMGSimple) prodModel).addState(((SMG) model).getPlayer(s_2));
 							break;
-						default:
+						case CSG:
 							prodModel.addState();
 							break;
+						default:
+							break;
 						}
-						map[s_2 * daSize + q_2] = prodModel.getNumStates() - 1;
 						if (prodStatesList != null) {
 							// Store state information for the product
 							prodStatesList.add(new State(daStatesList.get(q_2), model.getStatesList().get(s_2)));
 						}
 					}
-					switch (modelType) {
-					case DTMC:
-						((DTMCSimple) prodModel).setProbability(map[s_1 * daSize + q_1], map[s_2 * daSize + q_2], prob);
-						break;
-					case CSG:
-					case MDP:
-					case STPG:
-					case SMG:
+					if (buildSparse) {
+						if (prob != 0.0) {
+							if (numTransitions == cols.length) {
+								cols = Arrays.copyOf(cols, 2 * cols.length);
+								nonZeros = Arrays.copyOf(nonZeros, cols.length);
+							}
+							cols[numTransitions] = map[s_2 * daSize + q_2];
+							nonZeros[numTransitions] = prob;
+							numTransitions++;
+						}
+					} else {
 						prodDistr.set(map[s_2 * daSize + q_2], prob);
-						break;
-					default:
-						throw new PrismNotSupportedException("Product construction not implemented for " + modelType + "s");
 					}
 				}
 				switch (modelType) {
 				case CSG:
-					t_2 = ((CSGSimple) prodModel).addActionLabelledChoice(map[s_1 * daSize + q_1], prodDistr, ((CSG) model).getAction(s_1, j));
-					((CSGSimple) prodModel).setIndexes(map[s_1 * daSize + q_1], t_2, ((CSG) model).getIndexes(s_1, j));
-					break;
-				case MDP:
-					((MDPSimple) prodModel).addActionLabelledChoice(map[s_1 * daSize + q_1], prodDistr, ((MDP) model).getAction(s_1, j));
+					t_2 = ((CSGSimple) prodModel).addActionLabelledChoice(i, prodDistr, ((CSG) model).getAction(s_1, j));
+					((CSGSimple) prodModel).setIndexes(i, t_2, ((CSG) model).getIndexes(s_1, j));
 					break;
 				case STPG:
-					((STPGSimple) prodModel).addActionLabelledChoice(map[s_1 * daSize + q_1], prodDistr, ((STPG) model).getAction(s_1, j));
+					((STPGSimple) prodModel).addActionLabelledChoice(i, prodDistr, ((STPG) model).getAction(s_1, j));
 					break;
 				case SMG:
-					((SMGSimple) prodModel).addActionLabelledChoice(map[s_1 * daSize + q_1], prodDistr, ((SMG) model).getAction(s_1, j));
+					((SMGSimple) prodModel).addActionLabelledChoice(i, prodDistr, ((SMG) model).getAction(s_1, j));
 					break;
 				default:
 					break;
@@ -783,22 +820,37 @@ public class LTLModelChecker extends PrismComponent
 			}
 		}
 
-		// Build a mapping from state indices to states (s,q), encoded as (s * daSize + q) 
-		int invMap[] = new int[prodModel.getNumStates()];
-		for (int i = 0; i < map.length; i++) {
-			if (map[i] != -1) {
-				invMap[map[i]] = i;
+		// Build the product model (DTMCs/MDPs) or find deadlocks (games)
+		ModelExplicit prodModelExplicit;
+		if (buildSparse) {
+			if (modelType == ModelType.MDP) {
+				rowStarts[numProdStates] = numDistrs;
+				choiceStarts[numDistrs] = numTransitions;
+				prodModelExplicit = new MDPSparse(numProdStates, Arrays.copyOf(rowStarts, numProdStates + 1), Arrays.copyOf(choiceStarts, numDistrs + 1),
+						Arrays.copyOf(cols, numTransitions), Arrays.copyOf(nonZeros, numTransitions), hasActions ? Arrays.copyOf(actions, numDistrs) : null);
+			} else {
+				rowStarts[numProdStates] = numTransitions;
+				prodModelExplicit = new DTMCSparse(numProdStates, Arrays.copyOf(rowStarts, numProdStates + 1), Arrays.copyOf(cols, numTransitions),
+						Arrays.copyOf(nonZeros, numTransitions));
+			}
+			prodModelExplicit.setVarList(newVarList);
+			for (int i = 0; i < numInitialStates; i++) {
+				prodModelExplicit.addInitialState(i);
 			}
+		} else {
+			prodModel.findDeadlocks(false);
+			prodModelExplicit = (ModelExplicit) prodModel;
 		}
 
-		prodModel.findDeadlocks(false);
+		// The mapping from state indices to states (s,q), encoded as (s * daSize + q) 
+		int invMap[] = Arrays.copyOf(prodStates, numProdStates);
 
 		if (prodStatesList != null) {
-			prodModel.setStatesList(prodStatesList);
+			prodModelExplicit.setStatesList(prodStatesList);
 		}
 
 		@SuppressWarnings("unchecked")
-		LTLProduct<M> product = new LTLProduct<M>((M) prodModel, model, null, daSize, invMap);
+		LTLProduct<M> product = new LTLProduct<M>((M) prodModelExplicit, model, null, daSize, invMap);
 
 		// generate acceptance for the product model by lifting
 		product.setAcceptance(liftAcceptance(product, da.getAcceptance()));
@@ -806,12 +858,65 @@ public class LTLModelChecker extends PrismComponent
 		// lift the labels
 		for (String label : model.getLabels()) {
 			BitSet liftedLabel = product.liftFromModel(model.getLabelStates(label));
-			prodModel.addLabel(label, liftedLabel);
+			prodModelExplicit.addLabel(label, liftedLabel);
 		}
 		
 		return product;
 	}
 
+	/**
+	 * Construct the product of a DA and an STPG as a view, i.e., only the reachable
+	 * product states are stored and transitions are computed on-the-fly from those of the STPG
+	 * (see {@link STPGProductView}).
+	 * @param da The DA
+	 * @param model The STPG
+	 * @param labelBS BitSets giving the set of states for each AP in the DA
+	 * @param statesOfInterest the set of states for which values should be calculated (null = all states)
+	 * @return The product model
+	 */
+	public LTLProduct<STPG> constructProductView(DA<BitSet,? extends AcceptanceOmega> da, STPG model, Vector<BitSet> labelBS, BitSet statesOfInterest) throws PrismException
+	{
+		STPGProductView prodModel = new STPGProductView(model, da, labelBS, statesOfInterest);
+		prodModel.setVarList(createProductVarList(da, model));
+
+		LTLProduct<STPG> product = new LTLProduct<STPG>(prodModel, model, null, da.size(), prodModel.getEncodedStates());
+
+		// generate acceptance for the product model by lifting
+		product.setAcceptance(liftAcceptance(product, da.getAcceptance()));
+
+		// lift the labels
+		for (String label : model.getLabels()) {
+			BitSet liftedLabel = product.liftFromModel(model.getLabelStates(label));
+			prodModel.addLabel(label, liftedLabel);
+		}
+
+		return product;
+	}
+
+	/**
+	 * Create the variable list for the product of a DA and a model,
+	 * i.e., that of the model with an additional (first) variable for the DA state.
+	 * Returns null if the model has no variable list.
+	 */
+	private VarList createProductVarList(DA<BitSet,? extends AcceptanceOmega> da, Model model) throws PrismException
+	{
+		if (model.getVarList() == null) {
+			return null;
+		}
+		VarList varList = model.getVarList();
+		// Create a (new, unique) name for the variable that will represent DA states
+		String daVar = "_da";
+		while (varList.getIndex(daVar) != -1) {
+			daVar = "_" + daVar;
+		}
+
+		VarList newVarList = (VarList) varList.clone();
+		// NB: if DA only has one state, we add an extra dummy state
+		Declaration decl = new Declaration(daVar, new DeclarationInt(Expression.Int(0), Expression.Int(Math.max(da.size() - 1, 1))));
+		newVarList.addVar(0, decl, 1, model.getConstantValues());
+		return newVarList;
+	}
+
 	/**
 	 * Find the set of states that belong to accepting BSCCs in a model wrt an acceptance condition.
 	 * @param model The model
@@ -44,6 +44,7 @@ import explicit.graphviz.Decorator;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import prism.ModelType;
+import prism.ParallelExporter;
 import prism.PrismException;
 import prism.PrismLog;
 import prism.PrismUtils;
@@ -71,8 +72,8 @@ public interface MDP extends MDPGeneric<Double>
 		// Output transitions to .tra file
 		int numStates = getNumStates();
 		out.print(numStates + " " + getNumChoices() + " " + getNumTransitions() + "\n");
-		TreeMap<Integer, Double> sorted = new TreeMap<Integer, Double>();
-		for (int i = 0; i < numStates; i++) {
+		ParallelExporter.export(out, numStates, supportsConcurrentReads(), (i, log) -> {
+			TreeMap<Integer, Double> sorted = new TreeMap<Integer, Double>();
 			int numChoices = getNumChoices(i);
 			for (int j = 0; j < numChoices; j++) {
 				// Extract transitions and sort by destination state index (to match PRISM-exported files)
@@ -84,13 +85,13 @@ public interface MDP extends MDPGeneric<Double>
 				// Print out (sorted) transitions
 				for (Map.Entry<Integer, Double> e : sorted.entrySet()) {
 					// Note use of PrismUtils.formatDouble to match PRISM-exported files
-					out.print(i + " " + j + " " + e.getKey() + " " + PrismUtils.formatDouble(precision, e.getValue()));
+					log.print(i + " " + j + " " + e.getKey() + " " + PrismUtils.formatDouble(precision, e.getValue()));
 					Object action = getAction(i, j);
-					out.print(action == null ? "\n" : (" " + action + "\n"));
+					log.print(action == null ? "\n" : (" " + action + "\n"));
 				}
 				sorted.clear();
 			}
-		}
+		});
 	}
 
 	@Override
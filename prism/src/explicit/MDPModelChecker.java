@@ -26,13 +26,16 @@
 
 package explicit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.PrimitiveIterator;
+import java.util.Set;
 
 import acceptance.AcceptanceReach;
 import acceptance.AcceptanceType;
@@ -48,7 +51,14 @@ import explicit.rewards.MCRewardsFromMDPRewards;
 import explicit.rewards.MDPRewards;
 import explicit.rewards.Rewards;
 import parser.ast.Expression;
+import parser.ast.ExpressionFilter;
+import parser.ast.ExpressionProb;
+import parser.ast.ExpressionReward;
+import parser.ast.ExpressionSS;
+import parser.ast.ExpressionStrategy;
+import parser.ast.ExpressionTemporal;
 import parser.type.TypeDouble;
+import parser.visitor.ASTTraverse;
 import prism.AccuracyFactory;
 import prism.OptionsIntervalIteration;
 import prism.Prism;
@@ -56,6 +66,7 @@ import prism.PrismComponent;
 import prism.PrismDevNullLog;
 import prism.PrismException;
 import prism.PrismFileLog;
+import prism.PrismLangException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismSettings;
@@ -71,6 +82,9 @@ import strat.Strategy;
  */
 public class MDPModelChecker extends ProbModelChecker
 {
+	/** Results of batched reachability objectives (optional) */
+	protected ReachBatch reachBatch = null;
+
 	/**
 	 * Create a new MDPModelChecker, inherit basic state from parent (unless null).
 	 */
@@ -78,9 +92,38 @@ public class MDPModelChecker extends ProbModelChecker
 	{
 		super(parent);
 	}
+
+	// Settings methods
+
+	/**
+	 * Set the results of batched reachability objectives (see {@link #computeReachBatch(MDP, List, ReachBatch)}),
+	 * to be used, where applicable, instead of solving objectives separately (null means none).
+	 */
+	public void setReachBatch(ReachBatch reachBatch)
+	{
+		this.reachBatch = reachBatch;
+	}
+
+	/**
+	 * Get the results of batched reachability objectives (null if none).
+	 */
+	public ReachBatch getReachBatch()
+	{
+		return reachBatch;
+	}
 	
 	// Model checking functions
 
+	@Override
+	protected Rewards constructRewards(Model model, int r) throws PrismException
+	{
+		// Reuse reward structures from batched objectives, so that their results can be found
+		if (reachBatch != null && reachBatch.appliesTo(model) && reachBatch.getRewards(r) != null) {
+			return reachBatch.getRewards(r);
+		}
+		return super.constructRewards(model, r);
+	}
+
 	@Override
 	protected StateValues checkProbPathFormulaLTL(Model model, Expression expr, boolean qual, MinMax minMax, BitSet statesOfInterest) throws PrismException
 	{
@@ -301,6 +344,16 @@ public class MDPModelChecker extends ProbModelChecker
 
 		boolean doPmaxQuotient = this.doPmaxQuotient;
 
+		// Use the result of batched objectives, if available
+		if (reachBatch != null && init == null && known == null && !(genStrat || exportAdv)) {
+			BitSet remainBatch = remain == null || remain.nextClearBit(0) >= mdp.getNumStates() ? null : remain;
+			res = reachBatch.getResult(mdp, null, remainBatch, target, min);
+			if (res != null) {
+				mainLog.println("\nUsing result of batched probabilistic reachability (" + (min ? "min" : "max") + ")");
+				return res;
+			}
+		}
+
 		// Switch to a supported method, if necessary
 		if (mdpSolnMethod == MDPSolnMethod.LINEAR_PROGRAMMING) {
 			mdpSolnMethod = MDPSolnMethod.GAUSS_SEIDEL;
@@ -388,22 +441,40 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 		}
 
-		// Precomputation
+		// Precomputation (results are cached, where possible, unless a strategy is needed)
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			no = prob0(mdp, remain, target, min, strat);
+			if (strat == null) {
+				no = precomputeCached("Prob0", mdp, remain, target, min, (r, t) -> prob0(mdp, r, t, min, null));
+			} else {
+				no = prob0(mdp, remain, target, min, strat);
+			}
 		} else {
 			no = new BitSet();
 		}
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			yes = prob1(mdp, remain, target, min, strat);
+			if (strat == null) {
+				yes = precomputeCached("Prob1", mdp, remain, target, min, (r, t) -> prob1(mdp, r, t, min, null));
+			} else {
+				yes = prob1(mdp, remain, target, min, strat);
+			}
 		} else {
 			yes = (BitSet) target.clone();
 		}
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 
+		// Warm-start value iteration with a previous solution from the cache, if possible
+		boolean cacheSoln = canCacheReachProbs(mdp, init) && (min || !doPmaxQuotient)
+				&& (mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION || mdpSolnMethod == MDPSolnMethod.GAUSS_SEIDEL);
+		if (cacheSoln) {
+			init = modelCheckerCache.getReachProbsInit("ReachProbs", remain, target, min);
+			if (init != null) {
+				mainLog.println("Using cached solution as initial vector for value iteration");
+			}
+		}
+
 		// Print results of precomputation
 		numYes = yes.cardinality();
 		numNo = no.cardinality();
@@ -470,6 +541,9 @@ public class MDPModelChecker extends ProbModelChecker
 			} else {
 				res = computeReachProbsNumeric(mdp, mdpSolnMethod, no, yes, min, init, known, strat);
 			}
+			if (cacheSoln) {
+				modelCheckerCache.storeReachProbs("ReachProbs", remain, target, min, res.soln);
+			}
 		} else {
 			res = new ModelCheckerResult();
 			res.soln = Utils.bitsetToDoubleArray(yes, n);
@@ -1960,10 +2034,8 @@ public class MDPModelChecker extends ProbModelChecker
 
 			timerPre = System.currentTimeMillis();
 
-			ECComputer ecs = ECComputer.createECComputer(this, mdp);
-			ecs.computeMECStates();
 			BitSet positiveECs = new BitSet();
-			for (BitSet ec : ecs.getMECStates()) {
+			for (BitSet ec : computeMECStatesCached(mdp, null)) {
 				// check if this MEC is positive
 				boolean positiveEC = false;
 				for (int state : new IterableStateSet(ec, n)) {
@@ -2059,6 +2131,15 @@ public class MDPModelChecker extends ProbModelChecker
 		// Local copy of setting
 		MDPSolnMethod mdpSolnMethod = this.mdpSolnMethod;
 
+		// Use the result of batched objectives, if available
+		if (reachBatch != null && init == null && known == null && !(genStrat || exportAdv)) {
+			res = reachBatch.getResult(mdp, mdpRewards, null, target, min);
+			if (res != null) {
+				mainLog.println("Using result of batched expected reachability (" + (min ? "min" : "max") + ")");
+				return res;
+			}
+		}
+
 		// Switch to a supported method, if necessary
 		if (!(mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION || mdpSolnMethod == MDPSolnMethod.GAUSS_SEIDEL || mdpSolnMethod == MDPSolnMethod.POLICY_ITERATION)) {
 			mdpSolnMethod = MDPSolnMethod.GAUSS_SEIDEL;
@@ -2121,9 +2202,13 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 		}
 		
-		// Precomputation (not optional)
+		// Precomputation (not optional; result cached, where possible, unless a strategy is needed)
 		timerProb1 = System.currentTimeMillis();
-		inf = prob1(mdp, null, target, !min, strat);
+		if (strat == null) {
+			inf = precomputeCached("Prob1", mdp, null, target, !min, (r, t) -> prob1(mdp, r, t, !min, null));
+		} else {
+			inf = prob1(mdp, null, target, !min, strat);
+		}
 		inf.flip(0, n);
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 		
@@ -2223,6 +2308,366 @@ public class MDPModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Solve, in advance and together, the reachability objectives in a list of properties for an MDP,
+	 * and return the results, to be looked up when the properties are model checked later
+	 * (see {@link #setReachBatch(ReachBatch)}). The objectives are those of any (unbounded) P operators
+	 * with an F/U path formula, and R operators with an F path formula, over propositional operands.
+	 * After precomputation (as for {@link #computeReachProbs(MDP, BitSet, BitSet, boolean, double[], BitSet)}
+	 * and {@link #computeReachRewards(MDP, MDPRewards, BitSet, boolean, double[], BitSet)}),
+	 * the objectives are solved by a single, fused value iteration (or Gauss-Seidel),
+	 * which updates the solution vectors for all of them in each pass over the transition matrix
+	 * (see {@link MDPSparse#mvMultRewMinMaxMulti} and {@link MDPSparse#mvMultRewGSMinMaxMulti}).
+	 * Each objective stops being updated once it has converged, so the results are the same
+	 * as when solving each one separately. Objectives which cannot be evaluated yet
+	 * (e.g. because of undefined constants) or solved in this way (e.g. if strategies are required,
+	 * for interval iteration or policy iteration, or for Rmin with zero-reward end components)
+	 * are skipped, so they are solved separately, as usual.
+	 * @param mdp The MDP
+	 * @param exprs The properties
+	 * @param batch Optionally, previous results for the same MDP (e.g. for other constant values), to be reused and extended
+	 */
+	public ReachBatch computeReachBatch(MDP mdp, List<Expression> exprs, ReachBatch batch) throws PrismException
+	{
+		if (batch == null || !batch.appliesTo(mdp)) {
+			batch = new ReachBatch(mdp);
+		}
+		int n = mdp.getNumStates();
+		// Solution method (as selected by computeReachProbs/computeReachRewards)
+		MDPSolnMethod method = mdpSolnMethod == MDPSolnMethod.LINEAR_PROGRAMMING ? MDPSolnMethod.GAUSS_SEIDEL : mdpSolnMethod;
+		if (genStrat || exportAdv || doIntervalIteration || valIterDir != ValIterDir.BELOW || getDoTopologicalValueIteration() || getExportTarget()
+				|| settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)
+				|| !(method == MDPSolnMethod.VALUE_ITERATION || method == MDPSolnMethod.GAUSS_SEIDEL)) {
+			return batch;
+		}
+		boolean automata = settings.getBoolean(PrismSettings.PRISM_PATH_VIA_AUTOMATA);
+
+		// Find the P/R operators in the properties
+		List<Expression> ops = new ArrayList<>();
+		for (Expression expr : exprs) {
+			expr.accept(new ASTTraverse()
+			{
+				public void visitPost(ExpressionProb e) throws PrismLangException
+				{
+					ops.add(e);
+				}
+
+				public void visitPost(ExpressionReward e) throws PrismLangException
+				{
+					ops.add(e);
+				}
+			});
+		}
+
+		// Extract their objectives, and do precomputation for each
+		long timer = System.currentTimeMillis();
+		List<ReachBatch.Key> keys = new ArrayList<>();
+		List<BitSet> unknowns = new ArrayList<>();
+		List<double[]> inits = new ArrayList<>();
+		Set<ReachBatch.Key> seen = new HashSet<>();
+		for (Expression op : ops) {
+			MDPRewards mdpRewards = null;
+			BitSet remain = null, target;
+			boolean min;
+			try {
+				if (op instanceof ExpressionProb) {
+					Expression path = ((ExpressionProb) op).getExpression();
+					if (!path.isSimplePathFormula() || automata) {
+						continue;
+					}
+					path = Expression.convertSimplePathFormulaToCanonicalForm(path);
+					if (!(path instanceof ExpressionTemporal)) {
+						continue;
+					}
+					ExpressionTemporal exprTemp = (ExpressionTemporal) path;
+					if (exprTemp.getOperator() != ExpressionTemporal.P_U || exprTemp.hasBounds() || !isBatchOperand(exprTemp.getOperand1())
+							|| !isBatchOperand(exprTemp.getOperand2())) {
+						continue;
+					}
+					min = ((ExpressionProb) op).getRelopBoundInfo(constantValues).getMinMax(mdp.getModelType(), true, null).isMin();
+					if (!min && doPmaxQuotient) {
+						continue;
+					}
+					remain = checkExpression(mdp, exprTemp.getOperand1(), null).getBitSet();
+					if (remain.nextClearBit(0) >= n) {
+						remain = null;
+					}
+					target = checkExpression(mdp, exprTemp.getOperand2(), null).getBitSet();
+				} else {
+					ExpressionReward exprRew = (ExpressionReward) op;
+					if (exprRew.getModifier() != null || exprRew.getRewardStructIndexDiv() != null || !Expression.isReach(exprRew.getExpression())
+							|| ((ExpressionTemporal) exprRew.getExpression()).hasBounds()
+							|| !isBatchOperand(((ExpressionTemporal) exprRew.getExpression()).getOperand2())) {
+						continue;
+					}
+					min = exprRew.getRelopBoundInfo(constantValues).getMinMax(mdp.getModelType(), true, null).isMin();
+					int r = exprRew.getRewardStructIndexByIndexObject(rewardGen, constantValues);
+					mdpRewards = batch.getRewards(r);
+					if (mdpRewards == null) {
+						mdpRewards = (MDPRewards) super.constructRewards(mdp, r);
+						batch.storeRewards(r, mdpRewards);
+					}
+					target = checkExpression(mdp, ((ExpressionTemporal) exprRew.getExpression()).getOperand2(), null).getBitSet();
+				}
+				ReachBatch.Key key = new ReachBatch.Key(mdpRewards, remain, target, min);
+				if (!seen.add(key) || batch.hasResult(mdpRewards, remain, target, min)) {
+					continue;
+				}
+				mdp.checkForDeadlocks(target);
+			} catch (PrismException e) {
+				// Skip any objectives that can't be evaluated yet
+				continue;
+			}
+			final BitSet remainF = remain, targetF = target;
+			final boolean minF = min;
+			BitSet unknown = new BitSet();
+			unknown.set(0, n);
+			double init[];
+			if (mdpRewards == null) {
+				// Probabilities: states in yes are 1, states in no are 0
+				BitSet no = (precomp && prob0) ? precomputeCached("Prob0", mdp, remain, target, min, (r, t) -> prob0(mdp, r, t, minF, null)) : new BitSet();
+				BitSet yes = (precomp && prob1) ? precomputeCached("Prob1", mdp, remain, target, min, (r, t) -> prob1(mdp, r, t, minF, null)) : (BitSet) target.clone();
+				unknown.andNot(no);
+				unknown.andNot(yes);
+				init = canCacheReachProbs(mdp, null) ? modelCheckerCache.getReachProbsInit("ReachProbs", remainF, targetF, minF) : null;
+				if (init == null) {
+					init = new double[n];
+				}
+				for (int s = 0; s < n; s++) {
+					init[s] = yes.get(s) ? 1.0 : no.get(s) ? 0.0 : init[s];
+				}
+			} else {
+				// Rewards: states in target are 0, states in inf are infinite
+				BitSet inf = precomputeCached("Prob1", mdp, null, target, !min, (r, t) -> prob1(mdp, r, t, !minF, null));
+				inf.flip(0, n);
+				unknown.andNot(inf);
+				unknown.andNot(target);
+				if (min && !unknown.isEmpty() && ZeroRewardECQuotient.getQuotient(this, mdp, (BitSet) unknown.clone(), mdpRewards) != null) {
+					continue;
+				}
+				init = Utils.bitsetToDoubleArray(inf, n, Double.POSITIVE_INFINITY);
+			}
+			if (unknown.isEmpty()) {
+				// No value iteration needed
+				ModelCheckerResult res = new ModelCheckerResult();
+				res.soln = init;
+				res.accuracy = AccuracyFactory.doublesFromQualitative();
+				batch.storeResult(mdpRewards, remain, target, min, res);
+			} else {
+				keys.add(new ReachBatch.Key(mdpRewards, remain, target, min));
+				unknowns.add(unknown);
+				inits.add(init);
+			}
+		}
+		timer = System.currentTimeMillis() - timer;
+		long timerPre = timer;
+
+		// Solve the remaining objectives together
+		int numObjs = keys.size();
+		if (numObjs > 0) {
+			mainLog.println("\nStarting fused value iteration (objectives: " + numObjs + ", with " + method.fullName() + ")...");
+			timer = System.currentTimeMillis();
+			List<ModelCheckerResult> results = solveReachBatch(mdp, method == MDPSolnMethod.GAUSS_SEIDEL, keys, unknowns, inits);
+			timer = System.currentTimeMillis() - timer;
+			for (int k = 0; k < numObjs; k++) {
+				ModelCheckerResult res = results.get(k);
+				// Objectives that did not converge are skipped (and solved, or reported, separately)
+				if (res == null) {
+					continue;
+				}
+				ReachBatch.Key key = keys.get(k);
+				res.timeTaken = timer / 1000.0;
+				res.timePre = timerPre / 1000.0;
+				batch.storeResult(key.rewards, key.remain, key.target, key.min, res);
+				if (key.rewards == null && canCacheReachProbs(mdp, null)) {
+					modelCheckerCache.storeReachProbs("ReachProbs", key.remain, key.target, key.min, res.soln);
+				}
+			}
+		}
+		mainLog.println("Reachability objectives solved in advance: " + batch.getNumResults());
+
+		return batch;
+	}
+
+	/**
+	 * Check whether an expression can be an operand of an objective in {@link #computeReachBatch},
+	 * i.e. it is a proposition with no nested P/R/S operators (which would be solved separately anyway).
+	 */
+	private static boolean isBatchOperand(Expression expr)
+	{
+		if (!expr.isProposition()) {
+			return false;
+		}
+		try {
+			expr.accept(new ASTTraverse()
+			{
+				public void visitPre(ExpressionProb e) throws PrismLangException
+				{
+					throw new PrismLangException("");
+				}
+
+				public void visitPre(ExpressionReward e) throws PrismLangException
+				{
+					throw new PrismLangException("");
+				}
+
+				public void visitPre(ExpressionSS e) throws PrismLangException
+				{
+					throw new PrismLangException("");
+				}
+
+				public void visitPre(ExpressionStrategy e) throws PrismLangException
+				{
+					throw new PrismLangException("");
+				}
+
+				public void visitPre(ExpressionFilter e) throws PrismLangException
+				{
+					throw new PrismLangException("");
+				}
+			});
+		} catch (PrismLangException e) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Solve several reachability probability/reward objectives on an MDP by fused value iteration,
+	 * dropping each one from the (interleaved) solution vectors once it has converged.
+	 * Returns the result for each objective, or null if it did not converge
+	 * (and non-convergence is an error).
+	 * @param mdp The MDP
+	 * @param gs Use Gauss-Seidel (rather than the Power method)?
+	 * @param keys The objectives
+	 * @param unknowns The states to compute values for, for each objective
+	 * @param inits Initial solution vectors, for each objective
+	 */
+	protected List<ModelCheckerResult> solveReachBatch(MDP mdp, boolean gs, List<ReachBatch.Key> keys, List<BitSet> unknowns, List<double[]> inits)
+	{
+		long timer = System.currentTimeMillis();
+		int n = mdp.getNumStates();
+		int numObjs = keys.size();
+		boolean absolute = termCrit == TermCrit.ABSOLUTE;
+		MDPSparse mdpSparse = (mdp instanceof MDPSparse) ? (MDPSparse) mdp : new MDPSparse(mdp);
+		ModelCheckerResult results[] = new ModelCheckerResult[numObjs];
+		// Active (not yet converged) objectives, and their info
+		int numActive = numObjs;
+		int active[] = new int[numActive];
+		boolean minActive[] = new boolean[numActive];
+		MDPRewards rewardsActive[] = new MDPRewards[numActive];
+		BitSet unknownActive[] = new BitSet[numActive];
+		int unknownStates[][] = new int[numActive][];
+		double soln[] = new double[n * numActive];
+		for (int a = 0; a < numActive; a++) {
+			active[a] = a;
+			minActive[a] = keys.get(a).min;
+			rewardsActive[a] = keys.get(a).rewards;
+			unknownActive[a] = unknowns.get(a);
+			unknownStates[a] = unknownActive[a].stream().toArray();
+			double init[] = inits.get(a);
+			for (int s = 0; s < n; s++) {
+				soln[s * numActive + a] = init[s];
+			}
+		}
+		double soln2[] = gs ? null : soln.clone();
+		double maxDiff[] = new double[numActive];
+		boolean converged[] = new boolean[numActive];
+		int iters = 0;
+		while (numActive > 0 && iters < maxIters) {
+			iters++;
+			// States that are unknown for some active objective (other values never change)
+			BitSet unknownAny = new BitSet();
+			for (int a = 0; a < numActive; a++) {
+				unknownAny.or(unknownActive[a]);
+			}
+			// Do one iteration and check convergence of each objective
+			if (gs) {
+				mdpSparse.mvMultRewGSMinMaxMulti(numActive, soln, minActive, rewardsActive, unknownActive, unknownAny.stream().iterator(), absolute, maxDiff);
+				for (int a = 0; a < numActive; a++) {
+					converged[a] = maxDiff[a] < termCritParam;
+				}
+			} else {
+				mdpSparse.mvMultRewMinMaxMulti(numActive, soln, minActive, rewardsActive, unknownActive, unknownAny.stream().iterator(), soln2);
+				double tmpsoln[] = soln;
+				soln = soln2;
+				soln2 = tmpsoln;
+				for (int a = 0; a < numActive; a++) {
+					boolean close = true;
+					maxDiff[a] = 0.0;
+					for (int s : unknownStates[a]) {
+						double v1 = soln[s * numActive + a], v2 = soln2[s * numActive + a];
+						close = close && PrismUtils.doublesAreClose(v1, v2, termCritParam, absolute);
+						double diff = absolute ? PrismUtils.measureSupNormAbs(v1, v2) : PrismUtils.measureSupNormRel(v1, v2);
+						maxDiff[a] = diff > maxDiff[a] ? diff : maxDiff[a];
+					}
+					converged[a] = close;
+				}
+			}
+			// Store the results for converged objectives, and drop them from the solution vectors
+			int numStillActive = 0;
+			for (int a = 0; a < numActive; a++) {
+				if (converged[a]) {
+					results[active[a]] = extractBatchResult(soln, numActive, a, n, iters, maxDiff[a]);
+				} else {
+					numStillActive++;
+				}
+			}
+			if (numStillActive < numActive) {
+				double solnNew[] = new double[n * numStillActive];
+				for (int a = 0, a2 = 0; a < numActive; a++) {
+					if (!converged[a]) {
+						for (int s = 0; s < n; s++) {
+							solnNew[s * numStillActive + a2] = soln[s * numActive + a];
+						}
+						active[a2] = active[a];
+						minActive[a2] = minActive[a];
+						rewardsActive[a2] = rewardsActive[a];
+						unknownActive[a2] = unknownActive[a];
+						unknownStates[a2] = unknownStates[a];
+						maxDiff[a2] = maxDiff[a];
+						a2++;
+					}
+				}
+				numActive = numStillActive;
+				soln = solnNew;
+				soln2 = gs ? null : solnNew.clone();
+			}
+		}
+		timer = System.currentTimeMillis() - timer;
+		mainLog.println("Fused value iteration took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+		// Non-convergence is an error (usually), in which case the objectives are left to be solved separately
+		if (numActive > 0 && !errorOnNonConverge) {
+			mainLog.printWarning("Iterative method did not converge within " + iters + " iterations for " + numActive + " objective(s).");
+			for (int a = 0; a < numActive; a++) {
+				results[active[a]] = extractBatchResult(soln, numActive, a, n, iters, maxDiff[a]);
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Extract the result for a single objective from an interleaved solution vector,
+	 * as computed by {@link #solveReachBatch}.
+	 * @param soln The (interleaved) solution vector
+	 * @param numObjs Number of objectives in {@code soln}
+	 * @param k Index of the objective in {@code soln}
+	 * @param n Number of states
+	 * @param iters Number of iterations performed
+	 * @param maxDiff Difference between the last two iterations (for accuracy)
+	 */
+	private ModelCheckerResult extractBatchResult(double[] soln, int numObjs, int k, int n, int iters, double maxDiff)
+	{
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = new double[n];
+		for (int s = 0; s < n; s++) {
+			res.soln[s] = soln[s * numObjs + k];
+		}
+		res.numIters = iters;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		return res;
+	}
+
 	protected ModelCheckerResult computeReachRewardsNumeric(MDP mdp, MDPRewards mdpRewards, MDPSolnMethod method, BitSet target, BitSet inf, boolean min, double init[], BitSet known, int strat[]) throws PrismException
 	{
 		ModelCheckerResult res = null;
@@ -2683,6 +3128,29 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 	}
 
+	/**
+	 * Compute the (states of the) maximal end components of an MDP, restricted to {@code restrict}
+	 * (null means "all"), reusing the result from the model checker cache, where available and applicable.
+	 */
+	private List<BitSet> computeMECStatesCached(MDP mdp, BitSet restrict) throws PrismException
+	{
+		boolean useCache = modelCheckerCache != null && modelCheckerCache.appliesTo(mdp);
+		if (useCache && modelCheckerCache.hasMECs(restrict)) {
+			return modelCheckerCache.getMECs(restrict);
+		}
+		ECComputer ec = ECComputer.createECComputer(this, mdp);
+		if (restrict == null) {
+			ec.computeMECStates();
+		} else {
+			ec.computeMECStates(restrict);
+		}
+		List<BitSet> mecs = ec.getMECStates();
+		if (useCache) {
+			modelCheckerCache.storeMECs(restrict, mecs);
+		}
+		return mecs;
+	}
+
 	/**
 	 * Compute the end component quotient (for use with PMax),
 	 * each maximal end component is collapsed to a single state,
@@ -2695,10 +3163,7 @@ public class MDPModelChecker extends ProbModelChecker
 		maybe.andNot(yes);
 		maybe.andNot(no);
 
-		ECComputer ec = ECComputer.createECComputer(this, mdp);
-
-		ec.computeMECStates(maybe);
-		List<BitSet> mecs = ec.getMECStates();
+		List<BitSet> mecs = computeMECStatesCached(mdp, maybe);
 		mecs.add(yes);
 		mecs.add(no);
 
@@ -38,6 +38,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
 import java.util.TreeMap;
 
 import common.IterableStateSet;
@@ -159,6 +160,38 @@ public class MDPSparse extends MDPExplicit
 		rowStarts[numStates] = numDistrs;
 	}
 
+	/**
+	 * Constructor: Build new MDPSparse directly from its sparse matrix storage.
+	 * The arrays are stored, not copied. States without any choices are marked as deadlocks
+	 * (but not fixed); initial states, labels etc. need to be added separately.
+	 *
+	 * @param numStates Number of states
+	 * @param rowStarts Indices into choiceStarts for each state (array of size numStates+1)
+	 * @param choiceStarts Indices into cols/nonZeros for each choice (array of size numDistrs+1)
+	 * @param cols Column (destination) indices for each transition
+	 * @param nonZeros Probabilities for each transition
+	 * @param actions Action labels for each choice (null if there are none)
+	 */
+	public MDPSparse(int numStates, int rowStarts[], int choiceStarts[], int cols[], double nonZeros[], Object actions[])
+	{
+		initialise(numStates);
+		this.rowStarts = rowStarts;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.nonZeros = nonZeros;
+		this.actions = actions;
+		numDistrs = rowStarts[numStates];
+		numTransitions = choiceStarts[numDistrs];
+		maxNumDistrs = 0;
+		for (int state = 0; state < numStates; state++) {
+			final int numChoices = rowStarts[state + 1] - rowStarts[state];
+			if (numChoices == 0) {
+				deadlocks.add(state);
+			}
+			maxNumDistrs = Math.max(maxNumDistrs, numChoices);
+		}
+	}
+
 	/** Helper: Does the given MDP have action labels on any of the choices? */
 	private static boolean hasActionLabels(final MDP mdp)
 	{
@@ -1073,6 +1106,177 @@ public class MDPSparse extends MDPExplicit
 		return minmax;
 	}
 
+	/**
+	 * Do a matrix-vector multiplication and sum of rewards followed by min/max, i.e. one step of value iteration,
+	 * for several objectives at once, in a single pass over the transition matrix.
+	 * For each objective, this is exactly as for {@link #mvMultRewMinMaxSingle} (with rewards)
+	 * or {@link #mvMultMinMaxSingle} (without).
+	 * Vectors are interleaved, i.e. the value for state s and objective k is at index {@code s * numObjs + k}.
+	 * Only the states in {@code states} are processed and, for objective k, only those in {@code unknown[k]}
+	 * are updated; other values are copied across.
+	 * @param numObjs Number of objectives
+	 * @param vect Vector to multiply by (interleaved)
+	 * @param min Min or max, for each objective (true=min, false=max)
+	 * @param mdpRewards The rewards, for each objective (null if there are no rewards)
+	 * @param unknown States to update, for each objective
+	 * @param states States to process (should include all of {@code unknown})
+	 * @param result Vector to store result in (interleaved)
+	 */
+	public void mvMultRewMinMaxMulti(int numObjs, double vect[], boolean min[], MDPRewards mdpRewards[], BitSet unknown[], PrimitiveIterator.OfInt states, double result[])
+	{
+		int s, i, j, k, t, m, base, succBase, l1, h1, l2, h2;
+		double p;
+		// Objectives to update for the current state, and their sums/min/max
+		int[] objs = new int[numObjs];
+		double[] sum = new double[numObjs];
+		double[] minmax = new double[numObjs];
+
+		while (states.hasNext()) {
+			s = states.nextInt();
+			base = s * numObjs;
+			System.arraycopy(vect, base, result, base, numObjs);
+			m = 0;
+			for (k = 0; k < numObjs; k++) {
+				if (unknown[k].get(s)) {
+					minmax[m] = 0;
+					objs[m++] = k;
+				}
+			}
+			if (m == 0) {
+				continue;
+			}
+			l1 = rowStarts[s];
+			h1 = rowStarts[s + 1];
+			for (j = l1; j < h1; j++) {
+				// Compute sums for this distribution, for all objectives
+				for (i = 0; i < m; i++) {
+					k = objs[i];
+					sum[i] = mdpRewards[k] == null ? 0.0 : mdpRewards[k].getTransitionReward(s, j - l1);
+				}
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (t = l2; t < h2; t++) {
+					p = nonZeros[t];
+					succBase = cols[t] * numObjs;
+					for (i = 0; i < m; i++) {
+						sum[i] += p * vect[succBase + objs[i]];
+					}
+				}
+				// Check whether we have exceeded min/max so far
+				for (i = 0; i < m; i++) {
+					if (j == l1 || (min[objs[i]] ? sum[i] < minmax[i] : sum[i] > minmax[i])) {
+						minmax[i] = sum[i];
+					}
+				}
+			}
+			for (i = 0; i < m; i++) {
+				k = objs[i];
+				// Add state reward (doesn't affect min/max)
+				result[base + k] = mdpRewards[k] == null ? minmax[i] : minmax[i] + mdpRewards[k].getStateReward(s);
+			}
+		}
+	}
+
+	/**
+	 * Do a Gauss-Seidel-style matrix-vector multiplication and sum of rewards followed by min/max,
+	 * for several objectives at once, in a single pass over the transition matrix,
+	 * storing new values directly in {@code vect} as computed.
+	 * For each objective, this is exactly as for {@link #mvMultRewJacMinMaxSingle} (with rewards)
+	 * or {@link #mvMultJacMinMaxSingle} (without), applied to the states in {@code states} in order,
+	 * i.e. as for {@link MDP#mvMultRewGSMinMax} and {@link MDP#mvMultGSMinMax}.
+	 * Vectors are interleaved, i.e. the value for state s and objective k is at index {@code s * numObjs + k}.
+	 * Only the states in {@code states} are processed and, for objective k, only those in {@code unknown[k]}
+	 * are updated. The maximum (absolute/relative) difference between old/new values of each objective
+	 * is stored in {@code maxDiff}.
+	 * @param numObjs Number of objectives
+	 * @param vect Vector to multiply by and store the result in (interleaved)
+	 * @param min Min or max, for each objective (true=min, false=max)
+	 * @param mdpRewards The rewards, for each objective (null if there are no rewards)
+	 * @param unknown States to update, for each objective
+	 * @param states States to process (should include all of {@code unknown}), in the iteration order
+	 * @param absolute If true, compute absolute, rather than relative, difference
+	 * @param maxDiff Storage for the maximum difference, for each objective
+	 */
+	public void mvMultRewGSMinMaxMulti(int numObjs, double vect[], boolean min[], MDPRewards mdpRewards[], BitSet unknown[], PrimitiveIterator.OfInt states, boolean absolute, double maxDiff[])
+	{
+		int s, i, j, k, t, m, base, succBase, l1, h1, l2, h2;
+		double p, diag, d, diff;
+		boolean onlySelfloops;
+		// Objectives to update for the current state, and their sums/min/max
+		int[] objs = new int[numObjs];
+		double[] sum = new double[numObjs];
+		double[] minmax = new double[numObjs];
+
+		for (k = 0; k < numObjs; k++) {
+			maxDiff[k] = 0.0;
+		}
+		while (states.hasNext()) {
+			s = states.nextInt();
+			base = s * numObjs;
+			m = 0;
+			for (k = 0; k < numObjs; k++) {
+				if (unknown[k].get(s)) {
+					minmax[m] = 0;
+					objs[m++] = k;
+				}
+			}
+			if (m == 0) {
+				continue;
+			}
+			l1 = rowStarts[s];
+			h1 = rowStarts[s + 1];
+			for (j = l1; j < h1; j++) {
+				diag = 1.0;
+				onlySelfloops = true;
+				// Compute sums for this distribution, for all objectives
+				// (note: have to add state rewards in the loop for Jacobi)
+				for (i = 0; i < m; i++) {
+					k = objs[i];
+					if (mdpRewards[k] == null) {
+						sum[i] = 0.0;
+					} else {
+						sum[i] = mdpRewards[k].getStateReward(s);
+						sum[i] += mdpRewards[k].getTransitionReward(s, j - l1);
+					}
+				}
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (t = l2; t < h2; t++) {
+					if (cols[t] != s) {
+						onlySelfloops = false;
+						p = nonZeros[t];
+						succBase = cols[t] * numObjs;
+						for (i = 0; i < m; i++) {
+							sum[i] += p * vect[succBase + objs[i]];
+						}
+					} else {
+						diag -= nonZeros[t];
+					}
+				}
+				for (i = 0; i < m; i++) {
+					d = sum[i];
+					// Catch special case of probability 1 self-loop for rewards (Jacobi does it wrong)
+					if (onlySelfloops && mdpRewards[objs[i]] != null) {
+						d = d != 0 ? (d > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY) : 0;
+					} else if (diag > 0) {
+						d /= diag;
+					}
+					// Check whether we have exceeded min/max so far
+					if (j == l1 || (min[objs[i]] ? d < minmax[i] : d > minmax[i])) {
+						minmax[i] = d;
+					}
+				}
+			}
+			for (i = 0; i < m; i++) {
+				k = objs[i];
+				d = minmax[i];
+				diff = absolute ? (Math.abs(d - vect[base + k])) : (Math.abs(d - vect[base + k]) / d);
+				maxDiff[k] = diff > maxDiff[k] ? diff : maxDiff[k];
+				vect[base + k] = d;
+			}
+		}
+	}
+
 	@Override
 	public List<Integer> mvMultRewMinMaxSingleChoices(int s, double vect[], MDPRewards mdpRewards, boolean min, double val)
 	{
@@ -319,6 +319,16 @@ public interface Model {
 	 */
 	public void checkForDeadlocks(BitSet except) throws PrismException;
 
+	/**
+	 * Can the transitions of this model be safely read from several threads at once
+	 * (used to decide whether exports can be done in parallel, see {@link ParallelExporter})?
+	 * The default implementation returns false, since models may compute (and cache) transitions on demand.
+	 */
+	default boolean supportsConcurrentReads()
+	{
+		return false;
+	}
+
 	// Export methods (explicit files)
 
 	/**
@@ -354,7 +364,7 @@ public interface Model {
 	 */
 	default void exportToPrismExplicitTra(String filename, int precision) throws PrismException
 	{
-		try (PrismFileLog log = PrismFileLog.create(filename)) {
+		try (PrismLog log = PrismChannelLog.create(filename, false)) {
 			exportToPrismExplicitTra(log, precision);
 		}
 	}
@@ -409,7 +419,7 @@ public interface Model {
 	 */
 	default void exportToDotFile(String filename, int precision) throws PrismException
 	{
-		try (PrismFileLog log = PrismFileLog.create(filename)) {
+		try (PrismLog log = PrismChannelLog.create(filename, false)) {
 			exportToDotFile(log, precision);
 		}
 	}
@@ -432,7 +442,7 @@ public interface Model {
 	 */
 	default void exportToDotFile(String filename, BitSet mark, int precision) throws PrismException
 	{
-		try (PrismFileLog log = PrismFileLog.create(filename)) {
+		try (PrismLog log = PrismChannelLog.create(filename, false)) {
 			exportToDotFile(log, mark, precision);
 		}
 	}
@@ -453,7 +463,7 @@ public interface Model {
 	 */
 	default void exportToDotFile(String filename, Iterable<explicit.graphviz.Decorator> decorators, int precision) throws PrismException
 	{
-		try (PrismFileLog log = PrismFileLog.create(filename)) {
+		try (PrismLog log = PrismChannelLog.create(filename, false)) {
 			exportToDotFile(log, decorators, precision);
 		}
 	}
@@ -556,8 +566,7 @@ public interface Model {
 		
 		// Header
 		out.print("digraph " + getModelType() + " {\nnode " + defaults.toString() + ";\n");
-		int i, numStates;
-		for (i = 0, numStates = getNumStates(); i < numStates; i++) {
+		ParallelExporter.export(out, getNumStates(), supportsConcurrentReads(), (i, log) -> {
 			// initialize
 			explicit.graphviz.Decoration d = new explicit.graphviz.Decoration(defaults);
 			d.setLabel(Integer.toString(i));
@@ -569,11 +578,11 @@ public interface Model {
 			}
 
 			String decoration = d.toString();
-			out.println(i + " " + decoration + ";");
+			log.println(i + " " + decoration + ";");
 
 			// Transitions for state i
-			exportTransitionsToDotFile(i, out, decorators, precision);
-		}	
+			exportTransitionsToDotFile(i, log, decorators, precision);
+		});
 		
 		// Footer
 		out.print("}\n");
@@ -0,0 +1,254 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of (structural) model checking computations for a single built model,
+ * so that they can be reused when checking several properties, or the same property
+ * for several values of (property) constants, e.g. during an experiment.
+ * This stores the results of precomputations (e.g. Prob0/Prob1), end component
+ * decompositions, and solution vectors for reachability probabilities,
+ * which can be used to warm-start value iteration.
+ * Entries are only stored/retrieved for the model passed to the constructor
+ * (compared by identity), since model checkers are also applied to other models
+ * (products, quotients, etc.) along the way.
+ * At most {@link #MAX_ENTRIES} entries of each kind are kept, discarding the least recently used.
+ * SCC decompositions are not cached.
+ */
+public class ModelCheckerCache
+{
+	/** Maximum number of entries of each kind (precomputations, MECs, solution vectors) */
+	public static final int MAX_ENTRIES = 64;
+
+	/** The model that this cache applies to */
+	protected Model model;
+
+	/** Precomputation results, indexed by key */
+	protected Map<Key, BitSet> precomputations = createLRUMap();
+
+	/** Maximal end components, indexed by the set of states they are restricted to (null: all) */
+	protected Map<BitSet, List<BitSet>> mecs = createLRUMap();
+
+	/** Solution vectors for reachability probabilities, indexed by key */
+	protected Map<Key, double[]> reachProbs = createLRUMap();
+
+	/**
+	 * Key for a computation: its type, plus the remain/target sets and min/max.
+	 */
+	protected static class Key
+	{
+		String type;
+		BitSet remain;
+		BitSet target;
+		boolean min;
+
+		Key(String type, BitSet remain, BitSet target, boolean min)
+		{
+			this.type = type;
+			this.remain = remain == null ? null : (BitSet) remain.clone();
+			this.target = (BitSet) target.clone();
+			this.min = min;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(type, remain, target, min);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return type.equals(other.type) && Objects.equals(remain, other.remain) && target.equals(other.target) && min == other.min;
+		}
+	}
+
+	/**
+	 * Create a map that keeps at most {@link #MAX_ENTRIES} entries, discarding the least recently used.
+	 */
+	private static <K, V> Map<K, V> createLRUMap()
+	{
+		return new LinkedHashMap<K, V>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+			{
+				return size() > MAX_ENTRIES;
+			}
+		};
+	}
+
+	/**
+	 * Create an (empty) cache for model {@code model}.
+	 */
+	public ModelCheckerCache(Model model)
+	{
+		this.model = model;
+	}
+
+	/**
+	 * Get the model that this cache applies to.
+	 */
+	public Model getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Does this cache apply to model {@code model}?
+	 */
+	public boolean appliesTo(Model model)
+	{
+		return this.model == model;
+	}
+
+	/**
+	 * Store the result of a precomputation (e.g. "Prob0") on the model,
+	 * for the given remain/target sets and min/max.
+	 * @param type Type of precomputation
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max (ignored for non-nondeterministic models)
+	 * @param result The result
+	 */
+	public void storePrecomputation(String type, BitSet remain, BitSet target, boolean min, BitSet result)
+	{
+		precomputations.put(new Key(type, remain, target, min), (BitSet) result.clone());
+	}
+
+	/**
+	 * Is the result of a precomputation in the cache?
+	 */
+	public boolean hasPrecomputation(String type, BitSet remain, BitSet target, boolean min)
+	{
+		return precomputations.containsKey(new Key(type, remain, target, min));
+	}
+
+	/**
+	 * Get the result of a precomputation from the cache (null if not present).
+	 * A copy is returned, so it can be safely modified.
+	 */
+	public BitSet getPrecomputation(String type, BitSet remain, BitSet target, boolean min)
+	{
+		BitSet result = precomputations.get(new Key(type, remain, target, min));
+		return result == null ? null : (BitSet) result.clone();
+	}
+
+	/**
+	 * Store the (states of the) maximal end components of the model,
+	 * restricted to {@code restrict} (null means "all").
+	 */
+	public void storeMECs(BitSet restrict, List<BitSet> result)
+	{
+		mecs.put(restrict == null ? null : (BitSet) restrict.clone(), new ArrayList<>(result));
+	}
+
+	/**
+	 * Are the maximal end components, restricted to {@code restrict}, in the cache?
+	 */
+	public boolean hasMECs(BitSet restrict)
+	{
+		return mecs.containsKey(restrict);
+	}
+
+	/**
+	 * Get the maximal end components, restricted to {@code restrict}, from the cache (null if not present).
+	 * A new list is returned, so it can be safely modified (but not the BitSets in it).
+	 */
+	public List<BitSet> getMECs(BitSet restrict)
+	{
+		List<BitSet> result = mecs.get(restrict);
+		return result == null ? null : new ArrayList<>(result);
+	}
+
+	/**
+	 * Store the solution vector for a reachability probability computation,
+	 * for use with {@link #getReachProbsInit}. This should be a lower bound
+	 * on the actual probabilities, e.g. the result of value iteration from below.
+	 */
+	public void storeReachProbs(String type, BitSet remain, BitSet target, boolean min, double[] soln)
+	{
+		reachProbs.put(new Key(type, remain, target, min), soln.clone());
+	}
+
+	/**
+	 * Get an initial solution vector to warm-start value iteration for reachability probabilities,
+	 * i.e. a lower bound on them, or null if there is none available. This is a previously stored
+	 * solution vector for the same type and min/max whose remain/target sets are included in
+	 * the ones given (with preference given to exactly matching ones), since the probabilities
+	 * for those can only be lower. A copy is returned, so it can be safely modified.
+	 * @param type Type of computation
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max (ignored for non-nondeterministic models)
+	 */
+	public double[] getReachProbsInit(String type, BitSet remain, BitSet target, boolean min)
+	{
+		double[] soln = reachProbs.get(new Key(type, remain, target, min));
+		if (soln != null) {
+			return soln.clone();
+		}
+		for (Map.Entry<Key, double[]> entry : reachProbs.entrySet()) {
+			Key key = entry.getKey();
+			if (key.type.equals(type) && key.min == min && isSubset(key.target, target) && (remain == null || (key.remain != null && isSubset(key.remain, remain)))) {
+				return entry.getValue().clone();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Is {@code set1} a subset of {@code set2}?
+	 */
+	private static boolean isSubset(BitSet set1, BitSet set2)
+	{
+		BitSet diff = (BitSet) set1.clone();
+		diff.andNot(set2);
+		return diff.isEmpty();
+	}
+
+	/**
+	 * Clear the contents of the cache.
+	 */
+	public void clear()
+	{
+		precomputations.clear();
+		mecs.clear();
+		reachProbs.clear();
+	}
+}
@@ -37,6 +37,7 @@ import java.util.TreeSet;
 import parser.State;
 import parser.Values;
 import parser.VarList;
+import prism.ParallelExporter;
 import prism.Prism;
 import prism.PrismException;
 import prism.PrismLog;
@@ -382,19 +383,25 @@ public abstract class ModelExplicit implements Model
 			log.println("states=[");
 
 		// Print states
-		int numStates = statesList.size();
-		for (int i = 0; i < numStates; i++) {
+		ParallelExporter.export(log, statesList.size(), (i, out) -> {
 			if (exportType != Prism.EXPORT_MATLAB)
-				log.println(i + ":" + statesList.get(i).toString());
+				out.println(i + ":" + statesList.get(i).toString());
 			else
-				log.println(statesList.get(i).toStringNoParentheses());
-		}
+				out.println(statesList.get(i).toStringNoParentheses());
+		});
 
 		// Print footer
 		if (exportType == Prism.EXPORT_MATLAB)
 			log.println("];");
 	}
 
+	@Override
+	public boolean supportsConcurrentReads()
+	{
+		// Explicitly stored, so read-only access is thread-safe
+		return true;
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
@@ -28,15 +28,24 @@
 package explicit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 import explicit.graphviz.Decoration;
 import explicit.graphviz.Decorator;
@@ -46,6 +55,7 @@ import prism.Accuracy;
 import prism.AccuracyFactory;
 import prism.Pair;
 import prism.PrismComponent;
+import prism.PrismDevNullLog;
 import prism.PrismException;
 import prism.PrismNotSupportedException;
 import prism.PrismSettings;
@@ -56,6 +66,14 @@ import prism.PrismUtils;
  */
 public class POMDPModelChecker extends ProbModelChecker
 {
+	// Number of threads for building/solving grid-based belief MDPs
+	protected int numThreads = 1;
+
+	// Solution method, and parameters for belief exploration
+	protected boolean beliefExploration = false;
+	protected double exploreEpsilon = 1e-2;
+	protected int exploreMaxBeliefs = 100000;
+
 	// Some local data structures for convenience
 	
 	/**
@@ -74,6 +92,28 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 	}
 	
+	/**
+	 * Info for a single grid point of a belief MDP over a fixed-resolution grid,
+	 * with the successor beliefs of each choice already interpolated over the grid.
+	 * The successors of choice i are those from choiceStarts[i] to choiceStarts[i+1]-1.
+	 * Successor j has probability succProbs[j] and either a known value succValues[j] or,
+	 * if this is NaN, a value interpolated over the grid points with indices gridIndices[k]
+	 * and weights gridWeights[k], for k from succStarts[j] to succStarts[j+1]-1.
+	 * Optionally, there is also a reward for each choice.
+	 * This is also used for the beliefs expanded during belief exploration,
+	 * where each successor is either known or a single explored belief (with weight 1).
+	 */
+	class GridPointTrans
+	{
+		public int[] choiceStarts;
+		public double[] rewards;
+		public double[] succProbs;
+		public double[] succValues;
+		public int[] succStarts;
+		public int[] gridIndices;
+		public double[] gridWeights;
+	}
+
 	/**
 	 * Value backup function for belief state value iteration:
 	 * mapping from a state and its definition (reward + transitions)
@@ -101,6 +141,12 @@ public class POMDPModelChecker extends ProbModelChecker
 	public POMDPModelChecker(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+			beliefExploration = settings.getString(PrismSettings.PRISM_POMDP_METHOD).equals("Belief exploration");
+			exploreEpsilon = settings.getDouble(PrismSettings.PRISM_POMDP_EXPLORE_EPSILON);
+			exploreMaxBeliefs = settings.getInteger(PrismSettings.PRISM_POMDP_EXPLORE_MAX_BELIEFS);
+		}
 	}
 
 	/**
@@ -130,7 +176,11 @@ public class POMDPModelChecker extends ProbModelChecker
 		mainLog.println("\nStarting probabilistic reachability (" + (min ? "min" : "max") + ")...");
 
 		// Compute rewards
-		res = computeReachProbsFixedGrid(pomdp, remain, target, min, statesOfInterest.nextSetBit(0));
+		if (beliefExploration) {
+			res = computeReachProbsBeliefExploration(pomdp, remain, target, min, statesOfInterest.nextSetBit(0));
+		} else {
+			res = computeReachProbsFixedGrid(pomdp, remain, target, min, statesOfInterest.nextSetBit(0));
+		}
 
 		// Finished probabilistic reachability
 		timer = System.currentTimeMillis() - timer;
@@ -181,44 +231,45 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Initialise the grid points (just for unknown beliefs)
 		List<Belief> gridPoints = initialiseGridPoints(pomdp, unknownObs);
 		mainLog.println("Grid statistics: resolution=" + gridResolution + ", points=" + gridPoints.size());
-		// Construct grid belief "MDP"
-		mainLog.println("Building belief space approximation...");
-		List<BeliefMDPState> beliefMDP = buildBeliefMDP(pomdp, null, gridPoints);
-		
-		// Initialise hashmaps for storing values for the unknown belief states
-		HashMap<Belief, Double> vhash = new HashMap<>();
-		HashMap<Belief, Double> vhash_backUp = new HashMap<>();
-		for (Belief belief : gridPoints) {
-			vhash.put(belief, 0.0);
-			vhash_backUp.put(belief, 0.0);
+		// Index the grid points
+		int unK = gridPoints.size();
+		HashMap<Belief, Integer> gridPointIndices = new HashMap<>();
+		for (int b = 0; b < unK; b++) {
+			gridPointIndices.put(gridPoints.get(b), b);
 		}
-		// Define value function for the full set of belief states
-		Function<Belief, Double> values = belief -> approximateReachProb(belief, vhash_backUp, targetObs, unknownObs);
-		// Define value backup function
-		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachProbBackup(belief, beliefState, values, min);
-		
-		// Start iterations
-		mainLog.println("Solving belief space approximation...");
-		long timer2 = System.currentTimeMillis();
+		// Construct grid belief "MDP", with successor beliefs interpolated over grid points
+		mainLog.println("Building belief space approximation...");
+		ExecutorService executor = createGridExecutor();
+		double[] vgrid = new double[unK];
+		double[] vgrid_backUp = new double[unK];
 		int iters = 0;
 		boolean done = false;
-		while (!done && iters < maxIters) {
-			// Iterate over all (unknown) grid points
-			int unK = gridPoints.size();
-			for (int b = 0; b < unK; b++) {
-				Belief belief = gridPoints.get(b);
-				Pair<Double, Integer> valChoice = backup.apply(belief, beliefMDP.get(b));
-				vhash.put(belief, valChoice.first);
+		long timer2;
+		try {
+			GridPointTrans[] gridMDP = buildGridBeliefMDP(pomdp, null, gridPoints, gridPointIndices, unknownObs, belief -> targetObs.get(belief.so) ? 1.0 : 0.0, executor);
+
+			// Start iterations
+			mainLog.println("Solving belief space approximation...");
+			timer2 = System.currentTimeMillis();
+			while (!done && iters < maxIters) {
+				// Iterate over all (unknown) grid points
+				forEachGridPoint(unK, executor, b -> vgrid[b] = gridPointBackup(gridMDP[b], vgrid_backUp, min));
+				// Check termination
+				done = PrismUtils.doublesAreClose(vgrid, vgrid_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
+				// back up
+				System.arraycopy(vgrid, 0, vgrid_backUp, 0, unK);
+				iters++;
 			}
-			// Check termination
-			done = PrismUtils.doublesAreClose(vhash, vhash_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
-			// back up	
-			Set<Map.Entry<Belief, Double>> entries = vhash.entrySet();
-			for (Map.Entry<Belief, Double> entry : entries) {
-				vhash_backUp.put(entry.getKey(), entry.getValue());
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
 			}
-			iters++;
 		}
+		// Define value function for the full set of belief states
+		Function<Belief, Double> values = belief -> approximateReachProb(belief, gridPointIndices, vgrid_backUp, targetObs, unknownObs);
+		// Define value backup function
+		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachProbBackup(belief, beliefState, values, min);
+
 		// Non-convergence is an error (usually)
 		if (!done && errorOnNonConverge) {
 			String msg = "Iterative method did not converge within " + iters + " iterations.";
@@ -233,7 +284,7 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Also get (approximate) accuracy of result from value iteration
 		Belief initialBelief = Belief.pointDistribution(sInit, pomdp);
 		double outerBound = values.apply(initialBelief);
-		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vhash, vhash_backUp, termCrit == TermCrit.RELATIVE);
+		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vgrid, vgrid_backUp, termCrit == TermCrit.RELATIVE);
 		Accuracy outerBoundAcc = AccuracyFactory.valueIteration(termCritParam, outerBoundMaxDiff, termCrit == TermCrit.RELATIVE);
 		// Print result
 		mainLog.println("Outer bound: " + outerBound + " (" + outerBoundAcc.toString(outerBound) + ")");
@@ -335,7 +386,11 @@ public class POMDPModelChecker extends ProbModelChecker
 		mainLog.println("\nStarting expected reachability (" + (min ? "min" : "max") + ")...");
 
 		// Compute rewards
-		res = computeReachRewardsFixedGrid(pomdp, mdpRewards, target, min, statesOfInterest.nextSetBit(0));
+		if (beliefExploration) {
+			res = computeReachRewardsBeliefExploration(pomdp, mdpRewards, target, min, statesOfInterest.nextSetBit(0));
+		} else {
+			res = computeReachRewardsFixedGrid(pomdp, mdpRewards, target, min, statesOfInterest.nextSetBit(0));
+		}
 
 		// Finished expected reachability
 		timer = System.currentTimeMillis() - timer;
@@ -387,44 +442,45 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Initialise the grid points (just for unknown beliefs)
 		List<Belief> gridPoints = initialiseGridPoints(pomdp, unknownObs);
 		mainLog.println("Grid statistics: resolution=" + gridResolution + ", points=" + gridPoints.size());
-		// Construct grid belief "MDP"
-		mainLog.println("Building belief space approximation...");
-		List<BeliefMDPState> beliefMDP = buildBeliefMDP(pomdp, mdpRewards, gridPoints);
-		
-		// Initialise hashmaps for storing values for the unknown belief states
-		HashMap<Belief, Double> vhash = new HashMap<>();
-		HashMap<Belief, Double> vhash_backUp = new HashMap<>();
-		for (Belief belief : gridPoints) {
-			vhash.put(belief, 0.0);
-			vhash_backUp.put(belief, 0.0);
+		// Index the grid points
+		int unK = gridPoints.size();
+		HashMap<Belief, Integer> gridPointIndices = new HashMap<>();
+		for (int b = 0; b < unK; b++) {
+			gridPointIndices.put(gridPoints.get(b), b);
 		}
-		// Define value function for the full set of belief states
-		Function<Belief, Double> values = belief -> approximateReachReward(belief, vhash_backUp, targetObs, infObs);
-		// Define value backup function
-		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachRewardBackup(belief, beliefState, values, min);
-		
-		// Start iterations
-		mainLog.println("Solving belief space approximation...");
-		long timer2 = System.currentTimeMillis();
+		// Construct grid belief "MDP", with successor beliefs interpolated over grid points
+		mainLog.println("Building belief space approximation...");
+		ExecutorService executor = createGridExecutor();
+		double[] vgrid = new double[unK];
+		double[] vgrid_backUp = new double[unK];
 		int iters = 0;
 		boolean done = false;
-		while (!done && iters < maxIters) {
-			// Iterate over all (unknown) grid points
-			int unK = gridPoints.size();
-			for (int b = 0; b < unK; b++) {
-				Belief belief = gridPoints.get(b);
-				Pair<Double, Integer> valChoice = backup.apply(belief, beliefMDP.get(b));
-				vhash.put(belief, valChoice.first);
+		long timer2;
+		try {
+			GridPointTrans[] gridMDP = buildGridBeliefMDP(pomdp, mdpRewards, gridPoints, gridPointIndices, unknownObs, belief -> targetObs.get(belief.so) ? 0.0 : Double.POSITIVE_INFINITY, executor);
+
+			// Start iterations
+			mainLog.println("Solving belief space approximation...");
+			timer2 = System.currentTimeMillis();
+			while (!done && iters < maxIters) {
+				// Iterate over all (unknown) grid points
+				forEachGridPoint(unK, executor, b -> vgrid[b] = gridPointBackup(gridMDP[b], vgrid_backUp, min));
+				// Check termination
+				done = PrismUtils.doublesAreClose(vgrid, vgrid_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
+				// back up
+				System.arraycopy(vgrid, 0, vgrid_backUp, 0, unK);
+				iters++;
 			}
-			// Check termination
-			done = PrismUtils.doublesAreClose(vhash, vhash_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
-			// back up	
-			Set<Map.Entry<Belief, Double>> entries = vhash.entrySet();
-			for (Map.Entry<Belief, Double> entry : entries) {
-				vhash_backUp.put(entry.getKey(), entry.getValue());
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
 			}
-			iters++;
 		}
+		// Define value function for the full set of belief states
+		Function<Belief, Double> values = belief -> approximateReachReward(belief, gridPointIndices, vgrid_backUp, targetObs, infObs);
+		// Define value backup function
+		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachRewardBackup(belief, beliefState, values, min);
+
 		// Non-convergence is an error (usually)
 		if (!done && errorOnNonConverge) {
 			String msg = "Iterative method did not converge within " + iters + " iterations.";
@@ -439,7 +495,7 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Also get (approximate) accuracy of result from value iteration
 		Belief initialBelief = Belief.pointDistribution(sInit, pomdp);
 		double outerBound = values.apply(initialBelief);
-		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vhash, vhash_backUp, termCrit == TermCrit.RELATIVE);
+		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vgrid, vgrid_backUp, termCrit == TermCrit.RELATIVE);
 		Accuracy outerBoundAcc = AccuracyFactory.valueIteration(termCritParam, outerBoundMaxDiff, termCrit == TermCrit.RELATIVE);
 		// Print result
 		mainLog.println("Outer bound: " + outerBound + " (" + outerBoundAcc.toString(outerBound) + ")");
@@ -516,6 +572,446 @@ public class POMDPModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute reachability/until probabilities,
+	 * i.e. compute the min/max probability of reaching a state in {@code target},
+	 * while remaining in those in @{code remain},
+	 * using on-the-fly exploration of the beliefs reachable from the initial state
+	 * (see {@link #exploreBeliefSpace}).
+	 * This only computes the probabiity from a single start state
+	 * @param pomdp The POMDP
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param sInit State to compute for
+	 */
+	protected ModelCheckerResult computeReachProbsBeliefExploration(POMDP pomdp, BitSet remain, BitSet target, boolean min, int sInit) throws PrismException
+	{
+		// Find out the observations for the target/remain states
+		BitSet targetObs = getObservationsMatchingStates(pomdp, target);
+		if (targetObs == null) {
+			throw new PrismException("Target for reachability is not observable");
+		}
+		BitSet remainObs = (remain == null) ? null : getObservationsMatchingStates(pomdp, remain);
+		if (remain != null && remainObs == null) {
+			throw new PrismException("Left-hand side of until is not observable");
+		}
+		mainLog.println("target obs=" + targetObs.cardinality() + (remainObs == null ? "" : ", remain obs=" + remainObs.cardinality()));
+
+		// Determine set of observations actually need to perform computation for
+		BitSet unknownObs = new BitSet();
+		unknownObs.set(0, pomdp.getNumObservations());
+		unknownObs.andNot(targetObs);
+		if (remainObs != null) {
+			unknownObs.and(remainObs);
+		}
+
+		// Solve the fully observable MDP, whose values bound those of the POMDP
+		mainLog.println("Solving fully observable MDP...");
+		MDPModelChecker mcMDP = new MDPModelChecker(this);
+		mcMDP.setExportAdv(false);
+		mcMDP.setGenStrat(false);
+		double[] mdpValues = mcMDP.computeUntilProbs(pomdp, remain, target, min).soln;
+
+		// Explore (cut-off beliefs are pessimistic: prob 1 for min, 0 for max)
+		return exploreBeliefSpace(pomdp, null, targetObs, unknownObs, belief -> targetObs.get(belief.so) ? 1.0 : 0.0, mdpValues, min, min, sInit);
+	}
+
+	/**
+	 * Compute expected reachability rewards,
+	 * i.e. compute the min/max reward accumulated to reach a state in {@code target},
+	 * using on-the-fly exploration of the beliefs reachable from the initial state
+	 * (see {@link #exploreBeliefSpace}).
+	 * This only computes the expected reward from a single start state
+	 * @param pomdp The POMDP
+	 * @param mdpRewards The rewards
+	 * @param target Target states
+	 * @param min Min or max rewards (true=min, false=max)
+	 * @param sInit State to compute for
+	 */
+	protected ModelCheckerResult computeReachRewardsBeliefExploration(POMDP pomdp, MDPRewards mdpRewards, BitSet target, boolean min, int sInit) throws PrismException
+	{
+		// Find out the observations for the target states
+		BitSet targetObs = getObservationsMatchingStates(pomdp, target);
+		if (targetObs == null) {
+			throw new PrismException("Target for expected reachability is not observable");
+		}
+
+		// Find _some_ of the states with infinite reward
+		// (those from which *every* MDP strategy has prob<1 of reaching the target,
+		// and therefore so does every POMDP strategy)
+		MDPModelChecker mcProb1 = new MDPModelChecker(this);
+		BitSet inf = mcProb1.prob1(pomdp, null, target, false, null);
+		inf.flip(0, pomdp.getNumStates());
+		// Find observations for which all states are known to have inf reward
+		BitSet infObs = getObservationsCoveredByStates(pomdp, inf);
+		mainLog.println("target obs=" + targetObs.cardinality() + ", inf obs=" + infObs.cardinality());
+
+		// Determine set of observations actually need to perform computation for
+		BitSet unknownObs = new BitSet();
+		unknownObs.set(0, pomdp.getNumObservations());
+		unknownObs.andNot(targetObs);
+		unknownObs.andNot(infObs);
+
+		// Solve the fully observable MDP, whose values bound those of the POMDP
+		mainLog.println("Solving fully observable MDP...");
+		MDPModelChecker mcMDP = new MDPModelChecker(this);
+		mcMDP.setExportAdv(false);
+		mcMDP.setGenStrat(false);
+		double[] mdpValues = mcMDP.computeReachRewards(pomdp, mdpRewards, target, min).soln;
+
+		// Explore (cut-off beliefs are pessimistic: infinite reward for min, 0 for max)
+		return exploreBeliefSpace(pomdp, mdpRewards, targetObs, unknownObs, belief -> targetObs.get(belief.so) ? 0.0 : Double.POSITIVE_INFINITY, mdpValues, min, !min, sInit);
+	}
+
+	/**
+	 * Solve a POMDP, for probabilistic reachability or, if {@code mdpRewards} is non-null,
+	 * reward reachability, by exploring the belief MDP on the fly from the initial belief,
+	 * heuristic-search style. Each explored belief has an optimistic value (an upper bound for max,
+	 * a lower bound for min): for unexpanded (frontier) beliefs, this is given by the values
+	 * {@code mdpValues} of the fully observable MDP; for expanded ones, it is computed by value
+	 * iteration over the explored fragment. Frontier beliefs are expanded in batches (doubling in size),
+	 * those most likely to be reached under the current optimistic strategy first.
+	 * After each batch, a pessimistic bound is computed from the model induced by this strategy
+	 * (see {@link #buildStrategyModel}), in which unexpanded beliefs are cut off.
+	 * Exploration stops once the gap between the bounds for the initial belief is at most
+	 * {@code exploreEpsilon}, or once {@code exploreMaxBeliefs} beliefs have been expanded.
+	 * Beliefs whose observation is not in {@code unknownObs} are not explored,
+	 * their values being given by {@code knownValues}.
+	 * @param cutOffAsTarget Whether cut-off beliefs are treated as target states (rather than as sinks)
+	 */
+	protected ModelCheckerResult exploreBeliefSpace(POMDP pomdp, MDPRewards mdpRewards, BitSet targetObs, BitSet unknownObs, ToDoubleFunction<Belief> knownValues,
+			double[] mdpValues, boolean min, boolean cutOffAsTarget, int sInit) throws PrismException
+	{
+		// Start belief exploration
+		long timer = System.currentTimeMillis();
+		mainLog.println("Starting belief exploration (" + (min ? "min" : "max") + ")...");
+
+		// Explored beliefs, with their transitions (null if not yet expanded) and (optimistic) values
+		IndexedSet<Belief> exploredBeliefs = new IndexedSet<>(true);
+		List<Belief> beliefs = new ArrayList<>();
+		List<GridPointTrans> beliefTrans = new ArrayList<>();
+		double[][] values = new double[][] { new double[1024] };
+		ToDoubleFunction<Belief> optimisticValue = belief -> {
+			double[] dist = belief.toDistributionOverStates(pomdp);
+			double value = 0;
+			for (int s = 0; s < dist.length; s++) {
+				if (dist[s] > 0) {
+					value += dist[s] * mdpValues[s];
+				}
+			}
+			return value;
+		};
+		// Add the initial belief
+		Belief initialBelief = Belief.pointDistribution(sInit, pomdp);
+		exploredBeliefs.add(initialBelief);
+		beliefs.add(initialBelief);
+		beliefTrans.add(null);
+		values[0][0] = unknownObs.get(initialBelief.so) ? optimisticValue.applyAsDouble(initialBelief) : knownValues.applyAsDouble(initialBelief);
+		// Define value function for the full set of belief states
+		Function<Belief, Double> valuesFn = belief -> {
+			if (!unknownObs.get(belief.so)) {
+				return knownValues.applyAsDouble(belief);
+			}
+			return exploredBeliefs.contains(belief) ? values[0][exploredBeliefs.get(belief)] : optimisticValue.applyAsDouble(belief);
+		};
+		// Define value backup function
+		BeliefMDPBackUp backup;
+		if (mdpRewards == null) {
+			backup = (belief, beliefState) -> approximateReachProbBackup(belief, beliefState, valuesFn, min);
+		} else {
+			backup = (belief, beliefState) -> approximateReachRewardBackup(belief, beliefState, valuesFn, min);
+		}
+
+		// Explore, in rounds
+		int numExpanded = 0;
+		int iters = 0;
+		int[] choices = new int[0];
+		double outerBound = values[0][0];
+		double innerBound = outerBound;
+		double outerBoundMaxDiff = 0.0;
+		ModelCheckerResult mcRes = null;
+		POMDPStrategyModel psm = null;
+		ExecutorService executor = createGridExecutor();
+		try {
+			while (unknownObs.get(initialBelief.so)) {
+				// Pick the frontier beliefs to expand next
+				int batch = Math.min(Math.max(1, numExpanded), exploreMaxBeliefs - numExpanded);
+				List<Integer> toExpand = selectFrontierBeliefs(beliefTrans, choices, batch);
+				if (toExpand.isEmpty()) {
+					break;
+				}
+				// Expand them (in parallel) and add any new successor beliefs (in a fixed order)
+				int numBeliefsOld = beliefs.size();
+				BeliefMDPState[] expanded = new BeliefMDPState[toExpand.size()];
+				forEachGridPoint(toExpand.size(), executor, k -> expanded[k] = buildBeliefMDPState(pomdp, mdpRewards, beliefs.get(toExpand.get(k))));
+				for (int k = 0; k < expanded.length; k++) {
+					beliefTrans.set(toExpand.get(k), buildExploredBeliefTrans(expanded[k], exploredBeliefs, beliefs, beliefTrans, unknownObs, knownValues));
+				}
+				numExpanded += expanded.length;
+				int numBeliefs = beliefs.size();
+				if (values[0].length < numBeliefs) {
+					values[0] = Arrays.copyOf(values[0], Math.max(numBeliefs, 2 * values[0].length));
+				}
+				for (int b = numBeliefsOld; b < numBeliefs; b++) {
+					values[0][b] = optimisticValue.applyAsDouble(beliefs.get(b));
+				}
+
+				// Value iteration over expanded beliefs (optimistic values)
+				int[] expandedIndices = new int[numExpanded];
+				for (int b = 0, k = 0; b < numBeliefs; b++) {
+					if (beliefTrans.get(b) != null) {
+						expandedIndices[k++] = b;
+					}
+				}
+				double[] valuesOld = values[0];
+				double[] valuesNew = valuesOld.clone();
+				boolean done = false;
+				int roundIters = 0;
+				while (!done && roundIters < maxIters) {
+					double[] vOld = valuesOld, vNew = valuesNew;
+					forEachGridPoint(expandedIndices.length, executor, k -> {
+						int b = expandedIndices[k];
+						vNew[b] = gridPointBackup(beliefTrans.get(b), vOld, min);
+					});
+					done = PrismUtils.doublesAreClose(valuesNew, valuesOld, termCritParam, termCrit == TermCrit.ABSOLUTE);
+					outerBoundMaxDiff = PrismUtils.measureSupNorm(valuesNew, valuesOld, termCrit == TermCrit.ABSOLUTE);
+					valuesOld = vNew;
+					valuesNew = vOld;
+					roundIters++;
+				}
+				values[0] = valuesOld;
+				iters += roundIters;
+				if (!done && errorOnNonConverge) {
+					String msg = "Iterative method did not converge within " + roundIters + " iterations.";
+					msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+					throw new PrismException(msg);
+				}
+				outerBound = values[0][0];
+				// Store the current optimistic strategy
+				choices = new int[numBeliefs];
+				for (int b : expandedIndices) {
+					choices[b] = gridPointChoice(beliefTrans.get(b), values[0], min);
+				}
+
+				// Build the model induced by the strategy, cutting off unexpanded beliefs, to get a pessimistic bound
+				psm = buildStrategyModel(pomdp, sInit, mdpRewards, targetObs, unknownObs, backup,
+						belief -> exploredBeliefs.contains(belief) && beliefTrans.get(exploredBeliefs.get(belief)) != null, cutOffAsTarget);
+				mcRes = solveStrategyModel(psm, mdpRewards);
+				innerBound = mcRes.soln[0];
+				mainLog.println("Explored " + numBeliefs + " beliefs (" + numExpanded + " expanded): bounds [" + (min ? outerBound : innerBound) + ","
+						+ (min ? innerBound : outerBound) + "]");
+
+				// Stop if the gap is small enough, or we have expanded too many beliefs
+				if (outerBound == innerBound || Math.abs(outerBound - innerBound) <= exploreEpsilon) {
+					break;
+				}
+				if (numExpanded >= exploreMaxBeliefs) {
+					mainLog.printWarning("Belief exploration stopped after expanding " + numExpanded + " beliefs (see -pomdpmaxbeliefs).");
+					break;
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+		Accuracy outerBoundAcc = AccuracyFactory.valueIteration(termCritParam, outerBoundMaxDiff, termCrit == TermCrit.ABSOLUTE);
+		Accuracy innerBoundAcc = (mcRes == null) ? outerBoundAcc : mcRes.accuracy;
+		if (innerBoundAcc == null) {
+			innerBoundAcc = outerBoundAcc;
+		}
+		mainLog.println("Outer bound: " + outerBound + " (" + outerBoundAcc.toString(outerBound) + ")");
+		mainLog.println("Inner bound: " + innerBound + " (" + innerBoundAcc.toString(innerBound) + ")");
+
+		// Export strategy if requested (as for the fixed grid method)
+		if (psm != null && (genStrat || exportAdv)) {
+			MDP mdp = psm.mdp;
+			List<Belief> psmBeliefs = psm.beliefs;
+			int precision = settings.getInteger(PrismSettings.PRISM_EXPORT_MODEL_PRECISION);
+			if (exportAdvFilename.endsWith(".dot")) {
+				mdp.exportToDotFile(exportAdvFilename, Collections.singleton(new Decorator()
+				{
+					@Override
+					public Decoration decorateState(int state, Decoration d)
+					{
+						d.labelAddBelow(psmBeliefs.get(state).toString(pomdp));
+						return d;
+					}
+				}), precision);
+			} else {
+				mdp.exportToPrismExplicitTra(exportAdvFilename, precision);
+			}
+		}
+
+		// Finished belief exploration
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("\nBelief exploration (" + (min ? "min" : "max") + ")");
+		mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+
+		// Extract and store result
+		Pair<Double,Accuracy> resultValAndAcc;
+		if (min) {
+			resultValAndAcc = AccuracyFactory.valueAndAccuracyFromInterval(outerBound, outerBoundAcc, innerBound, innerBoundAcc);
+		} else {
+			resultValAndAcc = AccuracyFactory.valueAndAccuracyFromInterval(innerBound, innerBoundAcc, outerBound, outerBoundAcc);
+		}
+		double resultVal = resultValAndAcc.first;
+		Accuracy resultAcc = resultValAndAcc.second;
+		mainLog.println("Result bounds: [" + resultAcc.getResultLowerBound(resultVal) + "," + resultAcc.getResultUpperBound(resultVal) + "]");
+		double soln[] = new double[pomdp.getNumStates()];
+		soln[sInit] = resultVal;
+
+		// Return results
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = soln;
+		res.accuracy = resultAcc;
+		res.numIters = iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * Convert a single (newly expanded) belief of a belief MDP into a GridPointTrans object,
+	 * where each successor belief is either known (if its observation is not in {@code unknownObs},
+	 * with value given by {@code knownValues}) or an explored belief, which is added to
+	 * {@code exploredBeliefs}/{@code beliefs}/{@code beliefTrans} (as unexpanded) if new.
+	 */
+	protected GridPointTrans buildExploredBeliefTrans(BeliefMDPState beliefMDPState, IndexedSet<Belief> exploredBeliefs, List<Belief> beliefs,
+			List<GridPointTrans> beliefTrans, BitSet unknownObs, ToDoubleFunction<Belief> knownValues)
+	{
+		int numChoices = beliefMDPState.trans.size();
+		int numSuccs = 0;
+		for (HashMap<Belief, Double> beliefDist : beliefMDPState.trans) {
+			numSuccs += beliefDist.size();
+		}
+		GridPointTrans gpt = new GridPointTrans();
+		gpt.choiceStarts = new int[numChoices + 1];
+		gpt.rewards = beliefMDPState.rewards.isEmpty() ? null : new double[numChoices];
+		gpt.succProbs = new double[numSuccs];
+		gpt.succValues = new double[numSuccs];
+		gpt.succStarts = new int[numSuccs + 1];
+		gpt.gridIndices = new int[numSuccs];
+		gpt.gridWeights = new double[numSuccs];
+		int j = 0, k = 0;
+		for (int i = 0; i < numChoices; i++) {
+			gpt.choiceStarts[i] = j;
+			if (gpt.rewards != null) {
+				gpt.rewards[i] = beliefMDPState.rewards.get(i);
+			}
+			for (Map.Entry<Belief, Double> entry : beliefMDPState.trans.get(i).entrySet()) {
+				Belief nextBelief = entry.getKey();
+				gpt.succProbs[j] = entry.getValue();
+				gpt.succStarts[j] = k;
+				if (!unknownObs.get(nextBelief.so)) {
+					gpt.succValues[j] = knownValues.applyAsDouble(nextBelief);
+				} else {
+					gpt.succValues[j] = Double.NaN;
+					if (exploredBeliefs.add(nextBelief)) {
+						beliefs.add(nextBelief);
+						beliefTrans.add(null);
+					}
+					gpt.gridIndices[k] = exploredBeliefs.getIndexOfLastAdd();
+					gpt.gridWeights[k] = 1.0;
+					k++;
+				}
+				j++;
+			}
+		}
+		gpt.choiceStarts[numChoices] = j;
+		gpt.succStarts[numSuccs] = k;
+		return gpt;
+	}
+
+	/**
+	 * Select (up to) {@code batch} unexpanded beliefs, those with the highest probability of being
+	 * reached from the initial belief (index 0) under strategy {@code choices} first;
+	 * if none can be reached, they are picked in the order that they were found.
+	 * The probabilities are computed over a bounded number of steps.
+	 * @param beliefTrans Transitions for each explored belief (null if unexpanded)
+	 * @param choices Choice for each expanded belief
+	 */
+	protected List<Integer> selectFrontierBeliefs(List<GridPointTrans> beliefTrans, int[] choices, int batch)
+	{
+		int numBeliefs = beliefTrans.size();
+		// Compute the probability of reaching each unexpanded (absorbing) belief
+		double[] reach = new double[numBeliefs];
+		double[] mass = new double[numBeliefs];
+		double[] massNext = new double[numBeliefs];
+		BitSet active = new BitSet();
+		mass[0] = 1.0;
+		active.set(0);
+		for (int step = 0; step < 1000 && !active.isEmpty(); step++) {
+			BitSet activeNext = new BitSet();
+			double inFlight = 0.0;
+			for (int b = active.nextSetBit(0); b >= 0; b = active.nextSetBit(b + 1)) {
+				GridPointTrans gpt = beliefTrans.get(b);
+				if (gpt == null) {
+					reach[b] += mass[b];
+				} else if (gpt.choiceStarts.length > 1) {
+					int i = choices[b];
+					for (int j = gpt.choiceStarts[i]; j < gpt.choiceStarts[i + 1]; j++) {
+						if (Double.isNaN(gpt.succValues[j])) {
+							int bNext = gpt.gridIndices[gpt.succStarts[j]];
+							massNext[bNext] += mass[b] * gpt.succProbs[j];
+							activeNext.set(bNext);
+							inFlight += mass[b] * gpt.succProbs[j];
+						}
+					}
+				}
+				mass[b] = 0.0;
+			}
+			double[] tmp = mass;
+			mass = massNext;
+			massNext = tmp;
+			active = activeNext;
+			if (inFlight < 1e-9) {
+				for (int b = active.nextSetBit(0); b >= 0; b = active.nextSetBit(b + 1)) {
+					if (beliefTrans.get(b) == null) {
+						reach[b] += mass[b];
+					}
+				}
+				break;
+			}
+		}
+		// Pick the most likely ones
+		List<Integer> frontier = new ArrayList<>();
+		for (int b = 0; b < numBeliefs; b++) {
+			if (beliefTrans.get(b) == null && reach[b] > 0) {
+				frontier.add(b);
+			}
+		}
+		if (frontier.isEmpty()) {
+			for (int b = 0; b < numBeliefs && frontier.size() < batch; b++) {
+				if (beliefTrans.get(b) == null) {
+					frontier.add(b);
+				}
+			}
+			return frontier;
+		}
+		frontier.sort((b1, b2) -> Double.compare(reach[b2], reach[b1]));
+		return frontier.size() > batch ? new ArrayList<>(frontier.subList(0, batch)) : frontier;
+	}
+
+	/**
+	 * Solve a strategy-induced model (see {@link #buildStrategyModel}), using the MDP model checker.
+	 * This is for probabilistic reachability or, if {@code mdpRewards} is non-null, reward reachability.
+	 */
+	protected ModelCheckerResult solveStrategyModel(POMDPStrategyModel psm, MDPRewards mdpRewards) throws PrismException
+	{
+		// Create MDP model checker (disable strat generation - if enabled, we want the POMDP one)
+		MDPModelChecker mcMDP = new MDPModelChecker(this);
+		mcMDP.setExportAdv(false);
+		mcMDP.setGenStrat(false);
+		mcMDP.setVerbosity(0);
+		mcMDP.setLog(new PrismDevNullLog());
+		if (mdpRewards == null) {
+			return mcMDP.computeReachProbs(psm.mdp, psm.mdp.getLabelStates("target"), true);
+		} else {
+			return mcMDP.computeReachRewards(psm.mdp, psm.mdpRewards, psm.mdp.getLabelStates("target"), true);
+		}
+	}
+
 	/**
 	 * Get a list of observations from a set of states
 	 * (both are represented by BitSets over their indices).
@@ -579,42 +1075,125 @@ public class POMDPModelChecker extends ProbModelChecker
 	protected List<Belief> initialiseGridPoints(POMDP pomdp, BitSet unknownObs)
 	{
 		List<Belief> gridPoints = new ArrayList<>();
-		ArrayList<ArrayList<Double>> assignment;
 		int numUnobservations = pomdp.getNumUnobservations();
 		int numStates = pomdp.getNumStates();
 		for (int so = unknownObs.nextSetBit(0); so >= 0; so = unknownObs.nextSetBit(so + 1)) {
-			ArrayList<Integer> unobservsForObserv = new ArrayList<>();
+			int[] unobservsForObserv = new int[numStates];
+			int n = 0;
 			for (int s = 0; s < numStates; s++) {
 				if (so == pomdp.getObservation(s)) {
-					unobservsForObserv.add(pomdp.getUnobservation(s));
-				}
-			}
-			assignment = fullAssignment(unobservsForObserv.size(), gridResolution);
-			for (ArrayList<Double> inner : assignment) {
-				double[] bu = new double[numUnobservations];
-				int k = 0;
-				for (int unobservForObserv : unobservsForObserv) {
-					bu[unobservForObserv] = inner.get(k);
-					k++;
+					unobservsForObserv[n++] = pomdp.getUnobservation(s);
 				}
-				gridPoints.add(new Belief(so, bu));
 			}
+			addGridPoints(gridPoints, so, Arrays.copyOf(unobservsForObserv, n), numUnobservations, new int[n], 0);
 		}
 		return gridPoints;
 	}
+
+	/**
+	 * Add to {@code gridPoints} the grid beliefs for observation {@code so}, i.e., all distributions
+	 * over the unobservations {@code unobservs} whose probabilities are multiples of 1/{@code gridResolution}.
+	 * Each is given by a non-increasing sequence {@code g} with g[0] = gridResolution, the probability
+	 * of the kth unobservation being (g[k] - g[k+1]) / gridResolution (or g[k] / gridResolution for the last one).
+	 * This fills in g[k] onwards, recursively, adding grid points in lexicographic order of g.
+	 */
+	private void addGridPoints(List<Belief> gridPoints, int so, int[] unobservs, int numUnobservations, int[] g, int k)
+	{
+		int n = unobservs.length;
+		if (k == n) {
+			double[] bu = new double[numUnobservations];
+			for (int i = 0; i < n - 1; i++) {
+				bu[unobservs[i]] = (double) (g[i] - g[i + 1]) / gridResolution;
+			}
+			bu[unobservs[n - 1]] = (double) g[n - 1] / gridResolution;
+			gridPoints.add(new Belief(so, bu));
+			return;
+		}
+		int lo = (k == 0) ? gridResolution : 0;
+		int hi = (k == 0) ? gridResolution : g[k - 1];
+		for (int i = lo; i <= hi; i++) {
+			g[k] = i;
+			addGridPoints(gridPoints, so, unobservs, numUnobservations, g, k + 1);
+		}
+	}
 	
 	/**
-	 * Construct (part of) a belief MDP, just for the set of passed in belief states.
+	 * Construct (part of) a belief MDP, just for the set of grid points {@code gridPoints},
+	 * interpolating the value of each successor belief over the grid points (indexed by {@code gridPointIndices}),
+	 * unless its observation is not in {@code unknownObs}, in which case its value is given by {@code knownValues}.
 	 * If provided, also construct a list of rewards for each state.
-	 * It is stored as a list (over source beliefs) of BeliefMDPState objects.
+	 * It is stored as an array (over grid points) of GridPointTrans objects.
+	 * Grid points are processed in parallel if {@code executor} is non-null.
+	 */
+	protected GridPointTrans[] buildGridBeliefMDP(POMDP pomdp, MDPRewards mdpRewards, List<Belief> gridPoints, HashMap<Belief, Integer> gridPointIndices,
+			BitSet unknownObs, ToDoubleFunction<Belief> knownValues, ExecutorService executor) throws PrismException
+	{
+		GridPointTrans[] gridMDP = new GridPointTrans[gridPoints.size()];
+		forEachGridPoint(gridPoints.size(), executor, b -> {
+			BeliefMDPState beliefMDPState = buildBeliefMDPState(pomdp, mdpRewards, gridPoints.get(b));
+			gridMDP[b] = buildGridPointTrans(beliefMDPState, gridPointIndices, unknownObs, knownValues);
+		});
+		return gridMDP;
+	}
+
+	/**
+	 * Convert a single state (belief) of a belief MDP into a GridPointTrans object,
+	 * interpolating the value of each successor belief over the grid points (indexed by {@code gridPointIndices}),
+	 * unless its observation is not in {@code unknownObs}, in which case its value is given by {@code knownValues}.
 	 */
-	protected List<BeliefMDPState> buildBeliefMDP(POMDP pomdp, MDPRewards mdpRewards, List<Belief> beliefs)
+	protected GridPointTrans buildGridPointTrans(BeliefMDPState beliefMDPState, HashMap<Belief, Integer> gridPointIndices, BitSet unknownObs,
+			ToDoubleFunction<Belief> knownValues)
 	{
-		List<BeliefMDPState> beliefMDP = new ArrayList<>();
-		for (Belief belief: beliefs) {
-			beliefMDP.add(buildBeliefMDPState(pomdp, mdpRewards, belief));
+		int numChoices = beliefMDPState.trans.size();
+		int numSuccs = 0;
+		for (HashMap<Belief, Double> beliefDist : beliefMDPState.trans) {
+			numSuccs += beliefDist.size();
+		}
+		GridPointTrans gpt = new GridPointTrans();
+		gpt.choiceStarts = new int[numChoices + 1];
+		gpt.rewards = beliefMDPState.rewards.isEmpty() ? null : new double[numChoices];
+		gpt.succProbs = new double[numSuccs];
+		gpt.succValues = new double[numSuccs];
+		gpt.succStarts = new int[numSuccs + 1];
+		int[] gridIndices = new int[16];
+		double[] gridWeights = new double[16];
+		int j = 0, k = 0;
+		for (int i = 0; i < numChoices; i++) {
+			gpt.choiceStarts[i] = j;
+			if (gpt.rewards != null) {
+				gpt.rewards[i] = beliefMDPState.rewards.get(i);
+			}
+			for (Map.Entry<Belief, Double> entry : beliefMDPState.trans.get(i).entrySet()) {
+				Belief nextBelief = entry.getKey();
+				gpt.succProbs[j] = entry.getValue();
+				gpt.succStarts[j] = k;
+				if (!unknownObs.get(nextBelief.so)) {
+					gpt.succValues[j] = knownValues.applyAsDouble(nextBelief);
+				} else {
+					gpt.succValues[j] = Double.NaN;
+					ArrayList<double[]> subSimplex = new ArrayList<>();
+					double[] lambdas = new double[nextBelief.bu.length];
+					getSubSimplexAndLambdas(nextBelief.bu, subSimplex, lambdas, gridResolution);
+					if (gridIndices.length < k + lambdas.length) {
+						gridIndices = Arrays.copyOf(gridIndices, 2 * (k + lambdas.length));
+						gridWeights = Arrays.copyOf(gridWeights, 2 * (k + lambdas.length));
+					}
+					for (int l = 0; l < lambdas.length; l++) {
+						if (lambdas[l] >= 1e-6) {
+							gridIndices[k] = gridPointIndices.get(new Belief(nextBelief.so, subSimplex.get(l)));
+							gridWeights[k] = lambdas[l];
+							k++;
+						}
+					}
+				}
+				j++;
+			}
 		}
-		return beliefMDP;
+		gpt.choiceStarts[numChoices] = j;
+		gpt.succStarts[numSuccs] = k;
+		gpt.gridIndices = Arrays.copyOf(gridIndices, k);
+		gpt.gridWeights = Arrays.copyOf(gridWeights, k);
+		return gpt;
 	}
 	
 	/**
@@ -634,9 +1213,16 @@ public class POMDPModelChecker extends ProbModelChecker
 			HashMap<Integer, Double> obsProbs = pomdp.computeObservationProbsAfterAction(beliefInDist, i);
 			HashMap<Belief, Double> beliefDist = new HashMap<>();
 			// Find the belief for each observation
+			// (computing the distribution after the choice just once, rather than for each observation)
+			double[] beliefAfterAction = pomdp.getBeliefInDistAfterChoice(beliefInDist, i);
 			for (Map.Entry<Integer, Double> entry : obsProbs.entrySet()) {
 				int o = entry.getKey();
-				Belief nextBelief = pomdp.getBeliefAfterChoiceAndObservation(belief, i, o);
+				double[] nextBeliefInDist = new double[beliefAfterAction.length];
+				for (int s = 0; s < beliefAfterAction.length; s++) {
+					nextBeliefInDist[s] = beliefAfterAction[s] * pomdp.getObservationProb(s, o);
+				}
+				PrismUtils.normalise(nextBeliefInDist);
+				Belief nextBelief = new Belief(nextBeliefInDist, pomdp);
 				beliefDist.put(nextBelief, entry.getValue());
 			}
 			beliefMDPState.trans.add(beliefDist);
@@ -698,10 +1284,124 @@ public class POMDPModelChecker extends ProbModelChecker
 		return new Pair<Double, Integer>(chosenValue, chosenActionIndex);
 	}
 	
+	/**
+	 * Perform a single backup step of (approximate) value iteration for a grid point
+	 * (for probabilistic reachability or, if rewards are stored, reward reachability),
+	 * using values {@code gridValues} for the grid points. This is equivalent to
+	 * {@link #approximateReachProbBackup} or {@link #approximateReachRewardBackup}.
+	 */
+	protected double gridPointBackup(GridPointTrans gpt, double[] gridValues, boolean min)
+	{
+		int numChoices = gpt.choiceStarts.length - 1;
+		double chosenValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < numChoices; i++) {
+			double value = gridPointChoiceValue(gpt, i, gridValues);
+			if ((min && chosenValue - value > 1.0e-6) || (!min && value - chosenValue > 1.0e-6)) {
+				chosenValue = value;
+			}
+		}
+		return chosenValue;
+	}
+
+	/**
+	 * Get the optimal choice for a grid point, for a backup step as in {@link #gridPointBackup}.
+	 */
+	protected int gridPointChoice(GridPointTrans gpt, double[] gridValues, boolean min)
+	{
+		int numChoices = gpt.choiceStarts.length - 1;
+		double chosenValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+		int chosenActionIndex = 0;
+		for (int i = 0; i < numChoices; i++) {
+			double value = gridPointChoiceValue(gpt, i, gridValues);
+			if ((min && chosenValue - value > 1.0e-6) || (!min && value - chosenValue > 1.0e-6)) {
+				chosenValue = value;
+				chosenActionIndex = i;
+			} else if (Math.abs(value - chosenValue) < 1.0e-6) {
+				chosenActionIndex = i;
+			}
+		}
+		return chosenActionIndex;
+	}
+
+	/**
+	 * Get the value of choice {@code i} for a grid point, using values {@code gridValues} for the grid points.
+	 */
+	protected double gridPointChoiceValue(GridPointTrans gpt, int i, double[] gridValues)
+	{
+		double value = gpt.rewards == null ? 0 : gpt.rewards[i];
+		for (int j = gpt.choiceStarts[i]; j < gpt.choiceStarts[i + 1]; j++) {
+			double nextBeliefValue = gpt.succValues[j];
+			if (Double.isNaN(nextBeliefValue)) {
+				nextBeliefValue = 0;
+				for (int k = gpt.succStarts[j]; k < gpt.succStarts[j + 1]; k++) {
+					nextBeliefValue += gpt.gridWeights[k] * gridValues[gpt.gridIndices[k]];
+				}
+			}
+			value += gpt.succProbs[j] * nextBeliefValue;
+		}
+		return value;
+	}
+
+	/**
+	 * Apply {@code body} to each grid point index from 0 to {@code n}-1,
+	 * in parallel (in blocks, to balance load) if {@code executor} is non-null.
+	 */
+	protected void forEachGridPoint(int n, ExecutorService executor, IntConsumer body) throws PrismException
+	{
+		if (executor == null) {
+			for (int b = 0; b < n; b++) {
+				body.accept(b);
+			}
+			return;
+		}
+		int blockSize = Math.max(1, n / (numThreads * 16));
+		AtomicInteger nextBlock = new AtomicInteger(0);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(numThreads);
+		for (int w = 0; w < numThreads; w++) {
+			tasks.add(() -> {
+				int lo;
+				while ((lo = nextBlock.getAndAdd(blockSize)) < n) {
+					int hi = Math.min(lo + blockSize, n);
+					for (int b = lo; b < hi; b++) {
+						body.accept(b);
+					}
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> f : executor.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			throw new PrismException("Parallel belief space computation was interrupted");
+		} catch (ExecutionException e) {
+			throw new PrismException("Error during parallel belief space computation: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Create a thread pool for parallel construction/solution of grid-based belief MDPs,
+	 * if more than one thread is to be used (otherwise, return null).
+	 */
+	protected ExecutorService createGridExecutor()
+	{
+		if (numThreads <= 1)
+			return null;
+		if (verbosity >= 1)
+			mainLog.println("Using " + numThreads + " threads for belief space approximation");
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		return Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
 	/**
 	 * Compute the grid-based approximate value for a belief for probabilistic reachability
 	 */
-	protected double approximateReachProb(Belief belief, HashMap<Belief, Double> gridValues, BitSet targetObs, BitSet unknownObs)
+	protected double approximateReachProb(Belief belief, HashMap<Belief, Integer> gridPointIndices, double[] gridValues, BitSet targetObs, BitSet unknownObs)
 	{
 		// 1 for target states
 		if (targetObs.get(belief.so)) {
@@ -713,14 +1413,14 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 		// Otherwise approximate vie interpolation over grid points
 		else {
-			return interpolateOverGrid(belief, gridValues);
+			return interpolateOverGrid(belief, gridPointIndices, gridValues);
 		}
 	}
 	
 	/**
 	 * Compute the grid-based approximate value for a belief for reward reachability
 	 */
-	protected double approximateReachReward(Belief belief, HashMap<Belief, Double> gridValues, BitSet targetObs, BitSet infObs)
+	protected double approximateReachReward(Belief belief, HashMap<Belief, Integer> gridPointIndices, double[] gridValues, BitSet targetObs, BitSet infObs)
 	{
 		// 0 for target states
 		if (targetObs.get(belief.so)) {
@@ -732,15 +1432,16 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 		// Otherwise approximate vie interpolation over grid points
 		else {
-			return interpolateOverGrid(belief, gridValues);
+			return interpolateOverGrid(belief, gridPointIndices, gridValues);
 		}
 	}
 	
 	/**
 	 * Approximate the value for a belief {@code belief} by interpolating over values {@code gridValues}
-	 * for a representative set of beliefs whose convex hull is the full belief space.
+	 * for a representative set of beliefs whose convex hull is the full belief space
+	 * (indexed by {@code gridPointIndices}).
 	 */
-	protected double interpolateOverGrid(Belief belief, HashMap<Belief, Double> gridValues)
+	protected double interpolateOverGrid(Belief belief, HashMap<Belief, Integer> gridPointIndices, double[] gridValues)
 	{
 		ArrayList<double[]> subSimplex = new ArrayList<>();
 		double[] lambdas = new double[belief.bu.length];
@@ -748,7 +1449,7 @@ public class POMDPModelChecker extends ProbModelChecker
 		double val = 0;
 		for (int j = 0; j < lambdas.length; j++) {
 			if (lambdas[j] >= 1e-6) {
-				val += lambdas[j] * gridValues.get(new Belief(belief.so, subSimplex.get(j)));
+				val += lambdas[j] * gridValues[gridPointIndices.get(new Belief(belief.so, subSimplex.get(j)))];
 			}
 		}
 		return val;
@@ -767,6 +1468,19 @@ public class POMDPModelChecker extends ProbModelChecker
 	 * @param listBeliefs
 	 */
 	protected POMDPStrategyModel buildStrategyModel(POMDP pomdp, int sInit, MDPRewards mdpRewards, BitSet targetObs, BitSet unknownObs, BeliefMDPBackUp backup) throws PrismException
+	{
+		return buildStrategyModel(pomdp, sInit, mdpRewards, targetObs, unknownObs, backup, null, false);
+	}
+
+	/**
+	 * Build a (Markov chain) model representing the fragment of the belief MDP induced by an optimal strategy,
+	 * as for {@link #buildStrategyModel(POMDP, int, MDPRewards, BitSet, BitSet, BeliefMDPBackUp)},
+	 * but only exploring "unknown" beliefs satisfying {@code explorable} (if non-null).
+	 * Other unknown beliefs are cut off, i.e., left as deadlocks (non-target, with zero reward)
+	 * or, if {@code cutOffAsTarget} is true, marked as target states.
+	 */
+	protected POMDPStrategyModel buildStrategyModel(POMDP pomdp, int sInit, MDPRewards mdpRewards, BitSet targetObs, BitSet unknownObs, BeliefMDPBackUp backup,
+			Predicate<Belief> explorable, boolean cutOffAsTarget) throws PrismException
 	{
 		// Initialise model/state/rewards storage
 		MDPSimple mdp = new MDPSimple();
@@ -790,8 +1504,13 @@ public class POMDPModelChecker extends ProbModelChecker
 			if (targetObs.get(belief.so)) {
 				mdpTarget.set(src);
 			}
-			// Only explore "unknown" states
-			if (unknownObs.get(belief.so)) {
+			// Only explore "unknown" states (unless cut off)
+			if (unknownObs.get(belief.so) && explorable != null && !explorable.test(belief)) {
+				if (cutOffAsTarget) {
+					mdpTarget.set(src);
+				}
+				stateRewards.setStateReward(src, 0.0);
+			} else if (unknownObs.get(belief.so)) {
 				// Build the belief MDP for this belief state and solve
 				BeliefMDPState beliefMDPState = buildBeliefMDPState(pomdp, mdpRewards, belief);
 				Pair<Double, Integer> valChoice = backup.apply(belief, beliefMDPState);
@@ -835,49 +1554,6 @@ public class POMDPModelChecker extends ProbModelChecker
 		return psm;
 	}
 	
-	protected ArrayList<ArrayList<Integer>> assignGPrime(int startIndex, int min, int max, int length)
-	{
-		ArrayList<ArrayList<Integer>> result = new ArrayList<ArrayList<Integer>>();
-		if (startIndex == length - 1) {
-			for (int i = min; i <= max; i++) {
-				ArrayList<Integer> innerList = new ArrayList<>();
-				innerList.add(i);
-				result.add(innerList);
-			}
-		} else {
-			for (int i = min; i <= max; i++) {
-				ArrayList<ArrayList<Integer>> nextResult = assignGPrime(startIndex + 1, 0, i, length);
-				for (ArrayList<Integer> nextReulstInner : nextResult) {
-					ArrayList<Integer> innerList = new ArrayList<>();
-					innerList.add(i);
-					for (Integer a : nextReulstInner) {
-						innerList.add(a);
-					}
-					result.add(innerList);
-				}
-			}
-		}
-
-		return result;
-	}
-
-	private ArrayList<ArrayList<Double>> fullAssignment(int length, int resolution)
-	{
-		ArrayList<ArrayList<Integer>> GPrime = assignGPrime(0, resolution, resolution, length);
-		ArrayList<ArrayList<Double>> result = new ArrayList<ArrayList<Double>>();
-		for (ArrayList<Integer> GPrimeInner : GPrime) {
-			ArrayList<Double> innerList = new ArrayList<>();
-			int i;
-			for (i = 0; i < length - 1; i++) {
-				int temp = GPrimeInner.get(i) - GPrimeInner.get(i + 1);
-				innerList.add((double) temp / resolution);
-			}
-			innerList.add((double) GPrimeInner.get(i) / resolution);
-			result.add(innerList);
-		}
-		return result;
-	}
-
 	private int[] getSortedPermutation(double[] inputArray)
 	{
 		int n = inputArray.length;
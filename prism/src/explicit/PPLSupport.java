@@ -29,6 +29,7 @@ package explicit;
 import java.math.BigInteger;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -622,6 +623,85 @@ public class PPLSupport
 		return new C_Polyhedron(ngs);
 	}
 
+	/**
+	 * under-approximate polyhedron p by one with at most maxPoints point generators,
+	 * keeping its rays and lines and a subset of its points, chosen greedily so that
+	 * each new point is the one furthest from those already kept
+	 * does not modify the given polyhedron p (which is returned if already small enough)
+	 *
+	 * arguments:
+	 * p ... the Polyhedron
+	 * maxPoints ... maximum number of point generators to keep (at least 1)
+	 * error ... used to return (in error[0]) a bound on the Hausdorff distance
+	 *           between p and the result, i.e. the largest (Euclidean) distance
+	 *           from a dropped point to a kept one
+	 */
+	public static Polyhedron limitPointGenerators(Polyhedron p, int maxPoints, double[] error) throws PrismException
+	{
+		error[0] = 0.0;
+		if (p.is_empty())
+			return p;
+		int n = (int) p.space_dimension();
+		Generator_System ngs = new Generator_System();
+		List<Generator> points = new ArrayList<Generator>();
+		for (Generator g : p.minimized_generators()) {
+			if (g.type() == Generator_Type.POINT)
+				points.add(g);
+			else
+				ngs.add(g); // keep rays and lines
+		}
+		int m = points.size();
+		if (m <= maxPoints)
+			return p;
+
+		double[][] coords = new double[m][];
+		for (int i = 0; i < m; i++) {
+			List<Double> v = getGeneratorAsVector(points.get(i), n);
+			coords[i] = new double[n];
+			for (int j = 0; j < n; j++)
+				coords[i][j] = v.get(j);
+		}
+
+		// start from the point with the largest sum of coordinates (towards the Pareto frontier)
+		int next = 0;
+		for (int i = 1; i < m; i++) {
+			if (sum(coords[i]) > sum(coords[next]))
+				next = i;
+		}
+		// distance of each point from the closest kept one (-1 once kept)
+		double[] dist = new double[m];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		for (int kept = 0; kept < maxPoints; kept++) {
+			ngs.add(points.get(next));
+			dist[next] = -1.0;
+			int furthest = -1;
+			for (int i = 0; i < m; i++) {
+				if (dist[i] < 0)
+					continue;
+				double d = 0.0;
+				for (int j = 0; j < n; j++)
+					d += (coords[i][j] - coords[next][j]) * (coords[i][j] - coords[next][j]);
+				dist[i] = Math.min(dist[i], Math.sqrt(d));
+				if (furthest < 0 || dist[i] > dist[furthest])
+					furthest = i;
+			}
+			next = furthest;
+		}
+		// since the distance to the (convex) result is convex, the largest distance
+		// of a dropped point bounds the distance of any point in p
+		error[0] = dist[next];
+
+		return new C_Polyhedron(ngs);
+	}
+
+	private static double sum(double[] x)
+	{
+		double result = 0.0;
+		for (double xi : x)
+			result += xi;
+		return result;
+	}
+
 	/**
 	 * cut away everything except the negative orthant
 	 **/
@@ -0,0 +1,527 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+
+/**
+ * Indexed set of states (see {@link IndexedSet}), for states whose variables
+ * are all bounded integers or Booleans, as described by a {@link VarList}.
+ * <br><br>
+ * Rather than keeping {@link State} objects, each state is bit-packed into one or more
+ * {@code long}s (using the variable ranges to determine the number of bits needed)
+ * and stored contiguously, in order of index. Lookup is done with an open-addressing
+ * hash table of indices over these packed words. {@link State} objects are only
+ * created when the states are extracted, e.g. with {@link #toArrayList()}.
+ * <br><br>
+ * Variables are packed in order, starting from the most significant bits,
+ * so comparing packed words gives the same ordering as {@link State#compareTo(State)};
+ * thus, {@link #buildSortingPermutation()} can be used as for a sorted {@link IndexedSet}.
+ * Any states which cannot be packed (e.g. because a variable value is out of range)
+ * are stored separately in a {@link HashMap}.
+ */
+public class PackedIndexedSet implements StateStorage<State>
+{
+	/** Number of states per page of packed storage (log2) */
+	private static final int PAGE_BITS = 16;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	/** Maximum load factor for the hash table */
+	private static final double MAX_LOAD = 0.75;
+
+	// Packing info (per variable)
+
+	/** Number of variables */
+	protected int numVars;
+	/** Lowest value of each (integer) variable */
+	protected int[] lows;
+	/** Number of bits used for each variable */
+	protected int[] bits;
+	/** Which word each variable is stored in */
+	protected int[] words;
+	/** Shift of each variable within its word */
+	protected int[] shifts;
+	/** Is each variable a Boolean? */
+	protected boolean[] isBool;
+	/** Number of words per state */
+	protected int numWords;
+
+	// Storage
+
+	/** Packed states, split into pages of {@code PAGE_SIZE} states */
+	protected long[][] pages;
+	/** Hash table of indices (plus 1, so that 0 means empty) */
+	protected int[] table;
+	/** Number of states stored */
+	protected int size;
+	/** States which could not be packed (null if none) */
+	protected Map<State, Integer> unpacked;
+	/** Index of the last state added */
+	protected int indexOfLastAdd;
+
+	/** Scratch storage for packing a state */
+	private long[] buf;
+
+	/**
+	 * Can states for the variables in {@code varList} be stored in a {@link PackedIndexedSet}?
+	 * This requires all of them to be bounded integers or Booleans.
+	 */
+	public static boolean canPack(VarList varList)
+	{
+		if (varList == null) {
+			return false;
+		}
+		for (int i = 0; i < varList.getNumVars(); i++) {
+			DeclarationType declType = varList.getDeclarationType(i);
+			if (!(declType instanceof DeclarationInt || declType instanceof DeclarationBool)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create an empty set for states over the variables in {@code varList}
+	 * (which must satisfy {@link #canPack(VarList)}).
+	 */
+	public PackedIndexedSet(VarList varList)
+	{
+		numVars = varList.getNumVars();
+		lows = new int[numVars];
+		bits = new int[numVars];
+		words = new int[numVars];
+		shifts = new int[numVars];
+		isBool = new boolean[numVars];
+		// Allocate bits to variables, from the most significant bit of the first word
+		// (a variable never straddles two words)
+		int word = 0;
+		int free = 64;
+		for (int i = 0; i < numVars; i++) {
+			isBool[i] = varList.getDeclarationType(i) instanceof DeclarationBool;
+			lows[i] = isBool[i] ? 0 : varList.getLow(i);
+			bits[i] = Math.max(1, varList.getRangeLogTwo(i));
+			if (bits[i] > free) {
+				word++;
+				free = 64;
+			}
+			free -= bits[i];
+			words[i] = word;
+			shifts[i] = free;
+		}
+		numWords = word + 1;
+		buf = new long[numWords];
+		pages = new long[1][];
+		table = new int[1024];
+		size = 0;
+		unpacked = null;
+		indexOfLastAdd = -1;
+	}
+
+	// Packing
+
+	/**
+	 * Pack state {@code state} into {@code buf}.
+	 * Returns false if this is not possible (wrong number of variables, or a value of the wrong type or out of range).
+	 */
+	private boolean pack(State state, long[] buf)
+	{
+		Object[] varValues = state.varValues;
+		if (varValues.length != numVars) {
+			return false;
+		}
+		for (int w = 0; w < numWords; w++) {
+			buf[w] = 0;
+		}
+		for (int i = 0; i < numVars; i++) {
+			long v;
+			Object o = varValues[i];
+			if (isBool[i]) {
+				if (!(o instanceof Boolean)) {
+					return false;
+				}
+				v = ((Boolean) o) ? 1 : 0;
+			} else {
+				if (!(o instanceof Integer)) {
+					return false;
+				}
+				v = (long) ((Integer) o) - lows[i];
+				if (v < 0 || v >= (1L << bits[i])) {
+					return false;
+				}
+			}
+			buf[words[i]] |= v << shifts[i];
+		}
+		return true;
+	}
+
+	/**
+	 * Create the {@link State} object for the packed state with index {@code index}.
+	 */
+	private State unpack(int index)
+	{
+		long[] page = pages[index >>> PAGE_BITS];
+		int offset = (index & PAGE_MASK) * numWords;
+		State state = new State(numVars);
+		for (int i = 0; i < numVars; i++) {
+			long mask = (1L << bits[i]) - 1;
+			int v = (int) ((page[offset + words[i]] >>> shifts[i]) & mask);
+			state.varValues[i] = isBool[i] ? Boolean.valueOf(v != 0) : Integer.valueOf(v + lows[i]);
+		}
+		return state;
+	}
+
+	/**
+	 * Is the packed state with index {@code index} equal to the one in {@code buf}?
+	 */
+	private boolean equalsPacked(int index, long[] buf)
+	{
+		long[] page = pages[index >>> PAGE_BITS];
+		int offset = (index & PAGE_MASK) * numWords;
+		for (int w = 0; w < numWords; w++) {
+			if (page[offset + w] != buf[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compare the packed states with indices {@code i} and {@code j}
+	 * (in the style of {@link State#compareTo(State)}).
+	 */
+	private int comparePacked(int i, int j)
+	{
+		long[] pageI = pages[i >>> PAGE_BITS];
+		long[] pageJ = pages[j >>> PAGE_BITS];
+		int offsetI = (i & PAGE_MASK) * numWords;
+		int offsetJ = (j & PAGE_MASK) * numWords;
+		for (int w = 0; w < numWords; w++) {
+			int c = Long.compareUnsigned(pageI[offsetI + w], pageJ[offsetJ + w]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	private static int hash(long[] words, int offset, int numWords)
+	{
+		long h = 0;
+		for (int w = 0; w < numWords; w++) {
+			h = (h ^ words[offset + w]) * 0x9E3779B97F4A7C15L;
+		}
+		// Final mixing (from MurmurHash3), so that all bits affect the low ones used for slots
+		// (variables are packed from the most significant bits, which the multiplication only moves upwards)
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	// Hash table
+
+	/**
+	 * Find the slot in the hash table for the state packed in {@code buf}:
+	 * either the slot containing it, or the empty slot where it would be added.
+	 */
+	private int findSlot(long[] buf)
+	{
+		int mask = table.length - 1;
+		int slot = hash(buf, 0, numWords) & mask;
+		while (true) {
+			int entry = table[slot];
+			if (entry == 0 || equalsPacked(entry - 1, buf)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Double the size of the hash table.
+	 */
+	private void growTable()
+	{
+		int[] newTable = new int[table.length * 2];
+		int mask = newTable.length - 1;
+		for (int entry : table) {
+			if (entry != 0) {
+				int index = entry - 1;
+				int slot = hash(pages[index >>> PAGE_BITS], (index & PAGE_MASK) * numWords, numWords) & mask;
+				while (newTable[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				newTable[slot] = entry;
+			}
+		}
+		table = newTable;
+	}
+
+	/**
+	 * Append the state packed in {@code buf} to the storage, with index {@code size}.
+	 */
+	private void append(long[] buf)
+	{
+		int p = size >>> PAGE_BITS;
+		if (p == pages.length) {
+			long[][] newPages = new long[pages.length * 2][];
+			System.arraycopy(pages, 0, newPages, 0, pages.length);
+			pages = newPages;
+		}
+		if (pages[p] == null) {
+			pages[p] = new long[PAGE_SIZE * numWords];
+		}
+		System.arraycopy(buf, 0, pages[p], (size & PAGE_MASK) * numWords, numWords);
+	}
+
+	// Methods for StateStorage
+
+	@Override
+	public boolean add(State state)
+	{
+		if (!pack(state, buf)) {
+			if (unpacked == null) {
+				unpacked = new HashMap<State, Integer>();
+			}
+			Integer i = unpacked.get(state);
+			if (i != null) {
+				indexOfLastAdd = i;
+				return false;
+			}
+			indexOfLastAdd = size;
+			unpacked.put(state, size++);
+			return true;
+		}
+		int slot = findSlot(buf);
+		if (table[slot] != 0) {
+			indexOfLastAdd = table[slot] - 1;
+			return false;
+		}
+		// Add new state
+		append(buf);
+		table[slot] = size + 1;
+		indexOfLastAdd = size++;
+		if (size > table.length * MAX_LOAD) {
+			growTable();
+		}
+		return true;
+	}
+
+	/**
+	 * Get the index of a state, or -1 if it is not in the set.
+	 */
+	@Override
+	public int get(State state)
+	{
+		long[] buf = new long[numWords];
+		if (!pack(state, buf)) {
+			Integer i = unpacked == null ? null : unpacked.get(state);
+			return i == null ? -1 : i;
+		}
+		return table[findSlot(buf)] - 1;
+	}
+
+	@Override
+	public boolean contains(State state)
+	{
+		return get(state) != -1;
+	}
+
+	@Override
+	public void clear()
+	{
+		pages = new long[1][];
+		table = new int[1024];
+		size = 0;
+		unpacked = null;
+		indexOfLastAdd = -1;
+	}
+
+	@Override
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the set of (state, index) pairs.
+	 * Note that this is created on demand, so is relatively expensive.
+	 */
+	@Override
+	public Set<Map.Entry<State, Integer>> getEntrySet()
+	{
+		Set<Map.Entry<State, Integer>> entries = new LinkedHashSet<Map.Entry<State, Integer>>(size);
+		ArrayList<State> list = toArrayList();
+		for (int i = 0; i < size; i++) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<State, Integer>(list.get(i), i));
+		}
+		return entries;
+	}
+
+	@Override
+	public ArrayList<State> toArrayList()
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toArrayList(list);
+		return list;
+	}
+
+	@Override
+	public void toArrayList(ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++) {
+			list.add(null);
+		}
+		fillList(null, list);
+	}
+
+	@Override
+	public ArrayList<State> toPermutedArrayList(int permut[])
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toPermutedArrayList(permut, list);
+		return list;
+	}
+
+	@Override
+	public void toPermutedArrayList(int permut[], ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++) {
+			list.add(null);
+		}
+		fillList(permut, list);
+	}
+
+	/**
+	 * Store each state at position permut[index] (or index, if permut is null)
+	 * of {@code list}, which should contain {@code size} nulls.
+	 */
+	private void fillList(int permut[], ArrayList<State> list)
+	{
+		// Unpacked states first; any remaining gaps are packed states
+		if (unpacked != null) {
+			for (Map.Entry<State, Integer> e : unpacked.entrySet()) {
+				int i = e.getValue();
+				list.set(permut == null ? i : permut[i], e.getKey());
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			int j = permut == null ? i : permut[i];
+			if (list.get(j) == null) {
+				list.set(j, unpack(i));
+			}
+		}
+	}
+
+	@Override
+	public int[] buildSortingPermutation()
+	{
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		if (unpacked == null) {
+			// Sort by comparing packed states
+			mergeSort(order, new int[size], 0, size, this::comparePacked);
+		} else {
+			// If there are unpacked states, just compare State objects
+			ArrayList<State> list = toArrayList();
+			mergeSort(order, new int[size], 0, size, (i, j) -> list.get(i).compareTo(list.get(j)));
+		}
+		int perm[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			perm[order[i]] = i;
+		}
+		return perm;
+	}
+
+	/**
+	 * Comparator for (indices of) states.
+	 */
+	private interface IndexComparator
+	{
+		int compare(int i, int j);
+	}
+
+	/**
+	 * Sort the elements a[from], ..., a[to-1] using comparator {@code cmp}, with temporary storage {@code tmp}.
+	 */
+	private static void mergeSort(int[] a, int[] tmp, int from, int to, IndexComparator cmp)
+	{
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(a, tmp, from, mid, cmp);
+		mergeSort(a, tmp, mid, to, cmp);
+		if (cmp.compare(a[mid - 1], a[mid]) <= 0) {
+			return;
+		}
+		System.arraycopy(a, from, tmp, from, to - from);
+		int i = from, j = mid, k = from;
+		while (i < mid && j < to) {
+			a[k++] = cmp.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+		}
+		while (i < mid) {
+			a[k++] = tmp[i++];
+		}
+		while (j < to) {
+			a[k++] = tmp[j++];
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return toArrayList().toString();
+	}
+}
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.function.BiFunction;
 
 import explicit.rewards.CSGRewards;
 import explicit.rewards.ConstructRewards;
@@ -286,6 +287,44 @@ public class ProbModelChecker extends NonProbModelChecker
 		setErrorOnNonConverge(other.geterrorOnNonConverge());
 	}
 
+	/**
+	 * Perform a precomputation (e.g. "Prob0" or "Prob1") using {@code compute},
+	 * reusing the result from the model checker cache, where available and applicable to {@code model}.
+	 * @param type Type of precomputation
+	 * @param model The model
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max (ignored for non-nondeterministic models)
+	 * @param compute Method to perform the precomputation (for given remain/target sets)
+	 */
+	protected BitSet precomputeCached(String type, Model model, BitSet remain, BitSet target, boolean min, BiFunction<BitSet, BitSet, BitSet> compute)
+	{
+		if (modelCheckerCache == null || !modelCheckerCache.appliesTo(model)) {
+			return compute.apply(remain, target);
+		}
+		BitSet result = modelCheckerCache.getPrecomputation(type, remain, target, min);
+		if (result != null) {
+			if (!silentPrecomputations)
+				mainLog.println("Reusing cached " + type + " result...");
+			return result;
+		}
+		result = compute.apply(remain, target);
+		modelCheckerCache.storePrecomputation(type, remain, target, min, result);
+		return result;
+	}
+
+	/**
+	 * Can solution vectors for reachability probabilities be stored in, or used as initial vectors from,
+	 * the model checker cache, for the current settings? This is the case for value iteration
+	 * (or Gauss-Seidel, etc.) from below, where any lower bound is a valid initial vector.
+	 * @param model The model
+	 * @param init Initial solution vector passed in by the caller (if non-null, the cache is not used)
+	 */
+	protected boolean canCacheReachProbs(Model model, double init[])
+	{
+		return modelCheckerCache != null && modelCheckerCache.appliesTo(model) && init == null && !doIntervalIteration && valIterDir == ValIterDir.BELOW;
+	}
+
 	/**
 	 * Print summary of current settings.
 	 */
@@ -0,0 +1,180 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import explicit.rewards.MDPRewards;
+
+/**
+ * Results of reachability probability/reward objectives on a single MDP that have been
+ * solved together, in advance, by fused value iteration (see {@link MDPModelChecker#computeReachBatch}),
+ * so that they can be looked up when the properties containing them are model checked.
+ * Entries are only retrieved for the model passed to the constructor (compared by identity).
+ */
+public class ReachBatch
+{
+	/** The model that these results apply to */
+	protected Model model;
+
+	/** Reward structures used by the objectives, indexed by reward structure index */
+	protected Map<Integer, MDPRewards> rewards = new HashMap<>();
+
+	/** Results for each objective, indexed by key */
+	protected Map<Key, ModelCheckerResult> results = new HashMap<>();
+
+	/**
+	 * Key for an objective: its rewards (null for probabilities, compared by identity),
+	 * plus the remain/target sets and min/max.
+	 */
+	protected static class Key
+	{
+		MDPRewards rewards;
+		BitSet remain;
+		BitSet target;
+		boolean min;
+
+		Key(MDPRewards rewards, BitSet remain, BitSet target, boolean min)
+		{
+			this.rewards = rewards;
+			this.remain = remain == null ? null : (BitSet) remain.clone();
+			this.target = (BitSet) target.clone();
+			this.min = min;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(System.identityHashCode(rewards), remain, target, min);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return rewards == other.rewards && Objects.equals(remain, other.remain) && target.equals(other.target) && min == other.min;
+		}
+	}
+
+	/**
+	 * Create an (empty) set of results for model {@code model}.
+	 */
+	public ReachBatch(Model model)
+	{
+		this.model = model;
+	}
+
+	/**
+	 * Does this apply to model {@code model}?
+	 */
+	public boolean appliesTo(Model model)
+	{
+		return this.model == model;
+	}
+
+	/**
+	 * Store the reward structure with index {@code r}, as used for the objectives.
+	 */
+	public void storeRewards(int r, MDPRewards mdpRewards)
+	{
+		rewards.put(r, mdpRewards);
+	}
+
+	/**
+	 * Get the reward structure with index {@code r}, as used for the objectives (null if none).
+	 */
+	public MDPRewards getRewards(int r)
+	{
+		return rewards.get(r);
+	}
+
+	/**
+	 * Store the result for an objective.
+	 * @param mdpRewards The rewards (null for a reachability probability objective)
+	 * @param remain Remain in these states (optional: null means "all"; probabilities only)
+	 * @param target Target states
+	 * @param min Min or max
+	 * @param res The result
+	 */
+	public void storeResult(MDPRewards mdpRewards, BitSet remain, BitSet target, boolean min, ModelCheckerResult res)
+	{
+		results.put(new Key(mdpRewards, remain, target, min), res);
+	}
+
+	/**
+	 * Is there a result for an objective?
+	 * @param mdpRewards The rewards (null for a reachability probability objective)
+	 * @param remain Remain in these states (optional: null means "all"; probabilities only)
+	 * @param target Target states
+	 * @param min Min or max
+	 */
+	public boolean hasResult(MDPRewards mdpRewards, BitSet remain, BitSet target, boolean min)
+	{
+		return results.containsKey(new Key(mdpRewards, remain, target, min));
+	}
+
+	/**
+	 * Get the result for an objective on model {@code model} (null if not present).
+	 * A copy of the solution vector is returned, so it can be safely modified.
+	 * @param model The model
+	 * @param mdpRewards The rewards (null for a reachability probability objective)
+	 * @param remain Remain in these states (optional: null means "all"; probabilities only)
+	 * @param target Target states
+	 * @param min Min or max
+	 */
+	public ModelCheckerResult getResult(Model model, MDPRewards mdpRewards, BitSet remain, BitSet target, boolean min)
+	{
+		if (!appliesTo(model)) {
+			return null;
+		}
+		ModelCheckerResult res = results.get(new Key(mdpRewards, remain, target, min));
+		if (res == null) {
+			return null;
+		}
+		ModelCheckerResult copy = new ModelCheckerResult();
+		copy.soln = res.soln.clone();
+		copy.accuracy = res.accuracy;
+		copy.numIters = res.numIters;
+		copy.timeTaken = res.timeTaken;
+		copy.timePre = res.timePre;
+		return copy;
+	}
+
+	/**
+	 * Get the number of objectives that results are stored for.
+	 */
+	public int getNumResults()
+	{
+		return results.size();
+	}
+}
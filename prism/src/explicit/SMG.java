@@ -29,6 +29,7 @@ package explicit;
 
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import explicit.rewards.SMGRewards;
 import prism.ModelType;
@@ -82,7 +83,8 @@ public interface SMG extends STPG, PlayerInfoOwner
 	 * @param union_with_previous take union with previous Pareto set
 	 * @param cut cut off everything that is strictly above the negative orthant (used for energy objectives)
 	 * @param M maximum bound on Pareto sets (quantity is positive)
+	 * @param executor if non-null (and not using Gauss Seidel), process blocks of states in parallel using this
 	 */
 	public Pareto[] pMultiObjective(Pareto[] Xk, List<SMGRewards> rewards, boolean gaussSeidel, long baseline_accuracy, double[] biggest_reward,
-			List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut, long M) throws PrismException;
+			List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut, long M, ExecutorService executor) throws PrismException;
 }
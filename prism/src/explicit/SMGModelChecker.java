@@ -38,6 +38,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.math3.fraction.BigFraction;
 
@@ -80,6 +84,7 @@ import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismSettings;
 import prism.PrismUtils;
+import prism.Result;
 import strat.StochasticUpdateStrategy;
 
 /**
@@ -107,6 +112,14 @@ public class SMGModelChecker extends ProbModelChecker
 	// relative termination criterion
 	protected double varepsilon = 0.0001;
 
+	// number of threads for Pareto set computation
+	protected int numThreads = 1;
+
+	// maximum number of point generators per Pareto set in CQ iteration (0 = no limit)
+	protected int maxGenerators = 0;
+	// bound on the (Hausdorff) error introduced by limiting the number of generators
+	protected double paretoApproxError = 0.0;
+
 	// tracking for issuing warnings in batch
 	private List<String> strictToNonstrict = new ArrayList<String>();
 	private List<String> unfolded = new ArrayList<String>();
@@ -122,6 +135,9 @@ public class SMGModelChecker extends ProbModelChecker
 			if (varepsilon < 0)
 				throw new PrismException(String.format("Must have %s >= 0", settings.getSettingName(PrismSettings.PRISM_PARETO_EPSILON)));
 			gaussSeidel = settings.getBoolean(PrismSettings.PRISM_MULTI_GAUSS_SEIDEL);
+			// (parallel Pareto set computation must be enabled explicitly)
+			numThreads = settings.getBoolean(PrismSettings.PRISM_MULTI_PARALLEL) ? settings.getInteger(PrismSettings.PRISM_NUM_THREADS) : 1;
+			maxGenerators = settings.getInteger(PrismSettings.PRISM_MULTI_MAX_GENERATORS);
 			maxCIter = settings.getInteger(PrismSettings.PRISM_MULTI_MAX_C_ITER);
 			if (maxCIter < 1)
 				throw new PrismException(String.format("Must have %s >= 1", settings.getSettingName(PrismSettings.PRISM_MULTI_MAX_C_ITER)));
@@ -149,6 +165,19 @@ public class SMGModelChecker extends ProbModelChecker
 		}
 	}
 
+	@Override
+	public Result check(Model model, Expression expr) throws PrismException
+	{
+		paretoApproxError = 0.0;
+		Result res = super.check(model, expr);
+		// Report any error introduced by limiting the size of Pareto sets (-multimaxgens) in the result
+		if (paretoApproxError > 0.0) {
+			String expl = "Pareto sets under-approximated, Hausdorff error bound " + paretoApproxError;
+			res.setExplanation(res.getExplanation() == null ? expl : res.getExplanation() + "; " + expl);
+		}
+		return res;
+	}
+
 	@Override
 	public StateValues checkExpressionMultiObjective(Model model, List<List<Expression>> cnf, Coalition coalition) throws PrismException
         {
@@ -159,7 +188,10 @@ public class SMGModelChecker extends ProbModelChecker
 		MultiParameters params = initialiseRewards(model, cnf);
 
 		// direct method [QEST'13, MFCS'13, TACAS'15]
-		return checkExpressionMultiDirect(model, params, coalition);
+		StateValues result = checkExpressionMultiDirect(model, params, coalition);
+		if (paretoApproxError > 0.0)
+			mainLog.println("Pareto sets under-approximated (at most " + maxGenerators + " point generators each), Hausdorff error bound: " + paretoApproxError);
+		return result;
 	}
 	
 	// Model checking functions
@@ -410,7 +442,7 @@ public class SMGModelChecker extends ProbModelChecker
 		soln.set(s);
 		while (!u_done) {
 			// Single step of ReachPositive
-			((SMGSimple) stpg).subtreeStep(u, closedPlayer, soln);
+			((SMG) stpg).subtreeStep(u, closedPlayer, soln);
 			// Check termination
 			u_done = soln.equals(u);
 			// u = soln
@@ -2116,9 +2148,32 @@ public class SMGModelChecker extends ProbModelChecker
 			return true; // if not energy objective, will speak of convergence in any case
 		}
 
+		// if using multiple threads, blocks of states are processed in parallel
+		// (using Jacobi-style updates, since Gauss-Seidel is inherently sequential)
+		ExecutorService executor = createParetoExecutor();
+		try {
+			return computeCQParetoSetPolyhedra(smg, params, Px, stochasticStates, checkBounds, energy_objective, executor);
+		} finally {
+			if (executor != null)
+				executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Compute CQ Pareto sets for cumulative total and average rewards, using polyhedra
+	 * (see {@link #computeCQParetoSet(SMG, MultiParameters, Pareto[], List[], boolean, boolean)}).
+	 * If {@code executor} is non-null, it is used to process the states in parallel.
+	 */
+	protected boolean computeCQParetoSetPolyhedra(SMG smg, MultiParameters params, Pareto[] Px, List<Pareto>[] stochasticStates, boolean checkBounds,
+			boolean energy_objective, ExecutorService executor) throws PrismException
+	{
+		int gameSize = smg.getNumStates();
+		int n = params.rewards.size();
+		int init = smg.getFirstInitialState();
+
 		// only allow Gauss-Seidel when all dimensions are total cumulative rewards,
 		// or if we have an energy objective
-		boolean localGaussSeidel = gaussSeidel && ((params.objective_type == MultiParameters.ETCR) || energy_objective);
+		boolean localGaussSeidel = executor == null && gaussSeidel && ((params.objective_type == MultiParameters.ETCR) || energy_objective);
 
 		// INITIALISATION: compute polyhedra X_s^0
 		Pareto[] Qx = initialiseCQParetoSet(gameSize, n, params.MIN);
@@ -2135,6 +2190,7 @@ public class SMGModelChecker extends ProbModelChecker
 		// ITERATE FUNCTIONAL APPLICATION: compute X_s^k+1 = F(X_s^k), cf. MFCS'13 / TACAS'15
 		boolean converged = false;
 		long baseline_accuracy = params.baseline_accuracy;
+		double iterError = 0.0;
 		iterate_cq: for (int k = 0; k < params.maxCIter; k++) {
 			if (logCPareto)
 			        mainLog.print(String.format("C-ITER %d/%s, %s", k + 1, params.maxCIter,
@@ -2153,15 +2209,19 @@ public class SMGModelChecker extends ProbModelChecker
 
 			// VALUE ITERATION STEP
 			Pareto[] temp = smg.pMultiObjective(Qx, params.rewards, localGaussSeidel, baseline_accuracy, params.biggest_reward,
-					stochasticStates, params.rounding, !params.no_union_with_previous & !energy_objective, energy_objective, params.M);
+					stochasticStates, params.rounding, !params.no_union_with_previous & !energy_objective, energy_objective, params.M, executor);
 			System.arraycopy(temp, 0, Px, 0, temp.length); // copy to result
 
+			// limit the number of generators, if required (errors accumulate over iterations)
+			if (maxGenerators > 0)
+				iterError += limitGenerators(Px, executor);
+
 			if (logCPareto)
 			    PPLSupport.printReachabilityPolyhedron(Px, params.CONJUNCTS, init, mainLog);
 			    //PPLSupport.printReachabilityPolyhedra(Px, stochasticStates, params.CONJUNCTS, mainLog);
 
 			// test varepsilon-convergence
-			if (convergeNorm(Px, Qx, n, step, energy_objective, init)) {
+			if (convergeNorm(Px, Qx, n, step, energy_objective, init, executor)) {
 				if (logCPareto)
 					mainLog.print("CQ value iteration converged.\n");
 				converged = true;
@@ -2191,11 +2251,70 @@ public class SMGModelChecker extends ProbModelChecker
 
 		}
 		// finished - Pareto sets now in Px and stochasticStates
+		paretoApproxError = Math.max(paretoApproxError, iterError);
 
 		// return whether converged
 		return converged;
 	}
 
+	/**
+	 * Under-approximate each Pareto set in {@code Px} (in place) by one with
+	 * at most {@code maxGenerators} point generators per polyhedron
+	 * (see {@link PPLSupport#limitPointGenerators(Polyhedron, int, double[])}).
+	 * If {@code executor} is non-null, it is used to process blocks of states in parallel.
+	 *
+	 * @return A bound on the Hausdorff distance between the old and new sets (maximum over all states)
+	 */
+	private double limitGenerators(final Pareto[] Px, ExecutorService executor) throws PrismException
+	{
+		double[] errors = new double[Px.length];
+		if (executor == null) {
+			for (int s = 0; s < Px.length; s++)
+				errors[s] = limitGeneratorsState(Px[s]);
+		} else {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int start = 0; start < Px.length; start += SMGSimple.PARALLEL_BLOCK_SIZE) {
+				final int lo = start, hi = Math.min(Px.length, start + SMGSimple.PARALLEL_BLOCK_SIZE);
+				tasks.add(() -> {
+					for (int s = lo; s < hi; s++)
+						errors[s] = limitGeneratorsState(Px[s]);
+					return null;
+				});
+			}
+			SMGSimple.invokeAllTasks(executor, tasks);
+		}
+		double error = 0.0;
+		for (double e : errors)
+			error = Math.max(error, e);
+		return error;
+	}
+
+	/**
+	 * Limit the number of generators for a single Pareto set (see {@link #limitGenerators}).
+	 */
+	private double limitGeneratorsState(Pareto P) throws PrismException
+	{
+		double error = 0.0;
+		double[] err = new double[1];
+		for (int i = 0; i < P.size(); i++) {
+			Polyhedron p = PPLSupport.limitPointGenerators(P.get(i), maxGenerators, err);
+			if (p != P.get(i))
+				P.replace(i, p);
+			error = Math.max(error, err[0]);
+		}
+		return error;
+	}
+
+	/**
+	 * Get a bound on the (Hausdorff) error in the Pareto sets computed for the last
+	 * property checked, introduced by limiting the number of generators
+	 * (0 if no limit was applied). This is also reported in the explanation of the {@link Result}.
+	 */
+	public double getParetoApproxError()
+	{
+		return paretoApproxError;
+	}
+
 	/**
 	 * Tests convergence using epsilon-growth criterion (relative!),
 	 * that is, test whether (prev \cap current) + epsilon \supseteq (prev \cup current).
@@ -2209,70 +2328,117 @@ public class SMGModelChecker extends ProbModelChecker
 	 * @param k Current step number (if positive, used for average reward)
 	 * @param energy_objective If dealing with an energy objective
 	 * @param init Index of initial state
+	 * @param executor If non-null, used to check blocks of states in parallel
 	 *
 	 * @return Whether all (or initial if energy objective) sets have converged.
 	 **/
-	private boolean convergeNorm(final Pareto[] result, final Pareto[] prev_result, int n, int[] k, boolean energy_objective, int init) throws PrismException
+	private boolean convergeNorm(final Pareto[] result, final Pareto[] prev_result, int n, int[] k, boolean energy_objective, int init, ExecutorService executor)
+			throws PrismException
 	{
-		for (int s = 0; s < result.length; s++) {
-			Polyhedron ck1 = new C_Polyhedron((C_Polyhedron) result[s].get()); // deep copy - current
-			Polyhedron ck = new C_Polyhedron((C_Polyhedron) prev_result[s].get()); // deep copy - previous
-
-			// add step-discount if required
-			for (int i = 0; i < n; i++) {
-				if (k[i] > 1) {
-					Variable var = new Variable(i);
-					Linear_Expression expr = new Linear_Expression_Times(new Coefficient(1), var);
-					Coefficient den1 = new Coefficient(k[i]);
-					Coefficient den = new Coefficient(k[i] - 1);
-					ck1.affine_image(var, expr, den1);
-					ck.affine_image(var, expr, den);
-				}
+		if (executor == null) {
+			for (int s = 0; s < result.length; s++) {
+				if (!convergeNormState(result, prev_result, n, k, s))
+					return false; // not converged yet
 			}
+			return true; // only fall through if all polyhedra converge
+		}
+		// parallel reduction (logical and) over blocks of states, stopping early once one has not converged
+		AtomicBoolean converged = new AtomicBoolean(true);
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int start = 0; start < result.length; start += SMGSimple.PARALLEL_BLOCK_SIZE) {
+			final int lo = start, hi = Math.min(result.length, start + SMGSimple.PARALLEL_BLOCK_SIZE);
+			tasks.add(() -> {
+				for (int s = lo; s < hi && converged.get(); s++) {
+					if (!convergeNormState(result, prev_result, n, k, s))
+						converged.set(false);
+				}
+				return null;
+			});
+		}
+		SMGSimple.invokeAllTasks(executor, tasks);
+		return converged.get();
+	}
 
-			Polyhedron ck_prime;
+	/**
+	 * Test convergence for a single state {@code s} (see {@link #convergeNorm}).
+	 */
+	private boolean convergeNormState(final Pareto[] result, final Pareto[] prev_result, int n, int[] k, int s) throws PrismException
+	{
+		Polyhedron ck1 = new C_Polyhedron((C_Polyhedron) result[s].get()); // deep copy - current
+		Polyhedron ck = new C_Polyhedron((C_Polyhedron) prev_result[s].get()); // deep copy - previous
 
-			// if not monotonically increasing anyway, aply union and intersection
-			if (!ck1.contains(ck)) {
-				ck_prime = new C_Polyhedron(ck.generators()); // deep copy
-				ck.intersection_assign(ck1); // the set that's supposed to be smaller holds the intersection
-				ck1.upper_bound_assign(ck_prime); // the set that's supposed to be larger holds the union
+		// add step-discount if required
+		for (int i = 0; i < n; i++) {
+			if (k[i] > 1) {
+				Variable var = new Variable(i);
+				Linear_Expression expr = new Linear_Expression_Times(new Coefficient(1), var);
+				Coefficient den1 = new Coefficient(k[i]);
+				Coefficient den = new Coefficient(k[i] - 1);
+				ck1.affine_image(var, expr, den1);
+				ck.affine_image(var, expr, den);
 			}
+		}
 
-			Generator_System ngs = new Generator_System();
-			// first set up the reward vector that should be added to each point generator
+		Polyhedron ck_prime;
 
-			BigFraction r = new BigFraction(varepsilon);
-			BigInteger num = r.getNumerator();
-			BigInteger den = r.getDenominator();
+		// if not monotonically increasing anyway, aply union and intersection
+		if (!ck1.contains(ck)) {
+			ck_prime = new C_Polyhedron(ck.generators()); // deep copy
+			ck.intersection_assign(ck1); // the set that's supposed to be smaller holds the intersection
+			ck1.upper_bound_assign(ck_prime); // the set that's supposed to be larger holds the union
+		}
 
-			// prepare vector pointing in direction (varepsilon, varepsilon, ...)
-			Linear_Expression le = new Linear_Expression_Times(new Coefficient(num), new Variable(0));
-			Coefficient c = new Coefficient(den);
-			for (int i = 1; i < n; i++) {
-				le = new Linear_Expression_Sum(le, new Linear_Expression_Times(new Coefficient(num), new Variable(i)));
-			}
+		Generator_System ngs = new Generator_System();
+		// first set up the reward vector that should be added to each point generator
 
-			// now add reward vector to each point generator 
-			for (Generator g : ck.generators()) {
-				if (g.type() == Generator_Type.POINT) {
-					Linear_Expression nle = new Linear_Expression_Sum(le.times(g.divisor()), g.linear_expression().times(c));
-					Coefficient nc = new Coefficient(g.divisor().getBigInteger().multiply(c.getBigInteger()));
-					ngs.add(Generator.point(nle, nc));
-				} else {
-					ngs.add(g);
-				}
+		BigFraction r = new BigFraction(varepsilon);
+		BigInteger num = r.getNumerator();
+		BigInteger den = r.getDenominator();
+
+		// prepare vector pointing in direction (varepsilon, varepsilon, ...)
+		Linear_Expression le = new Linear_Expression_Times(new Coefficient(num), new Variable(0));
+		Coefficient c = new Coefficient(den);
+		for (int i = 1; i < n; i++) {
+			le = new Linear_Expression_Sum(le, new Linear_Expression_Times(new Coefficient(num), new Variable(i)));
+		}
+
+		// now add reward vector to each point generator 
+		for (Generator g : ck.generators()) {
+			if (g.type() == Generator_Type.POINT) {
+				Linear_Expression nle = new Linear_Expression_Sum(le.times(g.divisor()), g.linear_expression().times(c));
+				Coefficient nc = new Coefficient(g.divisor().getBigInteger().multiply(c.getBigInteger()));
+				ngs.add(Generator.point(nle, nc));
+			} else {
+				ngs.add(g);
 			}
-			ck_prime = new C_Polyhedron(ngs);
-			// now test containment
-			if (ck1.is_empty())
-				continue; // converged for this state
-			if (ck_prime.is_empty() && !ck1.is_empty())
-				return false; // not converged yet
-			if (!ck_prime.is_empty() && !ck_prime.contains(ck1))
-				return false; // not converged yet
 		}
-		return true; // only fall through if all polyhedra converge
+		ck_prime = new C_Polyhedron(ngs);
+		// now test containment
+		if (ck1.is_empty())
+			return true; // converged for this state
+		if (ck_prime.is_empty() && !ck1.is_empty())
+			return false; // not converged yet
+		if (!ck_prime.is_empty() && !ck_prime.contains(ck1))
+			return false; // not converged yet
+		return true; // converged for this state
+	}
+
+	/**
+	 * Create a thread pool for parallel Pareto set computation, if more than one thread is to be used
+	 * (otherwise, return null).
+	 */
+	protected ExecutorService createParetoExecutor()
+	{
+		if (numThreads <= 1)
+			return null;
+		if (verbosity >= 1)
+			mainLog.println("Using " + numThreads + " threads for Pareto set computation");
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		return Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
 	}
 	
 	// Numerical computation functions
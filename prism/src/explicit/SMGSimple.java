@@ -35,6 +35,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 
 import org.apache.commons.math3.fraction.BigFraction;
 
@@ -503,31 +508,99 @@ public class SMGSimple extends MDPSimple implements SMG
 	
 	@Override
 	public Pareto[] pMultiObjective(Pareto[] Xk, List<SMGRewards> rewards, boolean gaussSeidel, long baseline_accuracy, double[] biggest_reward,
-			List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut, long M) throws PrismException
+			List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut, long M, ExecutorService executor) throws PrismException
 	{
+		return pMultiObjective(this, trans::get, Xk, rewards, gaussSeidel, baseline_accuracy, biggest_reward, stochasticStates, rounding,
+				union_with_previous, cut, M, executor);
+	}
+
+	/**
+	 * Take X^k and apply F(X^k)(s) for each state of {@code smg} (see {@link SMG#pMultiObjective}).
+	 * The choices of each state are supplied as distributions by {@code choices},
+	 * so that this can be shared by the different SMG implementations.
+	 * <br>
+	 * If {@code executor} is non-null and {@code gaussSeidel} is false, blocks of states are processed in parallel.
+	 * This is safe because the polyhedra in X^k, which are then shared between threads, are only ever copied;
+	 * all other polyhedra are created and modified by a single thread.
+	 * When running sequentially, X^k is aliased where possible, as before.
+	 */
+	protected static Pareto[] pMultiObjective(SMG smg, IntFunction<List<Distribution>> choices, Pareto[] Xk, List<SMGRewards> rewards, boolean gaussSeidel,
+			long baseline_accuracy, double[] biggest_reward, List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut,
+			long M, ExecutorService executor) throws PrismException
+	{
+		int numStates = smg.getNumStates();
 		Pareto[] result = new Pareto[Xk.length];
 		Pareto[] Yk = gaussSeidel ? null : new Pareto[Xk.length]; // if Gauss-Seidel, no memory allocation required
 		System.arraycopy(Xk, 0, gaussSeidel ? result : Yk, 0, Xk.length); // if Gauss-Seidel, update result in-place
-		// iterate for each state separately
-		for (int s = 0; s < numStates; s++) {
-			// first, check if cancelled
-			// initialize the polyhedra for the stochastic states of s
-			List<Pareto> distPolys = new ArrayList<Pareto>(trans.get(s).size());
-			// apply F to (X^k)(s)
-			//double t0 = (double)System.nanoTime();
-			result[s] = pMultiObjectiveSingle(s, gaussSeidel ? result : Yk, rewards, baseline_accuracy, biggest_reward, distPolys, rounding,
-							  union_with_previous, cut, M);
-			//System.out.printf("total: %f s\n", ((double) (System.nanoTime() - t0)) / 1e9);
-			// store stochastic states if requested (by the reference being non-null)
-			if (stochasticStates != null)
-				stochasticStates[s] = distPolys;
+		if (executor == null || gaussSeidel) {
+			// iterate for each state separately
+			for (int s = 0; s < numStates; s++) {
+				pMultiObjectiveState(smg, choices, s, gaussSeidel ? result : Yk, result, rewards, baseline_accuracy, biggest_reward, stochasticStates, rounding,
+						union_with_previous, cut, M, false);
+			}
+		} else {
+			// iterate for blocks of states in parallel
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int start = 0; start < numStates; start += PARALLEL_BLOCK_SIZE) {
+				final int lo = start, hi = Math.min(numStates, start + PARALLEL_BLOCK_SIZE);
+				tasks.add(() -> {
+					for (int s = lo; s < hi; s++) {
+						pMultiObjectiveState(smg, choices, s, Yk, result, rewards, baseline_accuracy, biggest_reward, stochasticStates, rounding,
+								union_with_previous, cut, M, true);
+					}
+					return null;
+				});
+			}
+			invokeAllTasks(executor, tasks);
 		}
 
 		// return X^{k+1}
 		return result;
 	}
 
-    private Polyhedron round(Generator_System ngs, long baseline_accuracy, double[] biggest_reward, boolean energy_objective) throws PrismException
+	/** Number of states in each block that is processed by a single thread in parallel Pareto set computation */
+	protected static final int PARALLEL_BLOCK_SIZE = 16;
+
+	/**
+	 * Apply F(X^k)(s) for a single state {@code s} and store it in {@code result}
+	 * (see {@link #pMultiObjective(SMG, IntFunction, Pareto[], List, boolean, long, double[], List[], boolean, boolean, boolean, long, ExecutorService)}).
+	 * If {@code shared} is true, X^k is being read by other threads, so its polyhedra are copied rather than aliased.
+	 */
+	private static void pMultiObjectiveState(SMG smg, IntFunction<List<Distribution>> choices, int s, Pareto[] Xk, Pareto[] result, List<SMGRewards> rewards,
+			long baseline_accuracy, double[] biggest_reward, List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut,
+			long M, boolean shared) throws PrismException
+	{
+		// initialize the polyhedra for the stochastic states of s
+		List<Distribution> dists = choices.apply(s);
+		List<Pareto> distPolys = new ArrayList<Pareto>(dists.size());
+		// apply F to (X^k)(s)
+		result[s] = pMultiObjectiveSingle(s, smg.getPlayer(s), dists, Xk, rewards, baseline_accuracy, biggest_reward, distPolys,
+				rounding, union_with_previous, cut, M, shared);
+		// store stochastic states if requested (by the reference being non-null)
+		if (stochasticStates != null)
+			stochasticStates[s] = distPolys;
+	}
+
+	/**
+	 * Run some tasks using {@code executor} and wait for them all to finish,
+	 * rethrowing any exception as a PrismException.
+	 */
+	protected static void invokeAllTasks(ExecutorService executor, List<Callable<Void>> tasks) throws PrismException
+	{
+		try {
+			for (Future<Void> f : executor.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			throw new PrismException("Parallel Pareto set computation was interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof PrismException)
+				throw (PrismException) e.getCause();
+			throw new PrismException("Error during parallel Pareto set computation: " + e.getCause());
+		}
+	}
+
+    private static Polyhedron round(Generator_System ngs, long baseline_accuracy, double[] biggest_reward, boolean energy_objective) throws PrismException
 	{
 		int n = biggest_reward.length;
 		// accuracy
@@ -580,8 +653,18 @@ public class SMGSimple extends MDPSimple implements SMG
 		return result;
 	}
 
-    protected Pareto stochasticState(int s, Distribution distr, int d, Pareto[] Xk, List<SMGRewards> rewards, double[] extra_rewards, boolean cut, long M)
+    protected static Pareto stochasticState(int s, Distribution distr, int d, Pareto[] Xk, List<SMGRewards> rewards, double[] extra_rewards, boolean cut, long M)
 			throws PrismException
+	{
+		return stochasticState(s, distr, d, Xk, rewards, extra_rewards, cut, M, false);
+	}
+
+	/**
+	 * As {@link #stochasticState(int, Distribution, int, Pareto[], List, double[], boolean, long)},
+	 * but if {@code shared} is true, X^k is being read by other threads, so its polyhedra are copied rather than aliased.
+	 */
+	protected static Pareto stochasticState(int s, Distribution distr, int d, Pareto[] Xk, List<SMGRewards> rewards, double[] extra_rewards, boolean cut, long M,
+			boolean shared) throws PrismException
 	{
 		int n = rewards.size();
 
@@ -594,7 +677,8 @@ public class SMGSimple extends MDPSimple implements SMG
 			throw new PrismException("Distribution " + s + ", " + d + " has no successors.");
 		} else if (b == 1) {
 			// distribution assigns 1 to first successor
-			cp = Xk[states.get(0)];
+			// (deep copy if Xk is shared between threads, since this may be modified below)
+			cp = shared ? new Pareto(new C_Polyhedron((C_Polyhedron) Xk[states.get(0)].get())) : Xk[states.get(0)];
 		} else { // need to compute Minkowski sum
 			Linear_Expression lhs, rhs;
 
@@ -661,14 +745,12 @@ public class SMGSimple extends MDPSimple implements SMG
 	}
 
 	// distPolys will hold the polyhedra of the stochastic states
-	private Pareto pMultiObjectiveSingle(int s, Pareto[] Xk, List<SMGRewards> rewards, long baseline_accuracy, double[] biggest_reward, List<Pareto> distPolys,
-					     boolean rounding, boolean union_with_previous, boolean cut, long M) throws PrismException
+	private static Pareto pMultiObjectiveSingle(int s, int player, List<Distribution> dists, Pareto[] Xk, List<SMGRewards> rewards, long baseline_accuracy,
+						    double[] biggest_reward, List<Pareto> distPolys, boolean rounding, boolean union_with_previous, boolean cut, long M,
+						    boolean shared) throws PrismException
 	{
 		int n = rewards.size();
 
-		// distributions of successor states
-		List<Distribution> dists = trans.get(s);
-
 		// ------------------------------------------------------------------------------
 		// STOCHASTIC STATE OPERATIONS
 
@@ -676,7 +758,7 @@ public class SMGSimple extends MDPSimple implements SMG
 		int d = 0;
 		for (Distribution distr : dists) {
 			// add polyhedron to the list of polyhedra in the successors of s
-		        distPolys.add(stochasticState(s, distr, d, Xk, rewards, null, cut, M));
+		        distPolys.add(stochasticState(s, distr, d, Xk, rewards, null, cut, M, shared));
 			d++;
 		}
 
@@ -687,7 +769,7 @@ public class SMGSimple extends MDPSimple implements SMG
 		// need deep copy here because want to retain Minkowski sums
 		Polyhedron Xk1s;
 		if (distPolys.size() > 0) {
-			if (getPlayer(s) == 0) {
+			if (player == 0) {
 			        // Player 1
 			        Xk1s = new C_Polyhedron(distPolys.get(0).get().generators());
 				int cp_start = 0;
@@ -716,7 +798,7 @@ public class SMGSimple extends MDPSimple implements SMG
 				}
 			}
 		} else { // deadlock
-		        Xk1s = Xk[s].get(); //new C_Polyhedron(new Generator_System()); // empty
+		        Xk1s = shared ? new C_Polyhedron((C_Polyhedron) Xk[s].get()) : Xk[s].get(); // deep copy if shared (may be modified below)
 		}
 
 		// ------------------------------------------------------------------------------
@@ -731,7 +813,7 @@ public class SMGSimple extends MDPSimple implements SMG
 		// CLEAN UP: UNION WITH PREVIOUS RESULT OR CUT, MINIMIZE REPRESENTATION, DIMENSIONALITY
 
 		// union with previous result (after rounding)
-		if (rounding && union_with_previous) Xk1s.upper_bound_assign(Xk[s].get());
+		if (rounding && union_with_previous) Xk1s.upper_bound_assign(shared ? new C_Polyhedron((C_Polyhedron) Xk[s].get()) : Xk[s].get());
 		// cut everything but the negative orthant bounded by -M
 		if (cut) PPLSupport.cutBox(Xk1s, M);
 
@@ -0,0 +1,499 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+
+import common.IterableStateSet;
+import explicit.rewards.MDPRewards;
+import explicit.rewards.SMGRewards;
+import explicit.rewards.STPGRewards;
+import prism.PlayerInfo;
+import prism.PlayerInfoOwner;
+import prism.PrismException;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a (turn-based) stochastic multi-player game (SMG).
+ * Transitions are stored exactly as for {@link MDPSparse}, plus an array giving the owner of each state.
+ * This is much faster to access than SMGSimple and should also be more compact.
+ * The catch is that you have to create the model all in one go and then can't modify it
+ * (other than its player/coalition info).
+ */
+public class SMGSparse extends MDPSparse implements SMG
+{
+	/**
+	 * Which player owns each state (array of size numStates)
+	 * NB: states are 0-indexed; players are 0-indexed
+	 */
+	protected int stateOwners[];
+
+	/**
+	 * Player + coalition information
+	 */
+	protected PlayerInfo playerInfo;
+
+	// Constructors
+
+	/**
+	 * Copy constructor (from SMGSimple).
+	 */
+	public SMGSparse(SMGSimple smg)
+	{
+		this(smg, false);
+	}
+
+	/**
+	 * Copy constructor (from SMGSimple). Optionally, transitions within choices
+	 * are sorted (by ascending order of column index).
+	 * Player and coalition info is also copied across.
+	 * @param smg The SMG to copy
+	 * @param sort Whether or not to sort column indices
+	 */
+	public SMGSparse(SMGSimple smg, boolean sort)
+	{
+		super(smg, sort);
+		stateOwners = new int[numStates];
+		for (int s = 0; s < numStates; s++) {
+			stateOwners[s] = smg.stateOwners.getPlayer(s);
+		}
+		playerInfo = new PlayerInfo(smg.playerInfo);
+	}
+
+	/**
+	 * Copy constructor (from SMGSimple). Optionally, transitions within choices
+	 * are sorted (by ascending order of column index). Also, optionally, a state
+	 * index permutation can be provided, i.e. old state index i becomes index permut[i].
+	 * Player and coalition info is also copied across.
+	 * Note: a states list, if present, will not be permuted and should be set
+	 * separately afterwards if required.
+	 * @param smg The SMG to copy
+	 * @param sort Whether or not to sort column indices
+	 * @param permut State space permutation
+	 */
+	public SMGSparse(SMGSimple smg, boolean sort, int permut[])
+	{
+		super(smg, sort, permut);
+		stateOwners = new int[numStates];
+		for (int s = 0; s < numStates; s++) {
+			stateOwners[permut[s]] = smg.stateOwners.getPlayer(s);
+		}
+		playerInfo = new PlayerInfo(smg.playerInfo);
+	}
+
+	/**
+	 * Constructor: build an SMG directly from its sparse matrix storage
+	 * (see {@link MDPSparse#MDPSparse(int, int[], int[], int[], double[], Object[])}).
+	 * The arrays are stored directly, not copied.
+	 * @param stateOwners Which player owns each state (array of size numStates)
+	 * @param playerNames Names of the players
+	 */
+	public SMGSparse(int numStates, int rowStarts[], int choiceStarts[], int cols[], double nonZeros[], Object actions[], int stateOwners[], List<String> playerNames)
+	{
+		super(numStates, rowStarts, choiceStarts, cols, nonZeros, actions);
+		this.stateOwners = stateOwners;
+		playerInfo = new PlayerInfo();
+		playerInfo.setPlayerNames(playerNames);
+	}
+
+	// Mutators
+
+	/**
+	 * Copy the player info from another model
+	 */
+	public void copyPlayerInfo(PlayerInfoOwner model)
+	{
+		playerInfo = new PlayerInfo(model.getPlayerInfo());
+	}
+
+	// Accessors (for Model)
+
+	@Override
+	public void checkForDeadlocks(BitSet except) throws PrismException
+	{
+		for (int i = 0; i < numStates; i++) {
+			if (getNumChoices(i) == 0 && (except == null || !except.get(i)))
+				throw new PrismException("Game has a deadlock in state " + i + (statesList == null ? "" : ": " + statesList.get(i)));
+		}
+	}
+
+	// Accessors (for STPG)
+
+	@Override
+	public int getPlayer(int s)
+	{
+		return playerInfo.getPlayer(stateOwners[s]);
+	}
+
+	@Override
+	public boolean allSuccessorsInSet(int s, int i, BitSet set)
+	{
+		for (int k = choiceStarts[rowStarts[s] + i], h = choiceStarts[rowStarts[s] + i + 1]; k < h; k++) {
+			if (!set.get(cols[k]))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void prob0step(BitSet subset, BitSet u, boolean forall1, boolean forall2, BitSet result)
+	{
+		int j, k, l1, h1, l2, h2;
+		boolean b1, some, forall;
+		for (int i : new IterableStateSet(subset, numStates)) {
+			forall = (getPlayer(i) == 0) ? forall1 : forall2;
+			b1 = forall; // there exists or for all
+			l1 = rowStarts[i];
+			h1 = rowStarts[i + 1];
+			for (j = l1; j < h1; j++) {
+				some = false;
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (k = l2; k < h2; k++) {
+					// Assume that only non-zero entries are stored
+					if (u.get(cols[k])) {
+						some = true;
+						break;
+					}
+				}
+				if (forall) {
+					if (!some) {
+						b1 = false;
+						break;
+					}
+				} else {
+					if (some) {
+						b1 = true;
+						break;
+					}
+				}
+			}
+			result.set(i, b1);
+		}
+	}
+
+	@Override
+	public void prob1step(BitSet subset, BitSet u, BitSet v, boolean forall1, boolean forall2, BitSet result)
+	{
+		int j, k, l1, h1, l2, h2;
+		boolean b1, some, all, forall;
+		for (int i : new IterableStateSet(subset, numStates)) {
+			forall = (getPlayer(i) == 0) ? forall1 : forall2;
+			b1 = forall; // there exists or for all
+			l1 = rowStarts[i];
+			h1 = rowStarts[i + 1];
+			for (j = l1; j < h1; j++) {
+				some = false;
+				all = true;
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (k = l2; k < h2; k++) {
+					// Assume that only non-zero entries are stored
+					if (v.get(cols[k])) {
+						some = true;
+					}
+					if (!u.get(cols[k])) {
+						all = false;
+						break;
+					}
+				}
+				if (forall) {
+					if (!(some && all)) {
+						b1 = false;
+						break;
+					}
+				} else {
+					if (some && all) {
+						b1 = true;
+						break;
+					}
+				}
+			}
+			result.set(i, b1);
+		}
+	}
+
+	@Override
+	public void mvMultMinMax(double vect[], boolean min1, boolean min2, double result[], BitSet subset, boolean complement, int adv[])
+	{
+		PrimitiveIterator.OfInt states = new IterableStateSet(subset, numStates, complement).iterator();
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			boolean min = (getPlayer(s) == 0) ? min1 : min2;
+			result[s] = mvMultMinMaxSingle(s, vect, min, adv);
+		}
+	}
+
+	@Override
+	public double mvMultMinMaxSingle(int s, double vect[], boolean min1, boolean min2)
+	{
+		boolean min = (getPlayer(s) == 0) ? min1 : min2;
+		return mvMultMinMaxSingle(s, vect, min, null);
+	}
+
+	@Override
+	public List<Integer> mvMultMinMaxSingleChoices(int s, double vect[], boolean min1, boolean min2, double val)
+	{
+		boolean min = (getPlayer(s) == 0) ? min1 : min2;
+		return mvMultMinMaxSingleChoices(s, vect, min, val);
+	}
+
+	@Override
+	public double mvMultGSMinMax(double vect[], boolean min1, boolean min2, BitSet subset, boolean complement, boolean absolute)
+	{
+		double d, diff, maxDiff = 0.0;
+		PrimitiveIterator.OfInt states = new IterableStateSet(subset, numStates, complement).iterator();
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			d = mvMultJacMinMaxSingle(s, vect, min1, min2);
+			diff = absolute ? (Math.abs(d - vect[s])) : (Math.abs(d - vect[s]) / d);
+			maxDiff = diff > maxDiff ? diff : maxDiff;
+			vect[s] = d;
+		}
+		return maxDiff;
+	}
+
+	@Override
+	public double mvMultJacMinMaxSingle(int s, double vect[], boolean min1, boolean min2)
+	{
+		boolean min = (getPlayer(s) == 0) ? min1 : min2;
+		return mvMultJacMinMaxSingle(s, vect, min, null);
+	}
+
+	@Override
+	public void mvMultRewMinMax(double vect[], STPGRewards rewards, boolean min1, boolean min2, double result[], BitSet subset, boolean complement, int adv[])
+	{
+		mvMultRewMinMax(vect, rewards, min1, min2, result, subset, complement, adv, 1.0);
+	}
+
+	@Override
+	public void mvMultRewMinMax(double vect[], STPGRewards rewards, boolean min1, boolean min2, double result[], BitSet subset, boolean complement, int adv[],
+			double disc)
+	{
+		MDPRewards mdpRewards = rewards.buildMDPRewards();
+		PrimitiveIterator.OfInt states = new IterableStateSet(subset, numStates, complement).iterator();
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			boolean min = (getPlayer(s) == 0) ? min1 : min2;
+			result[s] = mvMultRewMinMaxSingle(s, vect, mdpRewards, min, adv, disc);
+		}
+	}
+
+	@Override
+	public double mvMultRewMinMaxSingle(int s, double vect[], STPGRewards rewards, boolean min1, boolean min2, int adv[])
+	{
+		MDPRewards mdpRewards = rewards.buildMDPRewards();
+		boolean min = (getPlayer(s) == 0) ? min1 : min2;
+		return mvMultRewMinMaxSingle(s, vect, mdpRewards, min, adv);
+	}
+
+	@Override
+	public List<Integer> mvMultRewMinMaxSingleChoices(int s, double vect[], STPGRewards rewards, boolean min1, boolean min2, double val)
+	{
+		MDPRewards mdpRewards = rewards.buildMDPRewards();
+		boolean min = (getPlayer(s) == 0) ? min1 : min2;
+		return mvMultRewMinMaxSingleChoices(s, vect, mdpRewards, min, val);
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of action reward followed by min/max,
+	 * with successor values discounted by {@code disc} (as for {@link SMGSimple}).
+	 * @param s Row index
+	 * @param vect Vector to multiply by
+	 * @param mdpRewards The rewards
+	 * @param min Min or max (true=min, false=max)
+	 * @param adv Storage for adversary choice indices (ignored if null)
+	 * @param disc Discount factor
+	 */
+	public double mvMultRewMinMaxSingle(int s, double vect[], MDPRewards mdpRewards, boolean min, int adv[], double disc)
+	{
+		int j, k, l1, h1, l2, h2, advCh = -1;
+		double d, minmax;
+		boolean first;
+
+		minmax = 0;
+		first = true;
+		l1 = rowStarts[s];
+		h1 = rowStarts[s + 1];
+		for (j = l1; j < h1; j++) {
+			// Compute sum for this distribution
+			d = mdpRewards.getTransitionReward(s, j - l1);
+			l2 = choiceStarts[j];
+			h2 = choiceStarts[j + 1];
+			for (k = l2; k < h2; k++) {
+				d += nonZeros[k] * vect[cols[k]] * disc;
+			}
+			// Check whether we have exceeded min/max so far
+			if (first || (min && d < minmax) || (!min && d > minmax)) {
+				minmax = d;
+				// If adversary generation is enabled, remember optimal choice
+				if (adv != null)
+					advCh = j - l1;
+			}
+			first = false;
+		}
+		// If adversary generation is enabled, store optimal choice
+		// (for games, this is always the latest one, as for SMGSimple)
+		if (adv != null & !first) {
+			adv[s] = advCh;
+		}
+
+		// Add state reward (doesn't affect min/max)
+		minmax += mdpRewards.getStateReward(s);
+
+		return minmax;
+	}
+
+	// Accessors (for PlayerInfoOwner)
+
+	@Override
+	public PlayerInfo getPlayerInfo()
+	{
+		return playerInfo;
+	}
+
+	// Accessors (for SMG)
+
+	@Override
+	public void reachpositivestep(BitSet u, boolean forall1, boolean forall2, BitSet result)
+	{
+		int j, k, l1, h1, l2, h2;
+		boolean forall;
+		BitSet u1 = new BitSet(numStates);
+		BitSet succs = new BitSet(numStates);
+
+		for (int i = u.nextSetBit(0); i >= 0; i = u.nextSetBit(i + 1)) {
+			forall = (getPlayer(i) == 0) ? forall1 : forall2;
+			u1.clear(); // reach in one step
+			l1 = rowStarts[i];
+			h1 = rowStarts[i + 1];
+			for (j = l1; j < h1; j++) {
+				succs.clear();
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (k = l2; k < h2; k++) {
+					succs.set(cols[k]);
+				}
+				if (j == l1) {
+					u1.or(succs); // put all successors in reachable states
+				} else if (forall) {
+					u1.and(succs); // intersect
+				} else {
+					u1.or(succs); // union
+				}
+			}
+			result.or(u1);
+		}
+	}
+
+	@Override
+	public void subtreeStep(BitSet u, int closedPlayer, BitSet result)
+	{
+		for (int i = u.nextSetBit(0); i >= 0; i = u.nextSetBit(i + 1)) {
+			// only extend subtree if closed for that player,
+			// or if the state has only one choice that is enabled
+			boolean jump = (getNumChoices(i) == 1) && getPlayer(i) != closedPlayer;
+			if (getPlayer(i) == closedPlayer || jump) {
+				// add all successors (no matter which player)
+				for (int k = choiceStarts[rowStarts[i]], h = choiceStarts[rowStarts[i + 1]]; k < h; k++) {
+					result.set(cols[k]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Pareto[] pMultiObjective(Pareto[] Xk, List<SMGRewards> rewards, boolean gaussSeidel, long baseline_accuracy, double[] biggest_reward,
+			List<Pareto>[] stochasticStates, boolean rounding, boolean union_with_previous, boolean cut, long M, ExecutorService executor) throws PrismException
+	{
+		// Polyhedra operations work on Distribution objects, so build these on the fly
+		return SMGSimple.pMultiObjective(this, this::getChoiceDistributions, Xk, rewards, gaussSeidel, baseline_accuracy, biggest_reward, stochasticStates,
+				rounding, union_with_previous, cut, M, executor);
+	}
+
+	/**
+	 * Get (a fresh copy of) the choices of state {@code s}, as a list of distributions.
+	 */
+	private List<Distribution> getChoiceDistributions(int s)
+	{
+		int l1 = rowStarts[s];
+		int h1 = rowStarts[s + 1];
+		List<Distribution> dists = new ArrayList<Distribution>(h1 - l1);
+		for (int j = l1; j < h1; j++) {
+			Distribution distr = new Distribution();
+			for (int k = choiceStarts[j], h2 = choiceStarts[j + 1]; k < h2; k++) {
+				distr.add(cols[k], nonZeros[k]);
+			}
+			dists.add(distr);
+		}
+		return dists;
+	}
+
+	// Standard methods
+
+	@Override
+	public String toString()
+	{
+		int i, j, k, l1, h1, l2, h2;
+		Object o;
+		String s = "";
+		s = "[ ";
+		for (i = 0; i < numStates; i++) {
+			if (i > 0)
+				s += ", ";
+			if (statesList != null && statesList.size() > i)
+				s += i + "(P-" + (stateOwners[i] + 1) + " " + statesList.get(i) + "): ";
+			else
+				s += i + "(P-" + (stateOwners[i] + 1) + "): ";
+			s += "[";
+			l1 = rowStarts[i];
+			h1 = rowStarts[i + 1];
+			for (j = l1; j < h1; j++) {
+				if (j > l1)
+					s += ",";
+				o = getAction(i, j - l1);
+				if (o != null)
+					s += o + ":";
+				s += "{";
+				l2 = choiceStarts[j];
+				h2 = choiceStarts[j + 1];
+				for (k = l2; k < h2; k++) {
+					if (k > l2)
+						s += ", ";
+					s += cols[k] + ":" + nonZeros[k];
+				}
+				s += "}";
+			}
+			s += "]";
+		}
+		s += " ]\n";
+		return s;
+	}
+}
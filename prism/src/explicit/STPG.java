@@ -31,8 +31,10 @@ import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
 
 import explicit.graphviz.StateOwnerDecorator;
+import explicit.rewards.MDPRewards;
 import explicit.rewards.STPGRewards;
 import prism.ModelType;
 import prism.PrismException;
@@ -206,6 +208,25 @@ public interface STPG extends MDP
 	 */
 	public void mvMultMinMax(double vect[], boolean min1, boolean min2, double result[], BitSet subset, boolean complement, int adv[]);
 
+	/**
+	 * Do a matrix-vector multiplication followed by two min/max ops, i.e. one step of value iteration,
+	 * i.e. for all s in {@code states}: result[s] = min/max_{k1,k2} { sum_j P_{k1,k2}(s,j)*vect[j] }
+	 * @param vect Vector to multiply by
+	 * @param min1 Min or max for player 1 (true=min, false=max)
+	 * @param min2 Min or max for player 2 (true=min, false=max)
+	 * @param result Vector to store result in
+	 * @param states Perform multiplication for these rows, in the iteration order
+	 * @param adv Storage for adversary choice indices (ignored if null)
+	 */
+	public default void mvMultMinMax(double vect[], boolean min1, boolean min2, double result[], PrimitiveIterator.OfInt states, int adv[])
+	{
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			boolean min = (getPlayer(s) == 0) ? min1 : min2;
+			result[s] = mvMultMinMaxSingle(s, vect, min, adv);
+		}
+	}
+
 	/**
 	 * Do a single row of matrix-vector multiplication followed by min/max,
 	 * i.e. return min/max_{k1,k2} { sum_j P_{k1,k2}(s,j)*vect[j] }
@@ -242,6 +263,29 @@ public interface STPG extends MDP
 	 */
 	public double mvMultGSMinMax(double vect[], boolean min1, boolean min2, BitSet subset, boolean complement, boolean absolute);
 
+	/**
+	 * Do a Gauss-Seidel-style matrix-vector multiplication followed by min/max,
+	 * for the states in {@code states}, as for {@link #mvMultGSMinMax(double[], boolean, boolean, BitSet, boolean, boolean)}.
+	 * @param vect Vector to multiply by (and store the result in)
+	 * @param min1 Min or max for player 1 (true=min, false=max)
+	 * @param min2 Min or max for player 2 (true=min, false=max)
+	 * @param states Perform multiplication for these rows, in the iteration order
+	 * @param absolute If true, compute absolute, rather than relative, difference
+	 * @return The maximum difference between old/new elements of {@code vect}
+	 */
+	public default double mvMultGSMinMax(double vect[], boolean min1, boolean min2, PrimitiveIterator.OfInt states, boolean absolute)
+	{
+		double d, diff, maxDiff = 0.0;
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			d = mvMultJacMinMaxSingle(s, vect, min1, min2);
+			diff = absolute ? (Math.abs(d - vect[s])) : (Math.abs(d - vect[s]) / d);
+			maxDiff = diff > maxDiff ? diff : maxDiff;
+			vect[s] = d;
+		}
+		return maxDiff;
+	}
+
 	/**
 	 * Do a single row of Jacobi-style matrix-vector multiplication followed by min/max.
 	 * i.e. return min/max_{k1,k2} { (sum_{j!=s} P_{k1,k2}(s,j)*vect[j]) / P_{k1,k2}(s,s) }
@@ -265,6 +309,26 @@ public interface STPG extends MDP
 	 */
 	public void mvMultRewMinMax(double vect[], STPGRewards rewards, boolean min1, boolean min2, double result[], BitSet subset, boolean complement, int adv[]);
 
+	/**
+	 * Do a matrix-vector multiplication and sum of action reward followed by min/max, i.e. one step of value iteration.
+	 * i.e. for all s in {@code states}: result[s] = min/max_{k1,k2} { rew(s) + sum_j P_{k1,k2}(s,j)*vect[j] }
+	 * @param vect Vector to multiply by
+	 * @param min1 Min or max for player 1 (true=min, false=max)
+	 * @param min2 Min or max for player 2 (true=min, false=max)
+	 * @param result Vector to store result in
+	 * @param states Perform multiplication for these rows, in the iteration order
+	 * @param adv Storage for adversary choice indices (ignored if null)
+	 */
+	public default void mvMultRewMinMax(double vect[], STPGRewards rewards, boolean min1, boolean min2, double result[], PrimitiveIterator.OfInt states, int adv[])
+	{
+		MDPRewards mdpRewards = rewards.buildMDPRewards();
+		while (states.hasNext()) {
+			final int s = states.nextInt();
+			boolean min = (getPlayer(s) == 0) ? min1 : min2;
+			result[s] = mvMultRewMinMaxSingle(s, vect, mdpRewards, min, adv);
+		}
+	}
+
 	/**
 	 * Do a single row of matrix-vector multiplication and sum of action reward followed by min/max.
 	 * i.e. return min/max_{k1,k2} { rew(s) + sum_j P_{k1,k2}(s,j)*vect[j] }
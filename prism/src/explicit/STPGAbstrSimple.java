@@ -38,6 +38,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
 
 import common.IterableStateSet;
 import explicit.rewards.STPGRewards;
@@ -630,6 +631,15 @@ public class STPGAbstrSimple extends ModelExplicit implements STPG, NondetModelS
 		}
 	}
 
+	@Override
+	public void mvMultMinMax(double vect[], boolean min1, boolean min2, double result[], PrimitiveIterator.OfInt states, int adv[])
+	{
+		while (states.hasNext()) {
+			int s = states.nextInt();
+			result[s] = mvMultMinMaxSingle(s, vect, min1, min2);
+		}
+	}
+
 	@Override
 	public double mvMultMinMaxSingle(int s, double vect[], boolean min1, boolean min2)
 	{
@@ -772,6 +782,15 @@ public class STPGAbstrSimple extends ModelExplicit implements STPG, NondetModelS
 		}
 	}
 
+	@Override
+	public void mvMultRewMinMax(double vect[], STPGRewards rewards, boolean min1, boolean min2, double result[], PrimitiveIterator.OfInt states, int adv[])
+	{
+		while (states.hasNext()) {
+			int s = states.nextInt();
+			result[s] = mvMultRewMinMaxSingle(s, vect, rewards, min1, min2, adv);
+		}
+	}
+
 	@Override
 	public double mvMultRewMinMaxSingle(int s, double vect[], STPGRewards rewards, boolean min1, boolean min2, int adv[])
 	{
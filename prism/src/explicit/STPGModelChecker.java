@@ -34,15 +34,20 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
 
 import acceptance.AcceptanceReach;
+import common.IntSet;
 import common.IterableBitSet;
+import common.functions.PairPredicateInt;
+import explicit.modelviews.MDPDroppedChoicesCached;
 import explicit.rewards.MDPRewardsSimple;
 import explicit.rewards.STPGRewards;
 import explicit.rewards.STPGRewardsSimple;
 import explicit.rewards.StateRewardsConstant;
 import parser.ast.Expression;
 import prism.AccuracyFactory;
+import prism.OptionsIntervalIteration;
 import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismFileLog;
@@ -75,6 +80,9 @@ public class STPGModelChecker extends ProbModelChecker
 	 */
 	public static final int R_ZERO = 2;
 
+	/** For interval iteration, how often (in iterations) to deflate end components (at least) */
+	protected static final int DEFLATE_INTERVAL = 10;
+
 	/**
 	 * Create a new STPGModelChecker, inherit basic state from parent (unless null).
 	 */
@@ -308,15 +316,20 @@ public class STPGModelChecker extends ProbModelChecker
 		// precomputation
 		if (bound < 1.0 || !(precomp && prob1 && !(genStrat || exportAdv))) {
 			// Compute probabilities
-			switch (solnMethod) {
-			case VALUE_ITERATION:
-				res = computeReachProbsValIter(stpg, no, yes, min1, min2, init, known);
-				break;
-			case GAUSS_SEIDEL:
-				res = computeReachProbsGaussSeidel(stpg, no, yes, min1, min2, init, known);
-				break;
-			default:
-				throw new PrismException("Unknown STPG solution method " + solnMethod);
+			// (interval iteration needs end components, which are not defined for STPGAbstrSimple)
+			if (getDoIntervalIteration() && !(stpg instanceof STPGAbstrSimple)) {
+				res = computeReachProbsIntervalIter(stpg, no, yes, min1, min2, init, known);
+			} else {
+				switch (solnMethod) {
+				case VALUE_ITERATION:
+					res = computeReachProbsValIter(stpg, no, yes, min1, min2, init, known);
+					break;
+				case GAUSS_SEIDEL:
+					res = computeReachProbsGaussSeidel(stpg, no, yes, min1, min2, init, known);
+					break;
+				default:
+					throw new PrismException("Unknown STPG solution method " + solnMethod);
+				}
 			}
 		} else {
 			res = new ModelCheckerResult();
@@ -573,22 +586,38 @@ public class STPGModelChecker extends ProbModelChecker
 		// Start iterations
 		iters = 0;
 		done = false;
-		while (!done && iters < maxIters) {
-			iters++;
-			// Matrix-vector multiply and min/max ops
-			stpg.mvMultMinMax(soln, min1, min2, soln2, unknown, false, strat);
-			// Check termination
-			done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, termCrit == TermCrit.ABSOLUTE);
-			// Swap vectors for next iter
-			tmpsoln = soln;
-			soln = soln2;
-			soln2 = tmpsoln;
+		double maxDiff = 0.0;
+		ModelCheckerResult resTopo = null;
+		if (getDoTopologicalValueIteration()) {
+			// Topological: iterate SCC by SCC
+			final double vOld[] = soln, vNew[] = soln2;
+			final int stratTopo[] = strat;
+			resTopo = doTopologicalValIter(stpg, unknown, states -> {
+				stpg.mvMultMinMax(vOld, min1, min2, vNew, states.iterator(), stratTopo);
+				return measureAndCopy(vNew, vOld, states);
+			});
+			iters = resTopo.numIters;
+			// (non-convergence is dealt with by doTopologicalValIter)
+			done = true;
+		} else {
+			while (!done && iters < maxIters) {
+				iters++;
+				// Matrix-vector multiply and min/max ops
+				stpg.mvMultMinMax(soln, min1, min2, soln2, unknown, false, strat);
+				// Check termination
+				done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, termCrit == TermCrit.ABSOLUTE);
+				// Swap vectors for next iter
+				tmpsoln = soln;
+				soln = soln2;
+				soln2 = tmpsoln;
+			}
+			maxDiff = PrismUtils.measureSupNorm(soln, soln2, termCrit == TermCrit.ABSOLUTE);
 		}
 
 		// Finished value iteration
 		timer = System.currentTimeMillis() - timer;
 		if (verbosity >= 1) {
-			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + (getDoTopologicalValueIteration() ? ", topological" : "") + ")");
 			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
 		}
 
@@ -602,8 +631,7 @@ public class STPGModelChecker extends ProbModelChecker
 		// Store results/strategy
 		res = new ModelCheckerResult();
 		res.soln = soln;
-		double maxDiff = PrismUtils.measureSupNorm(soln, soln2, termCrit == TermCrit.ABSOLUTE);
-		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.accuracy = (resTopo != null) ? resTopo.accuracy : AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
 		res.numIters = iters;
 		res.timeTaken = timer / 1000.0;
 		if (genStrat) {
@@ -687,18 +715,30 @@ public class STPGModelChecker extends ProbModelChecker
 		// Start iterations
 		iters = 0;
 		done = false;
-		while (!done && iters < maxIters) {
-			iters++;
-			// Matrix-vector multiply and min/max ops
-			maxDiff = stpg.mvMultGSMinMax(soln, min1, min2, unknown, false, termCrit == TermCrit.ABSOLUTE);
-			// Check termination
-			done = maxDiff < termCritParam;
+		ModelCheckerResult resTopo = null;
+		if (getDoTopologicalValueIteration()) {
+			// Topological: iterate SCC by SCC
+			final double vect[] = soln;
+			resTopo = doTopologicalValIter(stpg, unknown, states -> {
+				return stpg.mvMultGSMinMax(vect, min1, min2, states.iterator(), termCrit == TermCrit.ABSOLUTE);
+			});
+			iters = resTopo.numIters;
+			// (non-convergence is dealt with by doTopologicalValIter)
+			done = true;
+		} else {
+			while (!done && iters < maxIters) {
+				iters++;
+				// Matrix-vector multiply and min/max ops
+				maxDiff = stpg.mvMultGSMinMax(soln, min1, min2, unknown, false, termCrit == TermCrit.ABSOLUTE);
+				// Check termination
+				done = maxDiff < termCritParam;
+			}
 		}
 
 		// Finished Gauss-Seidel
 		timer = System.currentTimeMillis() - timer;
 		if (verbosity >= 1) {
-			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + (getDoTopologicalValueIteration() ? ", topological" : "") + ")");
 			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
 		}
 
@@ -712,12 +752,281 @@ public class STPGModelChecker extends ProbModelChecker
 		// Return results
 		res = new ModelCheckerResult();
 		res.soln = soln;
-		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.accuracy = (resTopo != null) ? resTopo.accuracy : AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.numIters = iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * Compute reachability probabilities using interval iteration, i.e., iterating
+	 * lower and upper bounds until they are sufficiently close, which gives guaranteed error bounds.
+	 * For the upper bounds to converge, (simple) end components are "deflated", as in
+	 * Kelmendi et al. "Value Iteration for Simple Stochastic Games: Stopping Criterion and Learning Algorithm" (CAV'18):
+	 * the upper bound for the states of an end component, in which the minimising player
+	 * only uses choices that are optimal with respect to the lower bound, is reduced to
+	 * the best upper bound for a choice of the maximising player that leaves it.
+	 * @param stpg The STPG
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min1 Min or max probabilities for player 1 (true=min, false=max)
+	 * @param min2 Min or max probabilities for player 2 (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten) 
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.  
+	 */
+	protected ModelCheckerResult computeReachProbsIntervalIter(STPG stpg, BitSet no, BitSet yes, boolean min1, boolean min2, double init[], BitSet known)
+			throws PrismException
+	{
+		ModelCheckerResult res;
+		BitSet unknown;
+		int i, n, iters;
+		double lower[], lower2[], upper[], upper2[], tmpsoln[];
+		int strat[] = null;
+		boolean done;
+		long timer;
+
+		// Start interval iteration
+		timer = System.currentTimeMillis();
+		if (verbosity >= 1)
+			mainLog.println("Starting interval iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")...");
+
+		// Store num states
+		n = stpg.getNumStates();
+
+		// Create/initialise solution vectors: exact answer, if already known;
+		// otherwise 1.0/0.0 if in yes/no; otherwise 0.0 (lower) and 1.0 (upper)
+		lower = new double[n];
+		lower2 = new double[n];
+		upper = new double[n];
+		upper2 = new double[n];
+		for (i = 0; i < n; i++) {
+			if (known != null && known.get(i)) {
+				lower[i] = upper[i] = init[i];
+			} else {
+				lower[i] = yes.get(i) ? 1.0 : 0.0;
+				upper[i] = no.get(i) ? 0.0 : 1.0;
+			}
+			lower2[i] = lower[i];
+			upper2[i] = upper[i];
+		}
+
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		// Find the states in end components (if none, no deflation is ever needed)
+		ECComputer ecComputer = ECComputer.createECComputer(this, stpg);
+		ecComputer.computeMECStates((BitSet) unknown.clone());
+		BitSet ecStates = new BitSet();
+		for (BitSet mec : ecComputer.getMECStates()) {
+			ecStates.or(mec);
+		}
+		if (verbosity >= 1)
+			mainLog.println("States in end components: " + ecStates.cardinality());
+
+		// If required, create/initialise strategy storage
+		// Set choices to -1, denoting unknown
+		if (genStrat || exportAdv) {
+			strat = new int[n];
+			for (i = 0; i < n; i++) {
+				strat[i] = -1;
+			}
+		}
+
+		// Start iterations
+		boolean absolute = termCrit == TermCrit.ABSOLUTE;
+		double maxDiff = Double.POSITIVE_INFINITY;
+		iters = 0;
+		done = false;
+		while (!done && iters < maxIters) {
+			iters++;
+			// Matrix-vector multiply and min/max ops, for both bounds
+			stpg.mvMultMinMax(lower, min1, min2, lower2, unknown, false, strat);
+			stpg.mvMultMinMax(upper, min1, min2, upper2, unknown, false, null);
+			// Deflate end components, periodically or once the upper bound stops changing
+			if (!ecStates.isEmpty()) {
+				if (iters % DEFLATE_INTERVAL == 0 || PrismUtils.doublesAreClose(upper, upper2, termCritParam, absolute)) {
+					deflate(stpg, min1, min2, lower2, upper2, ecStates);
+				}
+			}
+			// Swap vectors for next iter
+			tmpsoln = lower;
+			lower = lower2;
+			lower2 = tmpsoln;
+			tmpsoln = upper;
+			upper = upper2;
+			upper2 = tmpsoln;
+			// Check termination, based on the difference between the bounds
+			maxDiff = PrismUtils.measureSupNormInterval(lower, upper, absolute, new IterableBitSet(unknown).iterator());
+			done = maxDiff < termCritParam;
+		}
+
+		// Finished interval iteration
+		timer = System.currentTimeMillis() - timer;
+		if (verbosity >= 1) {
+			mainLog.print("Interval iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+			mainLog.println("Max " + (!absolute ? "relative " : "") + "diff between upper and lower bound on convergence: " + maxDiff);
+		}
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method (interval iteration) did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Store results/strategy
+		if (done && OptionsIntervalIteration.from(this).isSelectMidpointForResult()) {
+			PrismUtils.selectMidpoint(lower, upper);
+		}
+		res = new ModelCheckerResult();
+		res.soln = lower;
+		res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxDiff, absolute);
 		res.numIters = iters;
 		res.timeTaken = timer / 1000.0;
+		if (genStrat) {
+			res.strat = new MDStrategyArray(stpg, strat);
+		}
+
 		return res;
 	}
 
+	/**
+	 * Deflate the upper bounds {@code upper} for the end components of an STPG, for interval iteration
+	 * (see {@link #computeReachProbsIntervalIter(STPG, BitSet, BitSet, boolean, boolean, double[], BitSet)}).
+	 * @param stpg The STPG
+	 * @param min1 Min or max probabilities for player 1 (true=min, false=max)
+	 * @param min2 Min or max probabilities for player 2 (true=min, false=max)
+	 * @param lower Lower bounds (used to determine optimal choices for the minimising player)
+	 * @param upper Upper bounds (to be deflated)
+	 * @param ecStates States that are in some end component of the STPG (restricted to the unknown states)
+	 */
+	protected void deflate(STPG stpg, boolean min1, boolean min2, double lower[], double upper[], BitSet ecStates) throws PrismException
+	{
+		// Drop choices for the minimising player that are not optimal with respect to the lower bound
+		// (and anything outside of the states that can be in end components)
+		double minLower[] = new double[stpg.getNumStates()];
+		for (int s : new IterableBitSet(ecStates)) {
+			minLower[s] = stpg.mvMultMinMaxSingle(s, lower, true, null);
+		}
+		PairPredicateInt dropped = (s, i) -> {
+			if (!ecStates.get(s)) {
+				return true;
+			}
+			boolean min = (stpg.getPlayer(s) == 0) ? min1 : min2;
+			return min && stpg.mvMultSingle(s, i, lower) > minLower[s];
+		};
+		ECComputer ecComputer = ECComputer.createECComputer(this, new MDPDroppedChoicesCached(stpg, dropped));
+		ecComputer.computeMECStates((BitSet) ecStates.clone());
+		for (BitSet ec : ecComputer.getMECStates()) {
+			// Find the best exit for the maximising player (0 if there is none, since the minimising player can stay forever)
+			double bestExit = 0.0;
+			for (int s : new IterableBitSet(ec)) {
+				boolean min = (stpg.getPlayer(s) == 0) ? min1 : min2;
+				if (!min) {
+					int numChoices = stpg.getNumChoices(s);
+					for (int i = 0; i < numChoices; i++) {
+						if (!stpg.allSuccessorsInSet(s, i, ec)) {
+							bestExit = Math.max(bestExit, stpg.mvMultSingle(s, i, upper));
+						}
+					}
+				}
+			}
+			for (int s : new IterableBitSet(ec)) {
+				upper[s] = Math.min(upper[s], bestExit);
+			}
+		}
+	}
+
+	/**
+	 * A single value iteration step for the states of one SCC,
+	 * returning the maximum (absolute/relative) change in their values.
+	 */
+	@FunctionalInterface
+	protected interface SCCIteration
+	{
+		double iterate(IntSet states);
+	}
+
+	/**
+	 * Do topological value iteration, i.e., solve the SCCs of the STPG (restricted to the states in {@code unknown})
+	 * one at a time, in reverse topological order, so that each is only iterated once the values
+	 * of all the states it can reach have converged. SCCs comprising a single state with no self-loop
+	 * are solved with a single step.
+	 * @param stpg The STPG
+	 * @param unknown States whose values need computing
+	 * @param iteration Performs a single step for the states of one SCC
+	 * @return Number of iterations and accuracy (but no solution vector: this is updated by {@code iteration})
+	 */
+	protected ModelCheckerResult doTopologicalValIter(STPG stpg, BitSet unknown, SCCIteration iteration) throws PrismException
+	{
+		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, stpg, true, unknown::get);
+		int numSCCs = sccs.getNumSCCs();
+		if (verbosity >= 1)
+			mainLog.println("Topological ordering: " + numSCCs + " SCCs, of which " + sccs.countNonSingletonSCCs() + " non-singleton");
+
+		int iters = 0;
+		double maxDiff = 0.0;
+		boolean done = true;
+		// (SCCs are stored in reverse topological order)
+		for (int scc = 0; scc < numSCCs && done; scc++) {
+			IntSet states = sccs.getStatesForSCC(scc);
+			if (sccs.isSingletonSCC(scc)) {
+				int s = states.iterator().nextInt();
+				if (!stpg.isSuccessor(s, s)) {
+					iteration.iterate(states);
+					iters++;
+					continue;
+				}
+			}
+			int itersInSCC = 0;
+			double diff = Double.POSITIVE_INFINITY;
+			while (diff >= termCritParam && itersInSCC < maxIters) {
+				itersInSCC++;
+				diff = iteration.iterate(states);
+			}
+			iters += itersInSCC;
+			maxDiff = Math.max(maxDiff, diff);
+			done = diff < termCritParam;
+		}
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + maxIters + " iterations in an SCC.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.numIters = iters;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		return res;
+	}
+
+	/**
+	 * Copy the values for {@code states} from {@code vNew} to {@code vOld},
+	 * returning the maximum (absolute/relative) difference between them.
+	 */
+	protected double measureAndCopy(double vNew[], double vOld[], IntSet states)
+	{
+		boolean abs = termCrit == TermCrit.ABSOLUTE;
+		double maxDiff = 0.0;
+		PrimitiveIterator.OfInt it = states.iterator();
+		while (it.hasNext()) {
+			int s = it.nextInt();
+			double diff = abs ? PrismUtils.measureSupNormAbs(vNew[s], vOld[s]) : PrismUtils.measureSupNormRel(vNew[s], vOld[s]);
+			maxDiff = diff > maxDiff ? diff : maxDiff;
+			vOld[s] = vNew[s];
+		}
+		return maxDiff;
+	}
+
 	/**
 	 * Construct strategy information for min/max reachability probabilities.
 	 * (More precisely, list of indices of player 1 choices resulting in min/max.)
@@ -1017,34 +1326,52 @@ public class STPGModelChecker extends ProbModelChecker
 		}
 
 		// Start iterations
+		// (topological value iteration is not supported with discounting)
+		boolean topological = getDoTopologicalValueIteration() && !useDiscounting;
 		iters = 0;
 		done = false;
-		while (!done && iters < maxIters) {
-			
-		        //mainLog.println(soln);
-			//mainLog.println(rewards);
-			//mainLog.println(min1);
-			//mainLog.println(min2);
-			//mainLog.println(soln2);
-			//mainLog.println(unknown);
-			//mainLog.println(genAdv);
-			
-			iters++;
-			// Matrix-vector multiply and min/max ops
-			stpg.mvMultRewMinMax(soln, rewards, min1, min2, soln2, unknown, false, strat, useDiscounting ? discountFactor : 1.0);
-
-			// Check termination
-			done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, termCrit == TermCrit.ABSOLUTE);
-			// Swap vectors for next iter
-			tmpsoln = soln;
-			soln = soln2;
-			soln2 = tmpsoln;
+		double maxDiff = 0.0;
+		ModelCheckerResult resTopo = null;
+		if (topological) {
+			// Topological: iterate SCC by SCC
+			final double vOld[] = soln, vNew[] = soln2;
+			final int stratTopo[] = strat;
+			resTopo = doTopologicalValIter(stpg, unknown, states -> {
+				stpg.mvMultRewMinMax(vOld, rewards, min1, min2, vNew, states.iterator(), stratTopo);
+				return measureAndCopy(vNew, vOld, states);
+			});
+			iters = resTopo.numIters;
+			// (non-convergence is dealt with by doTopologicalValIter)
+			done = true;
+		} else {
+			while (!done && iters < maxIters) {
+				
+			        //mainLog.println(soln);
+				//mainLog.println(rewards);
+				//mainLog.println(min1);
+				//mainLog.println(min2);
+				//mainLog.println(soln2);
+				//mainLog.println(unknown);
+				//mainLog.println(genAdv);
+				
+				iters++;
+				// Matrix-vector multiply and min/max ops
+				stpg.mvMultRewMinMax(soln, rewards, min1, min2, soln2, unknown, false, strat, useDiscounting ? discountFactor : 1.0);
+	
+				// Check termination
+				done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, termCrit == TermCrit.ABSOLUTE);
+				// Swap vectors for next iter
+				tmpsoln = soln;
+				soln = soln2;
+				soln2 = tmpsoln;
+			}
+			maxDiff = PrismUtils.measureSupNorm(soln, soln2, termCrit == TermCrit.ABSOLUTE);
 		}
 
 		// Finished value iteration
 		timer = System.currentTimeMillis() - timer;
 		if (verbosity >= 1) {
-			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.print("Value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + (topological ? ", topological" : "") + ")");
 			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
 		}
 
@@ -1072,8 +1399,7 @@ public class STPGModelChecker extends ProbModelChecker
 		// Store results/strategy
 		res = new ModelCheckerResult();
 		res.soln = soln;
-		double maxDiff = PrismUtils.measureSupNorm(soln, soln2, termCrit == TermCrit.ABSOLUTE);
-		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.accuracy = (resTopo != null) ? resTopo.accuracy : AccuracyFactory.valueIteration(termCritParam, maxDiff, termCrit == TermCrit.ABSOLUTE);
 		res.numIters = iters;
 		res.timeTaken = timer / 1000.0;
 		if (genStrat) {
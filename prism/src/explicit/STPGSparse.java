@@ -0,0 +1,78 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.List;
+
+import prism.ModelType;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a (turn-based) stochastic two-player game (STPG).
+ * 
+ * This is the sparse counterpart of {@link STPGSimple}, i.e. an {@link SMGSparse}
+ * where the number of players can be assumed to be two.
+ * 
+ * This class should rarely be needed - it is just to support the corner case of a
+ * PRISM language model being defined directly as type "stpg", rather than "smg".
+ */
+public class STPGSparse extends SMGSparse
+{
+	@Override
+	public ModelType getModelType()
+	{
+		return ModelType.STPG;
+	}
+
+	/**
+	 * Copy constructor (from STPGSimple).
+	 */
+	public STPGSparse(STPGSimple stpg)
+	{
+		super(stpg);
+	}
+
+	/**
+	 * Copy constructor (from STPGSimple). Optionally, transitions within choices
+	 * are sorted (by ascending order of column index). Also, optionally, a state
+	 * index permutation can be provided, i.e. old state index i becomes index permut[i].
+	 * Player and coalition info is also copied across.
+	 */
+	public STPGSparse(STPGSimple stpg, boolean sort, int permut[])
+	{
+		super(stpg, sort, permut);
+	}
+
+	/**
+	 * Constructor: build an STPG directly from its sparse matrix storage
+	 * (see {@link SMGSparse#SMGSparse(int, int[], int[], int[], double[], Object[], int[], List)}).
+	 * The arrays are stored directly, not copied.
+	 */
+	public STPGSparse(int numStates, int rowStarts[], int choiceStarts[], int cols[], double nonZeros[], Object actions[], int stateOwners[], List<String> playerNames)
+	{
+		super(numStates, rowStarts, choiceStarts, cols, nonZeros, actions, stateOwners, playerNames);
+	}
+}
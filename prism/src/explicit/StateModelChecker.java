@@ -140,6 +140,9 @@ public class StateModelChecker extends PrismComponent
 	// Do interval iteration?
 	protected boolean doIntervalIteration = false;
 
+	// Cache of computations to reuse across model checking calls (optional)
+	protected ModelCheckerCache modelCheckerCache = null;
+
 	// Model info (for reward structures, etc.)
 	protected ModulesFile modulesFile = null;
 	protected ModelInfo modelInfo = null;
@@ -260,6 +263,7 @@ public class StateModelChecker extends PrismComponent
 		tolerance = other.tolerance;
 		setDoIntervalIteration(other.getDoIntervalIteration());
 		setDoPmaxQuotient(other.getDoPmaxQuotient());
+		setModelCheckerCache(other.getModelCheckerCache());
 	}
 
 	/**
@@ -334,6 +338,15 @@ public class StateModelChecker extends PrismComponent
 		this.storeVector = storeVector;
 	}
 
+	/**
+	 * Specify a cache of computations (e.g. precomputations) to reuse across model checking calls
+	 * on the same model (null means no caching).
+	 */
+	public void setModelCheckerCache(ModelCheckerCache modelCheckerCache)
+	{
+		this.modelCheckerCache = modelCheckerCache;
+	}
+
 	/**
 	 * Specify whether or not a strategy should be generated during model checking.
 	 */
@@ -437,6 +450,14 @@ public class StateModelChecker extends PrismComponent
 		return storeVector;
 	}
 
+	/**
+	 * Get the cache of computations to reuse across model checking calls (null if none).
+	 */
+	public ModelCheckerCache getModelCheckerCache()
+	{
+		return modelCheckerCache;
+	}
+
 	/**
 	 * Whether or not a strategy should be generated during model checking.
 	 */
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntFunction;
 
 import parser.State;
@@ -42,6 +43,7 @@ import parser.type.TypeDouble;
 import parser.type.TypeInt;
 import prism.Accuracy;
 import prism.AccuracyFactory;
+import prism.ParallelExporter;
 import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismLog;
@@ -891,7 +893,15 @@ public class StateValues implements StateVector, Iterable<Object>
 			log.println(!printSparse ? "v = [" : "v = sparse(" + size + ",1);");
 
 		// Print vector
-		if (filter == null) {
+		if (filter == null && limit == Integer.MAX_VALUE) {
+			// Whole vector: can be formatted in chunks, in parallel
+			AtomicBoolean printedAny = new AtomicBoolean(false);
+			ParallelExporter.export(log, size, (n, out) -> {
+				if (printLine(out, n, printSparse, printMatlab, printStates, printIndices))
+					printedAny.set(true);
+			});
+			count = printedAny.get() ? 1 : 0;
+		} else if (filter == null) {
 			for (i = 0; i < size & count < limit; i++) {
 				if (printLine(log, i, printSparse, printMatlab, printStates, printIndices))
 					count++;
@@ -0,0 +1,664 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit.modelviews;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+import acceptance.AcceptanceOmega;
+import automata.DA;
+import automata.DATransitionTable;
+import common.IterableStateSet;
+import common.iterable.Reducible;
+import explicit.STPG;
+import explicit.SuccessorsIterator;
+import explicit.rewards.MDPRewards;
+import explicit.rewards.STPGRewards;
+import parser.State;
+import parser.Values;
+import parser.VarList;
+import prism.PrismException;
+
+/**
+ * An STPG view of the product of an STPG and a deterministic automaton (DA).
+ * <br>
+ * Only the reachable product states are stored, as a sorted array of
+ * encoded pairs (s,q) = s * daSize + q, together with the index of the first
+ * product state for each model state. Transitions are not stored: they are
+ * computed on demand from those of the original model, using the (compiled)
+ * transition function of the DA to find successor automaton states.
+ * The initial states of the view are the product states (s,q_s) for the states s of interest,
+ * where q_s is the successor of the DA start state for the label of s.
+ */
+public class STPGProductView extends MDPView implements STPG
+{
+	/** The original model */
+	private STPG model;
+	/** Number of DA states */
+	private int daSize;
+	/** Transition function of the DA (null if the DA has too many APs to compile it) */
+	private DATransitionTable daTable;
+	/** Letter of the DA for each model state (if daTable is null, an index into daLabels) */
+	private int letters[];
+	/** The DA and its distinct labels of model states (used for lookups by label if daTable is null) */
+	private DA<BitSet, ? extends AcceptanceOmega> da;
+	private BitSet daLabels[];
+	/** Encoded product states (s * daSize + q), in ascending order */
+	private int prodStates[];
+	/** Index of the first product state for each model state (array of size numModelStates + 1) */
+	private int firstProdState[];
+	/** Initial states */
+	private BitSet initialStates;
+	/** Variable list (or null) */
+	private VarList varList;
+	/** Labels */
+	private Map<String, BitSet> labels = new TreeMap<String, BitSet>();
+
+	/**
+	 * Explore the product of an STPG and a DA from the given states of interest.
+	 * The APs of the DA are expected to be of the form L0, L1, ..., where Li
+	 * refers to the set of model states {@code labelBS.get(i)}.
+	 * @param model The STPG
+	 * @param da The DA
+	 * @param labelBS BitSets giving the set of states for each AP in the DA
+	 * @param statesOfInterest States of the model to explore the product from (null = all states)
+	 */
+	public STPGProductView(final STPG model, final DA<BitSet, ? extends AcceptanceOmega> da, final List<BitSet> labelBS, final BitSet statesOfInterest) throws PrismException
+	{
+		this.model = model;
+		daSize = da.size();
+		final int numModelStates = model.getNumStates();
+		if (DATransitionTable.isSupported(da)) {
+			daTable = new DATransitionTable(da);
+			letters = DATransitionTable.computeLetters(da.getAPList(), labelBS, numModelStates);
+		} else {
+			this.da = da;
+			computeLabels(da.getAPList(), labelBS, numModelStates);
+		}
+		try {
+			Math.multiplyExact(numModelStates, daSize);
+		} catch (ArithmeticException e) {
+			throw new PrismException("Size of product state space of model and automaton is too large for explicit engine");
+		}
+
+		// Explore reachable product states (breadth-first),
+		// using the array of states found so far as the queue
+		final BitSet visited = new BitSet();
+		final BitSet initialEncoded = new BitSet();
+		int found[] = new int[Math.max(numModelStates, 16)];
+		int numFound = 0;
+		for (int s_0 : new IterableStateSet(statesOfInterest, numModelStates)) {
+			final int q_0 = getEdgeDest(da.getStartState(), s_0);
+			if (q_0 < 0) {
+				throw new PrismException("The deterministic automaton is not complete (state " + da.getStartState() + ")");
+			}
+			final int encoded = s_0 * daSize + q_0;
+			initialEncoded.set(encoded);
+			if (!visited.get(encoded)) {
+				visited.set(encoded);
+				if (numFound == found.length) {
+					found = Arrays.copyOf(found, 2 * found.length);
+				}
+				found[numFound++] = encoded;
+			}
+		}
+		for (int i = 0; i < numFound; i++) {
+			final int s_1 = found[i] / daSize;
+			final int q_1 = found[i] % daSize;
+			for (int j = 0, numChoices = model.getNumChoices(s_1); j < numChoices; j++) {
+				for (SuccessorsIterator succs = model.getSuccessors(s_1, j); succs.hasNext();) {
+					final int s_2 = succs.nextInt();
+					final int q_2 = getEdgeDest(q_1, s_2);
+					if (q_2 < 0) {
+						throw new PrismException("The deterministic automaton is not complete (state " + q_1 + ")");
+					}
+					final int encoded = s_2 * daSize + q_2;
+					if (!visited.get(encoded)) {
+						visited.set(encoded);
+						if (numFound == found.length) {
+							found = Arrays.copyOf(found, 2 * found.length);
+						}
+						found[numFound++] = encoded;
+					}
+				}
+			}
+		}
+
+		// Store product states in ascending order, indexed by model state
+		prodStates = Arrays.copyOf(found, numFound);
+		Arrays.sort(prodStates);
+		firstProdState = new int[numModelStates + 1];
+		for (int i = 0, s = 0; s <= numModelStates; s++) {
+			while (i < numFound && prodStates[i] / daSize < s) {
+				i++;
+			}
+			firstProdState[s] = i;
+		}
+		initialStates = new BitSet();
+		for (int encoded = initialEncoded.nextSetBit(0); encoded >= 0; encoded = initialEncoded.nextSetBit(encoded + 1)) {
+			initialStates.set(getProductState(encoded / daSize, encoded % daSize));
+		}
+		for (int i = 0; i < numFound; i++) {
+			if (model.getNumChoices(prodStates[i] / daSize) == 0) {
+				deadlockStates.set(i);
+			}
+		}
+	}
+
+	public STPGProductView(final STPGProductView product)
+	{
+		super(product);
+		model = product.model;
+		daSize = product.daSize;
+		daTable = product.daTable;
+		letters = product.letters;
+		da = product.da;
+		daLabels = product.daLabels;
+		prodStates = product.prodStates;
+		firstProdState = product.firstProdState;
+		initialStates = product.initialStates;
+		varList = product.varList;
+		labels = new TreeMap<String, BitSet>(product.labels);
+	}
+
+
+
+	//--- Cloneable ---
+
+	@Override
+	public STPGProductView clone()
+	{
+		return new STPGProductView(this);
+	}
+
+
+
+	//--- Model ---
+
+	@Override
+	public int getNumStates()
+	{
+		return prodStates.length;
+	}
+
+	@Override
+	public int getNumInitialStates()
+	{
+		return initialStates.cardinality();
+	}
+
+	@Override
+	public Iterable<Integer> getInitialStates()
+	{
+		return new IterableStateSet(initialStates, getNumStates());
+	}
+
+	@Override
+	public int getFirstInitialState()
+	{
+		return initialStates.nextSetBit(0);
+	}
+
+	@Override
+	public boolean isInitialState(final int state)
+	{
+		return initialStates.get(state);
+	}
+
+	@Override
+	public List<State> getStatesList()
+	{
+		final List<State> modelStatesList = model.getStatesList();
+		if (modelStatesList == null) {
+			return null;
+		}
+		// Product states are created when accessed
+		return new AbstractList<State>()
+		{
+			@Override
+			public State get(final int state)
+			{
+				return new State(new State(1).setValue(0, getAutomatonState(state)), modelStatesList.get(getModelState(state)));
+			}
+
+			@Override
+			public int size()
+			{
+				return getNumStates();
+			}
+		};
+	}
+
+	@Override
+	public VarList getVarList()
+	{
+		return varList;
+	}
+
+	@Override
+	public Values getConstantValues()
+	{
+		return model.getConstantValues();
+	}
+
+	@Override
+	public BitSet getLabelStates(final String name)
+	{
+		return labels.get(name);
+	}
+
+	@Override
+	public Set<String> getLabels()
+	{
+		return labels.keySet();
+	}
+
+	@Override
+	public boolean hasLabel(final String name)
+	{
+		return labels.containsKey(name);
+	}
+
+
+
+	//--- NondetModel ---
+
+	@Override
+	public int getNumChoices(final int state)
+	{
+		if (isFixedDeadlock(state)) {
+			return 1;
+		}
+		return model.getNumChoices(getModelState(state));
+	}
+
+	@Override
+	public Object getAction(final int state, final int choice)
+	{
+		if (isFixedDeadlock(state)) {
+			return null;
+		}
+		return model.getAction(getModelState(state), choice);
+	}
+
+	@Override
+	public int getNumTransitions(final int state, final int choice)
+	{
+		if (isFixedDeadlock(state)) {
+			return 1;
+		}
+		return model.getNumTransitions(getModelState(state), choice);
+	}
+
+	@Override
+	public SuccessorsIterator getSuccessors(final int state, final int choice)
+	{
+		if (isFixedDeadlock(state)) {
+			return SuccessorsIterator.fromSingleton(state);
+		}
+		final int q = getAutomatonState(state);
+		final SuccessorsIterator successors = model.getSuccessors(getModelState(state), choice);
+		// Distinct model states have distinct product successors
+		return SuccessorsIterator.from(Reducible.extend((PrimitiveIterator.OfInt) successors).mapToInt((int t) -> getSuccessor(q, t)), successors.successorsAreDistinct());
+	}
+
+
+
+	//--- MDP ---
+
+	@Override
+	public Iterator<Entry<Integer, Double>> getTransitionsIterator(final int state, final int choice)
+	{
+		if (isFixedDeadlock(state)) {
+			return Collections.<Entry<Integer, Double>>singleton(new SimpleImmutableEntry<>(state, 1.0)).iterator();
+		}
+		final int q = getAutomatonState(state);
+		return Reducible.extend(model.getTransitionsIterator(getModelState(state), choice))
+				.map(transition -> new SimpleImmutableEntry<>(getSuccessor(q, transition.getKey()), transition.getValue()));
+	}
+
+	@Override
+	public void forEachTransition(final int state, final int choice, final TransitionConsumer c)
+	{
+		if (isFixedDeadlock(state)) {
+			c.accept(state, state, 1.0);
+			return;
+		}
+		final int q = getAutomatonState(state);
+		model.forEachTransition(getModelState(state), choice, (s, t, d) -> c.accept(state, getSuccessor(q, t), d));
+	}
+
+
+
+	//--- STPG ---
+
+	@Override
+	public int getPlayer(final int state)
+	{
+		return model.getPlayer(getModelState(state));
+	}
+
+	@Override
+	public void prob0step(final BitSet subset, final BitSet u, final boolean forall1, final boolean forall2, final BitSet result)
+	{
+		for (int state : new IterableStateSet(subset, getNumStates())) {
+			final boolean forall = (getPlayer(state) == 0) ? forall1 : forall2;
+			boolean b1 = forall; // there exists or for all
+			for (int choice = 0, numChoices = getNumChoices(state); choice < numChoices; choice++) {
+				final boolean some = someSuccessorsInSet(state, choice, u);
+				if (forall ? !some : some) {
+					b1 = some;
+					break;
+				}
+			}
+			result.set(state, b1);
+		}
+	}
+
+	@Override
+	public void prob1step(final BitSet subset, final BitSet u, final BitSet v, final boolean forall1, final boolean forall2, final BitSet result)
+	{
+		for (int state : new IterableStateSet(subset, getNumStates())) {
+			final boolean forall = (getPlayer(state) == 0) ? forall1 : forall2;
+			boolean b1 = forall; // there exists or for all
+			for (int choice = 0, numChoices = getNumChoices(state); choice < numChoices; choice++) {
+				final boolean someAll = successorsSafeAndCanReach(state, choice, u, v);
+				if (forall ? !someAll : someAll) {
+					b1 = someAll;
+					break;
+				}
+			}
+			result.set(state, b1);
+		}
+	}
+
+	@Override
+	public void mvMultMinMax(final double vect[], final boolean min1, final boolean min2, final double result[], final BitSet subset, final boolean complement, final int adv[])
+	{
+		for (PrimitiveIterator.OfInt states = new IterableStateSet(subset, getNumStates(), complement).iterator(); states.hasNext();) {
+			final int state = states.nextInt();
+			final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+			result[state] = mvMultMinMaxSingle(state, vect, min, adv);
+		}
+	}
+
+	@Override
+	public double mvMultMinMaxSingle(final int state, final double vect[], final boolean min1, final boolean min2)
+	{
+		final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+		return mvMultMinMaxSingle(state, vect, min, null);
+	}
+
+	@Override
+	public List<Integer> mvMultMinMaxSingleChoices(final int state, final double vect[], final boolean min1, final boolean min2, final double val)
+	{
+		final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+		return mvMultMinMaxSingleChoices(state, vect, min, val);
+	}
+
+	@Override
+	public double mvMultGSMinMax(final double vect[], final boolean min1, final boolean min2, final BitSet subset, final boolean complement, final boolean absolute)
+	{
+		double maxDiff = 0.0;
+		for (PrimitiveIterator.OfInt states = new IterableStateSet(subset, getNumStates(), complement).iterator(); states.hasNext();) {
+			final int state = states.nextInt();
+			final double d = mvMultJacMinMaxSingle(state, vect, min1, min2);
+			final double diff = absolute ? (Math.abs(d - vect[state])) : (Math.abs(d - vect[state]) / d);
+			maxDiff = diff > maxDiff ? diff : maxDiff;
+			vect[state] = d;
+		}
+		return maxDiff;
+	}
+
+	@Override
+	public double mvMultJacMinMaxSingle(final int state, final double vect[], final boolean min1, final boolean min2)
+	{
+		final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+		return mvMultJacMinMaxSingle(state, vect, min, null);
+	}
+
+	@Override
+	public void mvMultRewMinMax(final double vect[], final STPGRewards rewards, final boolean min1, final boolean min2, final double result[], final BitSet subset, final boolean complement, final int adv[])
+	{
+		mvMultRewMinMax(vect, rewards, min1, min2, result, subset, complement, adv, 1.0);
+	}
+
+	@Override
+	public void mvMultRewMinMax(final double vect[], final STPGRewards rewards, final boolean min1, final boolean min2, final double result[], final BitSet subset, final boolean complement, final int adv[],
+			final double disc)
+	{
+		final MDPRewards mdpRewards = rewards.buildMDPRewards();
+		for (PrimitiveIterator.OfInt states = new IterableStateSet(subset, getNumStates(), complement).iterator(); states.hasNext();) {
+			final int state = states.nextInt();
+			final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+			result[state] = mvMultRewMinMaxSingle(state, vect, mdpRewards, min, adv, disc);
+		}
+	}
+
+	@Override
+	public double mvMultRewMinMaxSingle(final int state, final double vect[], final STPGRewards rewards, final boolean min1, final boolean min2, final int adv[])
+	{
+		final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+		return mvMultRewMinMaxSingle(state, vect, rewards.buildMDPRewards(), min, adv);
+	}
+
+	@Override
+	public List<Integer> mvMultRewMinMaxSingleChoices(final int state, final double vect[], final STPGRewards rewards, final boolean min1, final boolean min2, final double val)
+	{
+		final boolean min = (getPlayer(state) == 0) ? min1 : min2;
+		return mvMultRewMinMaxSingleChoices(state, vect, rewards.buildMDPRewards(), min, val);
+	}
+
+	@Override
+	public boolean allSuccessorsInSet(final int state, final int choice, final BitSet set)
+	{
+		return allSuccessorsMatch(state, choice, set::get);
+	}
+
+
+
+	//--- MDPView ---
+
+	@Override
+	protected void fixDeadlocks()
+	{
+		assert !fixedDeadlocks : "deadlocks already fixed";
+
+		// Nothing to do: once deadlocks are fixed, each deadlock state
+		// has a single (unlabelled) choice with a self-loop, see isFixedDeadlock(int)
+	}
+
+
+
+	//--- instance methods ---
+
+	/**
+	 * Set the variable list of the product.
+	 */
+	public void setVarList(final VarList varList)
+	{
+		this.varList = varList;
+	}
+
+	/**
+	 * Add a label with corresponding state set, overwriting any existing label with the same name.
+	 */
+	public void addLabel(final String name, final BitSet states)
+	{
+		labels.put(name, states);
+	}
+
+	/**
+	 * Get the number of DA states.
+	 */
+	public int getAutomatonSize()
+	{
+		return daSize;
+	}
+
+	/**
+	 * Get the model state of a product state.
+	 */
+	public int getModelState(final int state)
+	{
+		return prodStates[state] / daSize;
+	}
+
+	/**
+	 * Get the DA state of a product state.
+	 */
+	public int getAutomatonState(final int state)
+	{
+		return prodStates[state] % daSize;
+	}
+
+	/**
+	 * Get the mapping from product states to pairs (s,q), encoded as (s * daSize + q).
+	 * The returned array is shared with this view and must not be modified.
+	 */
+	public int[] getEncodedStates()
+	{
+		return prodStates;
+	}
+
+	/**
+	 * Get the index of product state (s,q), or -1 if it is not reachable.
+	 */
+	public int getProductState(final int s, final int q)
+	{
+		final int index = Arrays.binarySearch(prodStates, firstProdState[s], firstProdState[s + 1], s * daSize + q);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of action reward followed by min/max,
+	 * with successor values discounted by {@code disc} (as for {@link explicit.SMGSparse}).
+	 * @param state Row index
+	 * @param vect Vector to multiply by
+	 * @param mdpRewards The rewards
+	 * @param min Min or max (true=min, false=max)
+	 * @param adv Storage for adversary choice indices (ignored if null)
+	 * @param disc Discount factor
+	 */
+	public double mvMultRewMinMaxSingle(final int state, final double vect[], final MDPRewards mdpRewards, final boolean min, final int adv[], final double disc)
+	{
+		int advCh = -1;
+		double minmax = 0;
+		boolean first = true;
+		for (int choice = 0, numChoices = getNumChoices(state); choice < numChoices; choice++) {
+			// Compute sum for this distribution
+			final double d = mdpRewards.getTransitionReward(state, choice) + disc * mvMultSingle(state, choice, vect);
+			// Check whether we have exceeded min/max so far
+			if (first || (min && d < minmax) || (!min && d > minmax)) {
+				minmax = d;
+				advCh = choice;
+			}
+			first = false;
+		}
+		// If adversary generation is enabled, store optimal choice
+		if (adv != null && !first) {
+			adv[state] = advCh;
+		}
+
+		// Add state reward (doesn't affect min/max)
+		return minmax + mdpRewards.getStateReward(state);
+	}
+
+	/**
+	 * Check whether {@code state} is a deadlock state that has been fixed,
+	 * i.e., which has a single choice with a probability 1 self-loop
+	 * (as added by {@link explicit.MDPSimple#findDeadlocks(boolean)} for a materialised product).
+	 */
+	private boolean isFixedDeadlock(final int state)
+	{
+		return fixedDeadlocks && deadlockStates.get(state);
+	}
+
+	/**
+	 * Get the index of the product state reached by moving to model state {@code t}
+	 * from a product state with DA state {@code q}.
+	 */
+	private int getSuccessor(final int q, final int t)
+	{
+		return getProductState(t, getEdgeDest(q, t));
+	}
+
+	/**
+	 * Get the DA state reached from DA state {@code q} by reading the label of model state {@code s}
+	 * (-1 if there is no such edge).
+	 */
+	private int getEdgeDest(final int q, final int s)
+	{
+		if (daTable != null) {
+			return daTable.getEdgeDest(q, letters[s]);
+		}
+		return da.getEdgeDestByLabel(q, daLabels[letters[s]]);
+	}
+
+	/**
+	 * Compute the label of the DA for each model state once, for lookups by label
+	 * (used if the DA has too many APs to compile its transition function).
+	 * Equal labels are shared, stored in {@code daLabels} and indexed by {@code letters}.
+	 */
+	private void computeLabels(final List<String> apList, final List<BitSet> labelBS, final int numModelStates)
+	{
+		// Sets of model states for each AP of the DA, in the order of the AP list
+		final List<BitSet> apStates = new ArrayList<BitSet>(apList.size());
+		for (String ap : apList) {
+			apStates.add(labelBS.get(Integer.parseInt(ap.substring(1))));
+		}
+		final Map<BitSet, Integer> labelIndices = new HashMap<BitSet, Integer>();
+		final List<BitSet> labelList = new ArrayList<BitSet>();
+		letters = new int[numModelStates];
+		for (int s = 0; s < numModelStates; s++) {
+			final BitSet label = new BitSet(apStates.size());
+			for (int k = 0; k < apStates.size(); k++) {
+				label.set(k, apStates.get(k).get(s));
+			}
+			Integer index = labelIndices.get(label);
+			if (index == null) {
+				index = labelList.size();
+				labelIndices.put(label, index);
+				labelList.add(label);
+			}
+			letters[s] = index;
+		}
+		daLabels = labelList.toArray(new BitSet[labelList.size()]);
+	}
+}
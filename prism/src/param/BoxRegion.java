@@ -30,6 +30,8 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Random;
 
+import prism.PrismException;
+
 /**
  * Implements a region representation by a box (hyper-rectangle).
  * This means that for each parameter we have a lower and upper bound, and
@@ -286,75 +288,74 @@ final class BoxRegion extends Region {
 	}
 
 	private RegionValues cmpOp(int op, StateValues op1, StateValues op2) {
-		ConstraintChecker checker = factory.getConstraintChecker();
-		RegionsTODO remaining = new RegionsTODO();
-		remaining.add(this);
 		BigRational requiredVolume = this.volume().multiply(BigRational.ONE.subtract(factory.getPrecision()));
-		BigRational doneVolume = BigRational.ZERO;
-		RegionValues result = new RegionValues(factory);
-		Function lastFunction = null;
-		while (doneVolume.compareTo(requiredVolume) == -1) {
-			BoxRegion region = (BoxRegion) remaining.poll();
-			StateValues newValues = new StateValues(op1.getNumStates(), factory.getInitialState());
-			boolean allDecided = true;
-			for (int state = 0; state < op1.getNumStates(); state++) {
-				StateValue op1Val = op1.getStateValue(state);
-				StateValue op2Val = op2.getStateValue(state);
-				Function op1ValFn = op1Val instanceof Function ? (Function) op1Val : null;
-				Function op2ValFn = op2Val instanceof Function ? (Function) op2Val : null;
-				if (op == Region.EQ) {
-					if (op1Val instanceof StateBoolean) {
-						newValues.setStateValue(state, op1Val.equals(op2Val));						
-					}
-					else if (op1Val.equals(op2Val)) {
-						newValues.setStateValue(state, true);			
-					} else if (checker.check(region, op1ValFn.subtract(op2ValFn), true)) {
-						newValues.setStateValue(state, false);	
-					} else if (checker.check(region, op2ValFn.subtract(op1ValFn), true)) {
-						newValues.setStateValue(state, false);	
-					} else {
-						allDecided = false;
-						break;
-					}
-				} else if (op == Region.NE) {
-					if (op1Val instanceof StateBoolean) {
-						newValues.setStateValue(state, !op1Val.equals(op2Val));
-					} else if (op1Val.equals(op2Val)) {
-						newValues.setStateValue(state, false);
-					} else if (checker.check(region, op1ValFn.subtract(op2ValFn), true)) {
-						newValues.setStateValue(state, true);
-					} else if (checker.check(region, op2ValFn.subtract(op1ValFn), true)) {
-						newValues.setStateValue(state, true);
-					} else {
-						allDecided = false;
-						break;
-					}
+		RegionRefiner refiner = new RegionRefiner(factory, region -> cmpOpDecide(op, op1, op2, region));
+		try {
+			return refiner.refine(this, requiredVolume);
+		} catch (PrismException e) {
+			// cmpOpDecide does not throw exceptions
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Decides comparison of two state values for all states in a given region.
+	 * 
+	 * @param op comparison operator, see values in {@code Region}
+	 * @param op1 first operand
+	 * @param op2 second operand
+	 * @param region region for which to decide comparison
+	 * @return values of comparison, or {@code null} if undecided for some state
+	 */
+	private StateValues cmpOpDecide(int op, StateValues op1, StateValues op2, Region region) {
+		ConstraintChecker checker = factory.getConstraintChecker();
+		StateValues newValues = new StateValues(op1.getNumStates(), factory.getInitialState());
+		for (int state = 0; state < op1.getNumStates(); state++) {
+			StateValue op1Val = op1.getStateValue(state);
+			StateValue op2Val = op2.getStateValue(state);
+			Function op1ValFn = op1Val instanceof Function ? (Function) op1Val : null;
+			Function op2ValFn = op2Val instanceof Function ? (Function) op2Val : null;
+			if (op == Region.EQ) {
+				if (op1Val instanceof StateBoolean) {
+					newValues.setStateValue(state, op1Val.equals(op2Val));						
+				}
+				else if (op1Val.equals(op2Val)) {
+					newValues.setStateValue(state, true);			
+				} else if (checker.check(region, op1ValFn.subtract(op2ValFn), true)) {
+					newValues.setStateValue(state, false);	
+				} else if (checker.check(region, op2ValFn.subtract(op1ValFn), true)) {
+					newValues.setStateValue(state, false);	
+				} else {
+					return null;
+				}
+			} else if (op == Region.NE) {
+				if (op1Val instanceof StateBoolean) {
+					newValues.setStateValue(state, !op1Val.equals(op2Val));
+				} else if (op1Val.equals(op2Val)) {
+					newValues.setStateValue(state, false);
+				} else if (checker.check(region, op1ValFn.subtract(op2ValFn), true)) {
+					newValues.setStateValue(state, true);
+				} else if (checker.check(region, op2ValFn.subtract(op1ValFn), true)) {
+					newValues.setStateValue(state, true);
+				} else {
+					return null;
+				}
+			} else {
+				boolean strict = op == Region.GT || op == Region.LT;
+				Function cmpTrue = (op == Region.LT || op == Region.LE) ? op2ValFn.subtract(op1ValFn) : op1ValFn.subtract(op2ValFn);
+				if (checker.check(region, cmpTrue, strict)) {
+					newValues.setStateValue(state, true);
 				} else {
-					boolean strict = op == Region.GT || op == Region.LT;
-					Function cmpTrue = (op == Region.LT || op == Region.LE) ? op2ValFn.subtract(op1ValFn) : op1ValFn.subtract(op2ValFn);
-					if (checker.check(region, cmpTrue, strict)) {
-						newValues.setStateValue(state, true);
+					Function cmpFalse = (op == Region.LT || op == Region.LE) ? op1ValFn.subtract(op2ValFn) : op2ValFn.subtract(op1ValFn);
+					if (checker.check(region, cmpFalse, !strict)) {
+						newValues.setStateValue(state, false);	
 					} else {
-						Function cmpFalse = (op == Region.LT || op == Region.LE) ? op1ValFn.subtract(op2ValFn) : op2ValFn.subtract(op1ValFn);
-						if (checker.check(region, cmpFalse, !strict)) {
-							newValues.setStateValue(state, false);	
-						} else {
-							allDecided = false;
-							lastFunction = op2ValFn.subtract(op1ValFn);
-							break;
-						}
+						return null;
 					}
 				}
 			}
-			if (allDecided) {
-				result.add(region, newValues);
-				doneVolume = doneVolume.add(region.volume());
-			} else {
-				remaining.addAll(region.split(lastFunction));
-			}
 		}
-		
-		return result;
+		return newValues;
 	}
 	
 	/**
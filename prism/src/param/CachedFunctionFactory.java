@@ -28,6 +28,7 @@ package param;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Function factory implementing a cache for functions from other factories.
@@ -36,6 +37,8 @@ import java.util.HashMap;
  * cache for operations on functions, so that if an operation on the same
  * two functions has already been performed before, the result will be
  * looked up instead of being performed again.
+ * The factory is thread-safe, so that functions and cached operation
+ * results can be shared by several threads (e.g. in parallel state elimination).
  * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  * @see FunctionFactory
@@ -102,11 +105,11 @@ final class CachedFunctionFactory extends FunctionFactory {
 	/** true iff operation cache is to be used */
 	private boolean useOpCache;
 	/** cache for additions (and indirectly subtractions) */		
-	private HashMap<OpCacheKey, CachedFunction> addCache;
+	private ConcurrentHashMap<OpCacheKey, CachedFunction> addCache;
 	/** cache for multiplications (and indirectly divisions) */	
-	private HashMap<OpCacheKey, CachedFunction> multCache;
+	private ConcurrentHashMap<OpCacheKey, CachedFunction> multCache;
 	/** cache for star operation */
-	private HashMap<CachedFunction, CachedFunction> starCache;
+	private ConcurrentHashMap<CachedFunction, CachedFunction> starCache;
 	
 	/**
 	 * Constructs a new cached function factory.
@@ -123,9 +126,9 @@ final class CachedFunctionFactory extends FunctionFactory {
 		nextFunctionNumber = 0;
 		one = makeUnique(context.getOne());
 		zero = makeUnique(context.getZero());
-		addCache = new HashMap<OpCacheKey, CachedFunction>();
-		multCache = new HashMap<OpCacheKey, CachedFunction>();
-		starCache = new HashMap<CachedFunction, CachedFunction>();
+		addCache = new ConcurrentHashMap<OpCacheKey, CachedFunction>();
+		multCache = new ConcurrentHashMap<OpCacheKey, CachedFunction>();
+		starCache = new ConcurrentHashMap<CachedFunction, CachedFunction>();
 		useOpCache = true;
 	}
 	
@@ -148,7 +151,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 	 * @param function function to return unique integer of
 	 * @return unique integer representing function
 	 */
-	private CachedFunction makeUnique(Function function)
+	private synchronized CachedFunction makeUnique(Function function)
 	{
 		Integer number = functionToNumber.get(function);
 		if (number != null) {
@@ -169,7 +172,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 	 * @param number number of function to return
 	 * @return function with the given number
 	 */
-	Function getFunction(int number)
+	synchronized Function getFunction(int number)
 	{
 		return functions.get(number);
 	}
@@ -188,7 +191,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 
 	private Function getFunctionFromCache(Function cached)
 	{
-		return functions.get(((CachedFunction) cached).getNumber());
+		return getFunction(((CachedFunction) cached).getNumber());
 	}
 	
 	Function add(Function cached1, Function cached2)
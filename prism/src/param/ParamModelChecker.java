@@ -137,6 +137,7 @@ final public class ParamModelChecker extends PrismComponent
 	private BigRational precision;
 	private int splitMethod;
 	private EliminationOrder eliminationOrder;
+	private int numThreads = 1;
 	private int numRandomPoints;
 	private Lumper.BisimType bisimType;
 	private boolean simplifyRegions;
@@ -179,6 +180,7 @@ final public class ParamModelChecker extends PrismComponent
 		} else {
 			throw new PrismException("unknown state elimination order " + eliminationOrderString);				
 		}
+		numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
 		numRandomPoints = settings.getInteger(PrismSettings.PRISM_PARAM_RANDOM_POINTS);
 		String bisimTypeString = settings.getString(PrismSettings.PRISM_PARAM_BISIM);
 		if (bisimTypeString.equals("Weak")) {
@@ -232,7 +234,9 @@ final public class ParamModelChecker extends PrismComponent
 		constraintChecker = new ConstraintChecker(numRandomPoints);
 		regionFactory = new BoxRegionFactory(functionFactory, constraintChecker, precision,
 				model.getNumStates(), model.getFirstInitialState(), simplifyRegions, splitMethod);
-		valueComputer = new ValueComputer(this, mode, paramModel, regionFactory, precision, eliminationOrder, bisimType);
+		regionFactory.setNumThreads(numThreads);
+		regionFactory.setLog(mainLog);
+		valueComputer = new ValueComputer(this, mode, paramModel, regionFactory, precision, eliminationOrder, numThreads, bisimType);
 		
 		long timer = 0;
 		
@@ -26,6 +26,8 @@
 
 package param;
 
+import prism.PrismLog;
+
 /**
  * Class to produce new regions of a given subclass of {@code Region}.
  * 
@@ -47,6 +49,10 @@ abstract class RegionFactory {
 	 * that is if they can be represented by a single larger region
 	 * and are assigned the same values */
 	protected boolean subsumeRegions;
+	/** number of threads to use for region refinement */
+	protected int numThreads = 1;
+	/** log to display progress of region refinement to, or {@code null} */
+	protected PrismLog log;
 
 	/**
 	 * Covers the whole parameter space with the values specified.
@@ -181,4 +187,44 @@ abstract class RegionFactory {
 	{
 		return subsumeRegions;
 	}
+
+	/**
+	 * Sets the number of threads to use for region refinement.
+	 * 
+	 * @param numThreads number of threads
+	 */
+	void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Returns the number of threads to use for region refinement.
+	 * 
+	 * @return number of threads
+	 */
+	int getNumThreads()
+	{
+		return numThreads;
+	}
+
+	/**
+	 * Sets the log to display progress of region refinement to.
+	 * 
+	 * @param log log to display progress to, or {@code null} for none
+	 */
+	void setLog(PrismLog log)
+	{
+		this.log = log;
+	}
+
+	/**
+	 * Returns the log to display progress of region refinement to.
+	 * 
+	 * @return log to display progress to, or {@code null} for none
+	 */
+	PrismLog getLog()
+	{
+		return log;
+	}
 }
@@ -0,0 +1,383 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package param;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import prism.PrismException;
+import prism.PrismLog;
+import prism.ProgressDisplay;
+
+/**
+ * Refines a region until the values of a sufficiently large part of it
+ * have been decided.
+ * Undecided regions are kept in a queue, largest first. The region at the
+ * head of the queue is repeatedly taken and decided. Decided regions are
+ * added to the result, undecided ones are split and put back into the queue.
+ * Refinement stops as soon as the volume decided covers the required volume.
+ * Regions are treated in the same order as in the sequential refinement loops
+ * this class replaces. As deciding one region is independent of deciding
+ * another one, with several threads, workers decide queued regions in advance,
+ * while the regions are still taken from the queue in the same order as with
+ * a single thread. Thus, the result does not depend on the number of threads.
+ */
+final class RegionRefiner {
+	/**
+	 * Decides values for a region, if possible.
+	 */
+	interface Decider {
+		/**
+		 * Tries to decide the values of all states for the whole given region.
+		 * Returns the values if they could be decided, {@code null} if the region
+		 * has to be split, or {@link RegionRefiner#DROP} if the region is to be
+		 * counted as decided without assigning values to it.
+		 * Must be safe to call from several threads concurrently.
+		 *
+		 * @param region region to decide values for
+		 * @return values for region, {@code null} or {@code DROP}
+		 * @throws PrismException in case of errors
+		 */
+		StateValues decide(Region region) throws PrismException;
+	}
+
+	/**
+	 * Decision for a region, made by a worker or by the refinement loop.
+	 */
+	private static final class Decision {
+		/** true iff the decision has been made */
+		boolean done;
+		/** values for the region (see {@link Decider#decide}) */
+		StateValues values;
+		/** exception thrown by the decider, if any */
+		Exception error;
+	}
+
+	/** result of a decider for regions to drop (see {@link Decider#decide}) */
+	static final StateValues DROP = new StateValues(0, 0);
+
+	/** set for threads working on region refinement in parallel */
+	private static final ThreadLocal<Boolean> inWorker = ThreadLocal.withInitial(() -> false);
+
+	/** region factory of regions to refine */
+	private RegionFactory factory;
+	/** decider for regions */
+	private Decider decider;
+	/** regions still to decide */
+	private RegionsTODO todo;
+	/** result of refinement */
+	private RegionValues result;
+	/** volume of regions decided (or dropped) so far */
+	private BigRational doneVolume;
+	/** volume to be decided */
+	private BigRational requiredVolume;
+	/** regions in the queue which workers may decide in advance (parallel refinement only) */
+	private RegionsTODO candidates;
+	/** decisions made (or being made) so far, by region (parallel refinement only) */
+	private Map<Region, Decision> decisions;
+	/** true iff workers should stop (parallel refinement only) */
+	private boolean stopped;
+	/** progress display, or {@code null} if not displayed */
+	private ProgressDisplay progress;
+	/** true iff progress has been displayed in the current refinement */
+	private boolean progressShown;
+
+	/**
+	 * Creates a new region refiner.
+	 *
+	 * @param factory region factory of regions to refine
+	 * @param decider decider for regions
+	 */
+	RegionRefiner(RegionFactory factory, Decider decider)
+	{
+		this.factory = factory;
+		this.decider = decider;
+	}
+
+	/**
+	 * Returns true iff the current thread is a worker of a parallel region
+	 * refinement. Can be used to avoid nested parallelism.
+	 *
+	 * @return true iff current thread is a worker of a parallel refinement
+	 */
+	static boolean isWorkerThread()
+	{
+		return inWorker.get();
+	}
+
+	/**
+	 * Refines the given region until the volume decided covers
+	 * {@code requiredVolume}.
+	 * The number of threads to use and the log to display progress to are
+	 * taken from the region factory.
+	 *
+	 * @param region region to refine
+	 * @param requiredVolume volume to be decided
+	 * @return values for decided subregions of {@code region}
+	 * @throws PrismException in case the decider throws an exception
+	 */
+	RegionValues refine(Region region, BigRational requiredVolume) throws PrismException
+	{
+		todo = new RegionsTODO();
+		todo.add(region);
+		result = new RegionValues(factory);
+		doneVolume = BigRational.ZERO;
+		this.requiredVolume = requiredVolume;
+		PrismLog log = isWorkerThread() ? null : factory.getLog();
+		progress = null;
+		progressShown = false;
+		if (log != null) {
+			progress = new ProgressDisplay(log);
+			progress.start();
+			progress.setTotalCount(1000);
+		}
+
+		int numThreads = isWorkerThread() ? 1 : factory.getNumThreads();
+		if (numThreads <= 1) {
+			refineSequential();
+		} else {
+			refineParallel(numThreads);
+		}
+		if (progressShown) {
+			progress.end();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns true iff refinement is finished, i.e. the volume decided
+	 * covers the required volume or there are no regions left to decide.
+	 *
+	 * @return true iff refinement is finished
+	 */
+	private boolean isFinished()
+	{
+		return todo.isEmpty() || doneVolume.compareTo(requiredVolume) >= 0;
+	}
+
+	/**
+	 * Decides the regions of the queue one after another.
+	 *
+	 * @throws PrismException in case the decider throws an exception
+	 */
+	private void refineSequential() throws PrismException
+	{
+		while (!isFinished()) {
+			Region region = todo.poll();
+			addDecision(region, decider.decide(region));
+		}
+	}
+
+	/**
+	 * Takes the regions from the queue in the same order as
+	 * {@link #refineSequential()}, using {@code numThreads - 1} workers to
+	 * decide queued regions (largest first) in advance. Decisions which are not
+	 * needed any more once refinement is finished are discarded, as are errors
+	 * for regions the sequential refinement would not have decided.
+	 *
+	 * @param numThreads number of threads to use
+	 * @throws PrismException in case the decider throws an exception
+	 */
+	private void refineParallel(int numThreads) throws PrismException
+	{
+		candidates = new RegionsTODO();
+		decisions = new IdentityHashMap<Region, Decision>();
+		stopped = false;
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads - 1, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		inWorker.set(true);
+		try {
+			for (int thread = 0; thread < numThreads - 1; thread++) {
+				executor.execute(() -> {
+					inWorker.set(true);
+					work();
+				});
+			}
+			while (!isFinished()) {
+				Region region = todo.poll();
+				Decision decision;
+				boolean decideHere = false;
+				synchronized (this) {
+					decision = decisions.get(region);
+					if (decision == null) {
+						// not started by a worker yet, so decide it here
+						decision = new Decision();
+						decisions.put(region, decision);
+						decideHere = true;
+					}
+				}
+				if (decideHere) {
+					decide(region, decision);
+				}
+				synchronized (this) {
+					while (!decision.done) {
+						try {
+							wait();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new RuntimeException("parallel region refinement was interrupted");
+						}
+					}
+				}
+				if (decision.error instanceof PrismException) {
+					throw (PrismException) decision.error;
+				} else if (decision.error != null) {
+					throw (RuntimeException) decision.error;
+				}
+				List<Region> newRegions = addDecision(region, decision.values);
+				if (newRegions != null) {
+					synchronized (this) {
+						candidates.addAll(newRegions);
+						notifyAll();
+					}
+				}
+			}
+		} finally {
+			inWorker.set(false);
+			synchronized (this) {
+				stopped = true;
+				notifyAll();
+			}
+			// wait for decisions still being made, which are then discarded
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			candidates = null;
+			decisions = null;
+		}
+	}
+
+	/**
+	 * Worker loop: decides regions of the queue in advance, largest first,
+	 * until refinement is finished.
+	 */
+	private void work()
+	{
+		while (true) {
+			Region region;
+			Decision decision;
+			synchronized (this) {
+				while (!stopped && candidates.isEmpty()) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (stopped) {
+					return;
+				}
+				region = candidates.poll();
+				if (decisions.containsKey(region)) {
+					continue;
+				}
+				decision = new Decision();
+				decisions.put(region, decision);
+			}
+			decide(region, decision);
+		}
+	}
+
+	/**
+	 * Decides a region and stores the outcome in {@code decision}.
+	 *
+	 * @param region region to decide
+	 * @param decision decision to store outcome in
+	 */
+	private void decide(Region region, Decision decision)
+	{
+		StateValues values = null;
+		Exception error = null;
+		try {
+			values = decider.decide(region);
+		} catch (PrismException | RuntimeException e) {
+			error = e;
+		}
+		synchronized (this) {
+			decision.values = values;
+			decision.error = error;
+			decision.done = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Adds the decision for a region taken from the queue: stores its values
+	 * and volume if it was decided, or otherwise splits it and puts the parts
+	 * back into the queue.
+	 *
+	 * @param region region taken from the queue
+	 * @param values values for region (see {@link Decider#decide})
+	 * @return the parts put back into the queue, or {@code null} if decided
+	 */
+	private List<Region> addDecision(Region region, StateValues values)
+	{
+		if (values == null) {
+			List<Region> newRegions = region.split();
+			todo.addAll(newRegions);
+			return newRegions;
+		}
+		if (values != DROP) {
+			result.add(region, values);
+		}
+		doneVolume = doneVolume.add(region.volume());
+		updateProgress();
+		return null;
+	}
+
+	/**
+	 * Displays the percentage of the required volume decided so far, if it
+	 * is time for an update.
+	 */
+	private void updateProgress()
+	{
+		if (progress == null) {
+			return;
+		}
+		if (progress.ready()) {
+			if (!progressShown) {
+				factory.getLog().print("\nRegion refinement progress (volume decided): ");
+				progressShown = true;
+			}
+			if (requiredVolume.signum() <= 0) {
+				progress.update(1000);
+			} else {
+				progress.update((long) (1000 * doneVolume.divide(requiredVolume).doubleValue()));
+			}
+		}
+	}
+}
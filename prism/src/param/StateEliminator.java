@@ -32,6 +32,12 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Performs computation of reachability probabilities and rewards.
@@ -43,6 +49,9 @@ import java.util.ListIterator;
  * is maintained, but the state no longer has any incoming transitions,
  * except in some cases self loops. This way, after all states have been
  * treated, the value of concern can be obtained by a simple computation.
+ * Using several threads, states which do not share any neighbours can be
+ * eliminated concurrently (see {@link #eliminateParallel}); this requires a
+ * thread-safe function factory.
  * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  */
@@ -69,6 +78,10 @@ final class StateEliminator {
 	private MutablePMC pmc;
 	/** order in which states are eliminated */
 	private EliminationOrder eliminationOrder;
+	/** number of threads used for elimination */
+	private int numThreads;
+	/** number of states (per thread) considered for each round of parallel elimination */
+	private static final int ROUND_WINDOW = 64;
 	
 	/**
 	 * Create a new state eliminator object.
@@ -77,9 +90,22 @@ final class StateEliminator {
 	 * @param eliminationOrder order in which states shall be eliminated
 	 */
 	StateEliminator(MutablePMC pmc, EliminationOrder eliminationOrder)
+	{
+		this(pmc, eliminationOrder, 1);
+	}
+	
+	/**
+	 * Create a new state eliminator object.
+	 * 
+	 * @param pmc parametric Markov chain to compute values of
+	 * @param eliminationOrder order in which states shall be eliminated
+	 * @param numThreads number of threads to use for elimination
+	 */
+	StateEliminator(MutablePMC pmc, EliminationOrder eliminationOrder, int numThreads)
 	{
 		this.pmc = pmc;
 		this.eliminationOrder = eliminationOrder;
+		this.numThreads = numThreads;
 	}
 	
 	/**
@@ -288,11 +314,130 @@ final class StateEliminator {
 			throw new RuntimeException("unknown state elimination order");
 		}
 		
+		if (numThreads > 1) {
+			eliminateParallel(states);
+			return;
+		}
 		for (int stateNr = 0; stateNr < pmc.getNumStates(); stateNr++) {
 			eliminate(states[stateNr]);
 		}
 	}
 
+	/**
+	 * Eliminates the given states using several threads.
+	 * States are eliminated in rounds. For each round, states are taken in
+	 * the given order (starting with those deferred from the previous round)
+	 * and selected if their neighbourhood (the state itself, its predecessors
+	 * and its successors) is disjoint from those of the states selected so
+	 * far. As eliminating a state only modifies its neighbourhood, the
+	 * selected states can then be eliminated concurrently.
+	 * 
+	 * @param states states to eliminate, in preferred order
+	 */
+	private void eliminateParallel(int[] states)
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			int window = numThreads * ROUND_WINDOW;
+			BitSet claimed = new BitSet(pmc.getNumStates());
+			ArrayList<Integer> deferred = new ArrayList<Integer>();
+			int nextStateNr = 0;
+			while (nextStateNr < states.length || !deferred.isEmpty()) {
+				ArrayList<Integer> candidates = deferred;
+				while (candidates.size() < window && nextStateNr < states.length) {
+					candidates.add(states[nextStateNr]);
+					nextStateNr++;
+				}
+				ArrayList<Integer> round = new ArrayList<Integer>();
+				deferred = new ArrayList<Integer>();
+				claimed.clear();
+				for (int state : candidates) {
+					if (claimNeighbourhood(state, claimed)) {
+						round.add(state);
+					} else {
+						deferred.add(state);
+					}
+				}
+				eliminateRound(round, executor);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Marks the neighbourhood of a state (the state itself, its predecessors
+	 * and its successors) as claimed, unless some state of it has already been
+	 * claimed, in which case nothing is changed.
+	 * 
+	 * @param state state whose neighbourhood to claim
+	 * @param claimed states claimed so far
+	 * @return true iff the neighbourhood was claimed
+	 */
+	private boolean claimNeighbourhood(int state, BitSet claimed)
+	{
+		if (claimed.get(state)) {
+			return false;
+		}
+		for (int pred : pmc.incoming.get(state)) {
+			if (claimed.get(pred)) {
+				return false;
+			}
+		}
+		for (int succ : pmc.transitionTargets.get(state)) {
+			if (claimed.get(succ)) {
+				return false;
+			}
+		}
+		claimed.set(state);
+		for (int pred : pmc.incoming.get(state)) {
+			claimed.set(pred);
+		}
+		for (int succ : pmc.transitionTargets.get(state)) {
+			claimed.set(succ);
+		}
+		return true;
+	}
+
+	/**
+	 * Eliminates a set of states with pairwise disjoint neighbourhoods concurrently.
+	 * 
+	 * @param round states to eliminate
+	 * @param executor executor to use for elimination
+	 */
+	private void eliminateRound(ArrayList<Integer> round, ExecutorService executor)
+	{
+		if (round.size() == 1) {
+			eliminate(round.get(0));
+			return;
+		}
+		AtomicInteger next = new AtomicInteger(0);
+		ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>(numThreads);
+		for (int thread = 0; thread < numThreads; thread++) {
+			tasks.add(() -> {
+				int stateNr;
+				while ((stateNr = next.getAndIncrement()) < round.size()) {
+					eliminate(round.get(stateNr));
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("parallel state elimination was interrupted");
+		} catch (ExecutionException e) {
+			throw new RuntimeException("error during parallel state elimination: " + e.getCause(), e.getCause());
+		}
+	}
+
 	/**
 	 * Stores a transition which shall be added to the model later.
 	 */
@@ -235,9 +235,10 @@ final class ValueComputer extends PrismComponent
 	private HashMap<SchedulerCacheKey,ArrayList<Scheduler>> schedCache;
 	private HashMap<ResultCacheKey,ResultCacheEntry> resultCache;
 	private StateEliminator.EliminationOrder eliminationOrder;
+	private int numThreads;
 	private Lumper.BisimType bisimType;
 
-	ValueComputer(PrismComponent parent, ParamMode mode, ParamModel model, RegionFactory regionFactory, BigRational precision, StateEliminator.EliminationOrder eliminationOrder, Lumper.BisimType bisimType) {
+	ValueComputer(PrismComponent parent, ParamMode mode, ParamModel model, RegionFactory regionFactory, BigRational precision, StateEliminator.EliminationOrder eliminationOrder, int numThreads, Lumper.BisimType bisimType) {
 		super(parent);
 		this.mode = mode;
 		this.model = model;
@@ -248,6 +249,7 @@ final class ValueComputer extends PrismComponent
 		this.schedCache = new HashMap<SchedulerCacheKey,ArrayList<Scheduler>>();
 		this.resultCache = new HashMap<ResultCacheKey,ResultCacheEntry>();
 		this.eliminationOrder = eliminationOrder;
+		this.numThreads = numThreads;
 		this.bisimType = bisimType;
 	}
 
@@ -312,30 +314,24 @@ final class ValueComputer extends PrismComponent
 	{
 		BigRational precisionForThisRegion = region.volume().multiply(precision);
 		BigRational requiredVolume = region.volume().subtract(precisionForThisRegion);
-		RegionValues result = new RegionValues(regionFactory);
-		RegionsTODO todo = new RegionsTODO();
-		todo.add(region);
-		BigRational volume = BigRational.ZERO;
 
 		Scheduler initialScheduler = new Scheduler(model);
 		precomputeScheduler(model, initialScheduler, b1, b2, rew, min);
 
-		while (volume.compareTo(requiredVolume) == -1) {
-			Region currentRegion = todo.poll();
+		RegionRefiner refiner = new RegionRefiner(regionFactory, currentRegion -> {
 			Point midPoint = ((BoxRegion)currentRegion).getMidPoint();
 			Scheduler scheduler = computeOptConcreteReachScheduler(midPoint, model, b1, b2, min, rew, initialScheduler);
 			if (scheduler == null) {
 				// midpoint leads to non-well-defined model
 				if (currentRegion.volume().compareTo(precisionForThisRegion) <= 0) {
 					// region is below precision threshold, treat as undefined
-					// and adjust required volume
-					requiredVolume = requiredVolume.subtract(currentRegion.volume());
+					// and count it as done
+					return RegionRefiner.DROP;
 				} else {
 					// we split the current region
 					// TODO: Would be nice to try and analyse the well-definedness constraints
-					todo.addAll(currentRegion.split());
+					return null;
 				}
-				continue;
 			}
 
 			ResultCacheEntry resultCacheEntry = lookupValues(PropType.REACH, b1, b2, rew, scheduler, min);
@@ -350,23 +346,14 @@ final class ValueComputer extends PrismComponent
 				values = resultCacheEntry.getValues();
 				compare = resultCacheEntry.getCompare();
 			}
-			boolean ok = true;
-			Function choiceValue = null;
 			for (Function entry : compare) {
-				choiceValue = entry;
 				if (!constraintChecker.check(currentRegion, entry, false)) {
-					ok = false;
+					return null;
 				}
 			}
-			if (ok) {
-				volume = volume.add(currentRegion.volume());
-				result.add(currentRegion, values);
-			} else {
-				todo.addAll(currentRegion.split(choiceValue));
-			}
-		}
-
-		return result;
+			return values;
+		});
+		return refiner.refine(region, requiredVolume);
 	}
 	
 	private Function[] computeCompare(StateValues b1, StateValues b2,
@@ -398,14 +385,17 @@ final class ValueComputer extends PrismComponent
 			ParamRewardStruct rew, Scheduler scheduler, boolean min, StateValues values, Function[] compare) {
 		ResultCacheKey cacheKey = new ResultCacheKey(propType, b1, b2, rew, scheduler, min);
 		ResultCacheEntry resultCacheEntry = new ResultCacheEntry(values, compare);
-		resultCache.put(cacheKey, resultCacheEntry);
+		synchronized (resultCache) {
+			resultCache.put(cacheKey, resultCacheEntry);
+		}
 	}
 
 	private ResultCacheEntry lookupValues(PropType propType, StateValues b1, StateValues b2,
 			ParamRewardStruct rew, Scheduler scheduler, boolean min) {
 		ResultCacheKey cacheKey = new ResultCacheKey(propType, b1, b2, rew, scheduler, min);
-		ResultCacheEntry resultCacheEntry = resultCache.get(cacheKey);
-		return resultCacheEntry;
+		synchronized (resultCache) {
+			return resultCache.get(cacheKey);
+		}
 	}
 
 	/**
@@ -498,21 +488,28 @@ final class ValueComputer extends PrismComponent
 	private void storeScheduler(PropType propType, StateValues b1, StateValues b2, boolean min,
 			ParamRewardStruct rew, Scheduler scheduler) {
 		SchedulerCacheKey cacheKey = new SchedulerCacheKey(propType, b1, b2, min, rew, null);
-		ArrayList<Scheduler> schedulers = schedCache.get(cacheKey);
-		if (schedulers == null) {
-			schedulers = new ArrayList<Scheduler>();
-			schedCache.put(cacheKey, schedulers);
+		synchronized (schedCache) {
+			ArrayList<Scheduler> schedulers = schedCache.get(cacheKey);
+			if (schedulers == null) {
+				schedulers = new ArrayList<Scheduler>();
+				schedCache.put(cacheKey, schedulers);
+			}
+			schedulers.add(scheduler);
 		}
-		schedulers.add(scheduler);		
 	}
 
 	private Scheduler lookupScheduler(Point point, ParamModel concrete, PropType propType, StateValues b1, StateValues b2,
 			boolean min, ParamRewardStruct rew)
 	{
 		SchedulerCacheKey cacheKey = new SchedulerCacheKey(propType, b1, b2, min, rew, null);
-		ArrayList<Scheduler> schedulers = schedCache.get(cacheKey);
-		if (schedulers == null) {
-			return null;
+		ArrayList<Scheduler> schedulers;
+		synchronized (schedCache) {
+			schedulers = schedCache.get(cacheKey);
+			if (schedulers == null) {
+				return null;
+			}
+			// copy, as other threads might add schedulers concurrently
+			schedulers = new ArrayList<Scheduler>(schedulers);
 		}
 
 		for (Scheduler scheduler : schedulers) {
@@ -528,7 +525,14 @@ final class ValueComputer extends PrismComponent
 			final boolean min, final ParamRewardStruct rew, final Scheduler scheduler)
 	{
 		ResultCacheKey resultKey = new ResultCacheKey(propType, b1, b2, rew, scheduler, min);
-		ResultCacheEntry resultCacheEntry = resultCache.get(resultKey);
+		ResultCacheEntry resultCacheEntry;
+		synchronized (resultCache) {
+			resultCacheEntry = resultCache.get(resultKey);
+		}
+		if (resultCacheEntry == null) {
+			// values of scheduler not yet stored (by another thread)
+			return false;
+		}
 		
 		Function compare[] = resultCacheEntry.getCompare();		
 		for (Function entry : compare) {
@@ -727,7 +731,9 @@ final class ValueComputer extends PrismComponent
 		}
 		
 		MutablePMC quot = lumper.getQuotient();
-		StateEliminator eliminator = new StateEliminator(quot, eliminationOrder);
+		// avoid nested parallelism when called from parallel region refinement
+		int eliminatorThreads = RegionRefiner.isWorkerThread() ? 1 : numThreads;
+		StateEliminator eliminator = new StateEliminator(quot, eliminationOrder, eliminatorThreads);
 		eliminator.eliminate();
 		int[] origToCopy = lumper.getOriginalToOptimised();
 		StateValues result = new StateValues(pmc.getNumStates(), initState);
@@ -0,0 +1,260 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Export of large amounts of text, one item (e.g. state) at a time.
+ * <br>
+ * Items are split into chunks, each of which is formatted into an in-memory buffer
+ * and then written to the output log with a single call, in order of item index,
+ * so the output is identical to formatting the items one by one.
+ * If more than one thread is used, chunks are formatted in parallel;
+ * in this case, the item formatter must be thread-safe.
+ * For a {@link PrismChannelLog}, chunks are also encoded to bytes in parallel,
+ * and the number of threads used by default is that of the log (see {@link PrismChannelLog#getNumThreads()}).
+ * Otherwise, chunks are formatted sequentially, unless a number of threads is given explicitly.
+ */
+public class ParallelExporter
+{
+	/** Number of items formatted per chunk */
+	public static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * Formatter for a single item, which is printed to a log.
+	 */
+	@FunctionalInterface
+	public interface ItemFormatter
+	{
+		public void format(int i, PrismLog out);
+	}
+
+	/**
+	 * Export items 0, ..., {@code numItems}-1 to {@code out}, using {@code formatter}.
+	 */
+	public static void export(PrismLog out, int numItems, ItemFormatter formatter)
+	{
+		export(out, numItems, true, formatter);
+	}
+
+	/**
+	 * Export items 0, ..., {@code numItems}-1 to {@code out}, using {@code formatter}.
+	 * If {@code threadSafe} is false (e.g. because the formatter reads from a model that
+	 * computes and caches its transitions on demand), chunks are formatted sequentially.
+	 */
+	public static void export(PrismLog out, int numItems, boolean threadSafe, ItemFormatter formatter)
+	{
+		int numThreads = (threadSafe && out instanceof PrismChannelLog) ? ((PrismChannelLog) out).getNumThreads() : 1;
+		export(out, numItems, numThreads, formatter);
+	}
+
+	/**
+	 * Export items 0, ..., {@code numItems}-1 to {@code out}, using {@code formatter},
+	 * formatting chunks with (up to) {@code numThreads} threads.
+	 */
+	public static void export(PrismLog out, int numItems, int numThreads, ItemFormatter formatter)
+	{
+		int numChunks = (numItems + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		boolean encode = out instanceof PrismChannelLog;
+		int threads = Math.max(numThreads, 1);
+		if (threads <= 1 || numChunks <= 1) {
+			StringBuilderLog buffer = new StringBuilderLog();
+			for (int c = 0; c < numChunks; c++) {
+				formatChunk(c, numItems, formatter, buffer);
+				write(out, buffer.toString(), encode);
+				buffer.clear();
+			}
+			return;
+		}
+		// Format chunks in parallel, keeping a bounded number in progress,
+		// and write them out in order
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			Queue<Future<Object>> pending = new ArrayDeque<>();
+			int next = 0;
+			while (next < numChunks || !pending.isEmpty()) {
+				while (next < numChunks && pending.size() < 2 * threads) {
+					final int c = next++;
+					pending.add(executor.submit(() -> {
+						StringBuilderLog buffer = new StringBuilderLog();
+						formatChunk(c, numItems, formatter, buffer);
+						String s = buffer.toString();
+						return encode ? s.getBytes(StandardCharsets.UTF_8) : s;
+					}));
+				}
+				Object chunk = pending.remove().get();
+				if (chunk instanceof byte[]) {
+					((PrismChannelLog) out).write((byte[]) chunk);
+				} else {
+					out.print((String) chunk);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Export was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Format the items of chunk {@code c} to {@code buffer}.
+	 */
+	private static void formatChunk(int c, int numItems, ItemFormatter formatter, PrismLog buffer)
+	{
+		for (int i = c * CHUNK_SIZE, end = Math.min(numItems, (c + 1) * CHUNK_SIZE); i < end; i++) {
+			formatter.format(i, buffer);
+		}
+	}
+
+	/**
+	 * Write a formatted chunk to {@code out}.
+	 */
+	private static void write(PrismLog out, String chunk, boolean encode)
+	{
+		if (encode) {
+			((PrismChannelLog) out).write(chunk.getBytes(StandardCharsets.UTF_8));
+		} else {
+			out.print(chunk);
+		}
+	}
+
+	/**
+	 * PrismLog that collects output in a StringBuilder.
+	 */
+	private static class StringBuilderLog extends PrismLog
+	{
+		private StringBuilder sb = new StringBuilder();
+
+		public void clear()
+		{
+			sb.setLength(0);
+		}
+
+		@Override
+		public String toString()
+		{
+			return sb.toString();
+		}
+
+		@Override
+		public boolean ready()
+		{
+			return true;
+		}
+
+		@Override
+		public long getFilePointer()
+		{
+			return -1;
+		}
+
+		@Override
+		public void flush()
+		{
+		}
+
+		@Override
+		public void close()
+		{
+		}
+
+		@Override
+		public void print(boolean b)
+		{
+			sb.append(b);
+		}
+
+		@Override
+		public void print(char c)
+		{
+			sb.append(c);
+		}
+
+		@Override
+		public void print(double d)
+		{
+			sb.append(d);
+		}
+
+		@Override
+		public void print(float f)
+		{
+			sb.append(f);
+		}
+
+		@Override
+		public void print(int i)
+		{
+			sb.append(i);
+		}
+
+		@Override
+		public void print(long l)
+		{
+			sb.append(l);
+		}
+
+		@Override
+		public void print(Object obj)
+		{
+			sb.append(obj);
+		}
+
+		@Override
+		public void print(String s)
+		{
+			sb.append(s);
+		}
+
+		@Override
+		public void println()
+		{
+			sb.append('\n');
+		}
+	}
+}
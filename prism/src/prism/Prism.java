@@ -31,11 +31,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 
 import dv.DoubleVector;
 import explicit.CTMC;
 import explicit.CTMCModelChecker;
+import explicit.BinaryModelFile;
 import explicit.ConstructModel;
 import explicit.DTMC;
 import explicit.DTMCModelChecker;
@@ -58,6 +61,7 @@ import parser.PrismParser;
 import parser.State;
 import parser.Values;
 import parser.ast.Expression;
+import parser.ast.ExpressionLabel;
 import parser.ast.ForLoop;
 import parser.ast.LabelList;
 import parser.ast.ModulesFile;
@@ -267,7 +271,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	//------------------------------------------------------------------------------
 
 	private enum ModelSource {
-		PRISM_MODEL, MODEL_GENERATOR, EXPLICIT_FILES, BUILT_MODEL
+		PRISM_MODEL, MODEL_GENERATOR, EXPLICIT_FILES, BINARY_FILE, BUILT_MODEL
 	}
 
 	// Info about currently loaded model, if any
@@ -290,6 +294,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	// Built model storage - symbolic or explicit - at most one is non-null
 	private Model currentModel = null;
 	private explicit.Model currentModelExpl = null;
+	// Cache of (explicit engine) computations for the currently loaded built model
+	private explicit.ModelCheckerCache modelCheckerCacheExpl = null;
+	// Results of batched reachability objectives (explicit engine), for the currently loaded built model
+	private explicit.ReachBatch reachBatchExpl = null;
+	// Properties file constants used for reachBatchExpl
+	private Values reachBatchConstants = null;
+	// Properties whose objectives can be batched (optional; null means all in the properties file)
+	private PropertiesFile batchPropertiesFile = null;
+	private List<Property> batchProperties = null;
 	// Are we doing digital clocks translation for PTAs?
 	boolean digital = false;
 
@@ -303,6 +316,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	private File explicitFilesStateRewardsFile = null;
 	private int explicitFilesNumStates = -1;
 
+	// Info for binary file load
+	private File binaryModelFile = null;
+
 	// Has the CUDD library been initialised yet?
 	private boolean cuddStarted = false;
 
@@ -633,6 +649,18 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		this.storeVector = storeVector;
 	}
 
+	/**
+	 * Specify the properties (of a properties file) that are going to be checked,
+	 * so that their reachability objectives can be solved together (see {@link PrismSettings#PRISM_BATCH_REACH}).
+	 * If not specified, all properties in the properties file passed to model checking are used.
+	 */
+	public void setBatchProperties(PropertiesFile propertiesFile, List<Property> props)
+	{
+		batchPropertiesFile = propertiesFile;
+		batchProperties = props;
+		reachBatchExpl = null;
+	}
+
 	/**
 	 * Specify whether or not a strategy should be generated during model checking.
 	 */
@@ -1858,6 +1886,38 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		currentDefinedMFConstants = null;
 	}
 
+	/**
+	 * Load a file containing a model in binary format (see {@link BinaryModelFile}) for subsequent model building.
+	 * This is only supported by the explicit engine, which is switched to if necessary.
+	 * @param file The binary model file
+	 */
+	public void loadModelFromBinaryFile(File file) throws PrismException
+	{
+		currentModelSource = ModelSource.BINARY_FILE;
+		// Clear any existing built model(s)
+		clearBuiltModel();
+		// Construct ModelInfo
+		currentModelInfo = BinaryModelFile.buildModelInfo(file);
+		currentModulesFile = null;
+		// Rewards are not stored in binary files
+		currentRewardGenerator = new RewardGenerator()
+		{
+		};
+		// Store file for later
+		binaryModelFile = file;
+		// Reset dependent info
+		currentModelType = currentModelInfo.getModelType();
+		currentDefinedMFConstants = null;
+		mainLog.println("\nType:        " + currentModelType);
+		// Switch engine, if required
+		if (!getExplicit()) {
+			mainLog.println("\nSwitching to explicit engine, which supports binary model files...");
+			engineOld = getEngine();
+			engineSwitched = true;
+			setEngine(Prism.EXPLICIT);
+		}
+	}
+
 	/**
 	 * Get the type of the currently stored model.
 	 * @return
@@ -1900,6 +1960,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 				throw new PrismException("There is no currently loaded model generator");
 			case BUILT_MODEL:
 			case EXPLICIT_FILES:
+			case BINARY_FILE:
 				buildModelIfRequired();
 				if (currentModelGenerator != null) {
 					return currentModelGenerator;
@@ -2056,6 +2117,14 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					currentRewardGenerator = efrg;
 				}
 				break;
+			case BINARY_FILE:
+				if (!getExplicit()) {
+					throw new PrismNotSupportedException("Binary model files can only be imported with the explicit engine");
+				}
+				currentModelExpl = BinaryModelFile.buildModel(binaryModelFile);
+				currentModel = null;
+				currentModelGenerator = new ModelModelGenerator(currentModelExpl, currentModelInfo);
+				break;
 			default:
 				throw new PrismException("Don't know how to build model from source " + currentModelSource);
 			}
@@ -2389,6 +2458,38 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 	}
 
+	/**
+	 * Export the currently loaded model to a file in binary format (see {@link BinaryModelFile}),
+	 * including its states and the labels from the model info.
+	 * This is only supported by the explicit engine.
+	 * @param file File to export to
+	 */
+	public void exportModelToBinaryFile(File file) throws PrismException
+	{
+		if (!getExplicit()) {
+			throw new PrismNotSupportedException("Binary model export is only supported by the explicit engine");
+		}
+
+		// Build model, if necessary
+		buildModelIfRequired();
+
+		// print message
+		mainLog.println("\nExporting model in binary format " + getDestinationStringForFile(file));
+
+		// Evaluate labels
+		List<String> labelNames = currentModelInfo == null ? new ArrayList<String>() : currentModelInfo.getLabelNames();
+		List<BitSet> labels = new ArrayList<BitSet>();
+		if (!labelNames.isEmpty()) {
+			explicit.StateModelChecker mcExpl = createModelCheckerExplicit(null);
+			for (String labelName : labelNames) {
+				labels.add(mcExpl.checkExpression(currentModelExpl, new ExpressionLabel(labelName), null).getBitSet());
+			}
+		}
+
+		// do export
+		BinaryModelFile.exportModel(currentModelExpl, currentModelInfo, labelNames, labels, file);
+	}
+
 	/**
 	 * Export the currently loaded model's state rewards to a file (or files, or stdout).
 	 * If there is more than 1 reward structure, then multiple files are generated
@@ -3036,6 +3137,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			} else {
 				explicit.StateModelChecker mc = createModelCheckerExplicit(propertiesFile);
 				mc.setComputeParetoSet(computePareto);
+				// Solve reachability objectives of all properties together, if requested
+				if (settings.getBoolean(PrismSettings.PRISM_BATCH_REACH) && currentModelType == ModelType.MDP && mc instanceof explicit.MDPModelChecker) {
+					((explicit.MDPModelChecker) mc).setReachBatch(getReachBatchExplicit((explicit.MDPModelChecker) mc, propertiesFile));
+				}
 				res = mc.check(currentModelExpl, e);
 			}
 			
@@ -3897,6 +4002,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			currentModel = null;
 		}
 		currentModelExpl = null;
+		modelCheckerCacheExpl = null;
+		reachBatchExpl = null;
 		clearStrategy();
 	}
 
@@ -3983,10 +4090,50 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mc.setGenStrat(genStrat);
 		mc.setRestrictStratToReach(restrictStratToReach);
 		mc.setDoBisim(doBisim);
+		// Reuse computations across model checking calls for the same built model, if requested
+		if (settings.getBoolean(PrismSettings.PRISM_MC_CACHE) && currentModelExpl != null) {
+			if (modelCheckerCacheExpl == null || !modelCheckerCacheExpl.appliesTo(currentModelExpl)) {
+				modelCheckerCacheExpl = new explicit.ModelCheckerCache(currentModelExpl);
+			}
+			mc.setModelCheckerCache(modelCheckerCacheExpl);
+		}
 
 		return mc;
 	}
 
+	/**
+	 * Get the results of batched reachability objectives for the properties to be checked
+	 * (see {@link #setBatchProperties(PropertiesFile, List)}) on the current (explicit) model,
+	 * solving them first if this has not already been done for the current model and property constants.
+	 * @param mc Model checker (for the current model and properties file)
+	 * @param propertiesFile Parent property file of the properties
+	 */
+	private explicit.ReachBatch getReachBatchExplicit(explicit.MDPModelChecker mc, PropertiesFile propertiesFile) throws PrismException
+	{
+		Values constantValues = propertiesFile.getConstantValues();
+		if (reachBatchExpl == null || !reachBatchExpl.appliesTo(currentModelExpl) || !Objects.equals(constantValues, reachBatchConstants)) {
+			List<Property> props = new ArrayList<>();
+			if (batchPropertiesFile == propertiesFile && batchProperties != null) {
+				props.addAll(batchProperties);
+			} else {
+				for (int i = 0; i < propertiesFile.getNumProperties(); i++) {
+					props.add(propertiesFile.getPropertyObject(i));
+				}
+			}
+			List<Expression> exprs = new ArrayList<>();
+			for (Property prop : props) {
+				try {
+					exprs.add((Expression) prop.getExpression().expandPropRefsAndLabels(propertiesFile, null));
+				} catch (PrismLangException e) {
+					// Skip properties that can't be expanded (these will fail when checked anyway)
+				}
+			}
+			reachBatchExpl = mc.computeReachBatch((explicit.MDP) currentModelExpl, exprs, reachBatchExpl);
+			reachBatchConstants = constantValues == null ? null : new Values(constantValues);
+		}
+		return reachBatchExpl;
+	}
+
 	/**
 	 * Either create a new PrismFileLog for {@code file} or,
 	 * if {@code file} is null, return {@code mainLog}.
@@ -4008,7 +4155,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		// create new file log or use main log
 		PrismLog tmpLog;
 		if (file != null) {
-			tmpLog = PrismFileLog.create(file.getPath(), append);
+			tmpLog = PrismChannelLog.create(file.getPath(), append, settings.getInteger(PrismSettings.PRISM_NUM_THREADS), settings.getBoolean(PrismSettings.PRISM_EXPORT_GZIP));
 		} else {
 			tmpLog = mainLog;
 		}
@@ -72,6 +72,7 @@ public class PrismCL implements PrismModelListener
 	private boolean importpepa = false;
 	private boolean importprismpp = false;
 	private boolean importtrans = false;
+	private boolean importbinary = false;
 	private boolean importstates = false;
 	private boolean importlabels = false;
 	private boolean importstaterewards = false;
@@ -85,6 +86,7 @@ public class PrismCL implements PrismModelListener
 	private boolean exporttransrewards = false;
 	private boolean exportstates = false;
 	private boolean exportlabels = false;
+	private boolean exportbinary = false;
 	private boolean exportspy = false;
 	private boolean exportdot = false;
 	private boolean exporttransdot = false;
@@ -144,6 +146,7 @@ public class PrismCL implements PrismModelListener
 	private String exportTransRewardsFilename = null;
 	private String exportStatesFilename = null;
 	private String exportLabelsFilename = null;
+	private String exportBinaryFilename = null;
 	private String exportSpyFilename = null;
 	private String exportDotFilename = null;
 	private String exportTransDotFilename = null;
@@ -281,6 +284,7 @@ public class PrismCL implements PrismModelListener
 
 		// Sort out properties to check
 		sortProperties();
+		prism.setBatchProperties(propertiesFile, propertiesToCheck);
 
 		if (param && numPropertiesToCheck == 0) {
 			errorAndExit("Parametric model checking requires at least one property to check");
@@ -667,6 +671,9 @@ public class PrismCL implements PrismModelListener
 				}
 				mainLog.println("...");
 				prism.loadModelFromExplicitFiles(sf, new File(modelFilename), lf, srf, typeOverride);
+			} else if (importbinary) {
+				mainLog.println("\nImporting binary model file \"" + modelFilename + "\"...");
+				prism.loadModelFromBinaryFile(new File(modelFilename));
 			} else {
 				mainLog.print("\nParsing model file \"" + modelFilename + "\"...\n");
 				modulesFile = prism.parseModelFile(new File(modelFilename), typeOverride);
@@ -766,6 +773,7 @@ public class PrismCL implements PrismModelListener
 			    exporttransdotstates ||
 			    exportmodeldotview ||
 			    exportlabels ||
+			    exportbinary ||
 			    exportsccs ||
 			    exportbsccs ||
 			    exportmecs) {
@@ -922,6 +930,17 @@ public class PrismCL implements PrismModelListener
 			}
 		}
 
+		// export model in binary format
+		if (exportbinary) {
+			try {
+				prism.exportModelToBinaryFile(new File(exportBinaryFilename));
+			}
+			// in case of error, report it and proceed
+			catch (PrismException e) {
+				error(e);
+			}
+		}
+
 		// export SCCs to a file
 		if (exportsccs) {
 			try {
@@ -1492,7 +1511,7 @@ public class PrismCL implements PrismModelListener
 						errorAndExit("No file/options specified for -" + sw + " switch");
 					}
 				}
-				// process -exportmodelprecision in PrismSettings
+				// process -exportmodelprecision, -exportgzip in PrismSettings
 				// export transition matrix to file
 				else if (sw.equals("exporttrans")) {
 					if (i < args.length - 1) {
@@ -1967,7 +1986,7 @@ public class PrismCL implements PrismModelListener
 		if (filenameArgs.size() > 2) {
 			errorAndExit("Invalid argument syntax");
 		}
-		if (importtrans) {
+		if (importtrans || importbinary) {
 			if (filenameArgs.size() > 1) {
 				errorAndExit("Two models provided (" + filenameArgs.get(0) + ", " + modelFilename + ")");
 			} else if (filenameArgs.size() == 1) {
@@ -1976,7 +1995,7 @@ public class PrismCL implements PrismModelListener
 		} else {
 			if (filenameArgs.size() > 0) {
 				modelFilename = filenameArgs.get(0);
-				if (modelFilename.endsWith(".all")) {
+				if (modelFilename.endsWith(".all") || modelFilename.endsWith(".bin")) {
 					processImportModelSwitch(modelFilename);
 				}
 			}
@@ -2035,12 +2054,22 @@ public class PrismCL implements PrismModelListener
 			} else if (ext.equals("srew")) {
 				importstaterewards = true;
 				importStateRewardsFilename = basename + ".srew";
+			} else if (ext.equals("bin")) {
+				importbinary = true;
+				modelFilename = basename + ".bin";
 			}
 			// Unknown extension
 			else {
 				throw new PrismException("Unknown extension \"" + ext + "\" for -importmodel switch");
 			}
 		}
+		// A binary file contains the whole model
+		if (importbinary) {
+			if (exts.length > 1) {
+				throw new PrismException("Binary model files cannot be imported together with other files when using -importmodel");
+			}
+			return;
+		}
 		// Check at least the transition matrix was imported
 		if (!importtrans) {
 			throw new PrismException("You must import the transition matrix when using -importmodel (use option \"tra\" or \"all\")");
@@ -2123,6 +2152,12 @@ public class PrismCL implements PrismModelListener
 			} else if (ext.equals("dot")) {
 				exporttransdotstates = true;
 				exportTransDotStatesFilename = basename.equals("stdout") ? "stdout" : basename + ".dot";
+			} else if (ext.equals("bin")) {
+				if (basename.equals("stdout")) {
+					throw new PrismException("Binary model files cannot be exported to stdout");
+				}
+				exportbinary = true;
+				exportBinaryFilename = basename + ".bin";
 			}
 			// Unknown extension
 			else {
@@ -2376,6 +2411,8 @@ public class PrismCL implements PrismModelListener
 				exportLabelsFilename = exportLabelsFilename.replaceFirst("modelFileBasename", modelFileBasename);
 			if (exporttransdotstates)
 				exportTransDotStatesFilename = exportTransDotStatesFilename.replaceFirst("modelFileBasename", modelFileBasename);
+			if (exportbinary)
+				exportBinaryFilename = exportBinaryFilename.replaceFirst("modelFileBasename", modelFileBasename);
 		}
 	}
 
@@ -2535,7 +2572,7 @@ public class PrismCL implements PrismModelListener
 		mainLog.println();
 		mainLog.println("IMPORT OPTIONS:");
 		mainLog.println("-importpepa .................... Model description is in PEPA, not the PRISM language");
-		mainLog.println("-importmodel <files> ........... Import the model directly from text file(s)");
+		mainLog.println("-importmodel <files> ........... Import the model directly from text file(s) or a binary file");
 		mainLog.println("-importtrans <file> ............ Import the transition matrix directly from a text file");
 		mainLog.println("-importstates <file>............ Import the list of states directly from a text file");
 		mainLog.println("-importlabels <file>............ Import the list of labels directly from a text file");
@@ -2551,6 +2588,7 @@ public class PrismCL implements PrismModelListener
 		mainLog.println("-exportvector <file>  .......... Export results of model checking for all states to a file");
 		mainLog.println("-exportmodel <files[:options]> . Export the built model to file(s)");
 		mainLog.println("-exportmodelprecision <n>....... Export probabilities/rewards with n significant decimal places");
+		mainLog.println("-exportgzip .................... Compress exported files with gzip");
 		mainLog.println("-exporttrans <file> ............ Export the transition matrix to a file");
 		mainLog.println("-exportstaterewards <file> ..... Export the state rewards vector to a file");
 		mainLog.println("-exporttransrewards <file> ..... Export the transition rewards matrix to a file");
@@ -2587,6 +2625,7 @@ public class PrismCL implements PrismModelListener
 		mainLog.println("-simvar <n> .................... Set the minimum number of samples to know the variance is null or not");
 		mainLog.println("-simmaxrwd <x> ................. Set the maximum reward -- useful to display the CI/ACI methods progress");
 		mainLog.println("-simpathlen <n> ................ Set the maximum path length for the simulator");
+		mainLog.println("-simseed <n> ................... Set the random seed for the simulator (for reproducible results)");
 
 		mainLog.println();
 		mainLog.println("You can also use \"prism -help xxx\" for help on some switches -xxx with non-obvious syntax.");
@@ -2630,6 +2669,8 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("Possible extensions are: .tra, .sta, .lab, .srew");
 			mainLog.println("Use extension .all to import all, e.g.:");
 			mainLog.println("\n -importmodel in.all\n");
+			mainLog.println("Use extension .bin to import a model exported in binary format (explicit engine only), e.g.:");
+			mainLog.println("\n -importmodel in.bin\n");
 		}
 		// -importresults
 		else if (sw.equals("importresults")) {
@@ -2653,9 +2694,11 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("Export the built model to file(s) (or to the screen if <file>=\"stdout\").");
 			mainLog.println("Use a list of file extensions to indicate which files should be generated, e.g.:");
 			mainLog.println("\n -exportmodel out.tra,sta\n");
-			mainLog.println("Possible extensions are: .tra, .srew, .trew, .sta, .lab, .dot");
-			mainLog.println("Use extension .all to export all (except .dot) and .rew to export both .srew/.trew, e.g.:");
+			mainLog.println("Possible extensions are: .tra, .srew, .trew, .sta, .lab, .dot, .bin");
+			mainLog.println("Use extension .all to export all (except .dot/.bin) and .rew to export both .srew/.trew, e.g.:");
 			mainLog.println("\n -exportmodel out.all\n");
+			mainLog.println("Use extension .bin to export transitions, states and labels to a single binary file");
+			mainLog.println("(explicit engine only; rewards are not included), which can be imported with -importmodel.");
 			mainLog.println("Omit the file basename to use the basename of the model file, e.g.:");
 			mainLog.println("\n -exportmodel .all\n");
 			mainLog.println("If provided, <options> is a comma-separated list of options taken from:");
@@ -0,0 +1,322 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PrismLog object that writes all output to a file, via a buffered NIO {@link FileChannel}
+ * (rather than native code, like {@link PrismFileLog}), encoded as UTF-8.
+ * <br>
+ * Whole blocks of (already encoded) output can be written with {@link #write(byte[])},
+ * which is used by {@link ParallelExporter}, formatting output using
+ * up to {@link #getNumThreads()} threads.
+ * Optionally, output can be gzip-compressed (this has to be requested explicitly).
+ */
+public class PrismChannelLog extends PrismLog
+{
+	/** Size of the output buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Filename */
+	protected String filename;
+	/** Channel to the file */
+	protected FileChannel channel;
+	/** Number of threads that may be used to format output for this log */
+	protected int numThreads = 1;
+	/** Output buffer */
+	protected ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	/** Compressed stream to the file (null if not compressing) */
+	protected OutputStream gzipStream = null;
+
+	/**
+	 * Create a PRISM log which will write to {@code filename}, appending to an existing file if requested.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 */
+	public PrismChannelLog(String filename, boolean append) throws IOException
+	{
+		this(filename, append, 1);
+	}
+
+	/**
+	 * Create a PRISM log which will write to {@code filename}, appending to an existing file if requested.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 * @param numThreads Number of threads that may be used to format output (see {@link ParallelExporter})
+	 */
+	public PrismChannelLog(String filename, boolean append, int numThreads) throws IOException
+	{
+		this(filename, append, numThreads, false);
+	}
+
+	/**
+	 * Create a PRISM log which will write to {@code filename}, appending to an existing file if requested.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 * @param numThreads Number of threads that may be used to format output (see {@link ParallelExporter})
+	 * @param gzip Compress output with gzip? (when appending, a new gzip member is added to the file)
+	 */
+	public PrismChannelLog(String filename, boolean append, int numThreads, boolean gzip) throws IOException
+	{
+		this.filename = filename;
+		this.numThreads = Math.max(numThreads, 1);
+		if (append) {
+			channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		} else {
+			channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		if (gzip) {
+			gzipStream = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+		}
+	}
+
+	/**
+	 * Create a PRISM log for writing to {@code filename}, appending to an existing file if requested.
+	 * If {@code filename} is "stdout", a {@link PrismFileLog} for standard output is returned instead.
+	 * Throw a PRISM exception if there is a problem opening the file for writing.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 */
+	public static PrismLog create(String filename, boolean append) throws PrismException
+	{
+		return create(filename, append, 1);
+	}
+
+	/**
+	 * Create a PRISM log for writing to {@code filename}, appending to an existing file if requested.
+	 * If {@code filename} is "stdout", a {@link PrismFileLog} for standard output is returned instead.
+	 * Throw a PRISM exception if there is a problem opening the file for writing.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 * @param numThreads Number of threads that may be used to format output (see {@link ParallelExporter})
+	 */
+	public static PrismLog create(String filename, boolean append, int numThreads) throws PrismException
+	{
+		return create(filename, append, numThreads, false);
+	}
+
+	/**
+	 * Create a PRISM log for writing to {@code filename}, appending to an existing file if requested.
+	 * If {@code filename} is "stdout", a {@link PrismFileLog} for standard output is returned instead
+	 * (which is never compressed).
+	 * Throw a PRISM exception if there is a problem opening the file for writing.
+	 * @param filename Filename of log file
+	 * @param append Append to the existing file?
+	 * @param numThreads Number of threads that may be used to format output (see {@link ParallelExporter})
+	 * @param gzip Compress output with gzip?
+	 */
+	public static PrismLog create(String filename, boolean append, int numThreads, boolean gzip) throws PrismException
+	{
+		if ("stdout".equals(filename)) {
+			return PrismFileLog.create(filename, append);
+		}
+		try {
+			return new PrismChannelLog(filename, append, numThreads, gzip);
+		} catch (IOException e) {
+			throw new PrismException("Could not open file \"" + filename + "\" for output");
+		}
+	}
+
+	/**
+	 * Get the filename.
+	 */
+	public String getFileName()
+	{
+		return filename;
+	}
+
+	/**
+	 * Is output compressed with gzip?
+	 */
+	public boolean isGzip()
+	{
+		return gzipStream != null;
+	}
+
+	/**
+	 * Get the number of threads that may be used to format output for this log.
+	 */
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
+	/**
+	 * Write a block of bytes (which should be UTF-8 encoded text) to the file.
+	 */
+	public void write(byte bytes[])
+	{
+		if (channel == null) {
+			throw new IllegalStateException("Trying to write to a closed file");
+		}
+		if (bytes.length > buffer.remaining()) {
+			flushBuffer();
+			if (bytes.length > buffer.capacity()) {
+				writeOut(ByteBuffer.wrap(bytes));
+				return;
+			}
+		}
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Write out the contents of the buffer.
+	 */
+	private void flushBuffer()
+	{
+		buffer.flip();
+		writeOut(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Write out some bytes to the channel (compressing them first, if required).
+	 */
+	private void writeOut(ByteBuffer bytes)
+	{
+		if (channel == null) {
+			throw new IllegalStateException("Trying to write to a closed file");
+		}
+		try {
+			if (gzipStream != null) {
+				gzipStream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+				bytes.position(bytes.limit());
+			}
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write to file \"" + filename + "\"", e);
+		}
+	}
+
+	// Methods for PrismLog
+
+	@Override
+	public boolean ready()
+	{
+		return channel != null;
+	}
+
+	@Override
+	public long getFilePointer()
+	{
+		// This implementation is Java only so does not return a file pointer.
+		return -1;
+	}
+
+	@Override
+	public void flush()
+	{
+		flushBuffer();
+	}
+
+	@Override
+	public void close()
+	{
+		if (channel == null) {
+			// already closed, ignore (as specified by Closable contract)
+			return;
+		}
+		try {
+			flushBuffer();
+			if (gzipStream != null) {
+				// also closes the channel
+				gzipStream.close();
+			}
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write to file \"" + filename + "\"", e);
+		} finally {
+			channel = null;
+		}
+	}
+
+	@Override
+	public void print(boolean b)
+	{
+		print("" + b);
+	}
+
+	@Override
+	public void print(char c)
+	{
+		print("" + c);
+	}
+
+	@Override
+	public void print(double d)
+	{
+		print("" + d);
+	}
+
+	@Override
+	public void print(float f)
+	{
+		print("" + f);
+	}
+
+	@Override
+	public void print(int i)
+	{
+		print("" + i);
+	}
+
+	@Override
+	public void print(long l)
+	{
+		print("" + l);
+	}
+
+	@Override
+	public void print(Object obj)
+	{
+		print("" + obj);
+	}
+
+	@Override
+	public void print(String s)
+	{
+		write(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void println()
+	{
+		print("\n");
+	}
+}
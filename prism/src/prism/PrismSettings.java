@@ -34,6 +34,7 @@ import java.awt.*;
 
 import javax.swing.*;
 
+import automata.LTL2DACache;
 import common.iterable.Range;
 import explicit.QuantAbstractRefine;
 
@@ -86,12 +87,15 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_PRE_REL					= "prism.preRel";
 	public static final	String PRISM_FIX_DEADLOCKS					= "prism.fixDeadlocks";
 	public static final	String PRISM_DO_PROB_CHECKS					= "prism.doProbChecks";
+	public static final	String PRISM_COMPILE_EXPRESSIONS			= "prism.compileExpressions";
 	public static final	String PRISM_SUM_ROUND_OFF					= "prism.sumRoundOff";
 	public static final	String PRISM_COMPACT						= "prism.compact";
 	public static final	String PRISM_LIN_EQ_METHOD					= "prism.linEqMethod";//"prism.iterativeMethod";
 	public static final	String PRISM_LIN_EQ_METHOD_PARAM			= "prism.linEqMethodParam";//"prism.overRelaxation";
 	public static final String PRISM_TOPOLOGICAL_VI					= "prism.topologicalVI";
 	public static final	String PRISM_PMAX_QUOTIENT					= "prism.pmaxQuotient";
+	public static final	String PRISM_MC_CACHE						= "prism.mcCache";
+	public static final	String PRISM_BATCH_REACH					= "prism.batchReach";
 	public static final	String PRISM_INTERVAL_ITER					= "prism.intervalIter";
 	public static final	String PRISM_INTERVAL_ITER_OPTIONS			= "prism.intervalIterOptions";
 	public static final	String PRISM_MDP_SOLN_METHOD				= "prism.mdpSolnMethod";
@@ -99,9 +103,14 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_TERM_CRIT						= "prism.termCrit";//"prism.termination";
 	public static final	String PRISM_TERM_CRIT_PARAM				= "prism.termCritParam";//"prism.terminationEpsilon";
 	public static final	String PRISM_MAX_ITERS						= "prism.maxIters";//"prism.maxIterations";
+	public static final	String PRISM_NUM_THREADS					= "prism.numThreads";
 	public static final String PRISM_EXPORT_ITERATIONS				= "prism.exportIterations";
 	public static final	String PRISM_GRID_RESOLUTION				= "prism.gridResolution";
+	public static final	String PRISM_POMDP_METHOD					= "prism.pomdpMethod";
+	public static final	String PRISM_POMDP_EXPLORE_EPSILON			= "prism.pomdpExploreEpsilon";
+	public static final	String PRISM_POMDP_EXPLORE_MAX_BELIEFS		= "prism.pomdpExploreMaxBeliefs";
 	public static final String PRISM_EXPORT_MODEL_PRECISION         = "prism.exportmodelprecision";
+	public static final	String PRISM_EXPORT_GZIP					= "prism.exportGzip";
 
 	public static final	String PRISM_CUDD_MAX_MEM					= "prism.cuddMaxMem";
 	public static final	String PRISM_CUDD_EPSILON					= "prism.cuddEpsilon";
@@ -132,6 +141,8 @@ public class PrismSettings implements Observer
 
 	// csg and equilibria
 	public static final String PRISM_ZS_LP_SCALE_FACTOR			= "prism.lpscalefactor";
+	public static final String PRISM_ZS_LP_CACHE					= "prism.lpcache";
+	public static final String PRISM_ZS_LP_CACHE_EPSILON			= "prism.lpcacheepsilon";
 
     // multi-objective synthesis for games
 	public static final     String PRISM_MULTI_GAUSS_SEIDEL					= "prism.multiGaussSeidel";
@@ -146,6 +157,8 @@ public class PrismSettings implements Observer
 	public static final     String PRISM_MULTI_ROUNDING					= "prism.multiRounding";
         public static final	String PRISM_MULTI_BASELINE_ACCURACY 		= "prism.baselineAccuracy";
         public static final	String PRISM_MULTI_INCREASE_FACTOR		= "prism.increaseFactor";
+        public static final	String PRISM_MULTI_MAX_GENERATORS		= "prism.multiMaxGenerators";
+        public static final	String PRISM_MULTI_PARALLEL			= "prism.multiParallel";
         // logging
         public static final	String LOG_MULTI_C_PARETO			= "log.multiCPareto";
         public static final	String LOG_MULTI_D_PARETO			= "log.multiDPareto";
@@ -155,6 +168,8 @@ public class PrismSettings implements Observer
 	
 	public static final String PRISM_LTL2DA_TOOL					= "prism.ltl2daTool";
 	public static final String PRISM_LTL2DA_SYNTAX					= "prism.ltl2daSyntax";
+	public static final String PRISM_LTL2DA_CACHE					= "prism.ltl2daCache";
+	public static final String PRISM_LTL2DA_CACHE_DIR				= "prism.ltl2daCacheDir";
 
 	public static final	String PRISM_JDD_SANITY_CHECKS					= "prism.ddsanity";
 
@@ -183,6 +198,7 @@ public class PrismSettings implements Observer
 	public static final String SIMULATOR_DECIDE 					= "simulator.decide";
 	public static final String SIMULATOR_ITERATIONS_TO_DECIDE		= "simulator.iterationsToDecide";
 	public static final String SIMULATOR_MAX_REWARD					= "simulator.maxReward";
+	public static final String SIMULATOR_SEED						= "simulator.seed";
 	public static final	String SIMULATOR_SIMULTANEOUS				= "simulator.simultaneous";
 	public static final String SIMULATOR_FIELD_CHOICE				= "simulator.fieldChoice";
 	public static final	String SIMULATOR_NEW_PATH_ASK_VIEW			= "simulator.newPathAskView";
@@ -285,6 +301,10 @@ public class PrismSettings implements Observer
 																			"Use topological value iteration in iterative numerical methods."},
 			{ BOOLEAN_TYPE,		PRISM_PMAX_QUOTIENT,				"For Pmax computations, compute in the MEC quotient",				"4.3.1",		false,																		"",
 																				"For Pmax computations, compute in the MEC quotient."},
+			{ BOOLEAN_TYPE,		PRISM_MC_CACHE,						"Reuse computations across properties",				"4.7",		false,																		"",
+																				"Reuse precomputation results (e.g. Prob0/Prob1), end components and solution vectors (to warm-start value iteration) when checking several properties, or constant values, on the same built model (explicit engine). A bounded number of entries of each kind is kept. Warm-started iterative methods can give results that differ slightly (within the convergence criterion)."},
+			{ BOOLEAN_TYPE,		PRISM_BATCH_REACH,					"Solve reachability objectives together",				"4.7",		false,																		"",
+																				"Solve the (unbounded) reachability probability/reward objectives of all properties being checked on an MDP together, by a single fused value iteration, rather than one by one (explicit engine)."},
 			{ BOOLEAN_TYPE,		PRISM_INTERVAL_ITER,				"Use interval iteration",				"4.3.1",		false,																		"",
 																				"Use interval iteration (from above and below) in iterative numerical methods."},
 			{ STRING_TYPE,		PRISM_INTERVAL_ITER_OPTIONS,				"Interval iteration options",				"4.3.1",		"",																		"",
@@ -299,12 +319,22 @@ public class PrismSettings implements Observer
 																			"Epsilon value to use for checking termination of iterative numerical methods." },
 			{ INTEGER_TYPE,		PRISM_MAX_ITERS,						"Termination max. iterations",			"2.1",			Integer.valueOf(10000),															"0,",																						
 																			"Maximum number of iterations to perform if iterative methods do not converge." },
+			{ INTEGER_TYPE,		PRISM_NUM_THREADS,						"Number of threads",					"4.7",			Integer.valueOf(1),																"1,",																						
+																			"Number of threads to use, where parallel computation is supported (currently: explicit model construction, value iteration for zero-sum CSGs, support enumeration for CSG equilibria, Pareto sets for multi-objective SMGs (if prism.multiParallel is set), sampling for statistical model checking, belief space approximation for POMDPs, state elimination and region refinement for parametric model checking)." },
 			{ BOOLEAN_TYPE,		PRISM_EXPORT_ITERATIONS,				"Export iterations (debug/visualisation)",			"4.3.1",			false,														"",
 																			"Export solution vectors for iteration algorithms to iterations.html"},
 			{ INTEGER_TYPE,		PRISM_GRID_RESOLUTION,					"Fixed grid resolution",			    "4.5",			Integer.valueOf(10),															"1,",																						
 																			"The resolution for the fixed grid approximation algorithm for POMDPs." },
+			{ CHOICE_TYPE,		PRISM_POMDP_METHOD,						"POMDP solution method",				"4.7",			"Fixed grid",																"Fixed grid,Belief exploration",
+																			"Which method to use when solving POMDPs: a fixed-resolution grid approximation of the belief space or on-the-fly exploration of beliefs reachable from the initial state." },
+			{ DOUBLE_TYPE,		PRISM_POMDP_EXPLORE_EPSILON,			"POMDP belief exploration epsilon",			"4.7",			Double.valueOf(1.0E-2),															"0.0,",
+																			"Belief exploration for POMDPs stops once the (absolute) gap between the upper and lower bounds for the initial state is at most this value." },
+			{ INTEGER_TYPE,		PRISM_POMDP_EXPLORE_MAX_BELIEFS,		"POMDP belief exploration max. beliefs",			"4.7",			Integer.valueOf(100000),															"1,",
+																			"Maximum number of beliefs to expand during belief exploration for POMDPs." },
 			{ INTEGER_TYPE,		PRISM_EXPORT_MODEL_PRECISION,			"Precision of model export",			"4.7dev",			17,																		RANGE_EXPORT_DOUBLE_PRECISION.min() + "-" + RANGE_EXPORT_DOUBLE_PRECISION.max(),
 																			"Export probabilities/rewards with n significant decimal places"},
+			{ BOOLEAN_TYPE,		PRISM_EXPORT_GZIP,						"Compress exports with gzip",			"4.7",			false,																		"",
+																			"Compress files exported by PRISM (e.g. models, states, vectors) with gzip (explicit engine)." },
 			// MODEL CHECKING OPTIONS:
 			{ BOOLEAN_TYPE,		PRISM_PRECOMPUTATION,					"Use precomputation",					"2.1",			Boolean.valueOf(true),															"",																							
 																			"Whether to use model checking precomputation algorithms (Prob0, Prob1, etc.), where optional." },
@@ -320,6 +350,8 @@ public class PrismSettings implements Observer
 																			"Automatically fix deadlocks, where necessary, when constructing probabilistic models." },
 			{ BOOLEAN_TYPE,		PRISM_DO_PROB_CHECKS,					"Do probability/rate checks",			"2.1",			Boolean.valueOf(true),															"",																							
 																			"Perform sanity checks on model probabilities/rates when constructing probabilistic models." },
+			{ BOOLEAN_TYPE,		PRISM_COMPILE_EXPRESSIONS,				"Compile model expressions",			"4.7",			Boolean.valueOf(false),															"",
+																			"Compile guards, probabilities/rates and rewards to evaluate directly on (unboxed) state vectors when exploring models explicitly (e.g. explicit model construction, simulation), rather than interpreting their syntax trees." },
 			{ DOUBLE_TYPE,		PRISM_SUM_ROUND_OFF,					"Probability sum threshold",					"2.1",			Double.valueOf(1.0E-5),													"0.0,",
 																			"Round-off threshold for places where doubles are summed and compared to integers (e.g. checking that probabilities sum to 1 in an update)." },							
 			{ BOOLEAN_TYPE,		PRISM_DO_SS_DETECTION,					"Use steady-state detection",			"2.1",			Boolean.valueOf(true),															"0,",																						
@@ -363,9 +395,17 @@ public class PrismSettings implements Observer
 																			"Value iteration starts computing points rounded to the maximum reward in each dimension divided by the baseline accuracy, and this accuracy is increased by the increase factor after every iteration." },
 			{ DOUBLE_TYPE,		PRISM_MULTI_INCREASE_FACTOR,					"Increase factor for conjunctive query value iteration",			"4.0.3",			Double.valueOf(1.01),															"0,",																						
 																			"Accuracy of conjunctive query value iteration is increased by the increase factor after every iteration." },
+			{ INTEGER_TYPE,		PRISM_MULTI_MAX_GENERATORS,					"Max. point generators per Pareto set",			"4.7",			Integer.valueOf(0),															"0,",																						
+																			"Maximum number of point generators kept per state in conjunctive query value iteration (0 means no limit). Larger sets are under-approximated, and a bound on the resulting (Hausdorff) error is reported." },
+			{ BOOLEAN_TYPE,		PRISM_MULTI_PARALLEL,					"Parallel Pareto set computation",			"4.7",			Boolean.valueOf(false),															"",																							
+																			"Whether to compute Pareto sets for multi-objective SMGs in parallel (using the number of threads set by prism.numThreads). This is experimental and off by default, since it requires a build of the PPL library that supports concurrent use of distinct objects." },
 			// CSG ZERO-SUM LP SCALE FACTOR
 			{ DOUBLE_TYPE,		PRISM_ZS_LP_SCALE_FACTOR, 					"Scale factor for LPs",			"4.5", 				Double.valueOf(1.0), 			"1,",
 																			"Scale factor used when building linear programs for solving matrix games"},
+			{ BOOLEAN_TYPE,		PRISM_ZS_LP_CACHE, 						"Cache matrix games",			"4.7", 				Boolean.valueOf(false), 			"",
+																			"Cache the matrix game and linear program for each state during value iteration for zero-sum CSGs, updating and warm-starting them between iterations (this keeps one linear program per state in memory)."},
+			{ DOUBLE_TYPE,		PRISM_ZS_LP_CACHE_EPSILON, 				"Matrix game cache threshold",			"4.7", 				Double.valueOf(0.0), 			"0,",
+																			"When caching matrix games, a state's value is reused, rather than recomputed, if none of its successors' values have changed by more than this."},
 
 			// OUTPUT OPTIONS:
 			{ BOOLEAN_TYPE,		PRISM_VERBOSE,							"Verbose output",						"2.1",		Boolean.valueOf(false),															"",																							
@@ -407,6 +447,12 @@ public class PrismSettings implements Observer
 			{ CHOICE_TYPE,		PRISM_LTL2DA_SYNTAX,					"LTL syntax for external LTL->DA tool",		"4.2.1",			"LBT",		"LBT,Spin,Spot,Rabinizer",
 																			"The syntax for LTL formulas passed to the external LTL->DA tool."},
 
+			{ BOOLEAN_TYPE,		PRISM_LTL2DA_CACHE,						"Cache LTL->DA translations",		"4.7",			Boolean.valueOf(true),		"",
+																			"Keep deterministic automata translated from LTL formulas in memory, and reuse them for formulas that are identical up to renaming of atomic propositions."},
+
+			{ STRING_TYPE,		PRISM_LTL2DA_CACHE_DIR,					"LTL->DA cache directory",		"4.7",			"",		null,
+																			"If non-empty, a directory in which deterministic automata translated from LTL formulas are stored (in HOA format) and reused across runs."},
+
 			// DEBUG / SANITY CHECK OPTIONS:
 			{ BOOLEAN_TYPE,		PRISM_JDD_SANITY_CHECKS,					"Do BDD sanity checks",			"4.3.1",			Boolean.valueOf(false),		"",
 																			"Perform internal sanity checks during computations (can cause significant slow-down)." },
@@ -460,6 +506,8 @@ public class PrismSettings implements Observer
 																			"Number of iterations to decide whether the standard error is null or not." },
 			{ DOUBLE_TYPE,		SIMULATOR_MAX_REWARD,					"Maximum reward",						"4.0",		Double.valueOf(1000.0),			"1,",
 																			"Maximum reward for CI/ACI methods. It helps these methods in displaying the progress in case of rewards computation." },
+			{ INTEGER_TYPE,		SIMULATOR_SEED,							"Random seed",							"4.7",		Integer.valueOf(0),				"0,",
+																			"Seed for the random number generator used for approximate (simulation-based) model checking (0 means seed from the current time). For a fixed seed (and number of threads), results are reproducible." },
 			{ BOOLEAN_TYPE,		SIMULATOR_SIMULTANEOUS,					"Check properties simultaneously",		"2.1",		Boolean.valueOf(true),			"",
 																			"Check multiple properties simultaneously over the same set of execution paths (simulator only)." },
 			{ CHOICE_TYPE,		SIMULATOR_FIELD_CHOICE,					"Values used in dialog",				"2.1",		"Last used values",			"Last used values,Always use defaults",
@@ -992,6 +1040,21 @@ public class PrismSettings implements Observer
 		notifySettingsListeners();
 	}
 
+	// In-memory LTL->DA cache (one per PRISM instance, since each has its own settings)
+	private LTL2DACache ltl2daCache = null;
+
+	/**
+	 * Get the in-memory cache of deterministic automata translated from LTL formulas
+	 * (used if {@link #PRISM_LTL2DA_CACHE} is enabled), creating it if needed.
+	 */
+	public synchronized LTL2DACache getLTL2DACache()
+	{
+		if (ltl2daCache == null) {
+			ltl2daCache = new LTL2DACache();
+		}
+		return ltl2daCache;
+	}
+
 	// HIDDEN OPTIONS
 	
 	// Export property automaton info?
@@ -1168,6 +1231,26 @@ public class PrismSettings implements Observer
 			set(PRISM_MDP_SOLN_METHOD, "Linear programming");
 			set(PRISM_MDP_MULTI_SOLN_METHOD, "Linear programming");
 		}
+		else if (sw.equals("lpcache")) {
+			set(PRISM_ZS_LP_CACHE, true);
+		}
+		else if (sw.equals("nolpcache")) {
+			set(PRISM_ZS_LP_CACHE, false);
+		}
+		else if (sw.equals("lpcacheepsilon")) {
+			if (i < args.length - 1) {
+				try {
+					d = Double.parseDouble(args[++i]);
+					if (d < 0)
+						throw new NumberFormatException("");
+					set(PRISM_ZS_LP_CACHE_EPSILON, d);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		else if (sw.equals("lpscalefactor")) {// Scale factor for LPs (zero-sum)
 			if (i < args.length - 1) {
 				try {
@@ -1211,6 +1294,18 @@ public class PrismSettings implements Observer
 			set(PRISM_PMAX_QUOTIENT, true);
 		}
 
+		// Reuse of computations across properties
+		else if (sw.equals("mccache")) {
+			set(PRISM_MC_CACHE, true);
+		}
+		else if (sw.equals("nomccache")) {
+			set(PRISM_MC_CACHE, false);
+		}
+		// Batched reachability objectives
+		else if (sw.equals("batchreach")) {
+			set(PRISM_BATCH_REACH, true);
+		}
+
 		// Topological VI
 		else if (sw.equals("topological")) {
 			set(PRISM_TOPOLOGICAL_VI, true);
@@ -1266,6 +1361,36 @@ public class PrismSettings implements Observer
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
 		}
+		// Number of threads
+		else if (sw.equals("threads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_NUM_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// simulator random seed
+		else if (sw.equals("simseed")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(SIMULATOR_SEED, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// export iterations
 		else if (sw.equals("exportiterations")) {
 			set(PRISM_EXPORT_ITERATIONS, true);
@@ -1285,6 +1410,50 @@ public class PrismSettings implements Observer
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
 		}
+		// POMDP solution method
+		else if (sw.equals("pomdpmethod")) {
+			if (i < args.length - 1) {
+				s = args[++i];
+				if (s.equals("grid"))
+					set(PRISM_POMDP_METHOD, "Fixed grid");
+				else if (s.equals("explore"))
+					set(PRISM_POMDP_METHOD, "Belief exploration");
+				else
+					throw new PrismException("Unrecognised option for -" + sw + " switch (options are: grid, explore)");
+			} else {
+				throw new PrismException("No parameter specified for -" + sw + " switch");
+			}
+		}
+		// POMDP belief exploration epsilon
+		else if (sw.equals("pomdpepsilon")) {
+			if (i < args.length - 1) {
+				try {
+					d = Double.parseDouble(args[++i]);
+					if (d < 0)
+						throw new NumberFormatException("");
+					set(PRISM_POMDP_EXPLORE_EPSILON, d);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// POMDP belief exploration max beliefs
+		else if (sw.equals("pomdpmaxbeliefs")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_POMDP_EXPLORE_MAX_BELIEFS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// export probabilities/rewards with up to n significant decimal places
 		else if (sw.equals("exportmodelprecision")) {
 			if (i < args.length - 1) {
@@ -1300,6 +1469,10 @@ public class PrismSettings implements Observer
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
 		}
+		// compress exported files with gzip
+		else if (sw.equals("exportgzip")) {
+			set(PRISM_EXPORT_GZIP, true);
+		}
 
 		// MODEL CHECKING OPTIONS:
 		
@@ -1335,6 +1508,13 @@ public class PrismSettings implements Observer
 		else if (sw.equals("noprobchecks")) {
 			set(PRISM_DO_PROB_CHECKS, false);
 		}
+		// Compilation of model expressions on/off
+		else if (sw.equals("compileexprs")) {
+			set(PRISM_COMPILE_EXPRESSIONS, true);
+		}
+		else if (sw.equals("nocompileexprs")) {
+			set(PRISM_COMPILE_EXPRESSIONS, false);
+		}
 		// Sum round-off threshold
 		else if (sw.equals("sumroundoff")) {
 			if (i < args.length - 1) {
@@ -1555,6 +1735,23 @@ public class PrismSettings implements Observer
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
 		}
+		else if (sw.equals("multiparallel")) {
+			set(PRISM_MULTI_PARALLEL, true);
+		}
+		else if (sw.equals("multimaxgens")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_MULTI_MAX_GENERATORS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		else if (sw.equals("increasefactor")) {
 			if (i < args.length - 1) {
 				try {
@@ -1729,6 +1926,19 @@ public class PrismSettings implements Observer
 				throw new PrismException("The -" + sw + " switch requires one argument (path to the executable)");
 			}
 		}
+		else if (sw.equals("ltl2dacache")) {
+			set(PRISM_LTL2DA_CACHE, true);
+		}
+		else if (sw.equals("noltl2dacache")) {
+			set(PRISM_LTL2DA_CACHE, false);
+		}
+		else if (sw.equals("ltl2dacachedir")) {
+			if (i < args.length - 1) {
+				set(PRISM_LTL2DA_CACHE_DIR, args[++i]);
+			} else {
+				throw new PrismException("The -" + sw + " switch requires one argument (a directory)");
+			}
+		}
 		else if (sw.equals("ltl2dasyntax")) {
 			if (i < args.length - 1) {
 				String syntax = args[++i];
@@ -2066,7 +2276,11 @@ public class PrismSettings implements Observer
 		mainLog.println("-absolute (or -abs) ............ Use absolute error for detecting convergence");
 		mainLog.println("-epsilon <x> (or -e <x>) ....... Set value of epsilon (for convergence check) [default: 1e-6]");
 		mainLog.println("-maxiters <n> .................. Set max number of iterations [default: 10000]");
+		mainLog.println("-threads <n> ................... Set number of threads for parallel computation, where supported [default: 1]");
 		mainLog.println("-gridresolution <n> .............Set resolution for fixed grid approximation (POMDP) [default: 10]");
+		mainLog.println("-pomdpmethod <name> ............ POMDP solution method: grid (fixed grid), explore (belief exploration) [default: grid]");
+		mainLog.println("-pomdpepsilon <x> .............. Set bound gap at which POMDP belief exploration stops [default: 1e-2]");
+		mainLog.println("-pomdpmaxbeliefs <n> ........... Set max number of beliefs to expand in POMDP belief exploration [default: 100000]");
 		
 		mainLog.println();
 		mainLog.println("MODEL CHECKING OPTIONS:");
@@ -2080,6 +2294,7 @@ public class PrismSettings implements Observer
 		mainLog.println("-nofixdl ....................... Do not automatically put self-loops in deadlock states");
 		mainLog.println("-noprobchecks .................. Disable checks on model probabilities/rates");
 		mainLog.println("-sumroundoff <x> ............... Set probability sum threshold [default: 1-e5]");
+		mainLog.println("-compileexprs .................. Compile model expressions for explicit model exploration/simulation");
 		mainLog.println("-zerorewardcheck ............... Check for absence of zero-reward loops");
 		mainLog.println("-nossdetect .................... Disable steady-state detection for CTMC transient computations");
 		mainLog.println("-sccmethod <name> .............. Specify (symbolic) SCC computation method (xiebeerel, lockstep, sccfind)");
@@ -2091,8 +2306,12 @@ public class PrismSettings implements Observer
 		mainLog.println("-exportadvmdp <file> ........... Export an adversary from MDP model checking (as an MDP)");
 		mainLog.println("-ltl2datool <exec> ............. Run executable <exec> to convert LTL formulas to deterministic automata");
 		mainLog.println("-ltl2dasyntax <x> .............. Specify output format for -ltl2datool switch (lbt, spin, spot, rabinizer)");
+		mainLog.println("-noltl2dacache ................. Don't keep/reuse deterministic automata for LTL formulas in memory");
+		mainLog.println("-ltl2dacachedir <dir> .......... Store/reuse deterministic automata for LTL formulas in directory <dir>");
 		mainLog.println("-exportiterations .............. Export vectors for iteration algorithms to file");
 		mainLog.println("-pmaxquotient .................. For Pmax computations in MDPs, compute in the MEC quotient");
+		mainLog.println("-mccache ....................... Reuse precomputations/solutions across properties and constant values");
+		mainLog.println("-batchreach .................... Solve reachability objectives of all properties together (MDPs)");
 		mainLog.println();
 		mainLog.println("MULTI-OBJECTIVE MODEL CHECKING:");
 		mainLog.println("-linprog (or -lp) .............. Use linear programming for multi-objective model checking");
@@ -2112,10 +2331,14 @@ public class PrismSettings implements Observer
 		mainLog.println("-multimaxm <n> ................. Set the maximum box size (M) for mean-payoff objectives.");
 		mainLog.println("-multirounding ................. Enable rounding for the multi-objective engine.");
 		mainLog.println("-baselineaccuracy <n> .......... Baseline accuracy for CQs.");
+		mainLog.println("-multimaxgens <n> .............. Maximal number of point generators per Pareto set for CQs (0 = no limit).");
+		mainLog.println("-multiparallel ................. Compute Pareto sets for CQs in parallel, using -threads (experimental).");
 		mainLog.println("-increasefactor <x> ............ Factor by which accuracy is increased every iteration for CQs.");
 		mainLog.println();
 		mainLog.println("CSG EQUILIBRIA COMPUTATION");
 		mainLog.println("-lpscalefactor <n> ............. Scale factor used when building linear programs for solving matrix games [default: 1.0]");
+		mainLog.println("-lpcache ....................... Cache/warm-start matrix games between value iteration steps (uses more memory)");
+		mainLog.println("-lpcacheepsilon <x> ............ Reuse a state's value if no successor value changed by more than x [default: 0.0]");
 		mainLog.println();
 		mainLog.println("OUTPUT OPTIONS:");
 		mainLog.println("-verbose (or -v) ............... Verbose mode: print out state lists and probability vectors");
@@ -0,0 +1,484 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import common.SafeCast;
+import parser.State;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFormula;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLiteral;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+import prism.PrismUtils;
+
+/**
+ * Compiler for (constant-free) expressions over the variables of a model,
+ * used to speed up explicit model exploration.
+ * <br>
+ * Expressions are translated into trees of evaluator objects that read variable values
+ * from a primitive state vector (see {@link #loadState(State, int[])}),
+ * so that no values are boxed during evaluation.
+ * Only the subset of the language that appears in guards, probabilities/rates and rewards is supported;
+ * {@link #compileBoolean(Expression)} and {@link #compileDouble(Expression)} return null for anything else,
+ * in which case the caller should keep evaluating the expression itself.
+ * <br>
+ * Evaluation matches {@link Expression#evaluate(parser.EvaluateContext)} (in floating-point mode),
+ * except for errors: where the interpreted version would throw an exception (e.g. integer overflow),
+ * the compiled one throws an {@link ArithmeticException}, and the caller should re-evaluate
+ * the original expression to get the corresponding error.
+ */
+public class ExpressionCompiler
+{
+	/** A compiled Boolean-valued expression */
+	@FunctionalInterface
+	public interface BoolEvaluator
+	{
+		boolean evaluate(int[] vars);
+	}
+
+	/** A compiled integer-valued expression */
+	@FunctionalInterface
+	public interface IntEvaluator
+	{
+		int evaluate(int[] vars);
+	}
+
+	/** A compiled double-valued expression */
+	@FunctionalInterface
+	public interface DoubleEvaluator
+	{
+		double evaluate(int[] vars);
+	}
+
+	/**
+	 * Store the values of the variables in a state in a primitive state vector
+	 * (integers as they are, Booleans as 0/1).
+	 * Returns false if this is not possible (some value is missing or of another type),
+	 * in which case compiled expressions cannot be evaluated on the state.
+	 * @param state The state
+	 * @param vars The state vector (of size at least the number of variables)
+	 */
+	public static boolean loadState(State state, int[] vars)
+	{
+		Object[] varValues = state.varValues;
+		if (varValues.length > vars.length) {
+			return false;
+		}
+		for (int i = 0; i < varValues.length; i++) {
+			Object v = varValues[i];
+			if (v instanceof Integer) {
+				vars[i] = (Integer) v;
+			} else if (v instanceof Boolean) {
+				vars[i] = ((Boolean) v) ? 1 : 0;
+			} else {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compile a Boolean-valued expression, or return null if it cannot be compiled.
+	 */
+	public static BoolEvaluator compileBoolean(Expression expr)
+	{
+		try {
+			return compileBool(expr);
+		} catch (PrismLangException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Compile a numerical (integer or double-valued) expression, evaluating to a double,
+	 * or return null if it cannot be compiled.
+	 */
+	public static DoubleEvaluator compileDouble(Expression expr)
+	{
+		try {
+			return compileDbl(expr);
+		} catch (PrismLangException e) {
+			return null;
+		}
+	}
+
+	// Compilation, by type
+
+	private static BoolEvaluator compileBool(Expression expr) throws PrismLangException
+	{
+		if (!(expr.getType() instanceof TypeBool)) {
+			throw new PrismLangException("Cannot compile non-Boolean expression", expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			boolean b = expr.evaluateBoolean();
+			return vars -> b;
+		}
+		if (expr instanceof ExpressionVar) {
+			int v = getVarIndex((ExpressionVar) expr);
+			return vars -> vars[v] != 0;
+		}
+		if (expr instanceof ExpressionFormula) {
+			return compileBool(getDefinition((ExpressionFormula) expr));
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnOp = (ExpressionUnaryOp) expr;
+			BoolEvaluator e = compileBool(exprUnOp.getOperand());
+			switch (exprUnOp.getOperator()) {
+			case ExpressionUnaryOp.NOT:
+				return vars -> !e.evaluate(vars);
+			case ExpressionUnaryOp.PARENTH:
+				return e;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE exprITE = (ExpressionITE) expr;
+			BoolEvaluator c = compileBool(exprITE.getOperand1());
+			BoolEvaluator e1 = compileBool(exprITE.getOperand2());
+			BoolEvaluator e2 = compileBool(exprITE.getOperand3());
+			// Like the interpreter, evaluate both branches
+			return vars -> {
+				boolean b1 = e1.evaluate(vars);
+				boolean b2 = e2.evaluate(vars);
+				return c.evaluate(vars) ? b1 : b2;
+			};
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			return compileBinaryOpBool((ExpressionBinaryOp) expr);
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	private static BoolEvaluator compileBinaryOpBool(ExpressionBinaryOp expr) throws PrismLangException
+	{
+		int op = expr.getOperator();
+		Expression op1 = expr.getOperand1();
+		Expression op2 = expr.getOperand2();
+		switch (op) {
+		case ExpressionBinaryOp.IMPLIES: {
+			BoolEvaluator e1 = compileBool(op1);
+			BoolEvaluator e2 = compileBool(op2);
+			return vars -> !e1.evaluate(vars) || e2.evaluate(vars);
+		}
+		case ExpressionBinaryOp.IFF: {
+			BoolEvaluator e1 = compileBool(op1);
+			BoolEvaluator e2 = compileBool(op2);
+			return vars -> e1.evaluate(vars) == e2.evaluate(vars);
+		}
+		case ExpressionBinaryOp.OR: {
+			BoolEvaluator e1 = compileBool(op1);
+			BoolEvaluator e2 = compileBool(op2);
+			return vars -> e1.evaluate(vars) || e2.evaluate(vars);
+		}
+		case ExpressionBinaryOp.AND: {
+			BoolEvaluator e1 = compileBool(op1);
+			BoolEvaluator e2 = compileBool(op2);
+			return vars -> e1.evaluate(vars) && e2.evaluate(vars);
+		}
+		case ExpressionBinaryOp.EQ:
+		case ExpressionBinaryOp.NE: {
+			boolean eq = (op == ExpressionBinaryOp.EQ);
+			if (op1.getType() instanceof TypeBool && op2.getType() instanceof TypeBool) {
+				BoolEvaluator e1 = compileBool(op1);
+				BoolEvaluator e2 = compileBool(op2);
+				return vars -> (e1.evaluate(vars) == e2.evaluate(vars)) == eq;
+			}
+			if (op1.getType() instanceof TypeInt && op2.getType() instanceof TypeInt) {
+				IntEvaluator e1 = compileInt(op1);
+				IntEvaluator e2 = compileInt(op2);
+				return vars -> (e1.evaluate(vars) == e2.evaluate(vars)) == eq;
+			}
+			// Mixed int/double: compare as doubles (using equality of Double objects, as the interpreter does)
+			DoubleEvaluator e1 = compileDbl(op1);
+			DoubleEvaluator e2 = compileDbl(op2);
+			return vars -> (Double.compare(e1.evaluate(vars), e2.evaluate(vars)) == 0) == eq;
+		}
+		case ExpressionBinaryOp.GT:
+		case ExpressionBinaryOp.GE:
+		case ExpressionBinaryOp.LT:
+		case ExpressionBinaryOp.LE: {
+			if (op1.getType() instanceof TypeInt && op2.getType() instanceof TypeInt) {
+				IntEvaluator e1 = compileInt(op1);
+				IntEvaluator e2 = compileInt(op2);
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return vars -> e1.evaluate(vars) > e2.evaluate(vars);
+				case ExpressionBinaryOp.GE:
+					return vars -> e1.evaluate(vars) >= e2.evaluate(vars);
+				case ExpressionBinaryOp.LT:
+					return vars -> e1.evaluate(vars) < e2.evaluate(vars);
+				default:
+					return vars -> e1.evaluate(vars) <= e2.evaluate(vars);
+				}
+			}
+			DoubleEvaluator e1 = compileDbl(op1);
+			DoubleEvaluator e2 = compileDbl(op2);
+			switch (op) {
+			case ExpressionBinaryOp.GT:
+				return vars -> e1.evaluate(vars) > e2.evaluate(vars);
+			case ExpressionBinaryOp.GE:
+				return vars -> e1.evaluate(vars) >= e2.evaluate(vars);
+			case ExpressionBinaryOp.LT:
+				return vars -> e1.evaluate(vars) < e2.evaluate(vars);
+			default:
+				return vars -> e1.evaluate(vars) <= e2.evaluate(vars);
+			}
+		}
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	private static IntEvaluator compileInt(Expression expr) throws PrismLangException
+	{
+		if (!(expr.getType() instanceof TypeInt)) {
+			throw new PrismLangException("Cannot compile non-integer expression", expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			int i = expr.evaluateInt();
+			return vars -> i;
+		}
+		if (expr instanceof ExpressionVar) {
+			int v = getVarIndex((ExpressionVar) expr);
+			return vars -> vars[v];
+		}
+		if (expr instanceof ExpressionFormula) {
+			return compileInt(getDefinition((ExpressionFormula) expr));
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnOp = (ExpressionUnaryOp) expr;
+			IntEvaluator e = compileInt(exprUnOp.getOperand());
+			switch (exprUnOp.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return vars -> Math.negateExact(e.evaluate(vars));
+			case ExpressionUnaryOp.PARENTH:
+				return e;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE exprITE = (ExpressionITE) expr;
+			BoolEvaluator c = compileBool(exprITE.getOperand1());
+			IntEvaluator e1 = compileInt(exprITE.getOperand2());
+			IntEvaluator e2 = compileInt(exprITE.getOperand3());
+			return vars -> {
+				int i1 = e1.evaluate(vars);
+				int i2 = e2.evaluate(vars);
+				return c.evaluate(vars) ? i1 : i2;
+			};
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp exprBinOp = (ExpressionBinaryOp) expr;
+			IntEvaluator e1 = compileInt(exprBinOp.getOperand1());
+			IntEvaluator e2 = compileInt(exprBinOp.getOperand2());
+			switch (exprBinOp.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return vars -> Math.addExact(e1.evaluate(vars), e2.evaluate(vars));
+			case ExpressionBinaryOp.MINUS:
+				return vars -> Math.subtractExact(e1.evaluate(vars), e2.evaluate(vars));
+			case ExpressionBinaryOp.TIMES:
+				return vars -> Math.multiplyExact(e1.evaluate(vars), e2.evaluate(vars));
+			}
+		}
+		if (expr instanceof ExpressionFunc) {
+			return compileFuncInt((ExpressionFunc) expr);
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	private static IntEvaluator compileFuncInt(ExpressionFunc expr) throws PrismLangException
+	{
+		switch (expr.getNameCode()) {
+		case ExpressionFunc.MIN:
+		case ExpressionFunc.MAX: {
+			boolean min = expr.getNameCode() == ExpressionFunc.MIN;
+			IntEvaluator[] es = new IntEvaluator[expr.getNumOperands()];
+			for (int i = 0; i < es.length; i++) {
+				es[i] = compileInt(expr.getOperand(i));
+			}
+			return vars -> {
+				int res = es[0].evaluate(vars);
+				for (int i = 1; i < es.length; i++) {
+					res = min ? Math.min(res, es[i].evaluate(vars)) : Math.max(res, es[i].evaluate(vars));
+				}
+				return res;
+			};
+		}
+		case ExpressionFunc.FLOOR: {
+			DoubleEvaluator e = compileDbl(expr.getOperand(0));
+			return vars -> SafeCast.toIntExact(Math.floor(e.evaluate(vars)));
+		}
+		case ExpressionFunc.CEIL: {
+			DoubleEvaluator e = compileDbl(expr.getOperand(0));
+			return vars -> SafeCast.toIntExact(Math.ceil(e.evaluate(vars)));
+		}
+		case ExpressionFunc.ROUND: {
+			DoubleEvaluator e = compileDbl(expr.getOperand(0));
+			return vars -> SafeCast.toIntExact(Math.round(e.evaluate(vars)));
+		}
+		case ExpressionFunc.POW: {
+			IntEvaluator e1 = compileInt(expr.getOperand(0));
+			IntEvaluator e2 = compileInt(expr.getOperand(1));
+			return vars -> {
+				int base = e1.evaluate(vars);
+				int exp = e2.evaluate(vars);
+				if (exp < 0)
+					throw new ArithmeticException("Negative exponent not allowed for integer power");
+				return SafeCast.toIntExact(Math.pow(base, exp));
+			};
+		}
+		case ExpressionFunc.MOD: {
+			IntEvaluator e1 = compileInt(expr.getOperand(0));
+			IntEvaluator e2 = compileInt(expr.getOperand(1));
+			return vars -> {
+				int i1 = e1.evaluate(vars);
+				int i2 = e2.evaluate(vars);
+				if (i2 <= 0)
+					throw new ArithmeticException("Attempt to compute modulo with non-positive divisor");
+				int rem = i1 % i2;
+				return (rem < 0) ? rem + i2 : rem;
+			};
+		}
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	private static DoubleEvaluator compileDbl(Expression expr) throws PrismLangException
+	{
+		Type type = expr.getType();
+		// Integer-valued expressions are compiled as such, then cast
+		if (type instanceof TypeInt) {
+			IntEvaluator e = compileInt(expr);
+			return vars -> e.evaluate(vars);
+		}
+		if (!(type instanceof TypeDouble)) {
+			throw new PrismLangException("Cannot compile non-numerical expression", expr);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			double d = expr.evaluateDouble();
+			return vars -> d;
+		}
+		if (expr instanceof ExpressionFormula) {
+			return compileDbl(getDefinition((ExpressionFormula) expr));
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnOp = (ExpressionUnaryOp) expr;
+			DoubleEvaluator e = compileDbl(exprUnOp.getOperand());
+			switch (exprUnOp.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return vars -> -e.evaluate(vars);
+			case ExpressionUnaryOp.PARENTH:
+				return e;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE exprITE = (ExpressionITE) expr;
+			BoolEvaluator c = compileBool(exprITE.getOperand1());
+			DoubleEvaluator e1 = compileDbl(exprITE.getOperand2());
+			DoubleEvaluator e2 = compileDbl(exprITE.getOperand3());
+			return vars -> {
+				double d1 = e1.evaluate(vars);
+				double d2 = e2.evaluate(vars);
+				return c.evaluate(vars) ? d1 : d2;
+			};
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp exprBinOp = (ExpressionBinaryOp) expr;
+			DoubleEvaluator e1 = compileDbl(exprBinOp.getOperand1());
+			DoubleEvaluator e2 = compileDbl(exprBinOp.getOperand2());
+			switch (exprBinOp.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return vars -> e1.evaluate(vars) + e2.evaluate(vars);
+			case ExpressionBinaryOp.MINUS:
+				return vars -> e1.evaluate(vars) - e2.evaluate(vars);
+			case ExpressionBinaryOp.TIMES:
+				return vars -> e1.evaluate(vars) * e2.evaluate(vars);
+			case ExpressionBinaryOp.DIVIDE:
+				return vars -> e1.evaluate(vars) / e2.evaluate(vars);
+			}
+		}
+		if (expr instanceof ExpressionFunc) {
+			return compileFuncDbl((ExpressionFunc) expr);
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	private static DoubleEvaluator compileFuncDbl(ExpressionFunc expr) throws PrismLangException
+	{
+		switch (expr.getNameCode()) {
+		case ExpressionFunc.MIN:
+		case ExpressionFunc.MAX: {
+			boolean min = expr.getNameCode() == ExpressionFunc.MIN;
+			DoubleEvaluator[] es = new DoubleEvaluator[expr.getNumOperands()];
+			for (int i = 0; i < es.length; i++) {
+				es[i] = compileDbl(expr.getOperand(i));
+			}
+			return vars -> {
+				double res = es[0].evaluate(vars);
+				for (int i = 1; i < es.length; i++) {
+					res = min ? Math.min(res, es[i].evaluate(vars)) : Math.max(res, es[i].evaluate(vars));
+				}
+				return res;
+			};
+		}
+		case ExpressionFunc.POW: {
+			DoubleEvaluator e1 = compileDbl(expr.getOperand(0));
+			DoubleEvaluator e2 = compileDbl(expr.getOperand(1));
+			return vars -> Math.pow(e1.evaluate(vars), e2.evaluate(vars));
+		}
+		case ExpressionFunc.LOG: {
+			DoubleEvaluator e1 = compileDbl(expr.getOperand(0));
+			DoubleEvaluator e2 = compileDbl(expr.getOperand(1));
+			return vars -> PrismUtils.log(e1.evaluate(vars), e2.evaluate(vars));
+		}
+		}
+		throw new PrismLangException("Cannot compile expression", expr);
+	}
+
+	// Utility methods
+
+	private static int getVarIndex(ExpressionVar expr) throws PrismLangException
+	{
+		if (expr.getPrime() || expr.getIndex() < 0) {
+			throw new PrismLangException("Cannot compile variable reference", expr);
+		}
+		return expr.getIndex();
+	}
+
+	private static Expression getDefinition(ExpressionFormula expr) throws PrismLangException
+	{
+		if (expr.getDefinition() == null) {
+			throw new PrismLangException("Cannot compile undefined formula", expr);
+		}
+		return expr.getDefinition();
+	}
+}
@@ -19,7 +19,10 @@ import prism.ModelType;
 import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismLangException;
+import prism.PrismSettings;
 import prism.RewardGenerator;
+import simulator.ExpressionCompiler.BoolEvaluator;
+import simulator.ExpressionCompiler.DoubleEvaluator;
 
 public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerator
 {
@@ -49,6 +52,11 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 	protected boolean transitionListBuilt;
 	// Global clock invariant (conjunction of per-module invariants)
 	protected Expression invariant;
+	// Compiled reward guards/values, indexed by reward struct, then item (if enabled, null otherwise)
+	protected BoolEvaluator[][] compiledRewardGuards;
+	protected DoubleEvaluator[][] compiledRewards;
+	// State vector for evaluating compiled reward expressions
+	protected int[] rewardStateVector;
 	
 	/**
 	 * Build a ModulesFileModelGenerator for a particular PRISM model, represented by a ModuleFile instance.
@@ -87,6 +95,23 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 		}
 	}
 	
+	/**
+	 * Create a copy of this model generator, for the same model and constant values,
+	 * but with its own (independent) storage for model exploration.
+	 * This allows several copies to be used to explore a model concurrently.
+	 */
+	public ModulesFileModelGenerator createCopy() throws PrismException
+	{
+		ModulesFileModelGenerator copy = new ModulesFileModelGenerator(originalModulesFile, parent);
+		// Use the same constant values as this one (if they were set separately)
+		if (mfConstants != null && copy.mfConstants != mfConstants) {
+			copy.modulesFile = modulesFile;
+			copy.mfConstants = mfConstants;
+			copy.initialise();
+		}
+		return copy;
+	}
+	
 	/**
 	 * (Re-)Initialise the class ready for model exploration
 	 * (can only be done once any constants needed have been provided)
@@ -107,6 +132,32 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 			updater.initialiseCSG();
 		transitionList = new TransitionList();
 		transitionListBuilt = false;
+		
+		// Compile reward structs, if requested
+		if (parent.getSettings().getBoolean(PrismSettings.PRISM_COMPILE_EXPRESSIONS) && !modelType.realTime()) {
+			compileRewards();
+		}
+	}
+	
+	/**
+	 * Compile the guards and values of all reward struct items, for evaluation on a state vector.
+	 */
+	private void compileRewards()
+	{
+		int numRewardStructs = modulesFile.getNumRewardStructs();
+		compiledRewardGuards = new BoolEvaluator[numRewardStructs][];
+		compiledRewards = new DoubleEvaluator[numRewardStructs][];
+		for (int r = 0; r < numRewardStructs; r++) {
+			RewardStruct rewStr = modulesFile.getRewardStruct(r);
+			int n = rewStr.getNumItems();
+			compiledRewardGuards[r] = new BoolEvaluator[n];
+			compiledRewards[r] = new DoubleEvaluator[n];
+			for (int i = 0; i < n; i++) {
+				compiledRewardGuards[r][i] = ExpressionCompiler.compileBoolean(rewStr.getStates(i));
+				compiledRewards[r][i] = ExpressionCompiler.compileDouble(rewStr.getReward(i));
+			}
+		}
+		rewardStateVector = new int[varList.getNumVars()];
 	}
 	
 	// Methods for ModelInfo interface
@@ -627,11 +678,11 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 		RewardStruct rewStr = modulesFile.getRewardStruct(r);
 		int n = rewStr.getNumItems();
 		double d = 0;
+		boolean compiled = loadRewardStateVector(state);
 		for (int i = 0; i < n; i++) {
 			if (!rewStr.getRewardStructItem(i).isTransitionReward()) {
-				Expression guard = rewStr.getStates(i);
-				if (guard.evaluateBoolean(modulesFile.getConstantValues(), state)) {
-					double rew = rewStr.getReward(i).evaluateDouble(modulesFile.getConstantValues(), state);
+				if (evaluateRewardGuard(r, i, state, compiled)) {
+					double rew = evaluateReward(r, i, state, compiled);
 					// Check reward is finite/non-negative (would be checked at model construction time,
 					// but more fine grained error reporting can be done here)
 					// Note use of original model since modulesFile may have been simplified
@@ -655,17 +706,16 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 		double d = 0;
 		RewardStruct rewStr = modulesFile.getRewardStruct(r);
 		int n = rewStr.getNumItems();
-		Expression guard;
+		boolean compiled = loadRewardStateVector(state);
 
 		if (modelType != ModelType.CSG) {
 			String cmdAction;
 			for (int i = 0; i < n; i++) {
 				if (rewStr.getRewardStructItem(i).isTransitionReward()) {
-					guard = rewStr.getStates(i);
 					cmdAction = rewStr.getSynch(i);
 					if (action == null ? (cmdAction.isEmpty()) : action.equals(cmdAction)) {
-						if (guard.evaluateBoolean(modulesFile.getConstantValues(), state)) {
-							double rew = rewStr.getReward(i).evaluateDouble(modulesFile.getConstantValues(), state);
+						if (evaluateRewardGuard(r, i, state, compiled)) {
+							double rew = evaluateReward(r, i, state, compiled);
 							// Check reward is finite/non-negative (would be checked at model construction time,
 							// but more fine grained error reporting can be done here)
 							// Note use of original model since modulesFile may have been simplified
@@ -692,7 +742,6 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 			}
 			for (int i = 0; i < n; i++) {
 				if (rewStr.getRewardStructItem(i).isTransitionReward()) {
-					guard = rewStr.getStates(i);
 					indexes.clear();
 					for (int j : rewStr.getRewardStructItem(i).getSynchIndices()) {
 						if (j != 0)
@@ -701,8 +750,8 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 					tmp = (BitSet) indexes.clone();
 					tmp.andNot(active);
 					if (indexes.isEmpty() || (!indexes.isEmpty() && tmp.isEmpty())) {
-						if (guard.evaluateBoolean(modulesFile.getConstantValues(), state)) {
-							double rew = rewStr.getReward(i).evaluateDouble(modulesFile.getConstantValues(), state);
+						if (evaluateRewardGuard(r, i, state, compiled)) {
+							double rew = evaluateReward(r, i, state, compiled);
 							// Check reward is finite/non-negative (would be checked at model construction time,
 							// but more fine grained error reporting can be done here)
 							// Note use of original model since modulesFile may have been simplified
@@ -725,6 +774,48 @@ public class ModulesFileModelGenerator implements ModelGenerator, RewardGenerato
 
 	// Local utility methods
 	
+	/**
+	 * Load state 'state' into the state vector used for compiled reward expressions.
+	 * Returns false if compilation is disabled or the state cannot be loaded.
+	 */
+	private boolean loadRewardStateVector(State state)
+	{
+		return compiledRewardGuards != null && ExpressionCompiler.loadState(state, rewardStateVector);
+	}
+	
+	/**
+	 * Evaluate the guard of the 'i'th item of the 'r'th reward struct in state 'state',
+	 * using the compiled version if 'compiled' is true and it is available.
+	 * If evaluation of the latter fails, the original is used instead, so that any errors are reported as usual.
+	 */
+	private boolean evaluateRewardGuard(int r, int i, State state, boolean compiled) throws PrismLangException
+	{
+		if (compiled && compiledRewardGuards[r][i] != null) {
+			try {
+				return compiledRewardGuards[r][i].evaluate(rewardStateVector);
+			} catch (ArithmeticException e) {
+				// Fall through
+			}
+		}
+		return modulesFile.getRewardStruct(r).getStates(i).evaluateBoolean(modulesFile.getConstantValues(), state);
+	}
+	
+	/**
+	 * Evaluate the value of the 'i'th item of the 'r'th reward struct in state 'state',
+	 * using the compiled version if 'compiled' is true and it is available (falling back as for guards).
+	 */
+	private double evaluateReward(int r, int i, State state, boolean compiled) throws PrismLangException
+	{
+		if (compiled && compiledRewards[r][i] != null) {
+			try {
+				return compiledRewards[r][i].evaluate(rewardStateVector);
+			} catch (ArithmeticException e) {
+				// Fall through
+			}
+		}
+		return modulesFile.getRewardStruct(r).getReward(i).evaluateDouble(modulesFile.getConstantValues(), state);
+	}
+	
 	/**
 	 * Returns the current list of available transitions, generating it first if this has not yet been done.
 	 */
@@ -48,12 +48,34 @@ public class RandomNumberGenerator
 	 */
 	public RandomNumberGenerator()
 	{
-		random = new MersenneTwister(new Date());
+		this(new MersenneTwister(new Date()));
+	}
+
+	/**
+	 * Create a new random number generator with the specified seed.
+	 */
+	public RandomNumberGenerator(int seed)
+	{
+		this(new MersenneTwister(seed));
+	}
+
+	private RandomNumberGenerator(MersenneTwister random)
+	{
+		this.random = random;
 		uniform = new Uniform(random);
 		// Create exponential generator (rate 1.0 but this is ignored from now on)
 		exponential = new Exponential(1.0, random);
 	}
 
+	/**
+	 * Create a new random number generator, seeded from this one,
+	 * e.g. to provide a separate stream of random numbers for another thread.
+	 */
+	public RandomNumberGenerator split()
+	{
+		return new RandomNumberGenerator(random.nextInt());
+	}
+
 	/**
 	 * Pick a (uniformly distributed) random integer in the range [0,...,n-1].
 	 */
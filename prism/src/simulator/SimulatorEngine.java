@@ -30,6 +30,11 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import parser.State;
 import parser.Values;
@@ -50,6 +55,7 @@ import prism.PrismFileLog;
 import prism.PrismLangException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
+import prism.PrismSettings;
 import prism.PrismUtils;
 import prism.Result;
 import prism.ResultsCollection;
@@ -59,6 +65,7 @@ import simulator.method.SimulationMethod;
 import simulator.sampler.Sampler;
 import strat.Strategy;
 import strat.StrategyGenerator;
+import strat.StrategyWithStates;
 import userinterface.graph.Graph;
 
 /**
@@ -1997,7 +2004,6 @@ public class SimulatorEngine extends PrismComponent
 		boolean deadlocksFound = false;
 		boolean allDone = false;
 		boolean allKnown = false;
-		boolean someUnknownButBounded = false;
 		boolean shouldStopSampling = false;
 		// Path stats
 		double avgPathLength = 0;
@@ -2009,6 +2015,15 @@ public class SimulatorEngine extends PrismComponent
 		long start, stop;
 		double time_taken;
 
+		// Seed the random number generator, if required
+		int seed = getSettings().getInteger(PrismSettings.SIMULATOR_SEED);
+		if (seed != 0) {
+			rng = new RandomNumberGenerator(seed);
+		}
+		// Set up parallel sampling, if required/possible
+		ParallelSampler parallelSampler = createParallelSampler(initialState, maxPathLength);
+		PathSample sample;
+
 		// Start
 		start = System.currentTimeMillis();
 		mainLog.print("\nSampling progress: [");
@@ -2016,73 +2031,67 @@ public class SimulatorEngine extends PrismComponent
 
 		// Main sampling loop
 		iters = 0;
-		while (!shouldStopSampling) {
-
-			// See if all properties are done; if so, stop sampling
-			allDone = true;
-			for (Sampler sampler : propertySamplers) {
-				if (!sampler.getSimulationMethod().shouldStopNow(iters, sampler))
-					allDone = false;
-			}
-			if (allDone)
-				break;
-
-			// Display progress (of slowest property)
-			percentageDone = 100;
-			for (Sampler sampler : propertySamplers) {
-				percentageDone = Math.min(percentageDone, sampler.getSimulationMethod().getProgress(iters, sampler));
-			}
-			if (percentageDone > lastPercentageDone) {
-				lastPercentageDone = percentageDone;
-				mainLog.print(" " + lastPercentageDone + "%");
-				mainLog.flush();
-			}
-
-			iters++;
-
-			// Start the new path for this iteration (sample)
-			initialisePath(initialState);
+		try {
+			while (!shouldStopSampling) {
 
-			// Generate a path
-			allKnown = false;
-			someUnknownButBounded = false;
-			i = 0;
-			while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
-				// Check status of samplers
-				allKnown = true;
-				someUnknownButBounded = false;
+				// See if all properties are done; if so, stop sampling
+				allDone = true;
 				for (Sampler sampler : propertySamplers) {
-					if (!sampler.isCurrentValueKnown()) {
-						allKnown = false;
-						if (sampler.needsBoundedNumSteps())
-							someUnknownButBounded = true;
-					}
+					if (!sampler.getSimulationMethod().shouldStopNow(iters, sampler))
+						allDone = false;
 				}
-				// Stop when all answers are known or we have reached max path length
-				// (but don't stop yet if there are "bounded" samplers with unkown values)
-				if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
+				if (allDone)
 					break;
-				// Make a random transition
-				automaticTransition();
-				i++;
-			}
 
-			// TODO: Detect deadlocks so we can report a warning
+				// Display progress (of slowest property)
+				percentageDone = 100;
+				for (Sampler sampler : propertySamplers) {
+					percentageDone = Math.min(percentageDone, sampler.getSimulationMethod().getProgress(iters, sampler));
+				}
+				if (percentageDone > lastPercentageDone) {
+					lastPercentageDone = percentageDone;
+					mainLog.print(" " + lastPercentageDone + "%");
+					mainLog.flush();
+				}
+
+				iters++;
+
+				// Generate a path for this iteration (sample), or get the next one sampled in parallel
+				if (parallelSampler == null) {
+					i = generatePath(initialState, maxPathLength);
+					allKnown = allSamplersKnown();
+					sample = null;
+				} else {
+					sample = parallelSampler.nextSample();
+					i = sample.length;
+					allKnown = sample.values != null;
+				}
 
-			// Update path length statistics
-			avgPathLength = (avgPathLength * (iters - 1) + (i)) / iters;
-			minPathFound = (iters == 1) ? i : Math.min(minPathFound, i);
-			maxPathFound = (iters == 1) ? i : Math.max(maxPathFound, i);
+				// TODO: Detect deadlocks so we can report a warning
 
-			// If not all samplers could produce values, this an error
-			if (!allKnown) {
-				stoppedEarly = true;
-				break;
-			}
+				// Update path length statistics
+				avgPathLength = (avgPathLength * (iters - 1) + (i)) / iters;
+				minPathFound = (iters == 1) ? i : Math.min(minPathFound, i);
+				maxPathFound = (iters == 1) ? i : Math.max(maxPathFound, i);
 
-			// Update state of samplers based on last path
-			for (Sampler sampler : propertySamplers) {
-				sampler.updateStats();
+				// If not all samplers could produce values, this an error
+				if (!allKnown) {
+					stoppedEarly = true;
+					break;
+				}
+
+				// Update state of samplers based on last path
+				for (int j = 0; j < propertySamplers.size(); j++) {
+					if (sample == null) {
+						propertySamplers.get(j).updateStats();
+					} else {
+						propertySamplers.get(j).updateStats(sample.values[j]);
+					}
+				}
+			}
+		} finally {
+			if (parallelSampler != null) {
+				parallelSampler.shutdown();
 			}
 		}
 
@@ -2118,6 +2127,231 @@ public class SimulatorEngine extends PrismComponent
 		}
 	}
 
+	/**
+	 * Generate a single (on-the-fly) path for sampling the currently loaded properties,
+	 * starting from the specified initial state and stopping when the values of all samplers
+	 * are known or the maximum path length is reached (but continuing while there are
+	 * "bounded" samplers with unknown values). Returns the length of the path.
+	 * @param initialState Initial state (if null, is selected randomly)
+	 * @param maxPathLength The maximum path length for sampling
+	 */
+	private long generatePath(State initialState, long maxPathLength) throws PrismException
+	{
+		boolean allKnown = false;
+		boolean someUnknownButBounded = false;
+		long i = 0;
+
+		// Start the new path
+		initialisePath(initialState);
+
+		// Generate a path
+		while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
+			// Check status of samplers
+			allKnown = true;
+			someUnknownButBounded = false;
+			for (Sampler sampler : propertySamplers) {
+				if (!sampler.isCurrentValueKnown()) {
+					allKnown = false;
+					if (sampler.needsBoundedNumSteps())
+						someUnknownButBounded = true;
+				}
+			}
+			// Stop when all answers are known or we have reached max path length
+			// (but don't stop yet if there are "bounded" samplers with unkown values)
+			if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
+				break;
+			// Make a random transition
+			automaticTransition();
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Check whether the values of all samplers are known for the current path.
+	 */
+	private boolean allSamplersKnown()
+	{
+		for (Sampler sampler : propertySamplers) {
+			if (!sampler.isCurrentValueKnown())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The outcome of a path sampled by a {@link ParallelSampler} worker.
+	 */
+	private static class PathSample
+	{
+		/** Path length */
+		long length;
+		/** Sampler values (null if not all values were known) */
+		Object[] values;
+		/** Error during path generation (if any) */
+		PrismException error;
+	}
+
+	/**
+	 * Samples paths in parallel, using a pool of threads, each with its own
+	 * simulator engine (with copies of the model generator, strategy and samplers)
+	 * and its own random number generator, split from the main one.
+	 * Paths are generated in rounds, each worker producing a batch of paths per round,
+	 * and are then returned one at a time, in a fixed (round-robin) order of workers.
+	 * So results are reproducible for a fixed seed and number of threads and,
+	 * since paths are consumed sequentially, stopping criteria are checked exactly as usual.
+	 */
+	private class ParallelSampler
+	{
+		/** Initial and maximum size of the batch of paths generated by each worker per round */
+		static final int MIN_BATCH = 8;
+		static final int MAX_BATCH = 1024;
+
+		State initialState;
+		long maxPathLength;
+		ExecutorService executor;
+		List<SimulatorEngine> workers;
+		int batch;
+		/** Paths sampled in the last round but not yet returned */
+		List<PathSample> samples;
+		int next;
+
+		/**
+		 * Get the next sampled path, generating a new round of paths if needed.
+		 * If an error occurred when generating the path, it is thrown.
+		 */
+		PathSample nextSample() throws PrismException
+		{
+			if (next == samples.size()) {
+				generateRound();
+			}
+			PathSample sample = samples.get(next++);
+			if (sample.error != null) {
+				throw sample.error;
+			}
+			return sample;
+		}
+
+		/**
+		 * Generate a new batch of paths on each worker, and interleave them.
+		 */
+		void generateRound() throws PrismException
+		{
+			List<Callable<List<PathSample>>> tasks = new ArrayList<>();
+			for (SimulatorEngine worker : workers) {
+				int n = batch;
+				tasks.add(() -> worker.generatePathSamples(initialState, maxPathLength, n));
+			}
+			List<List<PathSample>> results = new ArrayList<>();
+			try {
+				for (Future<List<PathSample>> future : executor.invokeAll(tasks)) {
+					results.add(future.get());
+				}
+			} catch (InterruptedException e) {
+				throw new PrismException("Sampling was interrupted");
+			} catch (ExecutionException e) {
+				throw new PrismException("Error during sampling: " + e.getCause());
+			}
+			samples = new ArrayList<>();
+			next = 0;
+			for (int k = 0; k < batch; k++) {
+				for (List<PathSample> result : results) {
+					if (k < result.size()) {
+						samples.add(result.get(k));
+					}
+				}
+			}
+			batch = Math.min(2 * batch, MAX_BATCH);
+		}
+
+		void shutdown()
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generate (up to) {@code n} paths for sampling the currently loaded properties,
+	 * recording the outcome of each. Generation stops early if an error occurs,
+	 * the last sample recording it.
+	 */
+	private List<PathSample> generatePathSamples(State initialState, long maxPathLength, int n)
+	{
+		List<PathSample> samples = new ArrayList<>(n);
+		for (int k = 0; k < n; k++) {
+			PathSample sample = new PathSample();
+			samples.add(sample);
+			try {
+				sample.length = generatePath(initialState, maxPathLength);
+			} catch (PrismException e) {
+				sample.error = e;
+				break;
+			}
+			if (allSamplersKnown()) {
+				sample.values = new Object[propertySamplers.size()];
+				for (int j = 0; j < propertySamplers.size(); j++) {
+					sample.values[j] = propertySamplers.get(j).getCurrentValue();
+				}
+			}
+		}
+		return samples;
+	}
+
+	/**
+	 * Create a {@link ParallelSampler} to sample paths for the currently loaded properties
+	 * in parallel, if more than one thread is to be used and the model generator
+	 * (and strategy, if loaded) supports it; otherwise return null.
+	 * @param initialState Initial state (if null, is selected randomly)
+	 * @param maxPathLength The maximum path length for sampling
+	 */
+	private ParallelSampler createParallelSampler(State initialState, long maxPathLength) throws PrismException
+	{
+		int numThreads = getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS);
+		if (numThreads <= 1 || !(modelGen instanceof ModulesFileModelGenerator)) {
+			return null;
+		}
+		if (stratGen != null && !(stratGen instanceof StrategyWithStates)) {
+			return null;
+		}
+		ParallelSampler parallelSampler = new ParallelSampler();
+		parallelSampler.initialState = initialState;
+		parallelSampler.maxPathLength = maxPathLength;
+		parallelSampler.workers = new ArrayList<>(numThreads);
+		for (int w = 0; w < numThreads; w++) {
+			ModulesFileModelGenerator workerModelGen = ((ModulesFileModelGenerator) modelGen).createCopy();
+			RewardGenerator workerRewardGen = rewardGen;
+			if (rewardGen == modelGen) {
+				workerRewardGen = workerModelGen;
+			} else if (rewardGen instanceof ModulesFileModelGenerator) {
+				workerRewardGen = ((ModulesFileModelGenerator) rewardGen).createCopy();
+			}
+			SimulatorEngine worker = new SimulatorEngine(this);
+			worker.loadModel(workerModelGen, workerRewardGen);
+			if (stratGen != null) {
+				worker.loadStrategy(((StrategyWithStates) stratGen).createCopy());
+				worker.setStrategyEnforced(stratEnforced);
+			}
+			worker.createNewOnTheFlyPath();
+			for (Expression prop : properties) {
+				Expression propNew = prop.deepCopy();
+				worker.properties.add(propNew);
+				worker.propertySamplers.add(Sampler.createSampler(propNew, workerModelGen, workerRewardGen));
+			}
+			worker.rng = rng.split();
+			parallelSampler.workers.add(worker);
+		}
+		parallelSampler.batch = ParallelSampler.MIN_BATCH;
+		parallelSampler.samples = new ArrayList<>();
+		// (use daemon threads, so that an error part way through cannot keep the JVM alive)
+		parallelSampler.executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		});
+		mainLog.println("Sampling paths in parallel, using " + numThreads + " threads");
+		return parallelSampler;
+	}
+
 	/**
 	 * Halt the sampling algorithm in its tracks (not implemented).
 	 */
@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,6 +51,8 @@ import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismSettings;
+import simulator.ExpressionCompiler.BoolEvaluator;
+import simulator.ExpressionCompiler.DoubleEvaluator;
 
 public class Updater extends PrismComponent
 {
@@ -73,6 +76,15 @@ public class Updater extends PrismComponent
 	// For real-time models, info about which vars are clocks (bitset over variable indices)
 	protected BitSet clockVars;
 	
+	// Compiled expressions (if enabled, null otherwise; elements are null if not compilable):
+	// guards of each command, indexed by module, then command
+	protected BoolEvaluator[][] compiledGuards;
+	// probabilities/rates of each Updates object
+	protected Map<Updates, DoubleEvaluator[]> compiledProbs;
+	// State vector for evaluating compiled expressions, and whether it holds the current state
+	protected int[] stateVector;
+	protected boolean stateVectorLoaded;
+	
 	// Temporary storage:
 
 	// Element i,j of updateLists is a list of the updates from module i labelled with action j
@@ -97,7 +109,39 @@ public class Updater extends PrismComponent
 	// Entry i of actionIndexPlayerMap contains a mapping from indexes to players
 	protected Map<Integer,Integer> actionIndexPlayerMap;
 	
-	protected ArrayList<ArrayList<Set<BitSet>>> expansions;
+	
+	// Precompiled info about the commands of each module (for CSGs), indexed by module, then command:
+	// the (non-zero) indices of the actions that each command synchronises on
+	protected int[][][] commandSynchs;
+	// the index of the first action of each command (0 if unlabelled)
+	protected int[][] commandActions;
+	// a player owning several of the actions of each command (-1 if none), an error if it is enabled
+	protected int[][] commandConflicts;
+	// the index of the first command in the same module with the same set of actions
+	protected int[][] commandSynchSets;
+	// Element j of actionPlayers is the player owning action j (-1 if none)
+	protected int[] actionPlayers;
+	
+	// Temporary storage for CSGs (reused for each state):
+	
+	// Element i of activeCommands lists the enabled commands of module i (numActiveCommands[i] of them)
+	protected int[][] activeCommands;
+	protected int[] numActiveCommands;
+	// Element p of playerMoves lists the (ascending) indices of actions available to player p
+	// (numPlayerMoves[p] of them)
+	protected int[][] playerMoves;
+	protected int[] numPlayerMoves;
+	// The current joint action (index of action for each player, -1 if idle),
+	// the position of each player's action in playerMoves, and whether it is specified by the player
+	protected int[] jointAction;
+	protected int[] jointPositions;
+	protected boolean[] jointCovered;
+	// The commands of a module that apply to the current joint action
+	protected int[] matchingCommands;
+	// The choices built for a state
+	protected List<ChoiceListFlexi> csgChoices;
+	// Element p of enabledActions is the set of actions (incl. idle) of player p over all choices
+	protected BitSet[] enabledActions;
 	
 	public Updater(ModulesFile modulesFile, VarList varList)
 	{
@@ -161,6 +205,38 @@ public class Updater extends PrismComponent
 		}
 		clockGuards = new HashMap<Updates, Expression>();
 		numPlayers = modulesFile.getNumPlayers();
+		
+		// Compile guards/probabilities, if requested
+		// (not for real-time models, where guards are evaluated partially)
+		if (parent.getSettings().getBoolean(PrismSettings.PRISM_COMPILE_EXPRESSIONS) && !modelType.realTime()) {
+			compileExpressions();
+		}
+	}
+
+	/**
+	 * Compile the guards and probabilities/rates of all commands, for evaluation on a state vector.
+	 */
+	private void compileExpressions()
+	{
+		compiledGuards = new BoolEvaluator[numModules][];
+		compiledProbs = new IdentityHashMap<Updates, DoubleEvaluator[]>();
+		for (int m = 0; m < numModules; m++) {
+			Module module = modulesFile.getModule(m);
+			int n = module.getNumCommands();
+			compiledGuards[m] = new BoolEvaluator[n];
+			for (int c = 0; c < n; c++) {
+				Command command = module.getCommand(c);
+				compiledGuards[m][c] = ExpressionCompiler.compileBoolean(command.getGuard());
+				Updates ups = command.getUpdates();
+				DoubleEvaluator[] probs = new DoubleEvaluator[ups.getNumUpdates()];
+				for (int i = 0; i < probs.length; i++) {
+					Expression p = ups.getProbability(i);
+					probs[i] = (p == null) ? (vars -> 1.0) : ExpressionCompiler.compileDouble(p);
+				}
+				compiledProbs.put(ups, probs);
+			}
+		}
+		stateVector = new int[varList.getNumVars()];
 	}
 
 	/**
@@ -170,7 +246,6 @@ public class Updater extends PrismComponent
 	public void initialiseCSG() throws PrismLangException {
 		playersActionsIndexes = new BitSet[numPlayers];
 		actionIndexPlayerMap = new HashMap<Integer, Integer>();
-		expansions = new ArrayList<ArrayList<Set<BitSet>>>();
 		if (numPlayers > 0) {	
 			int index;
 			BitSet seen = new BitSet();
@@ -181,13 +256,11 @@ public class Updater extends PrismComponent
 			}
 			for (int m = 0; m < numModules; m++) {
 				playersIndexes[m] = modulesFile.getPlayerForModule(modulesFile.getModuleName(m));
-				expansions.add(m, new ArrayList<Set<BitSet>>());
 				if (playersIndexes[m] != -1) {
 					for (int c = 0; c < modulesFile.getModule(m).getNumCommands(); c++) {
 						if (modulesFile.getModule(m).getCommand(c).isUnlabelled()) {
 							throw new PrismLangException("Commands in a player-owned module cannot be unlabelled", modulesFile.getModule(m).getCommand(c));
 						}
-						expansions.get(m).add(c, new HashSet<BitSet>());
 						index = modulesFile.getModule(m).getCommand(c).getSynchIndices().get(0);
 						if (!seen.get(index) || playersActionsIndexes[playersIndexes[m]].get(index)) {
 							seen.set(index);
@@ -200,11 +273,6 @@ public class Updater extends PrismComponent
 																   + " had already been associated to a different module. Action sets must be disjoint");
 					}
 				}
-				else {
-					for (int c = 0; c < modulesFile.getModule(m).getNumCommands(); c++) {
-						expansions.get(m).add(c, new HashSet<BitSet>());
-					}
-				}
 			}
 			//System.out.println("-- actionIndexPlayerMap");
 			//System.out.println(actionIndexPlayerMap);
@@ -222,7 +290,76 @@ public class Updater extends PrismComponent
 					}
 				}
 			}
+			compileCommandsCSG();
+		}
+	}
+
+	/**
+	 * Precompute info about the actions of each command needed to enumerate joint actions
+	 * in {@link #calculateTransitionsCSG(State, TransitionList)}, and set up temporary storage.
+	 */
+	private void compileCommandsCSG()
+	{
+		actionPlayers = new int[numSynchs + 1];
+		Arrays.fill(actionPlayers, -1);
+		for (Map.Entry<Integer, Integer> e : actionIndexPlayerMap.entrySet()) {
+			actionPlayers[e.getKey()] = e.getValue();
+		}
+		commandSynchs = new int[numModules][][];
+		commandActions = new int[numModules][];
+		commandConflicts = new int[numModules][];
+		commandSynchSets = new int[numModules][];
+		activeCommands = new int[numModules][];
+		numActiveCommands = new int[numModules];
+		int maxNumCommands = 0;
+		for (int m = 0; m < numModules; m++) {
+			Module module = modulesFile.getModule(m);
+			int n = module.getNumCommands();
+			maxNumCommands = Math.max(maxNumCommands, n);
+			commandSynchs[m] = new int[n][];
+			commandActions[m] = new int[n];
+			commandConflicts[m] = new int[n];
+			commandSynchSets[m] = new int[n];
+			activeCommands[m] = new int[n];
+			BitSet[] synchSets = new BitSet[n];
+			for (int c = 0; c < n; c++) {
+				List<Integer> indices = module.getCommand(c).getSynchIndices();
+				commandActions[m][c] = indices.get(0);
+				commandSynchs[m][c] = indices.stream().mapToInt(Integer::intValue).filter(i -> i != 0).toArray();
+				synchSets[c] = new BitSet();
+				for (int i : indices) {
+					synchSets[c].set(i);
+				}
+				commandSynchSets[m][c] = c;
+				for (int c2 = 0; c2 < c; c2++) {
+					if (synchSets[c2].equals(synchSets[c])) {
+						commandSynchSets[m][c] = c2;
+						break;
+					}
+				}
+				commandConflicts[m][c] = -1;
+				for (int p = 0; p < numPlayers; p++) {
+					BitSet tmp = (BitSet) synchSets[c].clone();
+					tmp.and(playersActionsIndexes[p]);
+					if (tmp.cardinality() > 1) {
+						commandConflicts[m][c] = p;
+						break;
+					}
+				}
+			}
 		}
+		matchingCommands = new int[maxNumCommands];
+		playerMoves = new int[numPlayers][];
+		numPlayerMoves = new int[numPlayers];
+		enabledActions = new BitSet[numPlayers];
+		for (int p = 0; p < numPlayers; p++) {
+			playerMoves[p] = new int[playersActionsIndexes[p].cardinality()];
+			enabledActions[p] = new BitSet();
+		}
+		jointAction = new int[numPlayers];
+		jointPositions = new int[numPlayers];
+		jointCovered = new boolean[numPlayers];
+		csgChoices = new ArrayList<ChoiceListFlexi>();
 	}
 	
 	/**
@@ -253,6 +390,7 @@ public class Updater extends PrismComponent
 		
 		// Clear lists/bitsets
 		transitionList.clear();
+		loadStateVector(state);
 		for (i = 0; i < numModules; i++) {
 			for (j = 0; j < numSynchs + 1; j++) {
 				updateLists.get(i).get(j).clear();
@@ -360,67 +498,6 @@ public class Updater extends PrismComponent
 		//System.out.println(transitionList);
 	}
 	
-	public void calculateEnabledCommands(int m, BitSet active, State state) throws PrismLangException 
-	{
-		//System.out.println("\n## state " + state);
-		//System.out.println("\n## calculateEnabledCommands, module " + m);
-		Module module;
-		Command command;
-		BitSet tmp = new BitSet();
-		BitSet indexes = new BitSet();
-		HashSet<BitSet> seen = new HashSet<BitSet>();
-		int i, e, n, p;
-		
-		module = modulesFile.getModule(m);
-		n = module.getNumCommands();
-		e = -1;
-
-		for (i = 0; i < n; i++) {
-			command = module.getCommand(i);
-			expansions.get(m).get(i).clear();
-			if (command.getSynchIndices().get(0) == 0) {
-				p = playersIndexes[m];
-				if (p != -1) {
-					throw new PrismLangException("Module " + modulesFile.getModuleName(m) 
-				   										   + " from to player " + p
-				   										   + " has an unlabelled command");
-				}
-				else if (command.getGuard().evaluateBoolean(state)) {
-					if (e == -1) {
-						active.set(i);
-						e = i;
-					}
-					else 
-						throw new PrismLangException("Module " + modulesFile.getModuleName(m) 
-															   + " has multiple unlabeled active commands in state " + state);
-				}
-			}
-			else {
-				if (command.getGuard().evaluateBoolean(state)) {
-					indexes.clear();
-					for(int j : command.getSynchIndices()) {
-						indexes.set(j);
-					}
-					for (p = 0; p < numPlayers; p++) {
-						tmp.clear();
-						tmp.or(indexes);
-						tmp.andNot(playersActionsIndexes[p]);
-						if (tmp.cardinality() < indexes.cardinality() - 1)
-							throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple actions associated to player " 
-															   	   + modulesFile.getPlayerName(p) + " in command " + i);
-					}
-					if (!seen.contains(indexes)) {
-						seen.add((BitSet) indexes.clone());
-						active.set(i);
-					}
-					else 
-						throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple active commands labeled "
-															   + command.getSynchs() + " in state " + state);
-				}
-			}
-		}
-	}
-		
 	/**
 	 * Makes the product of all indexes in indexes[p] (for player p) and stores the result in products.   
 	 * @param products Set where the products are stored. 
@@ -464,215 +541,318 @@ public class Updater extends PrismComponent
 		}
 	}	
 	
-	public void expandCommand(Set<BitSet> products, int m, int c)
-	{
-		BitSet bidx = new BitSet();
-		BitSet tmp;
-		for (int i : modulesFile.getModule(m).getCommand(c).getSynchIndices())
-			if (i != 0)
-				bidx.set(i);
-		for (BitSet prod : products) {
-			tmp = new BitSet();
-			tmp.or(bidx);
-			tmp.andNot(prod);
-			if (tmp.isEmpty()) {
-				expansions.get(m).get(c).add(prod);
-			}
-		}
-	}
-	
-	public void calculateTransitionsCSG(State state, TransitionList transitionList) throws PrismLangException 
+	/**
+	 * Determine the set of outgoing transitions from state 'state' of a CSG and store in 'transitionList'.
+	 * There is one choice for each joint action, i.e. one action (or idling) for each player,
+	 * comprising the commands (of any module) which synchronise on actions from it.
+	 * Joint actions are enumerated using the temporary storage set up in {@link #initialiseCSG()}.
+	 * Choices are added in lexicographic order of the joint actions (see {@link #nextJointAction()}),
+	 * without any allocation other than for the choices themselves.
+	 * @param state State from which to explore
+	 * @param transitionList TransitionList object in which to store result
+	 */
+	public void calculateTransitionsCSG(State state, TransitionList transitionList) throws PrismLangException
 	{
-		//System.out.println("\n## state " + state);
-		//System.out.println("## playersActionsIndexes " + Arrays.toString(playersActionsIndexes));
-		//System.out.println("## actionIndexPlayerMap " + actionIndexPlayerMap);
-		List<ChoiceListFlexi> chs = new ArrayList<ChoiceListFlexi>(); // used to store the final choices from a given state
-		List<Integer> indexes; // used to store the indexes of commands at different points
-		Set<BitSet> products = new HashSet<BitSet>(); // used to store store products of indexes at different points
-		Set<BitSet> synchs;
-		BitSet[] active = new BitSet[numModules];
-		BitSet[] moves = new BitSet[numPlayers]; // indexes of possible actions taken by each player
-		BitSet[] enabled  = new BitSet[numPlayers]; // number of actions which will be actually finally available for each player, used only for checking
-		BitSet tmp = new BitSet();
 		ChoiceListFlexi chfl;
-		Command cmd1, cmd2;
-		Updates ups; // (temp) used to store updates at different points
-		String warning, missing;
-		int[] actions; // (temp) used to store ordered indexes at different points
-		int cidx, i, id, j, m, n, nchs, p;
-		boolean[] msynch = new boolean[numModules];
-		transitionList.clear();				
-		Arrays.fill(moves, null);
+		int i, k, m, n, nchs, p, t, numJoints;
+		transitionList.clear();
+		csgChoices.clear();
+		loadStateVector(state);
+		// Find the enabled commands of each module, and hence the actions available to each player
+		Arrays.fill(numPlayerMoves, 0);
 		for (m = 0; m < numModules; m++) {
-			active[m] = new BitSet();
-			calculateEnabledCommands(m, active[m], state);
+			calculateActiveCommands(m, state);
 			p = playersIndexes[m];
 			if (p != -1) {
-				if (moves[p] == null)
-					moves[p] = new BitSet();
-				for (cidx = active[m].nextSetBit(0); cidx >= 0; cidx = active[m].nextSetBit(cidx + 1)) {	
-					indexes = modulesFile.getModule(m).getCommand(cidx).getSynchIndices();
-					moves[p].set(indexes.get(0));			
+				for (k = 0; k < numActiveCommands[m]; k++) {
+					addPlayerMove(p, commandActions[m][activeCommands[m][k]]);
 				}
 			}
 		}
-		//System.out.println("-- active " + Arrays.toString(active));
-		//System.out.println("-- moves " + Arrays.toString(moves));
-		indexProduct(products, moves, new BitSet(), 0);
-		for (m = 0; m < numModules; m++) {
-			for (i = active[m].nextSetBit(0); i >= 0; i = active[m].nextSetBit(i + 1)) {	
-				//System.out.println(modulesFile.getModule(m).getCommand(i));
-				expandCommand(products, m, i);
+		numJoints = 1;
+		for (p = 0; p < numPlayers; p++) {
+			numJoints *= Math.max(1, numPlayerMoves[p]);
+		}
+		// Go through the joint actions (in lexicographic order of the players' action indices),
+		// checking that the action of each player is specified by some command of the player,
+		// and build a choice for each fully specified one
+		nchs = 0;
+		firstJointAction();
+		for (t = 0; t < numJoints; t++, nextJointAction()) {
+			if (isJointActionMissing()) {
+				mainLog.printWarning("Missing specification for action product " + jointActionToString(jointAction) + " in state " + state + ".");
+			} else if ((chfl = buildChoiceCSG(nchs, state)) != null) {
+				csgChoices.add(chfl);
+				nchs++;
 			}
 		}
-		for (m = 0; m < numModules; m++) {
-			for (i = active[m].nextSetBit(0); i >= 0; i = active[m].nextSetBit(i + 1)) {	
-				cmd1 = modulesFile.getModule(m).getCommand(i);
-				if (!(cmd1.getSynchIndices().get(0) == 0)) {
-					for (j = active[m].nextSetBit(0); j >= 0; j = active[m].nextSetBit(j + 1)) {	
-						cmd2 = modulesFile.getModule(m).getCommand(j);
-						if (i != j) {
-							for (BitSet prod : expansions.get(m).get(i)) {
-								if (!(cmd2.getSynchIndices().get(0) == 0)) {
-									if (cmd2.getSynchIndices().get(0) == cmd1.getSynchIndices().get(0)) {
-										if (cmd2.getSynchIndices().size() < cmd1.getSynchIndices().size()) {
-											expansions.get(m).get(j).remove(prod);
-										}
-									}
-								}
-								else { 
-									expansions.get(m).get(j).remove(prod);
-								}
-							}
-						}
-					}
-				}
+		// Check that the choices cover all combinations of the players' actions
+		n = 1;
+		for (p = 0; p < numPlayers; p++) {
+			enabledActions[p].clear();
+			for (ChoiceListFlexi ch : csgChoices) {
+				// Setting to size + 1 in the case of idle actions as they are given index -1 which cannot be set
+				enabledActions[p].set((ch.getActions()[p] > 0) ? ch.getActions()[p] : numSynchs + 1);
 			}
+			n *= enabledActions[p].cardinality();
 		}
-		//System.out.println("-- products " + products);
-		//System.out.println("-- expansions " + expansions);						
-		synchs = new HashSet<BitSet>(products);
-		for (BitSet prod : products) {
-			tmp.clear();
-			tmp.or(prod);
-			//System.out.println("-- product " + prod);
-			for (m = 0; m < numModules; m++) {
-				if (playersIndexes[m] != -1) {
-					if (active[m].isEmpty())
-						continue;
-					for (i = active[m].nextSetBit(0); i >= 0; i = active[m].nextSetBit(i + 1)) {	
-						if (expansions.get(m).get(i).contains(prod)) {
-							tmp.clear(modulesFile.getModule(m).getCommand(i).getSynchIndices().get(0));
-						}
-					}
+		if (n != csgChoices.size()) {
+			Set<BitSet> products = new HashSet<BitSet>();
+			indexProduct(products, enabledActions, new BitSet(), 0);
+			for (ChoiceListFlexi ch : csgChoices) {
+				BitSet prod = new BitSet();
+				for (p = 0; p < numPlayers; p++) {
+					prod.set((ch.getActions()[p] > 0) ? ch.getActions()[p] : numSynchs + 1);
 				}
+				products.remove(prod);
 			}
-			//System.out.println("-- tmp " + tmp);
-			if (!tmp.isEmpty()) {
-				warning = "Missing specification for action product [";
-				missing = "";
-				for (id = prod.nextSetBit(0); id >= 0; id = prod.nextSetBit(id + 1)) {	
-					missing += modulesFile.getSynch(id - 1) + ((prod.nextSetBit(id + 1) > 0)? "," : "]");
+			for (BitSet prod : products) {
+				int[] actions = new int[numPlayers];
+				Arrays.fill(actions, -1);
+				for (i = prod.nextSetBit(0); i >= 0 && i <= numSynchs; i = prod.nextSetBit(i + 1)) {
+					actions[actionPlayers[i]] = i;
 				}
-				warning += missing;
-				warning += " in state " + state + ".";
-				mainLog.printWarning(warning);
-				synchs.remove(prod);
+				mainLog.printWarning("Missing specification for action product " + jointActionToString(actions) + " in state " + state + ".");
 			}
+			throw new PrismLangException("Error in model specification.");
 		}
-		nchs = 0;
-		//System.out.println("-- active " + Arrays.toString(active));
-		for (BitSet prod : synchs) {
-			actions = new int[numPlayers];
-			Arrays.fill(actions, -1);
-			chfl = null;
-			//System.out.println("\n-- prod");
-			//System.out.println(prod);
-			for (m = 0; m < numModules; m++) {
-				msynch[m] = false;
-				//System.out.println("--\n module " + m + " " + modulesFile.getModuleName(m));
-				for (i = active[m].nextSetBit(0); i >= 0; i = active[m].nextSetBit(i + 1)) {	
-					ups = modulesFile.getModule(m).getCommand(i).getUpdates();
-					//System.out.println(modulesFile.getModule(m).getCommand(i));
-					//System.out.println("-- expansions " + i);
-					//System.out.println(expansions.get(m).get(i));
-					//System.out.println(modulesFile.getModule(m).getCommand(i).getSynchIndices());
-					if (expansions.get(m).get(i).contains(prod)) {
-						if (!msynch[m]) {
-							//System.out.println("## selected " + i);
-							if (chfl == null) {
-								chfl = processUpdatesAndCreateNewChoice(nchs, ups, state);
-								nchs++;
-							}
-							else
-								processUpdatesAndAddToProduct(ups, state, chfl);
-							msynch[m] = true;
-						}
-						else {
-							//System.out.println();
-							//System.out.println(prod);
-							throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple active commands for action "
-																								  + "\'" + modulesFile.getModule(m).getCommand(i).getSynch() + "\'" + " in state " + state);
-						}
-					}
+		for (ChoiceListFlexi ch : csgChoices) {
+			transitionList.add(ch, ch.getActions());
+		}
+	}
+
+	/**
+	 * Build the choice for joint action {@code jointAction} in state {@code state},
+	 * i.e. the product of the updates of the commands of each module which apply to it,
+	 * or return null if there are none.
+	 * @param index Index of the choice (see {@link #processUpdatesAndCreateNewChoice})
+	 * @param state State from which to explore
+	 */
+	private ChoiceListFlexi buildChoiceCSG(int index, State state) throws PrismLangException
+	{
+		ChoiceListFlexi chfl = null;
+		for (int m = 0; m < numModules; m++) {
+			int n = findMatchingCommands(m);
+			if (n > 1) {
+				throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple active commands for action "
+						+ "\'" + modulesFile.getModule(m).getCommand(matchingCommands[1]).getSynch() + "\'" + " in state " + state);
+			}
+			if (n == 1) {
+				Updates ups = modulesFile.getModule(m).getCommand(matchingCommands[0]).getUpdates();
+				if (chfl == null) {
+					chfl = processUpdatesAndCreateNewChoice(index, ups, state);
+				} else {
+					processUpdatesAndAddToProduct(ups, state, chfl);
 				}
 			}
-			for (i = prod.nextSetBit(0); i >= 0; i = prod.nextSetBit(i + 1)) {
-				actions[actionIndexPlayerMap.get(i)] = i;
+		}
+		if (chfl != null) {
+			chfl.setActions(jointAction.clone());
+		}
+		return chfl;
+	}
+
+	/**
+	 * Determine the enabled commands of module {@code m} in state {@code state},
+	 * storing them in {@code activeCommands[m]} (and their number in {@code numActiveCommands[m]}).
+	 * An exception is thrown if a non-player module has several enabled unlabelled commands,
+	 * or a module has several enabled commands with the same actions.
+	 */
+	private void calculateActiveCommands(int m, State state) throws PrismLangException
+	{
+		Module module = modulesFile.getModule(m);
+		int[] active = activeCommands[m];
+		int i, k, n = 0;
+		boolean unlabelled = false;
+		for (i = 0; i < module.getNumCommands(); i++) {
+			Command command = module.getCommand(i);
+			if (!evaluateGuard(m, i, state))
+				continue;
+			if (commandActions[m][i] == 0) {
+				if (unlabelled)
+					throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple unlabeled active commands in state " + state);
+				unlabelled = true;
+			} else {
+				if (commandConflicts[m][i] != -1)
+					throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple actions associated to player "
+							+ modulesFile.getPlayerName(commandConflicts[m][i]) + " in command " + i);
+				for (k = 0; k < n; k++) {
+					if (commandActions[m][active[k]] != 0 && commandSynchSets[m][active[k]] == commandSynchSets[m][i])
+						throw new PrismLangException("Module " + modulesFile.getModuleName(m) + " has multiple active commands labeled "
+								+ command.getSynchs() + " in state " + state);
+				}
 			}
-			if (chfl != null) {
-				//System.out.println("-- chfl " + chfl);
-				chfl.setActions(actions);
-				chs.add(chfl);
+			active[n++] = i;
+		}
+		numActiveCommands[m] = n;
+	}
+
+	/**
+	 * Add action {@code a} to the (ascending, duplicate-free) list of actions available to player {@code p}.
+	 */
+	private void addPlayerMove(int p, int a)
+	{
+		int[] moves = playerMoves[p];
+		int k = numPlayerMoves[p];
+		while (k > 0 && moves[k - 1] > a)
+			k--;
+		if (k > 0 && moves[k - 1] == a)
+			return;
+		System.arraycopy(moves, k, moves, k + 1, numPlayerMoves[p] - k);
+		moves[k] = a;
+		numPlayerMoves[p]++;
+	}
+
+	/**
+	 * Set {@code jointAction} to the first joint action (in lexicographic order).
+	 */
+	private void firstJointAction()
+	{
+		for (int p = 0; p < numPlayers; p++) {
+			jointPositions[p] = 0;
+			jointAction[p] = (numPlayerMoves[p] > 0) ? playerMoves[p][0] : -1;
+		}
+	}
+
+	/**
+	 * Advance {@code jointAction} to the next joint action (in lexicographic order).
+	 */
+	private void nextJointAction()
+	{
+		for (int p = numPlayers - 1; p >= 0; p--) {
+			if (numPlayerMoves[p] == 0)
+				continue;
+			if (++jointPositions[p] < numPlayerMoves[p]) {
+				jointAction[p] = playerMoves[p][jointPositions[p]];
+				return;
 			}
-		}	
-		n = 1;
-		for (p = 0; p < numPlayers; p++) {
-			enabled[p] = new BitSet();
-			for (ChoiceListFlexi ch : chs) { 
-				// Setting to size + 1 in the case of idle actions as they are given index -1 which cannot be set
-				enabled[p].set((ch.getActions()[p] > 0)? ch.getActions()[p] : modulesFile.getSynchs().size() + 1); 
-			}
-			n *= enabled[p].cardinality();
-		}				
-		products.clear();
-		/*
-		System.out.println("\n-- chs " + chs);
-		System.out.println(modulesFile.getSynchs());
-		for (ChoiceListFlexi ch : chs) {
-			System.out.println(ch);
-			System.out.println(Arrays.toString(ch.getActions()));
-		}	
-		*/
-		if (n != chs.size()) {
-			indexProduct(products, enabled, new BitSet(), 0);
-			BitSet tmp1 = new BitSet();
-			for (ChoiceListFlexi ch : chs) { 
-				tmp1.clear();
-				for (int idx : ch.getActions()) {
-					tmp1.set(idx);
+			jointPositions[p] = 0;
+			jointAction[p] = playerMoves[p][0];
+		}
+	}
+
+	/**
+	 * Does command {@code c} of module {@code m} synchronise only on actions in {@code jointAction}?
+	 */
+	private boolean commandMatchesJointAction(int m, int c)
+	{
+		for (int a : commandSynchs[m][c]) {
+			int p = actionPlayers[a];
+			if (p == -1 || jointAction[p] != a)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Find the enabled commands of module {@code m} that apply to {@code jointAction},
+	 * storing them in {@code matchingCommands} and returning how many there are.
+	 * A command applies if it synchronises only on actions in the joint action
+	 * and is not overridden by another such command, i.e. one which is labelled,
+	 * if it is unlabelled, or one with the same first action but more actions to synchronise on.
+	 */
+	private int findMatchingCommands(int m)
+	{
+		int[] active = activeCommands[m];
+		int i, j, k, l, n = 0;
+		boolean overridden;
+		for (k = 0; k < numActiveCommands[m]; k++) {
+			j = active[k];
+			if (!commandMatchesJointAction(m, j))
+				continue;
+			overridden = false;
+			for (l = 0; l < numActiveCommands[m] && !overridden; l++) {
+				i = active[l];
+				if (i != j && commandActions[m][i] != 0 && commandMatchesJointAction(m, i)) {
+					overridden = commandActions[m][j] == 0
+							|| (commandActions[m][i] == commandActions[m][j] && commandSynchs[m][j].length < commandSynchs[m][i].length);
 				}
-				products.remove(tmp1);
 			}
-			for (BitSet tmp2 : products) {
-				warning = "Missing specification for action product [";
-				missing = "";
-				for (id = tmp2.nextSetBit(0); id >= 0; id = tmp2.nextSetBit(id + 1)) {	
-					missing += modulesFile.getSynch(id - 1) + ((tmp2.nextSetBit(id + 1) > 0)? "," : "]");
-				}
-				warning += missing;
-				warning += " in state " + state + ".";
-				mainLog.printWarning(warning);
+			if (!overridden)
+				matchingCommands[n++] = j;
+		}
+		return n;
+	}
+
+	/**
+	 * Is the action of some player in {@code jointAction} not specified by
+	 * an applicable command in one of the player's modules?
+	 */
+	private boolean isJointActionMissing()
+	{
+		Arrays.fill(jointCovered, false);
+		for (int m = 0; m < numModules; m++) {
+			if (playersIndexes[m] == -1)
+				continue;
+			int n = findMatchingCommands(m);
+			for (int k = 0; k < n; k++) {
+				int a = commandActions[m][matchingCommands[k]];
+				jointCovered[actionPlayers[a]] = true;
 			}
-			throw new PrismLangException("Error in model specification.");
 		}
-		for (ChoiceListFlexi ch : chs) {
-			transitionList.add(ch, ch.getActions());
-		}	
+		for (int p = 0; p < numPlayers; p++) {
+			if (jointAction[p] != -1 && !jointCovered[p])
+				return true;
+		}
+		return false;
 	}
-		
+
+	/**
+	 * Get a string representation of a joint action, listing its actions in ascending order of index.
+	 */
+	private String jointActionToString(int[] actions)
+	{
+		int[] sorted = Arrays.stream(actions).filter(a -> a > 0).sorted().toArray();
+		String s = "[";
+		for (int k = 0; k < sorted.length; k++) {
+			s += modulesFile.getSynch(sorted[k] - 1) + ((k < sorted.length - 1) ? "," : "");
+		}
+		return s + "]";
+	}
+
 	// Private helpers
 	
+	/**
+	 * Load state 'state' into the state vector used for compiled expressions (if enabled).
+	 */
+	private void loadStateVector(State state)
+	{
+		stateVectorLoaded = compiledGuards != null && ExpressionCompiler.loadState(state, stateVector);
+	}
+	
+	/**
+	 * Evaluate the guard of the 'c'th command of the 'm'th module in (global) state 'state',
+	 * using the compiled version if available. If evaluation of the latter fails,
+	 * the original is used instead, so that any errors are reported as usual.
+	 */
+	private boolean evaluateGuard(int m, int c, State state) throws PrismLangException
+	{
+		if (stateVectorLoaded && compiledGuards[m][c] != null) {
+			try {
+				return compiledGuards[m][c].evaluate(stateVector);
+			} catch (ArithmeticException e) {
+				// Fall through
+			}
+		}
+		return modulesFile.getModule(m).getCommand(c).getGuard().evaluateBoolean(state);
+	}
+	
+	/**
+	 * Evaluate the 'i'th probability/rate of an Updates object in (global) state 'state',
+	 * using the compiled versions 'probs' if non-null (and falling back to the original as for guards).
+	 */
+	private double evaluateProbability(Updates ups, int i, DoubleEvaluator[] probs, State state) throws PrismLangException
+	{
+		if (probs != null && probs[i] != null) {
+			try {
+				return probs[i].evaluate(stateVector);
+			} catch (ArithmeticException e) {
+				// Fall through
+			}
+		}
+		return ups.getProbabilityInState(i, state);
+	}
+	
 	/**
 	 * Determine the enabled updates for the 'm'th module from (global) state 'state'.
 	 * Update information in updateLists, enabledSynchs and enabledModules.
@@ -700,7 +880,7 @@ public class Updater extends PrismComponent
 					guardSat = true;
 				}
 			} else {
-				guardSat = command.getGuard().evaluateBoolean(state);
+				guardSat = evaluateGuard(m, i, state);
 			}
 			// If the command is enabled, update stored info
 			if (guardSat) {
@@ -735,9 +915,10 @@ public class Updater extends PrismComponent
 		ch.setModuleOrActionIndex(moduleOrActionIndex);
 		n = ups.getNumUpdates();
 		sum = 0;
+		DoubleEvaluator[] probs = stateVectorLoaded ? compiledProbs.get(ups) : null;
 		for (i = 0; i < n; i++) {
 			// Compute probability/rate
-			p = ups.getProbabilityInState(i, state);
+			p = evaluateProbability(ups, i, probs, state);
 			// Check for non-finite/NaN probabilities/rates
 			if (!Double.isFinite(p) || p < 0) {
 				String s = modelType.choicesSumToOne() ? "Probability" : "Rate";
@@ -93,6 +93,12 @@ public abstract class Sampler
 	 */
 	public abstract void updateStats();
 
+	/**
+	 * Update the statistics for the sampler with the value for a path generated elsewhere,
+	 * as returned by {@link #getCurrentValue()} for a copy of this sampler (e.g. on another thread).
+	 */
+	public abstract void updateStats(Object value);
+
 	/**
 	 * Get the current value of the sampler.
 	 */
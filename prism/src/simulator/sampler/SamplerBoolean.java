@@ -69,6 +69,14 @@ public abstract class SamplerBoolean extends Sampler
 			numTrue++;
 	}
 
+	@Override
+	public void updateStats(Object value)
+	{
+		// Store the (un-negated) value, as if it had been computed here
+		this.value = ((Boolean) value) != negated;
+		updateStats();
+	}
+
 	@Override
 	public Object getCurrentValue()
 	{
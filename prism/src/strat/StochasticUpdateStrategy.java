@@ -28,8 +28,6 @@ package strat;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.PrintStream;
 import java.math.BigInteger;
 import java.text.NumberFormat;
@@ -72,6 +70,8 @@ import parma_polyhedra_library.Linear_Expression;
 import parma_polyhedra_library.Variable;
 import prism.Prism.StrategyExportType;
 import strat.StrategyInfo.Memory;
+import prism.ParallelExporter;
+import prism.PrismChannelLog;
 import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismLog;
@@ -431,19 +431,10 @@ public class StochasticUpdateStrategy extends StrategyExplicit
 	//@Override
 	public void exportToFile(String filename)
 	{
-		FileWriter out = null;
-		try {
-			out = new FileWriter(filename);
-			out.write(this.toString());
-			out.flush();
-		} catch (IOException e) {
+		try (PrismLog out = PrismChannelLog.create(filename, false)) {
+			exportActions(out);
+		} catch (PrismException e) {
 			e.printStackTrace();
-		} finally {
-			if (out != null)
-				try {
-					out.close();
-				} catch (IOException e) {
-				}
 		}
 	}
 
@@ -1731,7 +1722,8 @@ public class StochasticUpdateStrategy extends StrategyExplicit
 	@Override
 	public void exportActions(PrismLog out)
 	{
-		out.print(this.toString());
+		// Written as a single item (the strategy is not stored per state)
+		ParallelExporter.export(out, 1, false, (i, log) -> log.print(this.toString()));
 	}
 
 	@Override
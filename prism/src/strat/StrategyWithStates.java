@@ -35,7 +35,7 @@ import prism.PrismException;
  * Base class for implementations of Strategy
  * with additional support to query by State (i.e., StrategyGenerator)
  */
-public abstract class StrategyWithStates implements Strategy, StrategyGenerator
+public abstract class StrategyWithStates implements Strategy, StrategyGenerator, Cloneable
 {
 	// State look-up functionality
 	
@@ -107,4 +107,17 @@ public abstract class StrategyWithStates implements Strategy, StrategyGenerator
 	{
 		return currentMemory;
 	}
+	
+	/**
+	 * Create a (shallow) copy of this strategy generator, which shares the strategy
+	 * but tracks its own current state/memory, so that copies can be used concurrently.
+	 */
+	public StrategyWithStates createCopy()
+	{
+		try {
+			return (StrategyWithStates) clone();
+		} catch (CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
 }
@@ -0,0 +1,104 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import parma_polyhedra_library.C_Polyhedron;
+import parma_polyhedra_library.Coefficient;
+import parma_polyhedra_library.Generator;
+import parma_polyhedra_library.Generator_System;
+import parma_polyhedra_library.Generator_Type;
+import parma_polyhedra_library.Linear_Expression;
+import parma_polyhedra_library.Linear_Expression_Sum;
+import parma_polyhedra_library.Linear_Expression_Times;
+import parma_polyhedra_library.Polyhedron;
+import parma_polyhedra_library.Variable;
+import prism.PrismException;
+
+/**
+ * These tests need the PPL native library, and are skipped if it cannot be loaded.
+ */
+public class PPLSupportTest
+{
+	private static boolean pplLoaded;
+
+	@BeforeAll
+	public static void initPPL()
+	{
+		try {
+			PPLSupport.initPPL();
+			pplLoaded = true;
+		} catch (PrismException | LinkageError e) {
+			pplLoaded = false;
+		}
+	}
+
+	/** Integer points of a convex polygon, none of which is redundant */
+	private static final long[][] POLYGON = { { 0, 0 }, { 6, 0 }, { 8, 2 }, { 8, 5 }, { 5, 8 }, { 2, 8 }, { 0, 6 } };
+
+	private static Polyhedron polygon()
+	{
+		Generator_System gs = new Generator_System();
+		for (long[] x : POLYGON) {
+			Linear_Expression le = new Linear_Expression_Sum(new Linear_Expression_Times(new Coefficient(BigInteger.valueOf(x[0])), new Variable(0)),
+					new Linear_Expression_Times(new Coefficient(BigInteger.valueOf(x[1])), new Variable(1)));
+			gs.add(Generator.point(le, new Coefficient(BigInteger.ONE)));
+		}
+		return new C_Polyhedron(gs);
+	}
+
+	private static List<List<Double>> points(Polyhedron p) throws PrismException
+	{
+		List<List<Double>> points = new ArrayList<>();
+		for (Generator g : p.minimized_generators()) {
+			if (g.type() == Generator_Type.POINT)
+				points.add(PPLSupport.getGeneratorAsVector(g, 2));
+		}
+		return points;
+	}
+
+	@Test
+	public void testLimitPointGeneratorsSmallEnough() throws PrismException
+	{
+		assumeTrue(pplLoaded, "PPL not available");
+		Polyhedron p = polygon();
+		double[] error = { -1.0 };
+		assertSame(p, PPLSupport.limitPointGenerators(p, POLYGON.length, error));
+		assertEquals(0.0, error[0]);
+	}
+
+	@Test
+	public void testLimitPointGeneratorsErrorBound() throws PrismException
+	{
+		assumeTrue(pplLoaded, "PPL not available");
+		Polyhedron p = polygon();
+		for (int maxPoints = 1; maxPoints < POLYGON.length; maxPoints++) {
+			double[] error = { -1.0 };
+			Polyhedron q = PPLSupport.limitPointGenerators(p, maxPoints, error);
+			List<List<Double>> kept = points(q);
+			assertEquals(maxPoints, kept.size());
+			// result under-approximates p
+			assertTrue(p.contains(q));
+			// reported error is the largest distance from a point of p to the closest kept point
+			double maxDist = 0.0;
+			for (long[] x : POLYGON) {
+				double minDist = Double.POSITIVE_INFINITY;
+				for (List<Double> y : kept) {
+					minDist = Math.min(minDist, Math.hypot(x[0] - y.get(0), x[1] - y.get(1)));
+				}
+				maxDist = Math.max(maxDist, minDist);
+			}
+			assertTrue(maxDist > 0.0);
+			assertEquals(maxDist, error[0], 1e-12);
+		}
+	}
+}